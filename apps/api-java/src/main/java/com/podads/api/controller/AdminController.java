@@ -0,0 +1,165 @@
+package com.podads.api.controller;
+
+import com.podads.infrastructure.brandsafety.BlocklistService;
+import com.podads.infrastructure.brandsafety.BlocklistSnapshot;
+import com.podads.infrastructure.floors.FloorPriceService;
+import com.podads.infrastructure.floors.FloorPriceTable;
+import com.podads.infrastructure.experiments.ExperimentConfig;
+import com.podads.infrastructure.experiments.ExperimentService;
+import com.podads.infrastructure.model.ModelScoringService;
+import com.podads.infrastructure.rotation.CreativeRotationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Operational endpoints for reference data that is normally refreshed in the background.
+ */
+@RestController
+@RequestMapping("/v1/admin")
+public class AdminController {
+    private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
+    private final BlocklistService blocklistService;
+    private final ModelScoringService modelScoringService;
+    private final FloorPriceService floorPriceService;
+    private final CreativeRotationService creativeRotationService;
+    private final ExperimentService experimentService;
+
+    public AdminController(BlocklistService blocklistService, ModelScoringService modelScoringService,
+                           FloorPriceService floorPriceService, CreativeRotationService creativeRotationService,
+                           ExperimentService experimentService) {
+        this.blocklistService = blocklistService;
+        this.modelScoringService = modelScoringService;
+        this.floorPriceService = floorPriceService;
+        this.creativeRotationService = creativeRotationService;
+        this.experimentService = experimentService;
+    }
+
+    @GetMapping("/blocklist")
+    public ResponseEntity<Map<String, Object>> blocklist() {
+        return ResponseEntity.ok(summary(blocklistService.snapshot()));
+    }
+
+    /**
+     * Reload the blocklist now instead of waiting for the poller - used for urgent takedowns.
+     */
+    @PostMapping("/blocklist/reload")
+    public ResponseEntity<Map<String, Object>> reloadBlocklist() {
+        BlocklistSnapshot snapshot = blocklistService.reload();
+        logger.info("Blocklist reload requested", Map.of("version", snapshot.getVersion()));
+        return ResponseEntity.ok(summary(snapshot));
+    }
+
+    @GetMapping("/model")
+    public ResponseEntity<Map<String, Object>> model() {
+        return ResponseEntity.ok(summary(modelScoringService.current()));
+    }
+
+    /**
+     * Load the model file now instead of waiting for the poller - used to roll out or roll back a model.
+     */
+    @PostMapping("/model/reload")
+    public ResponseEntity<Map<String, Object>> reloadModel() {
+        if (!modelScoringService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Model scoring is disabled"));
+        }
+        ModelScoringService.LoadedModel loaded = modelScoringService.reload();
+        logger.info("Model reload requested", Map.of("generation", loaded != null ? loaded.generation() : 0));
+        return ResponseEntity.ok(summary(loaded));
+    }
+
+    @GetMapping("/floors")
+    public ResponseEntity<Map<String, Object>> floors() {
+        return ResponseEntity.ok(summary(floorPriceService.table()));
+    }
+
+    /**
+     * Reload the floor-price table now instead of waiting for the poller.
+     */
+    @PostMapping("/floors/reload")
+    public ResponseEntity<Map<String, Object>> reloadFloors() {
+        FloorPriceTable table = floorPriceService.reload();
+        logger.info("Floor price reload requested", Map.of("version", table.getVersion()));
+        return ResponseEntity.ok(summary(table));
+    }
+
+    @GetMapping("/rotation")
+    public ResponseEntity<Map<String, Object>> rotation() {
+        return ResponseEntity.ok(Map.of(
+                "enabled", creativeRotationService.isEnabled(),
+                "rewardEvent", creativeRotationService.getRewardEvent(),
+                "creatives", creativeRotationService.stats()
+        ));
+    }
+
+    @GetMapping("/experiments")
+    public ResponseEntity<Map<String, Object>> experiments() {
+        return ResponseEntity.ok(summary(experimentService.config()));
+    }
+
+    /**
+     * Reload the experiment registry now instead of waiting for the poller - used to start or stop an experiment.
+     */
+    @PostMapping("/experiments/reload")
+    public ResponseEntity<Map<String, Object>> reloadExperiments() {
+        if (!experimentService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Experiments are disabled"));
+        }
+        ExperimentConfig config = experimentService.reload();
+        logger.info("Experiment reload requested", Map.of("version", config.getVersion()));
+        return ResponseEntity.ok(summary(config));
+    }
+
+    // HashMap rather than Map.of: model fields are null while no model is loaded
+    private Map<String, Object> summary(ModelScoringService.LoadedModel loaded) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("enabled", modelScoringService.isEnabled());
+        summary.put("loaded", loaded != null);
+        if (loaded != null) {
+            summary.put("name", loaded.model().getName());
+            summary.put("version", loaded.model().getVersion());
+            summary.put("target", loaded.model().getTarget());
+            summary.put("generation", loaded.generation());
+            summary.put("loadedAt", loaded.loadedAt().toString());
+        }
+        return summary;
+    }
+
+    private Map<String, Object> summary(ExperimentConfig config) {
+        return Map.of(
+                "enabled", experimentService.isEnabled(),
+                "version", config.getVersion(),
+                "sourceVersion", config.getSourceVersion(),
+                "loadedAt", config.getLoadedAt().toString(),
+                "experiments", config.getExperiments(),
+                "arms", config.armCount(),
+                "traffic", config.traffic()
+        );
+    }
+
+    private Map<String, Object> summary(FloorPriceTable table) {
+        return Map.of(
+                "version", table.getVersion(),
+                "sourceVersion", table.getSourceVersion(),
+                "loadedAt", table.getLoadedAt().toString(),
+                "rules", table.ruleCount(),
+                "countries", table.countryCount()
+        );
+    }
+
+    private Map<String, Object> summary(BlocklistSnapshot snapshot) {
+        return Map.of(
+                "version", snapshot.getVersion(),
+                "sourceVersion", snapshot.getSourceVersion(),
+                "loadedAt", snapshot.getLoadedAt().toString(),
+                "blockedCampaigns", snapshot.campaignCount(),
+                "blockedCreatives", snapshot.creativeCount(),
+                "blockedPhrases", snapshot.phraseCount()
+        );
+    }
+}
@@ -1,23 +1,41 @@
 package com.podads.api.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.podads.api.dto.AdRequestDto;
 import com.podads.application.use_cases.MakeDecisionUseCase;
+import com.podads.application.use_cases.StreamDecisionsUseCase;
 import com.podads.domain.entities.AdRequest;
 import com.podads.domain.valueobjects.*;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/v1")
@@ -25,17 +43,33 @@ import java.util.Map;
 public class DecisionController {
     private static final Logger logger = LoggerFactory.getLogger(DecisionController.class);
     private final MakeDecisionUseCase makeDecisionUseCase;
+    private final StreamDecisionsUseCase streamDecisionsUseCase;
     private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int maxStreamConcurrency;
 
-    public DecisionController(MakeDecisionUseCase makeDecisionUseCase, MeterRegistry meterRegistry) {
+    public DecisionController(
+            MakeDecisionUseCase makeDecisionUseCase,
+            StreamDecisionsUseCase streamDecisionsUseCase,
+            MeterRegistry meterRegistry,
+            ObjectMapper objectMapper,
+            Validator validator,
+            @Value("${podads.batch.max-concurrency:64}") int maxStreamConcurrency
+    ) {
         this.makeDecisionUseCase = makeDecisionUseCase;
+        this.streamDecisionsUseCase = streamDecisionsUseCase;
         this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.maxStreamConcurrency = Math.max(1, maxStreamConcurrency);
     }
 
     @PostMapping("/decision")
     public ResponseEntity<?> makeDecision(
             @Valid @RequestBody AdRequestDto requestDto,
-            @RequestParam(defaultValue = "12345") int seed
+            @RequestParam(defaultValue = "12345") int seed,
+            @RequestParam(defaultValue = "true") boolean explain
     ) {
         // Set correlation ID in MDC for structured logging
         String requestId = requestDto.getRequestId();
@@ -49,28 +83,9 @@ public class DecisionController {
         Timer.Sample requestTimer = Timer.start(meterRegistry);
         try {
             // Convert DTO to domain entity
-            AdRequest request = new AdRequest(
-                    requestDto.getRequestId(),
-                    new PodcastContext(
-                            requestDto.getPodcast().getCategory(),
-                            requestDto.getPodcast().getShow(),
-                            requestDto.getPodcast().getEpisode()
-                    ),
-                    new SlotContext(
-                            requestDto.getSlot().getType(),
-                            requestDto.getSlot().getCuePoint()
-                    ),
-                    new ListenerContext(
-                            requestDto.getListener().getGeo(),
-                            requestDto.getListener().getDevice(),
-                            requestDto.getListener().getTier(),
-                            requestDto.getListener().getConsent(),
-                            requestDto.getListener().getTimeOfDay()
-                    ),
-                    Instant.parse(requestDto.getTimestamp().replace("Z", "+00:00"))
-            );
-
-            var decision = makeDecisionUseCase.execute(request, seed);
+            AdRequest request = toDomain(requestDto);
+
+            var decision = makeDecisionUseCase.execute(request, seed, explain);
             String decisionId = (String) decision.get("decisionId");
             MDC.put("decisionId", decisionId);
             
@@ -136,7 +151,8 @@ public class DecisionController {
     public ResponseEntity<?> makeBatchDecision(
             @Valid @RequestBody AdRequestDto requestDto,
             @RequestParam(defaultValue = "12345") int seed,
-            @RequestParam(defaultValue = "100") int count
+            @RequestParam(defaultValue = "100") int count,
+            @RequestParam(defaultValue = "true") boolean explain
     ) {
         // Limit batch size to prevent abuse
         if (count > 1000) {
@@ -160,26 +176,7 @@ public class DecisionController {
         
         try {
             // Convert DTO to domain entity (base request)
-            AdRequest baseRequest = new AdRequest(
-                    requestDto.getRequestId(),
-                    new PodcastContext(
-                            requestDto.getPodcast().getCategory(),
-                            requestDto.getPodcast().getShow(),
-                            requestDto.getPodcast().getEpisode()
-                    ),
-                    new SlotContext(
-                            requestDto.getSlot().getType(),
-                            requestDto.getSlot().getCuePoint()
-                    ),
-                    new ListenerContext(
-                            requestDto.getListener().getGeo(),
-                            requestDto.getListener().getDevice(),
-                            requestDto.getListener().getTier(),
-                            requestDto.getListener().getConsent(),
-                            requestDto.getListener().getTimeOfDay()
-                    ),
-                    Instant.parse(requestDto.getTimestamp().replace("Z", "+00:00"))
-            );
+            AdRequest baseRequest = toDomain(requestDto);
 
             // Process batch: each decision gets a unique seed (seed + index)
             for (int i = 0; i < count; i++) {
@@ -191,8 +188,9 @@ public class DecisionController {
                         baseRequest.getListener(),
                         baseRequest.getTimestamp()
                 );
+                request.setAuctionStrategy(baseRequest.getAuctionStrategy());
                 
-                var decision = makeDecisionUseCase.execute(request, seed + i);
+                var decision = makeDecisionUseCase.execute(request, seed + i, explain);
                 decisions.add(decision);
             }
 
@@ -246,5 +244,144 @@ public class DecisionController {
             return ResponseEntity.status(500).body(Map.of("error", errorMessage));
         }
     }
-}
 
+    /**
+     * Decides a batch of distinct requests - a JSON array or NDJSON, one request per line - and streams
+     * one NDJSON line per request as soon as its decision is ready (completion order, tagged with the
+     * request's index), then a final {@code {"summary": ...}} line. Requests are read from the body only
+     * as concurrency frees up, so neither the batch nor its decisions are ever held in memory whole.
+     * An invalid request yields an error line for its index; the rest of the batch is still decided.
+     */
+    @PostMapping(
+            value = "/decision/stream",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public ResponseEntity<StreamingResponseBody> streamDecisions(
+            HttpServletRequest httpRequest,
+            @RequestParam(defaultValue = "12345") int seed,
+            @RequestParam(required = false) Integer concurrency,
+            @RequestParam(defaultValue = "false") boolean explain
+    ) throws IOException {
+        int cap = concurrency == null ? maxStreamConcurrency : Math.max(1, Math.min(concurrency, maxStreamConcurrency));
+        InputStream body = httpRequest.getInputStream();
+
+        StreamingResponseBody stream = out -> {
+            Timer.Sample batchTimer = Timer.start(meterRegistry);
+            try (MappingIterator<JsonNode> items = objectMapper.readerFor(JsonNode.class).readValues(body)) {
+                StreamDecisionsUseCase.Summary summary = streamDecisionsUseCase.execute(
+                        new RequestIterator(items), seed, explain, cap, line -> writeLine(out, line));
+                if (!summary.abandoned()) {
+                    writeLine(out, Map.of("summary", summary.toMap()));
+                }
+
+                batchTimer.stop(Timer.builder("http_server_requests")
+                        .description("HTTP request duration")
+                        .tag("method", "POST")
+                        .tag("uri", "/v1/decision/stream")
+                        .tag("status", "200")
+                        .tag("outcome", "SUCCESS")
+                        .register(meterRegistry));
+
+                logger.info("Streamed batch ad decision completed",
+                        Map.of("count", String.valueOf(summary.count()),
+                               "fills", String.valueOf(summary.fills()),
+                               "errors", String.valueOf(summary.errors()),
+                               "concurrency", String.valueOf(cap),
+                               "latencyMs", String.format("%.2f", summary.latencyMs()),
+                               "abandoned", String.valueOf(summary.abandoned())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Streamed batch interrupted", e);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(stream);
+    }
+
+    private void writeLine(OutputStream out, Map<String, Object> line) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(line));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Batch items as domain requests. Each item is read as a JSON tree first, so one that does not
+     * bind or validate is reported (as {@link IllegalArgumentException}) without losing the stream
+     * position; only malformed JSON ends the batch.
+     */
+    private final class RequestIterator implements Iterator<AdRequest> {
+        private final MappingIterator<JsonNode> items;
+
+        RequestIterator(MappingIterator<JsonNode> items) {
+            this.items = items;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return items.hasNext();
+        }
+
+        @Override
+        public AdRequest next() {
+            JsonNode item = items.next();
+            String requestId = item.path("requestId").asText("");
+            AdRequestDto requestDto;
+            try {
+                requestDto = objectMapper.treeToValue(item, AdRequestDto.class);
+            } catch (JsonProcessingException e) {
+                throw invalid(requestId, e.getOriginalMessage());
+            }
+            Set<ConstraintViolation<AdRequestDto>> violations = validator.validate(requestDto);
+            if (!violations.isEmpty()) {
+                throw invalid(requestId, violations.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            }
+            try {
+                return toDomain(requestDto);
+            } catch (RuntimeException e) {
+                throw invalid(requestId, e.getMessage());
+            }
+        }
+
+        private static IllegalArgumentException invalid(String requestId, String detail) {
+            return new IllegalArgumentException(
+                    (requestId.isEmpty() ? "Invalid request: " : "Invalid request " + requestId + ": ") + detail);
+        }
+    }
+
+    private AdRequest toDomain(AdRequestDto requestDto) {
+        AdRequest request = new AdRequest(
+                requestDto.getRequestId(),
+                new PodcastContext(
+                        requestDto.getPodcast().getCategory(),
+                        requestDto.getPodcast().getShow(),
+                        requestDto.getPodcast().getEpisode()
+                ),
+                new SlotContext(
+                        requestDto.getSlot().getType(),
+                        requestDto.getSlot().getCuePoint(),
+                        requestDto.getSlot().getPodMaxDurationSeconds(),
+                        requestDto.getSlot().getPodSlots(),
+                        requestDto.getSlot().getMinAdDurationSeconds()
+                ),
+                new ListenerContext(
+                        requestDto.getListener().getGeo(),
+                        requestDto.getListener().getDevice(),
+                        requestDto.getListener().getTier(),
+                        requestDto.getListener().getConsent(),
+                        requestDto.getListener().getTimeOfDay(),
+                        requestDto.getListener().getListenerId(),
+                        requestDto.getListener().getTimezone()
+                ),
+                Instant.parse(requestDto.getTimestamp().replace("Z", "+00:00"))
+        );
+        request.setAuctionStrategy(requestDto.getAuctionStrategy());
+        return request;
+    }
+}
@@ -0,0 +1,93 @@
+package com.podads.api.controller;
+
+import com.podads.infrastructure.budget.BudgetReservationService;
+import com.podads.infrastructure.rotation.CreativeRotationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tracking event receiver for the URLs handed out in serve instructions.
+ */
+@RestController
+@RequestMapping("/v1/events")
+public class EventController {
+    private static final Logger logger = LoggerFactory.getLogger(EventController.class);
+    private final BudgetReservationService reservationService;
+    private final CreativeRotationService creativeRotationService;
+    private final MeterRegistry meterRegistry;
+
+    public EventController(BudgetReservationService reservationService,
+                           CreativeRotationService creativeRotationService,
+                           MeterRegistry meterRegistry) {
+        this.reservationService = reservationService;
+        this.creativeRotationService = creativeRotationService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Impression beacon - commits the decision's budget reservation.
+     * GET is accepted because players fire tracking URLs as plain pixel requests.
+     */
+    @RequestMapping(value = "/{decisionId}/impression", method = {RequestMethod.GET, RequestMethod.POST})
+    public ResponseEntity<?> impression(@PathVariable String decisionId) {
+        boolean committed = reservationService.commit(decisionId);
+
+        Counter.builder("ad_events_total")
+                .description("Tracking events received")
+                .tag("event", "impression")
+                .tag("matched", String.valueOf(committed))
+                .register(meterRegistry)
+                .increment();
+
+        if (!committed) {
+            logger.debug("Impression for unknown or expired reservation", Map.of("decisionId", decisionId));
+            return ResponseEntity.status(404).body(Map.of("error", "No open reservation for " + decisionId));
+        }
+        return ResponseEntity.ok(Map.of("decisionId", decisionId, "committed", true));
+    }
+
+    /**
+     * Completion beacon - rewards the creative this decision served, once, when completions are the
+     * reward event.
+     */
+    @RequestMapping(value = "/{decisionId}/complete", method = {RequestMethod.GET, RequestMethod.POST})
+    public ResponseEntity<?> complete(@PathVariable String decisionId,
+                                      @RequestParam(required = false) String creativeId) {
+        return engagement(decisionId, creativeId, "complete");
+    }
+
+    /**
+     * Click beacon - rewards the creative this decision served, once, when clicks are the reward event.
+     */
+    @RequestMapping(value = "/{decisionId}/click", method = {RequestMethod.GET, RequestMethod.POST})
+    public ResponseEntity<?> click(@PathVariable String decisionId,
+                                   @RequestParam(required = false) String creativeId) {
+        return engagement(decisionId, creativeId, "click");
+    }
+
+    private ResponseEntity<?> engagement(String decisionId, String creativeId, String event) {
+        boolean rewarded = creativeRotationService.recordEvent(decisionId, creativeId, event);
+
+        Counter.builder("ad_events_total")
+                .description("Tracking events received")
+                .tag("event", event)
+                .tag("matched", String.valueOf(rewarded))
+                .register(meterRegistry)
+                .increment();
+
+        // Unmatched is normal (single-creative campaigns, the other reward event, repeat beacons), so no 404 here
+        Map<String, Object> body = new HashMap<>();
+        body.put("decisionId", decisionId);
+        body.put("event", event);
+        body.put("creativeId", creativeId);
+        body.put("rewarded", rewarded);
+        return ResponseEntity.ok(body);
+    }
+}
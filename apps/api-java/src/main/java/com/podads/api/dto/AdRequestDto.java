@@ -5,6 +5,7 @@ import com.podads.domain.valueobjects.*;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import lombok.Data;
 
 @Data
@@ -31,6 +32,11 @@ public class AdRequestDto {
     @NotBlank
     @JsonProperty("timestamp")
     private String timestamp; // ISO 8601 string
+
+    // Optional: overrides the configured auction strategy for this request
+    @Pattern(regexp = "first-price|second-price|gsp")
+    @JsonProperty("auctionStrategy")
+    private String auctionStrategy;
 }
 
 
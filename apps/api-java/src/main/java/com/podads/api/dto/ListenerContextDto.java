@@ -36,6 +36,12 @@ public class ListenerContextDto {
     @JsonProperty("timeOfDay")
     @JsonDeserialize(using = TimeOfDayDeserializer.class)
     private TimeOfDay timeOfDay;
+
+    @JsonProperty("listenerId")
+    private String listenerId;
+
+    @JsonProperty("timezone")
+    private String timezone;
 }
 
 
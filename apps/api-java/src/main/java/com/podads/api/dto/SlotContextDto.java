@@ -4,6 +4,8 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.podads.api.dto.deserializers.SlotTypeDeserializer;
 import com.podads.domain.valueobjects.SlotType;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
@@ -16,6 +18,21 @@ public class SlotContextDto {
 
     @JsonProperty("cuePoint")
     private Integer cuePoint;
+
+    // Optional ad pod: up to podSlots ads totalling at most podMaxDurationSeconds
+    @Min(1)
+    @Max(600)
+    @JsonProperty("podMaxDurationSeconds")
+    private Integer podMaxDurationSeconds;
+
+    @Min(1)
+    @Max(8)
+    @JsonProperty("podSlots")
+    private Integer podSlots;
+
+    @Min(1)
+    @JsonProperty("minAdDurationSeconds")
+    private Integer minAdDurationSeconds;
 }
 
 
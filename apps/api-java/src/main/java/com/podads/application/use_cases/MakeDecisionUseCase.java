@@ -2,10 +2,27 @@ package com.podads.application.use_cases;
 
 import com.podads.application.utils.BrandNameExtractor;
 import com.podads.domain.entities.*;
+import com.podads.domain.services.AsyncFilter;
 import com.podads.domain.services.AuctionService;
+import com.podads.domain.services.AuctionStrategy;
+import com.podads.domain.services.BudgetLedger;
+import com.podads.infrastructure.auction.AuctionStrategySelector;
+import com.podads.infrastructure.auction.PodSolver;
+import com.podads.infrastructure.budget.BudgetReservationService;
 import com.podads.domain.services.Filter;
+import com.podads.domain.valueobjects.CandidateScore;
+import com.podads.domain.valueobjects.FilterReasonCode;
 import com.podads.domain.valueobjects.FilterResult;
+import com.podads.domain.valueobjects.SlotContext;
 import com.podads.infrastructure.filters.*;
+import com.podads.infrastructure.floors.FloorPriceService;
+import com.podads.infrastructure.frequency.FrequencyCapService;
+import com.podads.infrastructure.guaranteed.GuaranteedDeliveryService;
+import com.podads.infrastructure.experiments.ExperimentArm;
+import com.podads.infrastructure.experiments.ExperimentService;
+import com.podads.infrastructure.model.ModelScoringService;
+import com.podads.infrastructure.rotation.CreativeRotationService;
+import com.podads.infrastructure.separation.CompetitiveSeparationService;
 import com.podads.infrastructure.sourcing.FixtureSourcingService;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.DistributionSummary;
@@ -18,24 +35,54 @@ import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class MakeDecisionUseCase {
     private static final Logger logger = LoggerFactory.getLogger(MakeDecisionUseCase.class);
+    private static final AtomicLong DECISION_SEQUENCE = new AtomicLong();
+    private static final Comparator<ScoredCandidate> BY_FINAL_SCORE_DESC =
+            Comparator.comparingDouble((ScoredCandidate c) -> c.score().finalScore()).reversed();
     private final FixtureSourcingService sourcingService;
     private final AuctionService auctionService;
+    private final FrequencyCapService frequencyCapService;
+    private final BudgetReservationService reservationService;
     private final List<Filter> allFilters;
+    private final List<AsyncFilter<?, ?>> asyncFilters;
+    private final FilterGuard filterGuard;
+    private final AuctionStrategySelector auctionStrategySelector;
+    private final PodSolver podSolver;
+    private final CompetitiveSeparationService separationService;
+    private final ModelScoringService modelScoringService;
+    private final GuaranteedDeliveryService guaranteedDeliveryService;
+    private final FloorPriceService floorPriceService;
+    private final CreativeRotationService creativeRotationService;
+    private final ExperimentService experimentService;
     private final MeterRegistry meterRegistry;
 
     public MakeDecisionUseCase(
             FixtureSourcingService sourcingService,
             AuctionService auctionService,
+            FrequencyCapService frequencyCapService,
+            BudgetReservationService reservationService,
             MeterRegistry meterRegistry,
+            FilterGuard filterGuard,
+            AuctionStrategySelector auctionStrategySelector,
+            PodSolver podSolver,
+            CompetitiveSeparationService separationService,
+            ModelScoringService modelScoringService,
+            GuaranteedDeliveryService guaranteedDeliveryService,
+            FloorPriceService floorPriceService,
+            CreativeRotationService creativeRotationService,
+            ExperimentService experimentService,
             CampaignStatusFilter campaignStatusFilter,
             AbusiveContentFilter abusiveContentFilter,
             ScheduleWindowFilter scheduleWindowFilter,
+            DaypartingFilter daypartingFilter,
             SlotTypeFilter slotTypeFilter,
+            FloorPriceFilter floorPriceFilter,
             CreativeApprovalFilter creativeApprovalFilter,
+            DurationFilter durationFilter,
             GeoTargetingFilter geoTargetingFilter,
             DeviceTargetingFilter deviceTargetingFilter,
             TierTargetingFilter tierTargetingFilter,
@@ -43,17 +90,33 @@ public class MakeDecisionUseCase {
             ExcludedCategoryFilter excludedCategoryFilter,
             BudgetRemainingFilter budgetRemainingFilter,
             PacingGateFilter pacingGateFilter,
-            FrequencyCapFilter frequencyCapFilter
+            FrequencyCapFilter frequencyCapFilter,
+            CompetitiveSeparationFilter competitiveSeparationFilter,
+            ExternalBrandSafetyFilter externalBrandSafetyFilter
     ) {
         this.sourcingService = sourcingService;
         this.auctionService = auctionService;
+        this.frequencyCapService = frequencyCapService;
+        this.reservationService = reservationService;
         this.meterRegistry = meterRegistry;
+        this.filterGuard = filterGuard;
+        this.auctionStrategySelector = auctionStrategySelector;
+        this.podSolver = podSolver;
+        this.separationService = separationService;
+        this.modelScoringService = modelScoringService;
+        this.guaranteedDeliveryService = guaranteedDeliveryService;
+        this.floorPriceService = floorPriceService;
+        this.creativeRotationService = creativeRotationService;
+        this.experimentService = experimentService;
         this.allFilters = List.of(
                 campaignStatusFilter,
                 abusiveContentFilter, // Early in chain - blocks abusive ads before expensive filters
                 scheduleWindowFilter,
+                daypartingFilter,
                 slotTypeFilter,
+                floorPriceFilter,
                 creativeApprovalFilter,
+                durationFilter,
                 geoTargetingFilter,
                 deviceTargetingFilter,
                 tierTargetingFilter,
@@ -61,16 +124,38 @@ public class MakeDecisionUseCase {
                 excludedCategoryFilter,
                 budgetRemainingFilter,
                 pacingGateFilter,
-                frequencyCapFilter
+                frequencyCapFilter,
+                competitiveSeparationFilter
+        );
+        // Run after every synchronous filter, so only survivors are looked up
+        this.asyncFilters = List.of(
+                externalBrandSafetyFilter
         );
     }
 
     public Map<String, Object> execute(AdRequest request, int seed) {
+        return execute(request, seed, true);
+    }
+
+    /**
+     * @param explain whether the response lists every candidate (filtered ones included) ranked by
+     *                score; without it only the winner and runner-up are returned and nothing is sorted
+     */
+    public Map<String, Object> execute(AdRequest request, int seed, boolean explain) {
         // Start timer for total decision latency
         Timer.Sample decisionTimer = Timer.start(meterRegistry);
+        long decisionStart = System.nanoTime();
+        // Experiment arm (null = default pipeline) decides filter order, scoring weights and strategy below
+        ExperimentArm arm = experimentService.assign(request);
         
-        String decisionId = "dec-" + System.currentTimeMillis() + "-" + seed;
+        // Sequence suffix keeps ids unique across concurrent requests with the same seed (reservations are keyed by it)
+        String decisionId = "dec-" + System.currentTimeMillis() + "-" + seed + "-" + DECISION_SEQUENCE.incrementAndGet();
         MDC.put("decisionId", decisionId);
+        if (arm != null) {
+            MDC.put("experiment", arm.getExperiment() + "/" + arm.getName());
+        } else {
+            MDC.remove("experiment");
+        }
         
         logger.info("Ad decision started", 
                 Map.of("decisionId", decisionId,
@@ -113,7 +198,8 @@ public class MakeDecisionUseCase {
         // Stage 2: Sourcing
         Timer.Sample sourcingTimer = Timer.start(meterRegistry);
         long sourcingStageStart = System.nanoTime();
-        List<CandidateAd> candidates = sourcingService.loadCandidates();
+        // Dayparted campaigns that are dark at the listener's local hour are not sourced at all
+        List<CandidateAd> candidates = sourcingService.loadActiveCandidates(request.getListenerHourOfWeek());
         candidates = sourcingService.filterCandidatesByCategory(candidates, request.getPodcast().getCategory());
         double sourcingLatency = (System.nanoTime() - sourcingStageStart) / 1_000_000.0;
         sourcingTimer.stop(Timer.builder("ad_stage_latency_ms")
@@ -143,33 +229,15 @@ public class MakeDecisionUseCase {
         long filterStageStart = System.nanoTime();
         Map<String, Map<String, Map<String, Object>>> filterResults = new HashMap<>();
         List<CandidateAd> passedCandidates = new ArrayList<>();
+        List<Filter> filters = arm != null ? arm.filterChain(allFilters) : allFilters;
 
         for (CandidateAd candidate : candidates) {
             String candidateId = candidate.getCampaign().getId() + "-" + candidate.getCreative().getId();
             Map<String, Map<String, Object>> results = new HashMap<>();
 
             boolean allPassed = true;
-            for (Filter filter : allFilters) {
-                FilterResult result = filter.apply(request, candidate, seed);
-                Map<String, Object> resultMap = new HashMap<>();
-                resultMap.put("passed", result.getPassed());
-                if (result.getReasonCode() != null) {
-                    resultMap.put("reasonCode", result.getReasonCode().getValue());
-                }
-                if (result.getDetails() != null) {
-                    resultMap.put("details", result.getDetails());
-                }
-                results.put(filter.getName(), resultMap);
-
-                // Record filter application metric
-                Counter.builder("ad_filters_applied")
-                        .description("Filter applications")
-                        .tag("filter_name", filter.getName())
-                        .tag("passed", String.valueOf(result.getPassed()))
-                        .register(meterRegistry)
-                        .increment();
-
-                if (!result.getPassed()) {
+            for (Filter filter : filters) {
+                if (!recordFilterResult(results, filter.getName(), filterGuard.apply(filter, request, candidate, seed))) {
                     allPassed = false;
                     break; // Short-circuit on first failure
                 }
@@ -181,6 +249,39 @@ public class MakeDecisionUseCase {
             }
         }
 
+        // Async filters: one batched lookup per backing store for all survivors, then evaluate in order.
+        // Each filter waits only until its latency budget; past that its fail-open/closed policy decides.
+        if (!asyncFilters.isEmpty() && !passedCandidates.isEmpty()) {
+            FilterGuard.AsyncLookups lookedUp = filterGuard.lookup(asyncFilters, request, passedCandidates);
+            Iterator<CandidateAd> survivors = passedCandidates.iterator();
+            while (survivors.hasNext()) {
+                CandidateAd candidate = survivors.next();
+                String candidateId = candidate.getCampaign().getId() + "-" + candidate.getCreative().getId();
+                Map<String, Map<String, Object>> results = filterResults.get(candidateId);
+                for (AsyncFilter<?, ?> filter : asyncFilters) {
+                    FilterResult result = filterGuard.apply(filter, lookedUp, request, candidate, seed);
+                    if (!recordFilterResult(results, filter.getName(), result)) {
+                        survivors.remove();
+                        break; // Short-circuit on first failure
+                    }
+                }
+            }
+        }
+
+        // Creative rotation: a campaign with several eligible creatives sends only the bandit's pick to the auction
+        List<CandidateAd> rotatedOut = new ArrayList<>();
+        if (arm == null || arm.creativeRotation(true)) {
+            passedCandidates = creativeRotationService.rotate(passedCandidates, seed, rotatedOut);
+        }
+        for (CandidateAd candidate : rotatedOut) {
+            String candidateId = candidate.getCampaign().getId() + "-" + candidate.getCreative().getId();
+            recordFilterResult(filterResults.get(candidateId), "CreativeRotation", FilterResult.builder()
+                    .passed(false)
+                    .reasonCode(FilterReasonCode.CREATIVE_ROTATED_OUT)
+                    .details("Another creative of the campaign was picked for rotation")
+                    .build());
+        }
+
         double filterLatency = (System.nanoTime() - filterStageStart) / 1_000_000.0;
         filterTimer.stop(Timer.builder("ad_stage_latency_ms")
                 .description("Stage latency in milliseconds")
@@ -213,83 +314,121 @@ public class MakeDecisionUseCase {
                         "totalCandidates", candidates.size(),
                         "passedCount", passedCandidates.size(),
                         "droppedCount", dropCount,
-                        "filterFailures", filterFailures
+                        "filterFailures", filterFailures,
+                        "circuitBreakers", filterGuard.breakerStates()
                 )));
 
         // Stage 4: Auction
         Timer.Sample auctionTimer = Timer.start(meterRegistry);
         long auctionStageStart = System.nanoTime();
-        List<Map<String, Object>> scoredCandidates = new ArrayList<>();
-
-        for (CandidateAd candidate : passedCandidates) {
+        List<CandidateScore> scores = arm != null
+                ? auctionService.scoreCandidates(request, passedCandidates, arm.getScoringWeights())
+                : auctionService.scoreCandidates(request, passedCandidates);
+
+        // Predicted performance (when a model is loaded) weights each score by its completion/click probability
+        ModelScoringService.Predictions predictions = arm == null || arm.modelScoring(true)
+                ? modelScoringService.predict(request, passedCandidates, scores)
+                : null;
+        if (predictions != null) {
+            stages.add(createStage("Model",
+                    predictions.elapsedNanos() / 1_000_000.0,
+                    passedCandidates.size() + " eligible candidates",
+                    "Predicted " + predictions.loaded().model().getTarget() + " for " + passedCandidates.size() + " candidates",
+                    modelPayload(predictions)));
+        }
+        List<ScoredCandidate> scoredCandidates = new ArrayList<>(passedCandidates.size());
+        for (int i = 0; i < passedCandidates.size(); i++) {
+            CandidateAd candidate = passedCandidates.get(i);
             String candidateId = candidate.getCampaign().getId() + "-" + candidate.getCreative().getId();
-            Map<String, Object> score = auctionService.scoreCandidate(request, candidate);
-
-            // Extract and normalize brand name from campaign name (e.g., "Capital One Venture..." -> "Capital One")
-            String campaignName = candidate.getCampaign().getName();
-            String brandName = BrandNameExtractor.extractAndNormalizeBrandName(campaignName);
-            if (brandName == null || brandName.isEmpty()) {
-                brandName = candidate.getCampaign().getId(); // Fallback to campaign ID if extraction fails
+            CandidateScore score = scores.get(i);
+            double predicted = Double.NaN;
+            if (predictions != null) {
+                predicted = predictions.values()[i];
+                score = score.weightedBy(predicted);
             }
-
-            Map<String, Object> scoredCandidate = new HashMap<>();
-            scoredCandidate.put("candidateId", candidateId);
-            scoredCandidate.put("campaignId", candidate.getCampaign().getId());
-            scoredCandidate.put("campaignName", campaignName);
-            scoredCandidate.put("brandName", brandName);
-            scoredCandidate.put("creativeId", candidate.getCreative().getId());
-            scoredCandidate.put("filterResults", filterResults.get(candidateId));
-            scoredCandidate.put("score", score);
-            scoredCandidate.put("passedAllFilters", true);
-            scoredCandidates.add(scoredCandidate);
+            scoredCandidates.add(new ScoredCandidate(candidate, candidateId, brandName(candidate),
+                    filterResults.get(candidateId), score, predicted, true));
         }
 
-        // Include failed candidates with zero scores for explainability
-        // This allows frontend to show "why did this ad get filtered?" even though it didn't reach auction
-        for (CandidateAd candidate : candidates) {
-            String candidateId = candidate.getCampaign().getId() + "-" + candidate.getCreative().getId();
-            Map<String, Map<String, Object>> filters = filterResults.get(candidateId);
-            boolean passedAll = filters != null && filters.values().stream()
-                    .allMatch(r -> (Boolean) r.get("passed"));
-
-            if (!passedAll && scoredCandidates.stream().noneMatch(c -> c.get("candidateId").equals(candidateId))) {
-                // Extract and normalize brand name from campaign name
-                String campaignName = candidate.getCampaign().getName();
-                String brandName = BrandNameExtractor.extractAndNormalizeBrandName(campaignName);
-                if (brandName == null || brandName.isEmpty()) {
-                    brandName = candidate.getCampaign().getId(); // Fallback to campaign ID if extraction fails
+        // Guaranteed line items take the request ahead of the auction when the allocation plan assigns it to one
+        CandidateAd guaranteed = request.getSlot().isPod() ? null
+                : guaranteedDeliveryService.select(request, passedCandidates, seed);
+
+        // Price with the strategy for this request/slot.
+        // The floor for this context doubles as a reserve, so a lone or low runner-up cannot price below it
+        AuctionStrategy auctionStrategy = auctionStrategySelector.select(request, arm != null ? arm.getAuctionStrategy() : null);
+        double reserveCpm = Math.max(auctionStrategySelector.reserveCpm(request), floorPriceService.table().floorCpm(request));
+
+        // Winner and runner-up (for second-price) in one pass - a two-slot tournament, O(n).
+        // Strict > keeps the earliest of equal scores, matching a stable descending sort.
+        // Guaranteed campaigns are delivered through the plan only and never bid. Bids under the reserve
+        // cannot win, so the best bid that clears it sells even when outscored; they still count as
+        // competition when pricing, where the reserve keeps them from pulling the price under it.
+        ScoredCandidate best = null;
+        ScoredCandidate runnerUp = null;
+        ScoredCandidate bestBelowReserve = null;
+        ScoredCandidate guaranteedWinner = null;
+        for (ScoredCandidate scored : scoredCandidates) {
+            if (scored.candidate().getCampaign().isGuaranteed()) {
+                if (scored.candidate() == guaranteed) {
+                    guaranteedWinner = scored;
                 }
-
-                Map<String, Object> failedCandidate = new HashMap<>();
-                failedCandidate.put("candidateId", candidateId);
-                failedCandidate.put("campaignId", candidate.getCampaign().getId());
-                failedCandidate.put("campaignName", campaignName);
-                failedCandidate.put("brandName", brandName);
-                failedCandidate.put("creativeId", candidate.getCreative().getId());
-                failedCandidate.put("filterResults", filters != null ? filters : Map.of());
-                
-                Map<String, Object> zeroScore = new HashMap<>();
-                zeroScore.put("bidCpm", (double) candidate.getCampaign().getBidCpm());
-                zeroScore.put("matchScore", 0.0);
-                zeroScore.put("pacingMultiplier", 0.0);
-                zeroScore.put("finalScore", 0.0);
-                Map<String, Object> breakdown = new HashMap<>();
-                breakdown.put("categoryMatch", 0.0);
-                breakdown.put("showMatch", 0.0);
-                breakdown.put("listenerSegmentWeight", 1.0);
-                zeroScore.put("breakdown", breakdown);
-                failedCandidate.put("score", zeroScore);
-                failedCandidate.put("passedAllFilters", false);
-                scoredCandidates.add(failedCandidate);
+                continue;
             }
+            double finalScore = scored.score().finalScore();
+            if (scored.score().bidCpm() < reserveCpm) {
+                if (bestBelowReserve == null || finalScore > bestBelowReserve.score().finalScore()) {
+                    bestBelowReserve = scored;
+                }
+                continue;
+            }
+            if (best == null || finalScore > best.score().finalScore()) {
+                runnerUp = best;
+                best = scored;
+            } else if (runnerUp == null || finalScore > runnerUp.score().finalScore()) {
+                runnerUp = scored;
+            }
+        }
+
+        // Winner selection: must have candidates AND top score > 0 (no zero/negative scores)
+        // Zero scores occur when pacingMultiplier = 0 (budget exhausted) or matchScore = 0
+        ScoredCandidate winner = best == null || best.score().finalScore() <= 0 ? null : best;
+        String noFillReason = "No eligible candidates after filtering";
+        boolean noBidClearsReserve = best == null && bestBelowReserve != null;
+        if (bestBelowReserve != null
+                && (runnerUp == null || bestBelowReserve.score().finalScore() > runnerUp.score().finalScore())) {
+            runnerUp = bestBelowReserve;
         }
 
-        // Sort by final score (descending) - highest score wins
-        scoredCandidates.sort((a, b) -> {
-            double scoreA = (Double) ((Map<String, Object>) a.get("score")).get("finalScore");
-            double scoreB = (Double) ((Map<String, Object>) b.get("score")).get("finalScore");
-            return Double.compare(scoreB, scoreA);
-        });
+        double pricePaid = 0;
+        List<PodAd> podAds = List.of();
+        if (guaranteedWinner != null) {
+            // Sold in advance: served at its contracted CPM, with no auction and no reserve
+            winner = guaranteedWinner;
+            pricePaid = guaranteedWinner.candidate().getCampaign().getBidCpm();
+        } else if (request.getSlot().isPod()) {
+            // Ad pod: fill the break with the best-paying set of ads that fits, instead of one winner
+            podAds = solvePod(request, scoredCandidates, auctionStrategy, reserveCpm);
+            winner = podAds.isEmpty() ? null : podAds.get(0).scored();
+            pricePaid = podAds.isEmpty() ? 0 : podAds.get(0).pricePaid();
+            if (podAds.isEmpty() && best != null && best.score().finalScore() > 0) {
+                noFillReason = "No eligible ads fit the pod";
+            }
+        } else if (winner != null || noBidClearsReserve) {
+            // Runner-up only counts with a positive score
+            CandidateScore secondScore = runnerUp != null && runnerUp.score().finalScore() > 0 ? runnerUp.score() : null;
+            pricePaid = winner != null ? auctionStrategy.price(winner.score(), secondScore, reserveCpm) : AuctionStrategy.NO_SALE;
+            if (pricePaid == AuctionStrategy.NO_SALE) {
+                noFillReason = "No bid clears the reserve price";
+                Counter.builder("ad_auction_below_reserve_total")
+                        .description("Auctions in which no bid could clear the slot reserve")
+                        .tag("strategy", auctionStrategy.getName())
+                        .tag("slot_type", request.getSlot().getType().getValue())
+                        .register(meterRegistry)
+                        .increment();
+                winner = null;
+            }
+        }
 
         double auctionLatency = (System.nanoTime() - auctionStageStart) / 1_000_000.0;
         auctionTimer.stop(Timer.builder("ad_stage_latency_ms")
@@ -301,63 +440,48 @@ public class MakeDecisionUseCase {
         logger.debug("Stage completed", Map.of("stage", "Auction",
                                               "latencyMs", String.format("%.2f", auctionLatency),
                                               "candidatesScored", String.valueOf(scoredCandidates.size())));
-        // Winner selection: must have candidates AND top score > 0 (no zero/negative scores)
-        // Zero scores occur when pacingMultiplier = 0 (budget exhausted) or matchScore = 0
-        Map<String, Object> winner = scoredCandidates.isEmpty() || 
-                (Double) ((Map<String, Object>) scoredCandidates.get(0).get("score")).get("finalScore") <= 0
-                ? null : scoredCandidates.get(0);
-
         stages.add(createStage("Auction",
                 auctionLatency,
                 passedCandidates.size() + " eligible candidates",
-                winner != null
-                        ? "Winner: " + (winner.get("brandName") != null ? winner.get("brandName") : winner.get("campaignId")) 
-                        + " (" + winner.get("campaignId") + ") - score: " +
-                        String.format("%.2f", ((Map<String, Object>) winner.get("score")).get("finalScore"))
+                guaranteedWinner != null
+                        ? "Guaranteed: " + winner.brandName() + " (" + winner.campaignId() + ")"
+                        : winner != null
+                        ? "Winner: " + winner.brandName() + " (" + winner.campaignId() + ") - score: " +
+                        String.format("%.2f", winner.score().finalScore())
                         : "No winner",
-                Map.of(
-                        "scoredCount", (long) scoredCandidates.stream()
-                                .filter(c -> (Double) ((Map<String, Object>) c.get("score")).get("finalScore") > 0)
-                                .count(),
-                        "topScore", winner != null ? ((Map<String, Object>) winner.get("score")).get("finalScore") : null
-                )));
+                auctionPayload(scoredCandidates, winner, guaranteedWinner != null, auctionStrategy, reserveCpm,
+                        pricePaid, podAds)));
 
         // Stage 5: Serve
         Timer.Sample serveTimer = Timer.start(meterRegistry);
         long serveStageStart = System.nanoTime();
         Map<String, Object> serveInstruction = null;
-        if (winner != null) {
-            CandidateAd winningCandidate = passedCandidates.stream()
-                    .filter(c -> c.getCampaign().getId().equals(winner.get("campaignId")) &&
-                            c.getCreative().getId().equals(winner.get("creativeId")))
-                    .findFirst()
-                    .orElseThrow();
-
-            String baseUrl = "https://tracking.podads.lab/events/" + decisionId;
-            serveInstruction = new HashMap<>();
-            serveInstruction.put("creativeId", winner.get("creativeId"));
-            serveInstruction.put("campaignId", winner.get("campaignId"));
-            serveInstruction.put("campaignName", winner.get("campaignName"));
-            serveInstruction.put("brandName", winner.get("brandName"));
-            serveInstruction.put("assetUrl", winningCandidate.getCreative().getAssetUrl());
-            serveInstruction.put("durationSeconds", winningCandidate.getCreative().getDurationSeconds());
-            Map<String, Object> trackingUrls = new HashMap<>();
-            trackingUrls.put("impression", baseUrl + "/impression");
-            trackingUrls.put("quartiles", List.of(
-                    baseUrl + "/quartile/25",
-                    baseUrl + "/quartile/50",
-                    baseUrl + "/quartile/75",
-                    baseUrl + "/quartile/100"
-            ));
-            trackingUrls.put("complete", baseUrl + "/complete");
-            trackingUrls.put("click", baseUrl + "/click");
-            serveInstruction.put("trackingUrls", trackingUrls);
-
-            double pricePaid = scoredCandidates.size() > 1 &&
-                    (Double) ((Map<String, Object>) scoredCandidates.get(1).get("score")).get("finalScore") > 0
-                    ? (Double) ((Map<String, Object>) scoredCandidates.get(1).get("score")).get("bidCpm")
-                    : (Double) ((Map<String, Object>) winner.get("score")).get("bidCpm");
-            serveInstruction.put("pricePaid", pricePaid);
+        List<Map<String, Object>> servedAds = new ArrayList<>();
+        if (request.getSlot().isPod()) {
+            // Each pod position has its own reservation and tracking id: <decisionId>-<position>
+            for (int position = 0; position < podAds.size(); position++) {
+                PodAd podAd = podAds.get(position);
+                Map<String, Object> served = serveAd(decisionId + "-" + (position + 1), podAd.scored(),
+                        podAd.pricePaid(), auctionStrategy, request);
+                if (served != null) {
+                    served.put("podPosition", position + 1);
+                    servedAds.add(served);
+                }
+            }
+        } else if (winner != null) {
+            Map<String, Object> served = serveAd(decisionId, winner, pricePaid, auctionStrategy, request);
+            if (served != null) {
+                if (guaranteedWinner != null) {
+                    served.put("deliveryType", "guaranteed");
+                    guaranteedDeliveryService.recordDelivered(winner.candidate().getCampaign());
+                }
+                servedAds.add(served);
+            }
+        }
+        if (!servedAds.isEmpty()) {
+            serveInstruction = servedAds.get(0);
+        } else if (winner != null) {
+            noFillReason = "Winning campaign budget exhausted";
         }
 
         double serveLatency = (System.nanoTime() - serveStageStart) / 1_000_000.0;
@@ -369,19 +493,15 @@ public class MakeDecisionUseCase {
         MDC.put("latencyMs", String.format("%.2f", serveLatency));
         logger.debug("Stage completed", Map.of("stage", "Serve",
                                               "latencyMs", String.format("%.2f", serveLatency),
-                                              "served", winner != null ? "true" : "false"));
+                                              "served", serveInstruction != null ? "true" : "false"));
         stages.add(createStage("Serve",
                 serveLatency,
-                winner != null ? "Winner: " + (winner.get("brandName") != null ? winner.get("brandName") : winner.get("campaignId")) 
-                        + " (" + winner.get("campaignId") + ")" : "No winner",
-                serveInstruction != null
-                        ? "Serving " + (serveInstruction.get("brandName") != null ? serveInstruction.get("brandName") : serveInstruction.get("campaignId")) 
-                        + " creative " + serveInstruction.get("creativeId")
-                        : "No fill",
-                Map.of(
-                        "served", winner != null,
-                        "pricePaid", serveInstruction != null ? serveInstruction.get("pricePaid") : null
-                )));
+                winner != null ? "Winner: " + winner.brandName() + " (" + winner.campaignId() + ")" : "No winner",
+                serveInstruction == null ? "No fill"
+                        : servedAds.size() > 1 ? "Serving " + servedAds.size() + " ads in pod"
+                        : "Serving " + (serveInstruction.get("brandName") != null ? serveInstruction.get("brandName") : serveInstruction.get("campaignId")) 
+                        + " creative " + serveInstruction.get("creativeId"),
+                servePayload(serveInstruction)));
 
         // Record total decision latency
         double totalLatency = decisionTimer.stop(Timer.builder("ad_decision_latency_ms")
@@ -401,9 +521,9 @@ public class MakeDecisionUseCase {
                 .register(meterRegistry)
                 .increment();
         
-        // Business metrics: Campaign performance (if winner exists)
-        if (winner != null && serveInstruction != null) {
-            String campaignId = (String) winner.get("campaignId");
+        // Business metrics: Campaign performance (every ad served, several for a pod)
+        for (Map<String, Object> served : servedAds) {
+            String campaignId = (String) served.get("campaignId");
             if (campaignId != null) {
                 Counter.builder("ad_campaign_served_total")
                         .description("Total ads served per campaign")
@@ -414,7 +534,7 @@ public class MakeDecisionUseCase {
                         .increment();
                 
                 // Revenue metric: pricePaid is in cents, revenue per impression = pricePaid / 100000
-                Object pricePaidObj = serveInstruction.get("pricePaid");
+                Object pricePaidObj = served.get("pricePaid");
                 if (pricePaidObj != null) {
                     double pricePaidCents = pricePaidObj instanceof Number 
                         ? ((Number) pricePaidObj).doubleValue() 
@@ -432,6 +552,17 @@ public class MakeDecisionUseCase {
             }
         }
         
+        // Experiment arm meters are registered with the configuration; here they are only incremented
+        if (arm != null) {
+            double armRevenueDollars = 0;
+            for (Map<String, Object> served : servedAds) {
+                if (served.get("pricePaid") instanceof Number pricePaidCents) {
+                    armRevenueDollars += pricePaidCents.doubleValue() / 100000.0;
+                }
+            }
+            arm.record(System.nanoTime() - decisionStart, outcome.equals("fill"), armRevenueDollars);
+        }
+
         // Business metrics: Category efficiency (fill rate by category)
         if (outcome.equals("fill")) {
             Counter.builder("ad_category_fills_total")
@@ -463,20 +594,285 @@ public class MakeDecisionUseCase {
         decision.put("seed", seed);
         decision.put("timestamp", Instant.now().toString());
         decision.put("stages", stages);
-        decision.put("candidates", scoredCandidates);
+        if (arm != null) {
+            decision.put("experiment", Map.of("name", arm.getExperiment(), "arm", arm.getName()));
+        }
+        decision.put("candidates", explain
+                ? explainCandidates(candidates, scoredCandidates, filterResults)
+                : topCandidates(winner, runnerUp));
         if (winner != null && serveInstruction != null) {
             Map<String, Object> winnerMap = new HashMap<>();
-            winnerMap.put("candidate", winner);
+            winnerMap.put("candidate", winner.toMap());
             winnerMap.put("serve", serveInstruction);
             decision.put("winner", winnerMap);
+            if (request.getSlot().isPod()) {
+                decision.put("pod", podPayload(request, servedAds));
+            }
         } else {
             decision.put("winner", null);
-            decision.put("noFillReason", "No eligible candidates after filtering");
+            decision.put("noFillReason", noFillReason);
         }
 
         return decision;
     }
 
+    // HashMap rather than Map.of: topScore/pricePaid are null on no-fill
+    private Map<String, Object> auctionPayload(List<ScoredCandidate> scoredCandidates, ScoredCandidate winner,
+                                               boolean guaranteed, AuctionStrategy auctionStrategy, double reserveCpm,
+                                               double pricePaid, List<PodAd> podAds) {
+        long scoredCount = 0;
+        for (ScoredCandidate scored : scoredCandidates) {
+            if (scored.score().finalScore() > 0) {
+                scoredCount++;
+            }
+        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("scoredCount", scoredCount);
+        payload.put("topScore", winner != null ? winner.score().finalScore() : null);
+        payload.put("auctionStrategy", auctionStrategy.getName());
+        payload.put("scoringKernel", auctionService.getScoringKernelName());
+        payload.put("reserveCpm", reserveCpm);
+        payload.put("clearingPrice", winner != null ? pricePaid : null);
+        payload.put("deliveryType", winner == null ? null : guaranteed ? "guaranteed" : "auction");
+        payload.put("allocationPlanVersion", guaranteedDeliveryService.plan().getVersion());
+        if (!podAds.isEmpty()) {
+            List<String> podCandidateIds = new ArrayList<>(podAds.size());
+            for (PodAd podAd : podAds) {
+                podCandidateIds.add(podAd.scored().candidateId());
+            }
+            payload.put("podCandidates", podCandidateIds);
+        }
+        return payload;
+    }
+
+    private Map<String, Object> modelPayload(ModelScoringService.Predictions predictions) {
+        ModelScoringService.LoadedModel loaded = predictions.loaded();
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : predictions.values()) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("model", loaded.model().getName());
+        payload.put("modelVersion", loaded.model().getVersion());
+        payload.put("target", loaded.model().getTarget());
+        payload.put("generation", loaded.generation());
+        payload.put("candidatesScored", predictions.values().length);
+        payload.put("nsPerCandidate", Math.round(predictions.nanosPerCandidate()));
+        payload.put("minPrediction", min);
+        payload.put("maxPrediction", max);
+        return payload;
+    }
+
+    /**
+     * Reserve the ad's cost and build its serve instruction, or return null if the campaign's budget
+     * cannot cover it. The reservation is committed by the impression event, released if none arrives.
+     */
+    private Map<String, Object> serveAd(String reservationId, ScoredCandidate ad, double pricePaid,
+                                        AuctionStrategy auctionStrategy, AdRequest request) {
+        CandidateAd candidate = ad.candidate();
+        if (!reservationService.reserve(reservationId, candidate.getCampaign(),
+                BudgetLedger.impressionCostMillicents(pricePaid))) {
+            Counter.builder("ad_budget_debit_rejections_total")
+                    .description("Winners dropped because the budget ledger could not cover the impression")
+                    .tag("campaign_id", candidate.getCampaign().getId())
+                    .register(meterRegistry)
+                    .increment();
+            return null;
+        }
+
+        String baseUrl = "https://tracking.podads.lab/events/" + reservationId;
+        Map<String, Object> serveInstruction = new HashMap<>();
+        serveInstruction.put("creativeId", candidate.getCreative().getId());
+        serveInstruction.put("campaignId", ad.campaignId());
+        serveInstruction.put("campaignName", candidate.getCampaign().getName());
+        serveInstruction.put("brandName", ad.brandName());
+        serveInstruction.put("assetUrl", candidate.getCreative().getAssetUrl());
+        serveInstruction.put("durationSeconds", candidate.getCreative().getDurationSeconds());
+        Map<String, Object> trackingUrls = new HashMap<>();
+        trackingUrls.put("impression", baseUrl + "/impression");
+        trackingUrls.put("quartiles", List.of(
+                baseUrl + "/quartile/25",
+                baseUrl + "/quartile/50",
+                baseUrl + "/quartile/75",
+                baseUrl + "/quartile/100"
+        ));
+        // Completion and click events carry the creative so the rotation bandit can credit it
+        trackingUrls.put("complete", baseUrl + "/complete?creativeId=" + candidate.getCreative().getId());
+        trackingUrls.put("click", baseUrl + "/click?creativeId=" + candidate.getCreative().getId());
+        serveInstruction.put("trackingUrls", trackingUrls);
+        serveInstruction.put("pricePaid", pricePaid);
+        serveInstruction.put("auctionStrategy", auctionStrategy.getName());
+
+        // Count the impression against the listener's frequency cap and competitive separation
+        frequencyCapService.recordImpression(request.getListener().getListenerId(),
+                candidate.getCampaign(), request.getTimestamp());
+        separationService.recordServed(request.getListener().getListenerId(), candidate, request.getTimestamp());
+        creativeRotationService.recordServed(reservationId, candidate.getCreative());
+        return serveInstruction;
+    }
+
+    /**
+     * Choose the pod's ads with {@link PodSolver} (one campaign per pod, plus the competitive
+     * separation rules) and price each against the best candidate left out of the pod - the ad that
+     * would have taken its place.
+     */
+    private List<PodAd> solvePod(AdRequest request, List<ScoredCandidate> scoredCandidates,
+                                 AuctionStrategy auctionStrategy, double reserveCpm) {
+        SlotContext slot = request.getSlot();
+        int n = scoredCandidates.size();
+        int[] durations = new int[n];
+        double[] values = new double[n];
+        int keysPerAd = 1 + CompetitiveSeparationService.KEYS_PER_AD;
+        int[] keys = new int[n * keysPerAd];
+        Map<String, Integer> campaignKeys = new HashMap<>();
+        int longest = 0;
+        for (int i = 0; i < n; i++) {
+            ScoredCandidate scored = scoredCandidates.get(i);
+            Integer duration = scored.candidate().getCreative().getDurationSeconds();
+            durations[i] = duration != null ? duration : 0;
+            // Guaranteed campaigns never bid and bids under the reserve cannot sell: a zero value keeps them out of the pod
+            values[i] = scored.candidate().getCampaign().isGuaranteed() || scored.score().bidCpm() < reserveCpm
+                    ? 0 : scored.score().finalScore();
+            keys[i * keysPerAd] = campaignKeys.computeIfAbsent(scored.campaignId(), id -> campaignKeys.size());
+            separationService.podKeys(scored.candidate(), keys, i * keysPerAd + 1);
+            longest = Math.max(longest, durations[i]);
+        }
+        // Without a duration budget only the slot count binds
+        int maxDuration = slot.getPodMaxDurationSeconds() != null ? slot.getPodMaxDurationSeconds() : longest * slot.getPodSlots();
+
+        Timer.Sample solveTimer = Timer.start(meterRegistry);
+        int[] picked = podSolver.solve(durations, values, keys, keysPerAd, n, maxDuration, slot.getPodSlots());
+        solveTimer.stop(Timer.builder("ad_pod_solve_latency")
+                .description("Time to choose the ads of a pod")
+                .register(meterRegistry));
+
+        boolean[] inPod = new boolean[n];
+        for (int i : picked) {
+            inPod[i] = true;
+        }
+        // Bids under the reserve still compete for pricing, as in a single-slot auction; the reserve bounds them
+        CandidateScore bestLeftOut = null;
+        for (int i = 0; i < n; i++) {
+            CandidateScore score = scoredCandidates.get(i).score();
+            boolean competes = !scoredCandidates.get(i).candidate().getCampaign().isGuaranteed() && score.finalScore() > 0;
+            if (!inPod[i] && competes && (bestLeftOut == null || score.finalScore() > bestLeftOut.finalScore())) {
+                bestLeftOut = score;
+            }
+        }
+
+        List<PodAd> podAds = new ArrayList<>(picked.length);
+        for (int i : picked) {
+            ScoredCandidate scored = scoredCandidates.get(i);
+            double price = auctionStrategy.price(scored.score(), bestLeftOut, reserveCpm);
+            if (price != AuctionStrategy.NO_SALE) {
+                podAds.add(new PodAd(scored, price));
+            }
+        }
+        return podAds;
+    }
+
+    private static Map<String, Object> podPayload(AdRequest request, List<Map<String, Object>> servedAds) {
+        int filledSeconds = 0;
+        for (Map<String, Object> served : servedAds) {
+            Object duration = served.get("durationSeconds");
+            filledSeconds += duration instanceof Number ? ((Number) duration).intValue() : 0;
+        }
+        Map<String, Object> pod = new HashMap<>();
+        pod.put("slots", request.getSlot().getPodSlots());
+        pod.put("maxDurationSeconds", request.getSlot().getPodMaxDurationSeconds());
+        pod.put("filledDurationSeconds", filledSeconds);
+        pod.put("ads", servedAds);
+        return pod;
+    }
+
+    /**
+     * Every candidate ranked by final score, with filtered ones at zero so the UI can show why they
+     * were dropped. The only full sort in a decision, done only when explainability is requested.
+     */
+    private List<Map<String, Object>> explainCandidates(List<CandidateAd> candidates, List<ScoredCandidate> scoredCandidates,
+                                                        Map<String, Map<String, Map<String, Object>>> filterResults) {
+        List<ScoredCandidate> ranked = new ArrayList<>(candidates.size());
+        ranked.addAll(scoredCandidates);
+        Set<String> passedIds = new HashSet<>();
+        for (ScoredCandidate scored : scoredCandidates) {
+            passedIds.add(scored.candidateId());
+        }
+        for (CandidateAd candidate : candidates) {
+            String candidateId = candidate.getCampaign().getId() + "-" + candidate.getCreative().getId();
+            if (!passedIds.contains(candidateId)) {
+                Map<String, Map<String, Object>> filters = filterResults.get(candidateId);
+                ranked.add(new ScoredCandidate(candidate, candidateId, brandName(candidate),
+                        filters != null ? filters : Map.of(),
+                        CandidateScore.notScored(candidate.getCampaign().getBidCpm()), Double.NaN, false));
+            }
+        }
+
+        // Sort by final score (descending); stable, so ties keep sourcing order
+        ranked.sort(BY_FINAL_SCORE_DESC);
+        List<Map<String, Object>> candidateMaps = new ArrayList<>(ranked.size());
+        for (ScoredCandidate scored : ranked) {
+            candidateMaps.add(scored.toMap());
+        }
+        return candidateMaps;
+    }
+
+    private static List<Map<String, Object>> topCandidates(ScoredCandidate winner, ScoredCandidate runnerUp) {
+        List<Map<String, Object>> candidateMaps = new ArrayList<>(2);
+        if (winner != null) {
+            candidateMaps.add(winner.toMap());
+            if (runnerUp != null && runnerUp.score().finalScore() > 0) {
+                candidateMaps.add(runnerUp.toMap());
+            }
+        }
+        return candidateMaps;
+    }
+
+    // Extract and normalize brand name from campaign name (e.g., "Capital One Venture..." -> "Capital One");
+    // catalog candidates carry it precomputed
+    private static String brandName(CandidateAd candidate) {
+        if (candidate.getBrandName() != null) {
+            return candidate.getBrandName();
+        }
+        String brandName = BrandNameExtractor.extractAndNormalizeBrandName(candidate.getCampaign().getName());
+        if (brandName == null || brandName.isEmpty()) {
+            return candidate.getCampaign().getId(); // Fallback to campaign ID if extraction fails
+        }
+        return brandName;
+    }
+
+    private Map<String, Object> servePayload(Map<String, Object> serveInstruction) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("served", serveInstruction != null);
+        payload.put("pricePaid", serveInstruction != null ? serveInstruction.get("pricePaid") : null);
+        return payload;
+    }
+
+    /**
+     * Add a filter outcome to a candidate's trace and metrics; returns whether it passed.
+     */
+    private boolean recordFilterResult(Map<String, Map<String, Object>> results, String filterName, FilterResult result) {
+        Map<String, Object> resultMap = new HashMap<>();
+        resultMap.put("passed", result.getPassed());
+        if (result.getReasonCode() != null) {
+            resultMap.put("reasonCode", result.getReasonCode().getValue());
+        }
+        if (result.getDetails() != null) {
+            resultMap.put("details", result.getDetails());
+        }
+        results.put(filterName, resultMap);
+
+        // Record filter application metric
+        Counter.builder("ad_filters_applied")
+                .description("Filter applications")
+                .tag("filter_name", filterName)
+                .tag("passed", String.valueOf(result.getPassed()))
+                .register(meterRegistry)
+                .increment();
+        return result.getPassed();
+    }
+
     private Map<String, Object> createStage(String name, double latencyMs, String inputSummary,
                                              String outputSummary, Map<String, Object> debugPayload) {
         Map<String, Object> stage = new HashMap<>();
@@ -487,6 +883,35 @@ public class MakeDecisionUseCase {
         stage.put("debugPayload", debugPayload);
         return stage;
     }
-}
 
+    private record PodAd(ScoredCandidate scored, double pricePaid) {
+    }
+
+    /**
+     * A candidate in the auction with its primitive score; converted to the response map only once
+     * the decision is built.
+     */
+    private record ScoredCandidate(CandidateAd candidate, String candidateId, String brandName,
+                                   Map<String, Map<String, Object>> filterResults, CandidateScore score,
+                                   double predictedPerformance, boolean passedAllFilters) {
+        String campaignId() {
+            return candidate.getCampaign().getId();
+        }
 
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("candidateId", candidateId);
+            map.put("campaignId", candidate.getCampaign().getId());
+            map.put("campaignName", candidate.getCampaign().getName());
+            map.put("brandName", brandName);
+            map.put("creativeId", candidate.getCreative().getId());
+            map.put("filterResults", filterResults);
+            map.put("score", score.toMap());
+            if (!Double.isNaN(predictedPerformance)) {
+                map.put("predictedPerformance", predictedPerformance);
+            }
+            map.put("passedAllFilters", passedAllFilters);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.podads.application.use_cases;
+
+import com.podads.domain.entities.AdRequest;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Runs a stream of distinct ad requests through {@link MakeDecisionUseCase} concurrently and hands
+ * each result to a sink as soon as it is ready.
+ *
+ * Every request runs on its own virtual thread; a semaphore caps how many are in flight, and the next
+ * request is only read from the source once a permit is free. At most {@code concurrency} requests and
+ * decisions are held at any time, whatever the batch size. Results arrive in completion order, each
+ * tagged with its index in the source; the sink is called by one thread at a time.
+ *
+ * A source element that cannot be used (invalid request) is reported by throwing
+ * {@link IllegalArgumentException} from {@code next()}: it yields an error result and the stream
+ * continues. Any other exception from the source ends reading; requests already started still finish.
+ */
+@Service
+public class StreamDecisionsUseCase {
+    private static final Logger logger = LoggerFactory.getLogger(StreamDecisionsUseCase.class);
+
+    private final Decider decider;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final DistributionSummary batchSize;
+
+    @Autowired
+    public StreamDecisionsUseCase(MakeDecisionUseCase makeDecisionUseCase, MeterRegistry meterRegistry) {
+        this(makeDecisionUseCase::execute, meterRegistry);
+    }
+
+    StreamDecisionsUseCase(Decider decider, MeterRegistry meterRegistry) {
+        this.decider = decider;
+        this.batchSize = DistributionSummary.builder("ad_batch_stream_requests")
+                .description("Requests per streamed batch")
+                .register(meterRegistry);
+        Gauge.builder("ad_batch_stream_in_flight", inFlight, AtomicInteger::get)
+                .description("Streamed batch decisions running right now")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param seed  base seed; request {@code i} uses {@code seed + i}
+     * @param sink  receives {@code {index, requestId, decision}} or {@code {index, requestId?, error}} per
+     *              request; if it throws, no further requests are started
+     */
+    public Summary execute(Iterator<AdRequest> requests, int seed, boolean explain, int concurrency,
+                           Consumer<Map<String, Object>> sink) throws InterruptedException {
+        long start = System.nanoTime();
+        Semaphore permits = new Semaphore(Math.max(1, concurrency));
+        ReentrantLock sinkLock = new ReentrantLock(); // not synchronized: a virtual thread blocked in it would pin its carrier
+        AtomicBoolean sinkFailed = new AtomicBoolean();
+        AtomicInteger fills = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        int count = 0;
+
+        // close() waits for every submitted decision
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (!sinkFailed.get()) {
+                permits.acquire();
+                int index = count;
+                AdRequest request;
+                try {
+                    if (!requests.hasNext()) {
+                        permits.release();
+                        break;
+                    }
+                    request = requests.next();
+                } catch (IllegalArgumentException e) {
+                    count++;
+                    errors.incrementAndGet();
+                    emit(sink, sinkLock, sinkFailed, errorLine(index, null, e.getMessage()));
+                    permits.release();
+                    continue;
+                } catch (RuntimeException e) {
+                    count++;
+                    errors.incrementAndGet();
+                    emit(sink, sinkLock, sinkFailed, errorLine(index, null, "Unreadable batch input: " + e.getMessage()));
+                    permits.release();
+                    break;
+                }
+                count++;
+                executor.submit(() -> {
+                    inFlight.incrementAndGet();
+                    try {
+                        if (sinkFailed.get()) {
+                            return;
+                        }
+                        Map<String, Object> line = new LinkedHashMap<>();
+                        line.put("index", index);
+                        line.put("requestId", request.getRequestId());
+                        try {
+                            Map<String, Object> decision = decider.decide(request, seed + index, explain);
+                            if (decision.get("winner") != null) {
+                                fills.incrementAndGet();
+                            }
+                            line.put("decision", decision);
+                        } catch (RuntimeException e) {
+                            errors.incrementAndGet();
+                            logger.error("Batch ad decision failed", Map.of(
+                                    "requestId", request.getRequestId(),
+                                    "index", index,
+                                    "errorType", e.getClass().getSimpleName()), e);
+                            line.put("error", e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+                        }
+                        emit(sink, sinkLock, sinkFailed, line);
+                    } finally {
+                        inFlight.decrementAndGet();
+                        permits.release();
+                    }
+                });
+            }
+        }
+
+        batchSize.record(count);
+        return new Summary(count, fills.get(), errors.get(), (System.nanoTime() - start) / 1_000_000.0, sinkFailed.get());
+    }
+
+    private static void emit(Consumer<Map<String, Object>> sink, ReentrantLock sinkLock, AtomicBoolean sinkFailed,
+                             Map<String, Object> line) {
+        sinkLock.lock();
+        try {
+            if (sinkFailed.get()) {
+                return;
+            }
+            try {
+                sink.accept(line);
+            } catch (RuntimeException e) {
+                sinkFailed.set(true); // typically the client went away; stop starting new decisions
+                logger.warn("Batch stream sink failed, abandoning the rest of the batch",
+                        Map.of("errorType", e.getClass().getSimpleName()));
+            }
+        } finally {
+            sinkLock.unlock();
+        }
+    }
+
+    private static Map<String, Object> errorLine(int index, String requestId, String message) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("index", index);
+        if (requestId != null) {
+            line.put("requestId", requestId);
+        }
+        line.put("error", message);
+        return line;
+    }
+
+    /**
+     * Totals for one streamed batch; {@code abandoned} when the sink failed before the end.
+     */
+    public record Summary(int count, int fills, int errors, double latencyMs, boolean abandoned) {
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("count", count);
+            map.put("fills", fills);
+            map.put("noFills", count - fills - errors);
+            map.put("errors", errors);
+            map.put("totalLatencyMs", latencyMs);
+            return map;
+        }
+    }
+
+    @FunctionalInterface
+    interface Decider {
+        Map<String, Object> decide(AdRequest request, int seed, boolean explain);
+    }
+}
@@ -1,6 +1,7 @@
 package com.podads.application.utils;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -10,7 +11,7 @@ import java.util.Map;
  */
 public class BrandNameExtractor {
     
-    // Multi-word brands that should be extracted as full names (check these first)
+    // Multi-word brands that should be extracted as full names
     private static final List<String> MULTI_WORD_BRANDS = Arrays.asList(
         "American Express", "Under Armour", "Bank of America", "Capital One",
         "The New York Times", "The Wall Street Journal", "The Washington Post", "The Guardian",
@@ -19,6 +20,22 @@ public class BrandNameExtractor {
         "LinkedIn Learning", "Rosetta Stone", "Khan Academy"
     );
     
+    // Single-word brands
+    private static final List<String> SINGLE_WORD_BRANDS = Arrays.asList(
+        "Nike", "Adidas", "Apple", "Samsung", "Chase", "Spotify", "Tesla", "Coursera",
+        "Peloton", "Lululemon", "Gatorade", "Fitbit", "Reebok", "Puma", "Strava",
+        "ESPN+", "ESPN", "Wilson", "Rawlings", "New Balance", "Mizuno",
+        "Google", "Microsoft", "Meta", "Amazon", "Netflix", "Adobe",
+        "PayPal", "Venmo", "Robinhood", "Fidelity", "Mastercard", "Visa",
+        "Audible", "Hulu", "Peacock",
+        "Comedy Central", "SiriusXM", "Pandora", "iHeartRadio",
+        "CNN", "BBC", "Bloomberg", "Reuters", "NPR",
+        "Udemy", "MasterClass", "Skillshare", "Duolingo", "Babbel", "edX"
+    );
+
+    // Every brand above; the longest one prefixing a campaign name wins ("Apple TV+" over "Apple")
+    private static final PrefixTrie BRAND_TRIE = PrefixTrie.of(MULTI_WORD_BRANDS, SINGLE_WORD_BRANDS);
+    
     // Mapping for normalizing partial brand names to full names
     private static final Map<String, String> BRAND_NORMALIZATION = Map.ofEntries(
         Map.entry("American", "American Express"),
@@ -41,6 +58,7 @@ public class BrandNameExtractor {
     
     /**
      * Extract brand name from campaign name.
+     * One walk down the brand trie, so the cost depends on the brand's length, not the number of brands.
      * Examples:
      * - "Capital One Venture - What's in Your Wallet?" -> "Capital One"
      * - "Nike Air Max - Just Do It" -> "Nike"
@@ -51,33 +69,7 @@ public class BrandNameExtractor {
             return null;
         }
         
-        // Check multi-word brands first (longer matches first)
-        for (String brand : MULTI_WORD_BRANDS) {
-            if (campaignName.startsWith(brand)) {
-                return brand;
-            }
-        }
-        
-        // Single-word brands (check longer/more specific variants first)
-        String[] singleWordBrands = {
-            "Nike", "Adidas", "Apple", "Samsung", "Chase", "Spotify", "Tesla", "Coursera",
-            "Peloton", "Lululemon", "Gatorade", "Fitbit", "Reebok", "Puma", "Strava",
-            "ESPN+", "ESPN", "Wilson", "Rawlings", "New Balance", "Mizuno",
-            "Google", "Microsoft", "Meta", "Amazon", "Netflix", "Adobe",
-            "PayPal", "Venmo", "Robinhood", "Fidelity", "Mastercard", "Visa",
-            "Audible", "Hulu", "Peacock",
-            "Comedy Central", "SiriusXM", "Pandora", "iHeartRadio",
-            "CNN", "BBC", "Bloomberg", "Reuters", "NPR",
-            "Udemy", "MasterClass", "Skillshare", "Duolingo", "Babbel", "edX"
-        };
-        
-        for (String brand : singleWordBrands) {
-            if (campaignName.startsWith(brand)) {
-                return brand;
-            }
-        }
-        
-        return null;
+        return BRAND_TRIE.longestPrefixOf(campaignName);
     }
     
     /**
@@ -127,4 +119,42 @@ public class BrandNameExtractor {
         String firstWord = campaignName.split(" ")[0];
         return normalizeBrandName(firstWord, campaignName);
     }
+
+    /**
+     * Character trie over brand names; a node is terminal when a brand ends there.
+     */
+    private static final class PrefixTrie {
+        private final Map<Character, PrefixTrie> children = new HashMap<>();
+        private String brand;
+
+        @SafeVarargs
+        static PrefixTrie of(List<String>... brandLists) {
+            PrefixTrie root = new PrefixTrie();
+            for (List<String> brands : brandLists) {
+                for (String brand : brands) {
+                    PrefixTrie node = root;
+                    for (int i = 0; i < brand.length(); i++) {
+                        node = node.children.computeIfAbsent(brand.charAt(i), c -> new PrefixTrie());
+                    }
+                    node.brand = brand;
+                }
+            }
+            return root;
+        }
+
+        String longestPrefixOf(String text) {
+            PrefixTrie node = this;
+            String longest = null;
+            for (int i = 0; i < text.length(); i++) {
+                node = node.children.get(text.charAt(i));
+                if (node == null) {
+                    break;
+                }
+                if (node.brand != null) {
+                    longest = node.brand;
+                }
+            }
+            return longest;
+        }
+    }
 }
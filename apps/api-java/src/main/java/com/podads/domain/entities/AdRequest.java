@@ -1,7 +1,6 @@
 package com.podads.domain.entities;
 
 import com.podads.domain.valueobjects.*;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -9,13 +8,32 @@ import java.time.Instant;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class AdRequest {
     private String requestId;
     private PodcastContext podcast;
     private SlotContext slot;
     private ListenerContext listener;
     private Instant timestamp;
+    private Integer listenerHourOfWeek; // derived once per request for dayparting
+    private String auctionStrategy; // null = configured strategy for the slot type
+
+    public AdRequest(String requestId, PodcastContext podcast, SlotContext slot, ListenerContext listener, Instant timestamp) {
+        this.requestId = requestId;
+        this.podcast = podcast;
+        this.slot = slot;
+        this.listener = listener;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Listener-local hour of the week (Monday 00:00 = 0), see {@link HourOfWeekMask#listenerHourOfWeek}.
+     */
+    public int getListenerHourOfWeek() {
+        if (listenerHourOfWeek == null) {
+            listenerHourOfWeek = HourOfWeekMask.listenerHourOfWeek(timestamp, listener.getTimezone(), listener.getTimeOfDay());
+        }
+        return listenerHourOfWeek;
+    }
 }
 
 
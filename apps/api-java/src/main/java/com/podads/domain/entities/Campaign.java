@@ -16,6 +16,7 @@ import java.util.List;
 public class Campaign {
     private String id;
     private String advertiserId;
+    private String advertiserCategory; // e.g. "credit_cards"; competitive separation keeps one per pod/session
     private String name;
     private CampaignStatus status;
     private Budget budget;
@@ -25,6 +26,11 @@ public class Campaign {
     private TargetingRule targeting;
     private Pacing pacing;
     private FrequencyCap frequencyCap;
+    private Guarantee guarantee; // null = non-guaranteed, competes in the auction
+
+    public boolean isGuaranteed() {
+        return guarantee != null;
+    }
 
     public enum CampaignStatus {
         ACTIVE, PAUSED, ENDED, DRAFT
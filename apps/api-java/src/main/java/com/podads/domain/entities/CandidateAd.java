@@ -1,7 +1,7 @@
 package com.podads.domain.entities;
 
 import com.podads.domain.valueobjects.SlotType;
-import lombok.AllArgsConstructor;
+import com.podads.domain.valueobjects.TargetingMasks;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -9,11 +9,39 @@ import java.util.List;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class CandidateAd {
     private Campaign campaign;
     private Creative creative;
     private List<SlotType> eligibleSlotTypes;
-}
+    private TargetingMasks targetingMasks; // compiled from campaign targeting + eligible slots
+    private int catalogIndex = -1; // position in the sourcing catalog, -1 when built elsewhere
+    private String brandName; // normalized brand, resolved once at catalog load
+    private int brandId = -1; // interned brand, -1 when unknown
+    private int advertiserCategoryId = -1; // interned advertiser category, -1 when unknown
+
+    public CandidateAd(Campaign campaign, Creative creative, List<SlotType> eligibleSlotTypes) {
+        this.campaign = campaign;
+        this.creative = creative;
+        this.eligibleSlotTypes = eligibleSlotTypes;
+        this.targetingMasks = TargetingMasks.compile(campaign.getTargeting(), eligibleSlotTypes);
+    }
+
+    public TargetingMasks getTargetingMasks() {
+        if (targetingMasks == null) {
+            targetingMasks = TargetingMasks.compile(campaign.getTargeting(), eligibleSlotTypes); // setter-built candidates
+        }
+        return targetingMasks;
+    }
 
+    // The masks are compiled from these two, so replacing either recompiles them on next read
 
+    public void setCampaign(Campaign campaign) {
+        this.campaign = campaign;
+        this.targetingMasks = null;
+    }
+
+    public void setEligibleSlotTypes(List<SlotType> eligibleSlotTypes) {
+        this.eligibleSlotTypes = eligibleSlotTypes;
+        this.targetingMasks = null;
+    }
+}
@@ -8,8 +8,22 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class FrequencyCap {
+    public static final int DEFAULT_WINDOW_HOURS = 24;
+
     private Integer maxImpressions;
     private Integer windowHours;
+    private Backend backend; // null = use the globally configured backend
+
+    /**
+     * Window to count impressions over; a cap without one counts over a day.
+     */
+    public int windowHoursOrDefault() {
+        return windowHours != null ? windowHours : DEFAULT_WINDOW_HOURS;
+    }
+
+    public enum Backend {
+        EXACT, SKETCH
+    }
 }
 
 
@@ -0,0 +1,16 @@
+package com.podads.domain.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Impression goal of a guaranteed line item. Guaranteed campaigns are served from the allocation
+ * plan ahead of the auction instead of bidding in it, at their contracted CPM.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Guarantee {
+    private Integer dailyImpressions;
+}
@@ -3,6 +3,7 @@ package com.podads.domain.entities;
 import com.podads.domain.valueobjects.PodcastCategory;
 import com.podads.domain.valueobjects.DeviceType;
 import com.podads.domain.valueobjects.TierType;
+import com.podads.domain.valueobjects.TimeOfDay;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -19,6 +20,9 @@ public class TargetingRule {
     private List<PodcastCategory> categories;
     private List<String> shows;
     private List<PodcastCategory> excludeCategories;
+    private List<String> excludeGeo; // hierarchical codes (US, US-CA, US-CA-807); most specific rule wins
+    private List<TimeOfDay> timeOfDay; // dayparting buckets in the listener's local time
+    private List<String> hours; // dayparting windows in the listener's local time, e.g. "mon-fri 06-10"
 }
 
 
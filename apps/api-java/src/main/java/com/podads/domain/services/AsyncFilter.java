@@ -0,0 +1,28 @@
+package com.podads.domain.services;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.valueobjects.FilterResult;
+
+/**
+ * Filter whose decision needs data from a {@link BatchLookupStore}.
+ *
+ * Instead of fetching inside {@code apply}, the filter declares the key it needs for a candidate. The
+ * pipeline collects those keys across all candidates that survived the synchronous filters, issues one
+ * batched lookup per store, and calls {@code apply} with the value once the results arrive.
+ */
+public interface AsyncFilter<K, V> {
+    String getName();
+
+    BatchLookupStore<K, V> getStore();
+
+    /**
+     * Key to look up for this candidate, or null if the filter can decide without one.
+     */
+    K lookupKey(AdRequest request, CandidateAd candidate);
+
+    /**
+     * @param value the stored value for {@link #lookupKey}, or null if there is none
+     */
+    FilterResult apply(AdRequest request, CandidateAd candidate, V value, int randomSeed);
+}
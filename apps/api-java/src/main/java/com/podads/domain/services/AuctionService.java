@@ -2,108 +2,127 @@ package com.podads.domain.services;
 
 import com.podads.domain.entities.AdRequest;
 import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.valueobjects.CandidateScore;
+import com.podads.domain.valueobjects.EnumMask;
+import com.podads.domain.valueobjects.MatchComponents;
+import com.podads.domain.valueobjects.MatchVector;
+import com.podads.domain.valueobjects.ScoringWeights;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public class AuctionService {
+    private final PacingController pacingController;
+    private final ScoringKernel scoringKernel;
+    private final MatchVectorCache matchVectorCache;
+
+    public AuctionService(PacingController pacingController, ScoringKernel scoringKernel,
+                          MatchVectorCache matchVectorCache) {
+        this.pacingController = pacingController;
+        this.scoringKernel = scoringKernel;
+        this.matchVectorCache = matchVectorCache;
+    }
 
-    public Map<String, Object> calculateMatchScore(AdRequest request, CandidateAd candidate) {
+    public MatchComponents calculateMatchScore(AdRequest request, CandidateAd candidate) {
         // Default scores: 0.5 = neutral (no targeting = no penalty/boost)
         double categoryMatch = 0.5;
-        double showMatch = 0.5;
-        double listenerSegmentWeight = 1.0;
 
         // Category match: 1.0 = exact match, 0.3 = partial (campaign targets but not this category)
-        var categories = candidate.getCampaign().getTargeting().getCategories();
-        if (categories != null && !categories.isEmpty()) {
-            if (categories.contains(request.getPodcast().getCategory())) {
+        long categories = candidate.getTargetingMasks().getCategories();
+        if (categories != EnumMask.ANY) {
+            if (EnumMask.contains(categories, request.getPodcast().getCategory())) {
                 categoryMatch = 1.0;
             } else {
                 categoryMatch = 0.3; // Partial match: campaign has targeting but not this category
             }
         }
 
-        // Show match: 1.0 = exact match, 0.4 = partial (campaign targets shows but not this one)
-        var shows = candidate.getCampaign().getTargeting().getShows();
-        if (shows != null && !shows.isEmpty()) {
-            if (shows.contains(request.getPodcast().getShow())) {
-                showMatch = 1.0;
-            } else {
-                showMatch = 0.4; // Partial match: campaign targets shows but not this show
-            }
-        }
-
-        // Listener segment weight: premium tier and smart speakers are higher value
-        if (request.getListener().getTier() == com.podads.domain.valueobjects.TierType.PREMIUM) {
-            listenerSegmentWeight = 1.1; // Premium listeners worth 10% more
-        }
-        if (request.getListener().getDevice() == com.podads.domain.valueobjects.DeviceType.SMART_SPEAKER) {
-            listenerSegmentWeight *= 1.05; // Smart speakers worth 5% more (multiplicative)
-        }
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("categoryMatch", categoryMatch);
-        result.put("showMatch", showMatch);
-        result.put("listenerSegmentWeight", listenerSegmentWeight);
-        return result;
+        return new MatchComponents(categoryMatch, MatchRules.showMatch(request, candidate), MatchRules.listenerSegmentWeight(request));
     }
 
     public double calculatePacingMultiplier(CandidateAd candidate) {
-        var pacing = candidate.getCampaign().getPacing();
-        if (pacing.getDailyBudget() == null) {
-            return 1.0; // No pacing limit = no throttling
-        }
-
-        double spendRatio = (pacing.getDailySpend() != null ? pacing.getDailySpend() : 0.0)
-                / (double) pacing.getDailyBudget();
-
-        // Pacing throttling: prevent budget exhaustion by reducing score as spend approaches limit
-        // Thresholds: 70% (moderate), 90% (heavy), 100% (complete)
-        if (spendRatio >= 1.0) {
-            return 0.0; // Budget exhausted - completely throttled
-        }
-        if (spendRatio > 0.9) {
-            return 0.3; // Near limit - heavily throttled (70% score reduction)
-        }
-        if (spendRatio > 0.7) {
-            return 0.7; // Approaching limit - moderately throttled (30% score reduction)
-        }
-        return 1.0; // Under 70% spend - no throttling
+        // The pacing gate already dropped candidates with probability 1 - p, so scaling the score by p
+        // again would throttle by p squared. Scoring only zeroes campaigns whose daily budget is gone.
+        return pacingController.passProbability(candidate.getCampaign()) > 0.0 ? 1.0 : 0.0;
     }
 
-    public Map<String, Object> scoreCandidate(AdRequest request, CandidateAd candidate) {
+    public CandidateScore scoreCandidate(AdRequest request, CandidateAd candidate) {
         int bidCpm = candidate.getCampaign().getBidCpm();
-        Map<String, Object> matchComponents = calculateMatchScore(request, candidate);
-        double categoryMatch = (Double) matchComponents.get("categoryMatch");
-        double showMatch = (Double) matchComponents.get("showMatch");
-        double listenerSegmentWeight = (Double) matchComponents.get("listenerSegmentWeight");
+        MatchComponents match = calculateMatchScore(request, candidate);
         double pacingMultiplier = calculatePacingMultiplier(candidate);
 
         // Match score: weighted average (category 60%, show 40%)
         // Show match is multiplied by listenerSegmentWeight (premium/smart speaker boost)
-        double matchScore = categoryMatch * 0.6 + showMatch * 0.4 * listenerSegmentWeight;
+        double matchScore = match.categoryMatch() * 0.6 + match.showMatch() * 0.4 * match.listenerSegmentWeight();
 
         // Final auction score: bidCPM × matchScore × pacingMultiplier
         // Higher score = better candidate. Winner is highest scorer.
         double finalScore = bidCpm * matchScore * pacingMultiplier;
 
-        Map<String, Object> score = new HashMap<>();
-        score.put("bidCpm", (double) bidCpm);
-        score.put("matchScore", matchScore);
-        score.put("pacingMultiplier", pacingMultiplier);
-        score.put("finalScore", finalScore);
-
-        Map<String, Object> breakdown = new HashMap<>();
-        breakdown.put("categoryMatch", categoryMatch);
-        breakdown.put("showMatch", showMatch);
-        breakdown.put("listenerSegmentWeight", listenerSegmentWeight);
-        score.put("breakdown", breakdown);
+        return new CandidateScore(bidCpm, match, matchScore, pacingMultiplier, finalScore);
+    }
 
-        return score;
+    /**
+     * Score all candidates at once: gather their inputs into a {@link ScoringBlock} and run the
+     * configured {@link ScoringKernel} over it. Same scores as {@link #scoreCandidate}, in input order.
+     *
+     * When the request's context has a cached {@link MatchVector} covering every candidate, match
+     * scores are read from it and the kernel only multiplies in bid and pacing.
+     */
+    public List<CandidateScore> scoreCandidates(AdRequest request, List<CandidateAd> candidates) {
+        return scoreCandidates(request, candidates, ScoringWeights.DEFAULT);
     }
-}
 
+    /**
+     * Same, with other match score weights (an experiment arm). Cached match vectors hold scores for
+     * the default weights, so other weights always score from the candidates.
+     */
+    public List<CandidateScore> scoreCandidates(AdRequest request, List<CandidateAd> candidates, ScoringWeights weights) {
+        int n = candidates.size();
+        ScoringBlock block = new ScoringBlock(n);
+        block.categoryWeight = weights.category();
+        block.showWeight = weights.show();
+        MatchVector matchVector = n > 0 && weights.isDefault() ? matchVectorCache.get(request) : null;
+        boolean cached = matchVector != null;
+        for (int i = 0; i < n && cached; i++) {
+            cached = matchVector.covers(candidates.get(i));
+        }
+
+        for (int i = 0; i < n; i++) {
+            CandidateAd candidate = candidates.get(i);
+            block.bidCpm[i] = candidate.getCampaign().getBidCpm();
+            block.pacingMultiplier[i] = calculatePacingMultiplier(candidate);
+            if (cached) {
+                int index = candidate.getCatalogIndex();
+                block.categoryMatch[i] = matchVector.categoryMatch(index);
+                block.showMatch[i] = matchVector.showMatch(index);
+                block.matchScore[i] = matchVector.matchScore(index);
+            } else {
+                block.categoryMasks[i] = candidate.getTargetingMasks().getCategories();
+                block.showMatch[i] = MatchRules.showMatch(request, candidate);
+            }
+        }
+        double listenerSegmentWeight;
+        if (cached) {
+            listenerSegmentWeight = matchVector.getListenerSegmentWeight();
+            scoringKernel.finalScores(block);
+        } else {
+            listenerSegmentWeight = MatchRules.listenerSegmentWeight(request);
+            scoringKernel.score(block, EnumMask.bit(request.getPodcast().getCategory()), listenerSegmentWeight);
+        }
+
+        List<CandidateScore> scores = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            MatchComponents match = new MatchComponents(block.categoryMatch[i], block.showMatch[i], listenerSegmentWeight);
+            scores.add(new CandidateScore(block.bidCpm[i], match, block.matchScore[i],
+                    block.pacingMultiplier[i], block.finalScore[i]));
+        }
+        return scores;
+    }
 
+    public String getScoringKernelName() {
+        return scoringKernel.getName();
+    }
+}
@@ -0,0 +1,29 @@
+package com.podads.domain.services;
+
+import com.podads.domain.valueobjects.CandidateScore;
+
+/**
+ * Prices the winner of an auction.
+ *
+ * The decision pipeline ranks candidates by final score in a single pass and hands the strategy
+ * the winner and runner-up, so pricing itself is constant time and allocation-free.
+ */
+public interface AuctionStrategy {
+    /**
+     * Returned by {@link #price} when the winner cannot clear the reserve.
+     */
+    double NO_SALE = -1.0;
+
+    /**
+     * Name used in configuration, requests and the decision trace.
+     */
+    String getName();
+
+    /**
+     * CPM the winner pays, never above its own bid, or {@link #NO_SALE}.
+     *
+     * @param runnerUp   next-best candidate with a positive score, or null if the winner was alone
+     * @param reserveCpm lowest acceptable price for the slot (0 = no reserve)
+     */
+    double price(CandidateScore winner, CandidateScore runnerUp, double reserveCpm);
+}
@@ -0,0 +1,18 @@
+package com.podads.domain.services;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Remote key/value store read by {@link AsyncFilter}s.
+ *
+ * The decision pipeline calls {@link #lookupAll} once per decision with the keys of every surviving
+ * candidate, so a store sees one round trip per request rather than one per candidate. Keys with no
+ * value are left out of the result map.
+ */
+public interface BatchLookupStore<K, V> {
+    String getName();
+
+    CompletableFuture<Map<K, V>> lookupAll(Set<K> keys);
+}
@@ -0,0 +1,38 @@
+package com.podads.domain.services;
+
+import com.podads.domain.entities.Campaign;
+
+import java.time.LocalDate;
+
+/**
+ * Live campaign spend accounting.
+ *
+ * Amounts are in millicents: a CPM price in cents is exactly the per-impression cost in millicents,
+ * so debits stay integral. Campaign {@code budget.remaining} / {@code pacing.dailySpend} are only the
+ * opening balances - read live values from here.
+ */
+public interface BudgetLedger {
+    /**
+     * Debit one amount from the campaign's total and daily budgets.
+     * Returns false (and debits nothing) if either budget cannot cover it.
+     */
+    boolean tryDebit(Campaign campaign, long amountMillicents);
+
+    /**
+     * Return a previously debited amount, e.g. when a reservation expires unused.
+     * The total budget always gets it back; the daily budget only if {@code debitedOn} is still the
+     * current day - yesterday's unspent money does not top up today's allowance.
+     */
+    void credit(Campaign campaign, long amountMillicents, LocalDate debitedOn);
+
+    long remainingMillicents(Campaign campaign);
+
+    long dailySpendMillicents(Campaign campaign);
+
+    /**
+     * Per-impression cost of a CPM price in cents.
+     */
+    static long impressionCostMillicents(double cpmCents) {
+        return Math.round(cpmCents);
+    }
+}
@@ -0,0 +1,39 @@
+package com.podads.domain.services;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.valueobjects.DeviceType;
+import com.podads.domain.valueobjects.TierType;
+
+/**
+ * Match-score inputs that need more than a mask test, shared by per-candidate scoring and the
+ * match-vector cache so both compute them identically.
+ */
+public final class MatchRules {
+    private MatchRules() {
+    }
+
+    // Show match: 1.0 = exact match, 0.4 = partial (campaign targets shows but not this one), 0.5 = untargeted
+    public static double showMatch(AdRequest request, CandidateAd candidate) {
+        var shows = candidate.getCampaign().getTargeting().getShows();
+        if (shows != null && !shows.isEmpty()) {
+            if (shows.contains(request.getPodcast().getShow())) {
+                return 1.0;
+            }
+            return 0.4; // Partial match: campaign targets shows but not this show
+        }
+        return 0.5;
+    }
+
+    // Listener segment weight: premium tier and smart speakers are higher value
+    public static double listenerSegmentWeight(AdRequest request) {
+        double listenerSegmentWeight = 1.0;
+        if (request.getListener().getTier() == TierType.PREMIUM) {
+            listenerSegmentWeight = 1.1; // Premium listeners worth 10% more
+        }
+        if (request.getListener().getDevice() == DeviceType.SMART_SPEAKER) {
+            listenerSegmentWeight *= 1.05; // Smart speakers worth 5% more (multiplicative)
+        }
+        return listenerSegmentWeight;
+    }
+}
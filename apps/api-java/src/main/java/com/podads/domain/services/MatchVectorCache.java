@@ -0,0 +1,15 @@
+package com.podads.domain.services;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.valueobjects.MatchVector;
+
+/**
+ * Source of precomputed {@link MatchVector}s for a request's match context.
+ */
+public interface MatchVectorCache {
+    /**
+     * Match vector of the current catalog for this request's context, or null when not available
+     * (callers then compute match scores per candidate).
+     */
+    MatchVector get(AdRequest request);
+}
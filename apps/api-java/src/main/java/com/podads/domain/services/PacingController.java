@@ -0,0 +1,14 @@
+package com.podads.domain.services;
+
+import com.podads.domain.entities.Campaign;
+
+/**
+ * Decides how hard to throttle a campaign to keep daily spend on its delivery curve.
+ */
+public interface PacingController {
+    /**
+     * Probability in [0, 1] that the campaign should take part in an auction right now.
+     * 1.0 = unthrottled, 0.0 = daily budget exhausted. Must be cheap: called per candidate.
+     */
+    double passProbability(Campaign campaign);
+}
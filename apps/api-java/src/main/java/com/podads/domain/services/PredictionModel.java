@@ -0,0 +1,28 @@
+package com.podads.domain.services;
+
+import com.podads.domain.valueobjects.ModelFeature;
+
+/**
+ * Predicted performance (completion or click probability) of candidates in a request.
+ *
+ * Implementations are immutable once loaded, so a decision can keep using the instance it read
+ * while a newer one is being swapped in.
+ */
+public interface PredictionModel {
+    String getName();
+
+    String getVersion();
+
+    /**
+     * What the prediction estimates, e.g. {@code completion} or {@code click}.
+     */
+    String getTarget();
+
+    /**
+     * Predict every row of a feature matrix.
+     *
+     * @param features {@code rows} rows of {@link ModelFeature#COUNT} values each, in feature ordinal order
+     * @param out      receives one prediction per row; must hold at least {@code rows} values
+     */
+    void predict(double[] features, int rows, double[] out);
+}
@@ -0,0 +1,10 @@
+package com.podads.domain.services;
+
+/**
+ * Synchronous filter whose decision calls out to a remote dependency.
+ *
+ * Only these (and {@link AsyncFilter}s) run under a latency budget and circuit breaker. Filters that
+ * decide from in-memory data cannot be made healthier by shedding calls, so they are called directly.
+ */
+public interface RemoteFilter extends Filter {
+}
@@ -0,0 +1,40 @@
+package com.podads.domain.services;
+
+import com.podads.domain.valueobjects.ScoringWeights;
+
+/**
+ * A block of auction candidates laid out as parallel primitive arrays, one slot per candidate.
+ *
+ * {@link AuctionService} gathers the per-candidate inputs; a {@link ScoringKernel} fills the outputs
+ * for the whole block in one pass. Arrays are exposed directly so kernels can load them in lanes.
+ */
+public final class ScoringBlock {
+    // Inputs
+    public final double[] bidCpm;
+    public final long[] categoryMasks; // campaign category targeting, EnumMask.ANY when untargeted
+    public final double[] showMatch;
+    public final double[] pacingMultiplier;
+    // Outputs
+    public final double[] categoryMatch;
+    public final double[] matchScore;
+    public final double[] finalScore;
+    // Match score weights for the whole block
+    public double categoryWeight = ScoringWeights.DEFAULT.category();
+    public double showWeight = ScoringWeights.DEFAULT.show();
+    private final int size;
+
+    public ScoringBlock(int size) {
+        this.size = size;
+        this.bidCpm = new double[size];
+        this.categoryMasks = new long[size];
+        this.showMatch = new double[size];
+        this.pacingMultiplier = new double[size];
+        this.categoryMatch = new double[size];
+        this.matchScore = new double[size];
+        this.finalScore = new double[size];
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,26 @@
+package com.podads.domain.services;
+
+/**
+ * Computes auction scores for a whole {@link ScoringBlock}.
+ *
+ * Per candidate: category match from its targeting mask (0.5 untargeted, 1.0 hit, 0.3 miss),
+ * {@code matchScore = categoryMatch * categoryWeight + showMatch * showWeight * listenerSegmentWeight}
+ * (the block's weights, 0.6 and 0.4 by default) and
+ * {@code finalScore = bidCpm * matchScore * pacingMultiplier}. Implementations must produce results
+ * bit-identical to {@link AuctionService#scoreCandidate}, evaluating the same operations in the same order.
+ */
+public interface ScoringKernel {
+    String getName();
+
+    /**
+     * @param categoryBit           EnumMask bit of the request's podcast category
+     * @param listenerSegmentWeight request-wide listener weight (premium tier, smart speaker)
+     */
+    void score(ScoringBlock block, long categoryBit, double listenerSegmentWeight);
+
+    /**
+     * Only {@code finalScore = bidCpm * matchScore * pacingMultiplier}, for blocks whose match scores
+     * are already filled in (from a {@link com.podads.domain.valueobjects.MatchVector}).
+     */
+    void finalScores(ScoringBlock block);
+}
@@ -0,0 +1,37 @@
+package com.podads.domain.valueobjects;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Auction score of one candidate. Scoring, sorting and pricing work on these primitives; the
+ * map form exists only for the decision response.
+ */
+public record CandidateScore(double bidCpm, MatchComponents match, double matchScore, double pacingMultiplier,
+                             double finalScore) {
+
+    /**
+     * Score reported for a candidate dropped by a filter (explainability only, never wins).
+     */
+    public static CandidateScore notScored(double bidCpm) {
+        return new CandidateScore(bidCpm, MatchComponents.NOT_SCORED, 0.0, 0.0, 0.0);
+    }
+
+    /**
+     * This score with its final score weighted by a predicted performance (completion or click
+     * probability), so the auction ranks by expected value rather than by bid and relevance alone.
+     */
+    public CandidateScore weightedBy(double predictedPerformance) {
+        return new CandidateScore(bidCpm, match, matchScore, pacingMultiplier, finalScore * predictedPerformance);
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("bidCpm", bidCpm);
+        map.put("matchScore", matchScore);
+        map.put("pacingMultiplier", pacingMultiplier);
+        map.put("finalScore", finalScore);
+        map.put("breakdown", match.toMap());
+        return map;
+    }
+}
@@ -0,0 +1,57 @@
+package com.podads.domain.valueobjects;
+
+import java.util.Collection;
+
+/**
+ * Enum sets packed into a {@code long}, one bit per ordinal, so a targeting check is a single AND.
+ *
+ * Bit 63 is reserved for a {@code null} request value: {@link #ANY} includes it (untargeted campaigns
+ * still match), while masks built from real values never do - the same outcome as the old
+ * {@code list == null || list.isEmpty() || list.contains(value)} checks.
+ */
+public final class EnumMask {
+    /** "No targeting" sentinel: every bit set, matches any value including null. */
+    public static final long ANY = -1L;
+    public static final long NONE = 0L;
+    private static final long NULL_BIT = 1L << 63;
+
+    private EnumMask() {
+    }
+
+    public static long bit(Enum<?> value) {
+        if (value == null) {
+            return NULL_BIT;
+        }
+        if (value.ordinal() >= 63) {
+            throw new IllegalArgumentException(value.getDeclaringClass().getSimpleName() + " has too many constants for EnumMask");
+        }
+        return 1L << value.ordinal();
+    }
+
+    /**
+     * Exact set: null or empty = {@link #NONE}.
+     */
+    public static long of(Collection<? extends Enum<?>> values) {
+        if (values == null) {
+            return NONE;
+        }
+        long mask = NONE;
+        for (Enum<?> value : values) {
+            if (value != null) {
+                mask |= bit(value);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Targeting list: null or empty means "no targeting" = {@link #ANY}.
+     */
+    public static long targeting(Collection<? extends Enum<?>> values) {
+        return values == null || values.isEmpty() ? ANY : of(values);
+    }
+
+    public static boolean contains(long mask, Enum<?> value) {
+        return (mask & bit(value)) != 0;
+    }
+}
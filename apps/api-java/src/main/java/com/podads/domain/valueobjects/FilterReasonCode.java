@@ -4,6 +4,7 @@ public enum FilterReasonCode {
     CAMPAIGN_INACTIVE("campaign_inactive"),
     CAMPAIGN_ENDED("campaign_ended"),
     OUTSIDE_SCHEDULE_WINDOW("outside_schedule_window"),
+    OUTSIDE_DAYPART("outside_daypart"),
     GEO_MISMATCH("geo_mismatch"),
     DEVICE_MISMATCH("device_mismatch"),
     TIER_MISMATCH("tier_mismatch"),
@@ -13,11 +14,15 @@ public enum FilterReasonCode {
     DURATION_TOO_LONG("duration_too_long"),
     DURATION_TOO_SHORT("duration_too_short"),
     FREQUENCY_CAP_EXCEEDED("frequency_cap_exceeded"),
+    COMPETITIVE_SEPARATION("competitive_separation"),
     BUDGET_EXHAUSTED("budget_exhausted"),
     PACING_LIMIT_EXCEEDED("pacing_limit_exceeded"),
     BRAND_SAFETY_VIOLATION("brand_safety_violation"),
     CREATIVE_NOT_APPROVED("creative_not_approved"),
-    SLOT_TYPE_MISMATCH("slot_type_mismatch");
+    SLOT_TYPE_MISMATCH("slot_type_mismatch"),
+    BELOW_FLOOR_PRICE("below_floor_price"),
+    CREATIVE_ROTATED_OUT("creative_rotated_out"),
+    FILTER_UNAVAILABLE("filter_unavailable");
 
     private final String value;
 
@@ -0,0 +1,174 @@
+package com.podads.domain.valueobjects;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 168-bit set of the hours of the week (Monday 00:00 = hour 0) in which a campaign may serve.
+ *
+ * Compiled from dayparting rules such as {@code "mon-fri 06-10"}, {@code "sat 18-02"} (wraps into
+ * Sunday) or {@code "daily 00-24"}, plus time-of-day buckets expanded to their hours. Testing an
+ * hour is one word load and one AND.
+ */
+public final class HourOfWeekMask {
+    public static final int HOURS_PER_WEEK = 168;
+    public static final HourOfWeekMask ALWAYS = new HourOfWeekMask(new long[]{-1L, -1L, (1L << 40) - 1});
+
+    private static final String[] DAYS = {"mon", "tue", "wed", "thu", "fri", "sat", "sun"};
+
+    private final long[] words;
+
+    private HourOfWeekMask(long[] words) {
+        this.words = words;
+    }
+
+    public boolean isActive(int hourOfWeek) {
+        return (words[hourOfWeek >>> 6] & (1L << hourOfWeek)) != 0;
+    }
+
+    public boolean isAlways() {
+        return Arrays.equals(words, ALWAYS.words);
+    }
+
+    /**
+     * Compile dayparting targeting. Each constraint that is present must hold: an hour is active when
+     * it is in one of the {@code hours} windows (if any) and in one of the {@code timeOfDay} buckets (if any).
+     */
+    public static HourOfWeekMask compile(List<String> hours, List<TimeOfDay> timeOfDay) {
+        long[] words = ALWAYS.words.clone();
+        if (hours != null && !hours.isEmpty()) {
+            long[] windows = new long[3];
+            for (String window : hours) {
+                addWindow(windows, window);
+            }
+            and(words, windows);
+        }
+        if (timeOfDay != null && !timeOfDay.isEmpty()) {
+            long[] buckets = new long[3];
+            for (int hour = 0; hour < HOURS_PER_WEEK; hour++) {
+                if (timeOfDay.contains(bucketOf(hour % 24))) {
+                    buckets[hour >>> 6] |= 1L << hour;
+                }
+            }
+            and(words, buckets);
+        }
+        return new HourOfWeekMask(words);
+    }
+
+    /**
+     * Listener-local hour of the week.
+     *
+     * With a valid time zone this is exact. Without one, the UTC hour is nudged to the nearest hour
+     * inside the listener's reported time-of-day bucket (if any), which is the best local-time estimate
+     * we have for a listener whose offset is unknown.
+     */
+    public static int listenerHourOfWeek(Instant timestamp, String timezone, TimeOfDay reportedTimeOfDay) {
+        ZoneId zone = parseZone(timezone);
+        ZonedDateTime local = timestamp.atZone(zone != null ? zone : ZoneOffset.UTC);
+        int hourOfWeek = (local.getDayOfWeek().getValue() - 1) * 24 + local.getHour();
+        if (zone != null || reportedTimeOfDay == null) {
+            return hourOfWeek;
+        }
+        for (int offset = 0; offset <= 12; offset++) {
+            for (int candidate : new int[]{hourOfWeek + offset, hourOfWeek - offset}) {
+                int hour = Math.floorMod(candidate, HOURS_PER_WEEK);
+                if (bucketOf(hour % 24) == reportedTimeOfDay) {
+                    return hour;
+                }
+            }
+        }
+        return hourOfWeek;
+    }
+
+    private static ZoneId parseZone(String timezone) {
+        if (timezone == null || timezone.isBlank()) {
+            return null;
+        }
+        try {
+            return ZoneId.of(timezone);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Time-of-day bucket an hour falls in: night 00-06, morning 06-12, afternoon 12-18, evening 18-24.
+     */
+    public static TimeOfDay bucketOf(int hourOfDay) {
+        if (hourOfDay < 6) {
+            return TimeOfDay.NIGHT;
+        }
+        if (hourOfDay < 12) {
+            return TimeOfDay.MORNING;
+        }
+        return hourOfDay < 18 ? TimeOfDay.AFTERNOON : TimeOfDay.EVENING;
+    }
+
+    /**
+     * "&lt;days&gt; &lt;from&gt;-&lt;to&gt;": days = mon..sun, a range like mon-fri, daily, weekdays or weekends;
+     * hours are 0-24 with an exclusive end, and from &gt; to wraps past midnight.
+     */
+    private static void addWindow(long[] words, String window) {
+        String[] parts = window.trim().toLowerCase(Locale.ROOT).split("\\s+");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid daypart window: " + window);
+        }
+        int[] days = parseRange(parts[0], window);
+        String[] hourRange = parts[1].split("-");
+        if (hourRange.length != 2) {
+            throw new IllegalArgumentException("Invalid daypart hours: " + window);
+        }
+        int from = Integer.parseInt(hourRange[0]);
+        int to = Integer.parseInt(hourRange[1]);
+        if (from < 0 || from > 23 || to < 0 || to > 24 || from == to) {
+            throw new IllegalArgumentException("Invalid daypart hours: " + window);
+        }
+        int length = to > from ? to - from : 24 - from + to;
+        for (int day = days[0]; ; day = (day + 1) % 7) {
+            for (int i = 0; i < length; i++) {
+                int hour = (day * 24 + from + i) % HOURS_PER_WEEK;
+                words[hour >>> 6] |= 1L << hour;
+            }
+            if (day == days[1]) {
+                break;
+            }
+        }
+    }
+
+    private static int[] parseRange(String days, String window) {
+        switch (days) {
+            case "daily":
+                return new int[]{0, 6};
+            case "weekdays":
+                return new int[]{0, 4};
+            case "weekends":
+                return new int[]{5, 6};
+            default:
+                String[] range = days.split("-");
+                int first = dayIndex(range[0], window);
+                int last = range.length > 1 ? dayIndex(range[1], window) : first;
+                return new int[]{first, last};
+        }
+    }
+
+    private static int dayIndex(String day, String window) {
+        for (int i = 0; i < DAYS.length; i++) {
+            if (DAYS[i].equals(day)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Invalid daypart day '" + day + "' in: " + window);
+    }
+
+    private static void and(long[] target, long[] mask) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= mask[i];
+        }
+    }
+}
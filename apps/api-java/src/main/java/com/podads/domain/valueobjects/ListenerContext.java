@@ -13,6 +13,8 @@ public class ListenerContext {
     private TierType tier;
     private Boolean consent;
     private TimeOfDay timeOfDay;
+    private String listenerId; // optional stable listener identity (frequency capping)
+    private String timezone; // optional IANA zone (dayparting); falls back to the reported timeOfDay
 }
 
 
@@ -0,0 +1,22 @@
+package com.podads.domain.valueobjects;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Relevance components of an auction score, each a plain double.
+ */
+public record MatchComponents(double categoryMatch, double showMatch, double listenerSegmentWeight) {
+    /**
+     * Components reported for candidates that never reached the auction.
+     */
+    public static final MatchComponents NOT_SCORED = new MatchComponents(0.0, 0.0, 1.0);
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("categoryMatch", categoryMatch);
+        map.put("showMatch", showMatch);
+        map.put("listenerSegmentWeight", listenerSegmentWeight);
+        return map;
+    }
+}
@@ -0,0 +1,66 @@
+package com.podads.domain.valueobjects;
+
+import com.podads.domain.entities.CandidateAd;
+
+import java.util.List;
+
+/**
+ * Match components of every catalog candidate for one request context (podcast category, show,
+ * listener tier and device), indexed by catalog index.
+ *
+ * Match scores depend only on campaign targeting and those request fields, so one vector serves
+ * every request in the same context until the catalog is rebuilt. Arrays are shared - do not modify.
+ */
+public final class MatchVector {
+    private final long catalogVersion;
+    private final List<CandidateAd> catalog;
+    private final double listenerSegmentWeight;
+    private final double[] categoryMatch;
+    private final double[] showMatch;
+    private final double[] matchScore;
+
+    public MatchVector(long catalogVersion, List<CandidateAd> catalog, double listenerSegmentWeight,
+                       double[] categoryMatch, double[] showMatch, double[] matchScore) {
+        this.catalogVersion = catalogVersion;
+        this.catalog = catalog;
+        this.listenerSegmentWeight = listenerSegmentWeight;
+        this.categoryMatch = categoryMatch;
+        this.showMatch = showMatch;
+        this.matchScore = matchScore;
+    }
+
+    /**
+     * Whether this vector was computed for this exact candidate instance.
+     */
+    public boolean covers(CandidateAd candidate) {
+        int index = candidate.getCatalogIndex();
+        return index >= 0 && index < catalog.size() && catalog.get(index) == candidate;
+    }
+
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    public double getListenerSegmentWeight() {
+        return listenerSegmentWeight;
+    }
+
+    public double categoryMatch(int catalogIndex) {
+        return categoryMatch[catalogIndex];
+    }
+
+    public double showMatch(int catalogIndex) {
+        return showMatch[catalogIndex];
+    }
+
+    public double matchScore(int catalogIndex) {
+        return matchScore[catalogIndex];
+    }
+
+    /**
+     * Approximate heap held by the vector's arrays (the catalog list is shared with sourcing).
+     */
+    public long memoryBytes() {
+        return 64 + 3 * (16 + 8L * matchScore.length);
+    }
+}
@@ -0,0 +1,48 @@
+package com.podads.domain.valueobjects;
+
+/**
+ * Request and candidate features a {@link com.podads.domain.services.PredictionModel} can read.
+ *
+ * Feature rows are laid out in this order, {@link #COUNT} doubles per candidate; a model names the
+ * features it uses in its file and is bound to their ordinals when loaded. One-hot features are
+ * 1.0 or 0.0; a value that is unknown for a request (no timestamp, say) is NaN.
+ */
+public enum ModelFeature {
+    BID_CPM("bid_cpm"),
+    CATEGORY_MATCH("category_match"),
+    SHOW_MATCH("show_match"),
+    LISTENER_SEGMENT_WEIGHT("listener_segment_weight"),
+    MATCH_SCORE("match_score"),
+    PACING_MULTIPLIER("pacing_multiplier"),
+    DURATION_SECONDS("duration_seconds"),
+    SLOT_PRE_ROLL("slot_pre_roll"),
+    SLOT_MID_ROLL("slot_mid_roll"),
+    SLOT_POST_ROLL("slot_post_roll"),
+    DEVICE_MOBILE("device_mobile"),
+    DEVICE_DESKTOP("device_desktop"),
+    DEVICE_SMART_SPEAKER("device_smart_speaker"),
+    DEVICE_CAR("device_car"),
+    TIER_PREMIUM("tier_premium"),
+    HOUR_OF_DAY("hour_of_day");
+
+    public static final int COUNT = values().length;
+
+    private final String value;
+
+    ModelFeature(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public static ModelFeature fromString(String value) {
+        for (ModelFeature feature : ModelFeature.values()) {
+            if (feature.value.equals(value)) {
+                return feature;
+            }
+        }
+        throw new IllegalArgumentException("Unknown model feature: " + value);
+    }
+}
@@ -0,0 +1,12 @@
+package com.podads.domain.valueobjects;
+
+/**
+ * Weights of the match score: {@code categoryMatch * category + showMatch * show * listenerSegmentWeight}.
+ */
+public record ScoringWeights(double category, double show) {
+    public static final ScoringWeights DEFAULT = new ScoringWeights(0.6, 0.4);
+
+    public boolean isDefault() {
+        return equals(DEFAULT);
+    }
+}
@@ -10,6 +10,20 @@ import lombok.NoArgsConstructor;
 public class SlotContext {
     private SlotType type;
     private Integer cuePoint;
-}
+    // Ad pod (a break holding several ads); all null for a single-ad slot
+    private Integer podMaxDurationSeconds;
+    private Integer podSlots;
+    private Integer minAdDurationSeconds;
 
+    public SlotContext(SlotType type, Integer cuePoint) {
+        this.type = type;
+        this.cuePoint = cuePoint;
+    }
 
+    /**
+     * Whether this break is filled with several ads under a duration budget rather than one winner.
+     */
+    public boolean isPod() {
+        return podSlots != null && podSlots > 1;
+    }
+}
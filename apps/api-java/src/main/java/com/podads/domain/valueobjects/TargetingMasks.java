@@ -0,0 +1,39 @@
+package com.podads.domain.valueobjects;
+
+import com.podads.domain.entities.TargetingRule;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Enum targeting dimensions of a candidate compiled to {@link EnumMask} bitmasks at catalog load,
+ * plus dayparting compiled to an {@link HourOfWeekMask}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TargetingMasks {
+    private long devices;            // ANY when untargeted
+    private long tiers;              // ANY when untargeted
+    private long categories;         // ANY when untargeted
+    private long excludedCategories; // NONE when nothing excluded
+    private long eligibleSlotTypes;  // NONE when no slot is eligible
+    private HourOfWeekMask hours;    // ALWAYS when no dayparting
+
+    public static TargetingMasks compile(TargetingRule targeting, List<SlotType> eligibleSlotTypes) {
+        if (targeting == null) {
+            return new TargetingMasks(EnumMask.ANY, EnumMask.ANY, EnumMask.ANY, EnumMask.NONE, EnumMask.of(eligibleSlotTypes),
+                    HourOfWeekMask.ALWAYS);
+        }
+        return new TargetingMasks(
+                EnumMask.targeting(targeting.getDevice()),
+                EnumMask.targeting(targeting.getTier()),
+                EnumMask.targeting(targeting.getCategories()),
+                EnumMask.of(targeting.getExcludeCategories()),
+                EnumMask.of(eligibleSlotTypes),
+                HourOfWeekMask.compile(targeting.getHours(), targeting.getTimeOfDay())
+        );
+    }
+}
@@ -0,0 +1,78 @@
+package com.podads.infrastructure.auction;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.services.AuctionStrategy;
+import com.podads.domain.valueobjects.SlotType;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Chooses the auction strategy and reserve for a request.
+ *
+ * A strategy named on the request wins, then one set by the request's experiment arm; otherwise
+ * {@code podads.auction.strategy.<slot-type>}, then
+ * {@code podads.auction.strategy.default}. Reserves come from {@code podads.auction.reserve-cpm.<slot-type>}
+ * (0 = no reserve). Slot-type settings are resolved once at startup.
+ */
+@Component
+public class AuctionStrategySelector {
+    private static final String DEFAULT_STRATEGY = "second-price";
+
+    private final Map<String, AuctionStrategy> strategiesByName = new LinkedHashMap<>();
+    private final Map<String, AuctionStrategy> strategyBySlotType = new LinkedHashMap<>();
+    private final Map<String, Double> reserveBySlotType = new LinkedHashMap<>();
+    private final AuctionStrategy defaultStrategy;
+
+    public AuctionStrategySelector(List<AuctionStrategy> strategies, Environment environment) {
+        for (AuctionStrategy strategy : strategies) {
+            strategiesByName.put(strategy.getName(), strategy);
+        }
+        this.defaultStrategy = require(environment.getProperty("podads.auction.strategy.default", DEFAULT_STRATEGY));
+        for (SlotType slotType : SlotType.values()) {
+            String slot = slotType.getValue();
+            String name = environment.getProperty("podads.auction.strategy." + slot);
+            strategyBySlotType.put(slot, name != null && !name.isBlank() ? require(name) : defaultStrategy);
+            reserveBySlotType.put(slot, environment.getProperty("podads.auction.reserve-cpm." + slot, Double.class, 0.0));
+        }
+    }
+
+    public AuctionStrategy select(AdRequest request) {
+        return select(request, null);
+    }
+
+    /**
+     * @param armStrategy strategy set by the request's experiment arm, or null
+     */
+    public AuctionStrategy select(AdRequest request, String armStrategy) {
+        String requested = request.getAuctionStrategy();
+        if (requested != null && !requested.isBlank()) {
+            return require(requested);
+        }
+        if (armStrategy != null) {
+            return require(armStrategy);
+        }
+        return strategyBySlotType.getOrDefault(request.getSlot().getType().getValue(), defaultStrategy);
+    }
+
+    public double reserveCpm(AdRequest request) {
+        return reserveBySlotType.getOrDefault(request.getSlot().getType().getValue(), 0.0);
+    }
+
+    public Set<String> strategyNames() {
+        return strategiesByName.keySet();
+    }
+
+    private AuctionStrategy require(String name) {
+        AuctionStrategy strategy = strategiesByName.get(name);
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown auction strategy '" + name + "', expected one of "
+                    + strategiesByName.keySet());
+        }
+        return strategy;
+    }
+}
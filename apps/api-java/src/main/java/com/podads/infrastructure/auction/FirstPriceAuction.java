@@ -0,0 +1,21 @@
+package com.podads.infrastructure.auction;
+
+import com.podads.domain.services.AuctionStrategy;
+import com.podads.domain.valueobjects.CandidateScore;
+import org.springframework.stereotype.Component;
+
+/**
+ * First-price: the winner pays its own bid, if that clears the reserve.
+ */
+@Component
+public class FirstPriceAuction implements AuctionStrategy {
+    @Override
+    public String getName() {
+        return "first-price";
+    }
+
+    @Override
+    public double price(CandidateScore winner, CandidateScore runnerUp, double reserveCpm) {
+        return winner.bidCpm() >= reserveCpm ? winner.bidCpm() : NO_SALE;
+    }
+}
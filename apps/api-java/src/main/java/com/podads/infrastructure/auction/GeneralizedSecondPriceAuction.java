@@ -0,0 +1,34 @@
+package com.podads.infrastructure.auction;
+
+import com.podads.domain.services.AuctionStrategy;
+import com.podads.domain.valueobjects.CandidateScore;
+import org.springframework.stereotype.Component;
+
+/**
+ * Score-normalized (generalized) second-price: the winner pays the smallest bid that would still
+ * have beaten the runner-up's final score given the winner's own match score and pacing multiplier,
+ * i.e. {@code runnerUp.finalScore / (winner.finalScore / winner.bidCpm)}. A better-matched ad pays less
+ * per impression for the same rank.
+ *
+ * The reserve is a price floor: the winner must bid at least the reserve and pays at least it.
+ */
+@Component
+public class GeneralizedSecondPriceAuction implements AuctionStrategy {
+    @Override
+    public String getName() {
+        return "gsp";
+    }
+
+    @Override
+    public double price(CandidateScore winner, CandidateScore runnerUp, double reserveCpm) {
+        if (winner.bidCpm() < reserveCpm) {
+            return NO_SALE;
+        }
+        double price = winner.bidCpm();
+        if (runnerUp != null && winner.finalScore() > 0) {
+            double scorePerCpm = winner.finalScore() / winner.bidCpm();
+            price = runnerUp.finalScore() / scorePerCpm;
+        }
+        return Math.min(winner.bidCpm(), Math.max(price, reserveCpm));
+    }
+}
@@ -0,0 +1,256 @@
+package com.podads.infrastructure.auction;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Fills an ad pod: picks at most {@code maxAds} candidates whose durations sum to at most
+ * {@code maxDurationSeconds}, no two sharing a separation key, maximizing total value.
+ *
+ * Each candidate carries a fixed number of separation keys - one per rule, such as campaign, brand
+ * and advertiser category - and two candidates conflict when they have the same key for the same
+ * rule. Keys are numbered into bits once per solve, so the conflict check in the inner loop is an
+ * AND of the item's mask against the mask of the set already chosen.
+ *
+ * 0/1 knapsack with a cardinality bound, solved by DP over (ads placed, capacity used). Two
+ * reductions bound the work whatever the catalog:
+ * <ul>
+ *   <li>Durations are measured in units of their greatest common divisor, so 30/45/60s creatives
+ *       in a 120s break give a capacity of 8 units rather than 120. When that would still exceed
+ *       {@link #MAX_CAPACITY_UNITS} (e.g. arbitrary 10-90s lengths in a 600s break), the unit is
+ *       widened to fit and durations are rounded up to whole units, so a pod never overruns the
+ *       break but a pod that fills it to within a unit may be passed over.</li>
+ *   <li>Only the best {@code 2 x maxAds} candidates of each weight (duration in units) are kept,
+ *       skipping any whose keys include all the keys of a better one of the same weight (it could
+ *       only ever replace that one), so at most {@code 2 x maxAds x MAX_CAPACITY_UNITS} items reach
+ *       the DP, and typical catalogs with a handful of lengths leave a few dozen.</li>
+ * </ul>
+ * The DP keeps one best set per state, so with conflicts an item conflicting with that set cannot
+ * displace it, and the per-weight cut can drop an item that only a conflict-heavy pod needs; when
+ * every key is distinct and durations are not rounded the result is optimal.
+ */
+@Component
+public class PodSolver {
+    private static final int[] NONE = new int[0];
+
+    /**
+     * Largest DP capacity, in duration units; beyond it durations are rounded up to coarser units.
+     */
+    static final int MAX_CAPACITY_UNITS = 120;
+
+    /**
+     * @param durations   per-candidate duration in seconds
+     * @param values      per-candidate value (auction score); non-positive values are never placed
+     * @param keys        {@code keysPerItem} separation keys per candidate, -1 for none; candidates
+     *                    with the same key in the same position are never placed together
+     * @param keysPerItem number of separation keys per candidate
+     * @param count       number of candidates in the arrays
+     * @return indices of the chosen candidates, highest value first
+     */
+    public int[] solve(int[] durations, double[] values, int[] keys, int keysPerItem, int count,
+                       int maxDurationSeconds, int maxAds) {
+        if (count == 0 || maxAds <= 0 || maxDurationSeconds <= 0) {
+            return NONE;
+        }
+
+        // Candidates that fit at all, best first (ties keep input order)
+        int[] order = new int[count];
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            if (values[i] > 0 && durations[i] > 0 && durations[i] <= maxDurationSeconds) {
+                order[n++] = i;
+            }
+        }
+        if (n == 0) {
+            return NONE;
+        }
+        sortByValueDesc(order, 0, n - 1, values);
+
+        // Capacity unit: the durations' gcd, widened (rounding durations up) if it leaves too many units
+        int unit = 0;
+        for (int o = 0; o < n; o++) {
+            unit = gcd(unit, durations[order[o]]);
+        }
+        unit = Math.max(unit, (maxDurationSeconds + MAX_CAPACITY_UNITS - 1) / MAX_CAPACITY_UNITS);
+        int capacity = maxDurationSeconds / unit;
+        int[] weights = new int[count];
+        for (int o = 0; o < n; o++) {
+            int i = order[o];
+            weights[i] = (durations[i] + unit - 1) / unit;
+        }
+
+        // Keep the best few of each weight, skipping ones dominated by a kept item of that weight
+        int keepPerWeight = maxAds * 2;
+        int[] keptPerWeight = new int[capacity + 1];
+        int[] items = new int[n];
+        int m = 0;
+        for (int o = 0; o < n; o++) {
+            int i = order[o];
+            int weight = weights[i];
+            if (weight > capacity || keptPerWeight[weight] >= keepPerWeight
+                    || dominated(items, m, i, weights, keys, keysPerItem)) {
+                continue;
+            }
+            keptPerWeight[weight]++;
+            items[m++] = i;
+        }
+        if (m == 0) {
+            return NONE;
+        }
+
+        // One bit per distinct (rule, key) among the kept items
+        long[] bitKeys = new long[m * keysPerItem];
+        int distinct = 0;
+        for (int t = 0; t < m; t++) {
+            for (int j = 0; j < keysPerItem; j++) {
+                int key = keys[items[t] * keysPerItem + j];
+                if (key >= 0) {
+                    bitKeys[distinct++] = ((long) j << 32) | key;
+                }
+            }
+        }
+        Arrays.sort(bitKeys, 0, distinct);
+        int bits = 0;
+        for (int b = 0; b < distinct; b++) {
+            if (b == 0 || bitKeys[b] != bitKeys[b - 1]) {
+                bitKeys[bits++] = bitKeys[b];
+            }
+        }
+        int words = Math.max(1, (bits + 63) >>> 6);
+        long[] masks = new long[m * words];
+        for (int t = 0; t < m; t++) {
+            for (int j = 0; j < keysPerItem; j++) {
+                int key = keys[items[t] * keysPerItem + j];
+                if (key >= 0) {
+                    int bit = Arrays.binarySearch(bitKeys, 0, bits, ((long) j << 32) | key);
+                    masks[t * words + (bit >>> 6)] |= 1L << bit;
+                }
+            }
+        }
+
+        // DP over (k ads, c capacity units); each state remembers its chosen items and their key mask
+        int states = (maxAds + 1) * (capacity + 1);
+        double[] best = new double[states];
+        Arrays.fill(best, Double.NEGATIVE_INFINITY);
+        best[0] = 0;
+        int[] chosen = new int[states * maxAds];
+        long[] used = new long[states * words];
+
+        for (int t = 0; t < m; t++) {
+            int i = items[t];
+            int weight = weights[i];
+            for (int k = maxAds; k >= 1; k--) {
+                for (int c = capacity; c >= weight; c--) {
+                    int prev = (k - 1) * (capacity + 1) + (c - weight);
+                    if (best[prev] == Double.NEGATIVE_INFINITY) {
+                        continue;
+                    }
+                    double candidate = best[prev] + values[i];
+                    int state = k * (capacity + 1) + c;
+                    if (candidate <= best[state] || conflicts(used, prev * words, masks, t * words, words)) {
+                        continue;
+                    }
+                    best[state] = candidate;
+                    System.arraycopy(chosen, prev * maxAds, chosen, state * maxAds, k - 1);
+                    chosen[state * maxAds + k - 1] = i;
+                    for (int w = 0; w < words; w++) {
+                        used[state * words + w] = used[prev * words + w] | masks[t * words + w];
+                    }
+                }
+            }
+        }
+
+        int bestState = 0;
+        int bestCount = 0;
+        for (int k = 1; k <= maxAds; k++) {
+            for (int c = 0; c <= capacity; c++) {
+                int state = k * (capacity + 1) + c;
+                if (best[state] > best[bestState]) {
+                    bestState = state;
+                    bestCount = k;
+                }
+            }
+        }
+        return Arrays.copyOfRange(chosen, bestState * maxAds, bestState * maxAds + bestCount);
+    }
+
+    private static boolean conflicts(long[] used, int usedOffset, long[] masks, int maskOffset, int words) {
+        for (int w = 0; w < words; w++) {
+            if ((used[usedOffset + w] & masks[maskOffset + w]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether a kept item of the same weight conflicts with {@code item} and has, for every rule, no
+     * key or the same key: it is worth at least as much, conflicts with no more and cannot share a pod
+     * with {@code item}, so {@code item} is never needed.
+     */
+    private static boolean dominated(int[] items, int m, int item, int[] weights, int[] keys, int keysPerItem) {
+        for (int t = 0; t < m; t++) {
+            int kept = items[t];
+            if (weights[kept] != weights[item]) {
+                continue;
+            }
+            boolean covers = true;
+            boolean shares = false;
+            for (int j = 0; j < keysPerItem && covers; j++) {
+                int keptKey = keys[kept * keysPerItem + j];
+                covers = keptKey < 0 || keptKey == keys[item * keysPerItem + j];
+                shares |= keptKey >= 0;
+            }
+            if (covers && shares) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+
+    /**
+     * Quicksort of candidate indices by value descending, then index ascending (deterministic ties).
+     */
+    private static void sortByValueDesc(int[] idx, int lo, int hi, double[] values) {
+        while (lo < hi) {
+            int pivot = idx[(lo + hi) >>> 1];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (before(idx[i], pivot, values)) {
+                    i++;
+                }
+                while (before(pivot, idx[j], values)) {
+                    j--;
+                }
+                if (i <= j) {
+                    int tmp = idx[i];
+                    idx[i++] = idx[j];
+                    idx[j--] = tmp;
+                }
+            }
+            // Recurse into the smaller half, loop on the larger
+            if (j - lo < hi - i) {
+                sortByValueDesc(idx, lo, j, values);
+                lo = i;
+            } else {
+                sortByValueDesc(idx, i, hi, values);
+                hi = j;
+            }
+        }
+    }
+
+    private static boolean before(int a, int b, double[] values) {
+        return values[a] > values[b] || (values[a] == values[b] && a < b);
+    }
+}
@@ -0,0 +1,27 @@
+package com.podads.infrastructure.auction;
+
+import com.podads.domain.services.AuctionStrategy;
+import com.podads.domain.valueobjects.CandidateScore;
+import org.springframework.stereotype.Component;
+
+/**
+ * Classic second-price on raw bids: the winner pays the runner-up's bid (its own when alone),
+ * raised to the reserve and capped at its own bid. Ignores match quality, so a well-matched winner
+ * can pay more than a poorly-matched runner-up would have needed to beat it.
+ */
+@Component
+public class SecondPriceAuction implements AuctionStrategy {
+    @Override
+    public String getName() {
+        return "second-price";
+    }
+
+    @Override
+    public double price(CandidateScore winner, CandidateScore runnerUp, double reserveCpm) {
+        if (winner.bidCpm() < reserveCpm) {
+            return NO_SALE;
+        }
+        double price = runnerUp != null ? runnerUp.bidCpm() : winner.bidCpm();
+        return Math.min(winner.bidCpm(), Math.max(price, reserveCpm));
+    }
+}
@@ -0,0 +1,233 @@
+package com.podads.infrastructure.brandsafety;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Owns the brand-safety blocklist and publishes it as versioned immutable snapshots.
+ *
+ * Besides campaign and creative ids, a source may carry {@code phrases}; these are compiled into a
+ * keyword automaton matched against campaign names and creative asset URLs.
+ *
+ * The list is read from {@code podads.blocklist.location} (a file path) or, when unset, the bundled
+ * {@code fixtures/blocklist.json}. A background poller reloads it when the file changes, and
+ * {@link #reload()} can be triggered from the admin API. New snapshots are built on the reloading
+ * thread and swapped in with a single reference write, so decision threads never wait on a reload
+ * and a takedown is live within one poll interval. A failed reload keeps the previous snapshot.
+ */
+@Service
+public class BlocklistService {
+    private static final Logger logger = LoggerFactory.getLogger(BlocklistService.class);
+    private static final String BLOCKLIST_PATH = "fixtures/blocklist.json";
+    private static final String[] SOURCES = {"customer_reports", "ml_keyword_match", "manual_curation"};
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Resource resource;
+    private final long pollSeconds;
+    private final BlocklistSnapshot.LookupStats lookupStats = new BlocklistSnapshot.LookupStats();
+    private final AtomicReference<BlocklistSnapshot> current;
+    private volatile long lastModified = Long.MIN_VALUE;
+    private ScheduledExecutorService poller;
+
+    @Autowired
+    public BlocklistService(
+            MeterRegistry meterRegistry,
+            @Value("${podads.blocklist.location:}") String location,
+            @Value("${podads.blocklist.poll-seconds:5}") long pollSeconds
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.resource = location == null || location.isBlank()
+                ? new ClassPathResource(BLOCKLIST_PATH)
+                : new FileSystemResource(location);
+        this.pollSeconds = pollSeconds;
+        this.current = new AtomicReference<>(BlocklistSnapshot.empty(lookupStats));
+
+        Gauge.builder("ad_blocklist_version", current, ref -> ref.get().getVersion())
+                .description("Version of the blocklist snapshot serving requests")
+                .register(meterRegistry);
+        Gauge.builder("ad_blocklist_entries", current, ref -> ref.get().campaignCount())
+                .description("Entries in the current blocklist snapshot")
+                .tag("block_type", "campaign")
+                .register(meterRegistry);
+        Gauge.builder("ad_blocklist_entries", current, ref -> ref.get().creativeCount())
+                .description("Entries in the current blocklist snapshot")
+                .tag("block_type", "creative")
+                .register(meterRegistry);
+        Gauge.builder("ad_blocklist_index_memory_bytes", current, ref -> ref.get().campaignIndexBytes())
+                .description("Heap held by the packed blocklist id sets")
+                .tag("block_type", "campaign")
+                .register(meterRegistry);
+        Gauge.builder("ad_blocklist_index_memory_bytes", current, ref -> ref.get().creativeIndexBytes())
+                .description("Heap held by the packed blocklist id sets")
+                .tag("block_type", "creative")
+                .register(meterRegistry);
+        Gauge.builder("ad_blocklist_expected_false_match_rate", current, ref -> ref.get().expectedFalseMatchRate())
+                .description("Chance that a lookup for an unblocked id shares a fingerprint with a blocked one")
+                .register(meterRegistry);
+        FunctionCounter.builder("ad_blocklist_false_matches_total", lookupStats, stats -> stats.falseMatches.sum())
+                .description("Fingerprint hits rejected by the byte comparison (lookups that were not blocked)")
+                .register(meterRegistry);
+        FunctionCounter.builder("ad_blocklist_keyword_scans_total", lookupStats, stats -> stats.keywordScans.sum())
+                .description("Keyword automaton scans run (cache misses on campaign names and asset URLs)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Bundled classpath blocklist, loaded by {@link #initialize()}, with no file polling - for tests.
+     */
+    public BlocklistService(MeterRegistry meterRegistry) {
+        this(meterRegistry, "", 0);
+    }
+
+    @PostConstruct
+    public void initialize() {
+        reload();
+        if (pollSeconds > 0) {
+            poller = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "blocklist-poller");
+                thread.setDaemon(true);
+                return thread;
+            });
+            poller.scheduleWithFixedDelay(this::reloadIfChanged, pollSeconds, pollSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    /**
+     * Snapshot to use for the whole of one lookup. Lock-free.
+     */
+    public BlocklistSnapshot snapshot() {
+        return current.get();
+    }
+
+    /**
+     * Re-read the blocklist source and publish it as a new version.
+     * Returns the snapshot now serving requests (the old one if the load failed).
+     */
+    public synchronized BlocklistSnapshot reload() {
+        long modified = lastModifiedOrUnknown();
+        try {
+            JsonNode root;
+            try (InputStream inputStream = resource.getInputStream()) {
+                root = objectMapper.readTree(inputStream);
+            }
+            Set<String> campaigns = new HashSet<>();
+            Set<String> creatives = new HashSet<>();
+            List<String> phrases = new ArrayList<>();
+            JsonNode sourcesNode = root.path("sources");
+            for (String source : SOURCES) {
+                collectEntries(sourcesNode.path(source).path("entries"), campaigns, creatives);
+                sourcesNode.path(source).path("phrases").forEach(phrase -> phrases.add(phrase.asText()));
+            }
+            KeywordMatcher keywordMatcher = KeywordMatcher.compile(phrases);
+            String sourceVersion = root.path("version").asText("unknown");
+
+            BlocklistSnapshot published = current.updateAndGet(previous -> new BlocklistSnapshot(
+                    previous.getVersion() + 1, sourceVersion, Instant.now(), campaigns, creatives,
+                    keywordMatcher, lookupStats));
+            lastModified = modified;
+            recordReload("success");
+            logger.info("Blocklist loaded successfully", Map.of(
+                    "campaigns", published.campaignCount(),
+                    "creatives", published.creativeCount(),
+                    "phrases", published.phraseCount(),
+                    "version", published.getVersion(),
+                    "sourceVersion", sourceVersion,
+                    "indexBytes", published.campaignIndexBytes() + published.creativeIndexBytes()));
+            return published;
+        } catch (Exception e) {
+            lastModified = modified; // a broken file is retried once it changes again, not on every poll
+            recordReload("failure");
+            logger.error("Failed to load blocklist from " + resource.getDescription() + ", keeping version "
+                    + current.get().getVersion(), e);
+            return current.get();
+        }
+    }
+
+    /**
+     * Block a campaign immediately by publishing a copy of the current snapshot.
+     * Replaced by the next reload unless the source file carries the same entry.
+     */
+    public BlocklistSnapshot addBlockedCampaign(String campaignId) {
+        return current.updateAndGet(snapshot -> snapshot.withCampaign(campaignId));
+    }
+
+    /**
+     * Block a creative immediately by publishing a copy of the current snapshot.
+     * Replaced by the next reload unless the source file carries the same entry.
+     */
+    public BlocklistSnapshot addBlockedCreative(String creativeId) {
+        return current.updateAndGet(snapshot -> snapshot.withCreative(creativeId));
+    }
+
+    void reloadIfChanged() {
+        long modified = lastModifiedOrUnknown();
+        if (modified != lastModified) {
+            reload();
+        }
+    }
+
+    private long lastModifiedOrUnknown() {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return Long.MIN_VALUE; // missing file: nothing to reload until it appears
+        }
+    }
+
+    private void collectEntries(JsonNode entriesNode, Set<String> campaigns, Set<String> creatives) {
+        if (!entriesNode.isArray()) {
+            return;
+        }
+        for (JsonNode entry : entriesNode) {
+            if (entry.has("campaignId")) {
+                campaigns.add(entry.get("campaignId").asText());
+            }
+            if (entry.has("creativeId")) {
+                creatives.add(entry.get("creativeId").asText());
+            }
+        }
+    }
+
+    private void recordReload(String outcome) {
+        Counter.builder("ad_blocklist_reloads_total")
+                .description("Blocklist reload attempts")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,155 @@
+package com.podads.infrastructure.brandsafety;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Immutable, versioned view of the blocklist.
+ *
+ * Request threads read whichever snapshot is current; writers build a new one and publish it
+ * through {@link BlocklistService}, so lookups never lock and never see a half-applied update.
+ *
+ * Ids are held in {@link CompactIdSet}s: exact like a HashSet and keyed on the id's cached String hash,
+ * but about a quarter of the heap, which matters once takedown feeds push the lists into the millions.
+ *
+ * Blocked phrases are compiled into a {@link KeywordMatcher}. Scan results for campaign names and
+ * creative asset URLs are memoized per snapshot, so each text is scanned once per blocklist version
+ * (or when the catalog text for that id changes) rather than once per request.
+ */
+public final class BlocklistSnapshot {
+    private final long version;
+    private final String sourceVersion;
+    private final Instant loadedAt;
+    private final CompactIdSet blockedCampaignIds;
+    private final CompactIdSet blockedCreativeIds;
+    private final LookupStats stats;
+    private final KeywordMatcher keywordMatcher;
+    private final ConcurrentHashMap<String, KeywordScan> campaignNameScans = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, KeywordScan> creativeUrlScans = new ConcurrentHashMap<>();
+
+    BlocklistSnapshot(long version, String sourceVersion, Instant loadedAt,
+                      Set<String> blockedCampaignIds, Set<String> blockedCreativeIds,
+                      KeywordMatcher keywordMatcher, LookupStats stats) {
+        this(version, sourceVersion, loadedAt, CompactIdSet.of(blockedCampaignIds, stats.falseMatches),
+                CompactIdSet.of(blockedCreativeIds, stats.falseMatches), keywordMatcher, stats);
+    }
+
+    private BlocklistSnapshot(long version, String sourceVersion, Instant loadedAt,
+                              CompactIdSet blockedCampaignIds, CompactIdSet blockedCreativeIds,
+                              KeywordMatcher keywordMatcher, LookupStats stats) {
+        this.version = version;
+        this.sourceVersion = sourceVersion;
+        this.loadedAt = loadedAt;
+        this.blockedCampaignIds = blockedCampaignIds;
+        this.blockedCreativeIds = blockedCreativeIds;
+        this.stats = stats;
+        this.keywordMatcher = keywordMatcher;
+    }
+
+    static BlocklistSnapshot empty(LookupStats stats) {
+        return new BlocklistSnapshot(0, "none", Instant.EPOCH, Set.of(), Set.of(), KeywordMatcher.empty(), stats);
+    }
+
+    public boolean isCampaignBlocked(String campaignId) {
+        return blockedCampaignIds.contains(campaignId);
+    }
+
+    public boolean isCreativeBlocked(String creativeId) {
+        return blockedCreativeIds.contains(creativeId);
+    }
+
+    /**
+     * Blocked phrase found in the campaign's name, or null.
+     */
+    public String matchedCampaignPhrase(String campaignId, String campaignName) {
+        return scan(campaignNameScans, campaignId, campaignName);
+    }
+
+    /**
+     * Blocked phrase found in the creative's asset URL, or null.
+     */
+    public String matchedCreativePhrase(String creativeId, String assetUrl) {
+        return scan(creativeUrlScans, creativeId, assetUrl);
+    }
+
+    private String scan(ConcurrentHashMap<String, KeywordScan> cache, String id, String text) {
+        if (text == null || keywordMatcher.phraseCount() == 0) {
+            return null;
+        }
+        KeywordScan cached = cache.get(id);
+        if (cached == null || !cached.text().equals(text)) {
+            cached = new KeywordScan(text, keywordMatcher.firstMatch(text));
+            cache.put(id, cached);
+            stats.keywordScans.increment();
+        }
+        return cached.matchedPhrase();
+    }
+
+    /**
+     * Copy of this snapshot with one more blocked campaign, at the next version.
+     */
+    BlocklistSnapshot withCampaign(String campaignId) {
+        return new BlocklistSnapshot(version + 1, sourceVersion, Instant.now(), blockedCampaignIds.with(campaignId),
+                blockedCreativeIds, keywordMatcher, stats);
+    }
+
+    /**
+     * Copy of this snapshot with one more blocked creative, at the next version.
+     */
+    BlocklistSnapshot withCreative(String creativeId) {
+        return new BlocklistSnapshot(version + 1, sourceVersion, Instant.now(), blockedCampaignIds,
+                blockedCreativeIds.with(creativeId), keywordMatcher, stats);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getSourceVersion() {
+        return sourceVersion;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    public int campaignCount() {
+        return blockedCampaignIds.size();
+    }
+
+    public int creativeCount() {
+        return blockedCreativeIds.size();
+    }
+
+    public int phraseCount() {
+        return keywordMatcher.phraseCount();
+    }
+
+    public long campaignIndexBytes() {
+        return blockedCampaignIds.memoryBytes();
+    }
+
+    public long creativeIndexBytes() {
+        return blockedCreativeIds.memoryBytes();
+    }
+
+    /**
+     * Chance that a lookup for an unblocked id has to compare bytes against a blocked one.
+     */
+    public double expectedFalseMatchRate() {
+        return Math.max(blockedCampaignIds.expectedFalseMatchRate(), blockedCreativeIds.expectedFalseMatchRate());
+    }
+
+    /**
+     * Lookup counters, shared across snapshot versions.
+     */
+    static final class LookupStats {
+        final LongAdder keywordScans = new LongAdder();
+        final LongAdder falseMatches = new LongAdder();
+    }
+
+    private record KeywordScan(String text, String matchedPhrase) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.podads.infrastructure.brandsafety;
+
+import com.podads.infrastructure.lookup.InMemoryBatchLookupStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Verdicts from a third-party brand-safety vendor, keyed by creative id.
+ *
+ * A value is the risk category the vendor flagged the creative for (e.g. "violence"); creatives the
+ * vendor has not flagged have no entry. This is the in-memory stand-in; the round-trip latency of the
+ * real vendor API is simulated with {@code podads.lookup.brand-safety.latency-ms}.
+ */
+@Component
+public class ExternalBrandSafetyStore extends InMemoryBatchLookupStore<String, String> {
+    public ExternalBrandSafetyStore(
+            MeterRegistry meterRegistry,
+            @Value("${podads.lookup.brand-safety.latency-ms:0}") long latencyMillis
+    ) {
+        super("brand_safety_vendor", latencyMillis, meterRegistry);
+    }
+}
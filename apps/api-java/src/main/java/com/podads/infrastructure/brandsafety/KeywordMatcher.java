@@ -0,0 +1,172 @@
+package com.podads.infrastructure.brandsafety;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Aho-Corasick automaton over blocked phrases, matched on whole words.
+ *
+ * Text and phrases are normalized the same way: lowercased, every run of non [a-z0-9] characters
+ * collapsed to one space, padded with a space on each side. Phrases are stored padded too, so
+ * "get rich" matches "Get-Rich-Quick" but not "get richer". The automaton is compiled to a dense
+ * transition table over that 37-symbol alphabet, so scanning is one array read per character
+ * regardless of how many phrases are loaded.
+ */
+final class KeywordMatcher {
+    private static final int ALPHABET = 37; // a-z, 0-9, space
+    private static final int SPACE = 36;
+
+    private final List<String> phrases;
+    private final int[] transitions; // state * ALPHABET + symbol -> next state
+    private final int[] output;      // state -> index of a phrase ending here (via dictionary links), or -1
+
+    private KeywordMatcher(List<String> phrases, int[] transitions, int[] output) {
+        this.phrases = phrases;
+        this.transitions = transitions;
+        this.output = output;
+    }
+
+    static KeywordMatcher empty() {
+        return compile(List.of());
+    }
+
+    static KeywordMatcher compile(Collection<String> rawPhrases) {
+        Set<String> unique = new LinkedHashSet<>();
+        for (String raw : rawPhrases) {
+            String normalized = normalize(raw);
+            if (!normalized.isBlank()) {
+                unique.add(normalized);
+            }
+        }
+        List<String> phrases = List.copyOf(unique);
+
+        // Trie
+        List<int[]> trie = new ArrayList<>();
+        List<Integer> terminal = new ArrayList<>();
+        trie.add(newNode());
+        terminal.add(-1);
+        for (int p = 0; p < phrases.size(); p++) {
+            String padded = " " + phrases.get(p) + " ";
+            int state = 0;
+            for (int i = 0; i < padded.length(); i++) {
+                int symbol = symbol(padded.charAt(i));
+                if (trie.get(state)[symbol] < 0) {
+                    trie.get(state)[symbol] = trie.size();
+                    trie.add(newNode());
+                    terminal.add(-1);
+                }
+                state = trie.get(state)[symbol];
+            }
+            if (terminal.get(state) < 0) {
+                terminal.set(state, p);
+            }
+        }
+
+        // BFS: failure links folded into a full DFA, outputs inherited along failure links
+        int states = trie.size();
+        int[] transitions = new int[states * ALPHABET];
+        int[] output = new int[states];
+        int[] failure = new int[states];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        output[0] = terminal.get(0);
+        for (int symbol = 0; symbol < ALPHABET; symbol++) {
+            int child = trie.get(0)[symbol];
+            if (child < 0) {
+                transitions[symbol] = 0;
+            } else {
+                transitions[symbol] = child;
+                failure[child] = 0;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            output[state] = terminal.get(state) >= 0 ? terminal.get(state) : output[failure[state]];
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int child = trie.get(state)[symbol];
+                int fallback = transitions[failure[state] * ALPHABET + symbol];
+                if (child < 0) {
+                    transitions[state * ALPHABET + symbol] = fallback;
+                } else {
+                    transitions[state * ALPHABET + symbol] = child;
+                    failure[child] = fallback;
+                    queue.add(child);
+                }
+            }
+        }
+        return new KeywordMatcher(phrases, transitions, output);
+    }
+
+    /**
+     * First blocked phrase found in the text, or null. Runs in O(text length).
+     */
+    String firstMatch(String text) {
+        if (text == null || phrases.isEmpty()) {
+            return null;
+        }
+        int state = transitions[SPACE]; // leading pad
+        boolean inGap = true;
+        for (int i = 0; i < text.length(); i++) {
+            int symbol = symbol(Character.toLowerCase(text.charAt(i)));
+            if (symbol == SPACE) {
+                if (inGap) {
+                    continue; // collapse separator runs
+                }
+                inGap = true;
+            } else {
+                inGap = false;
+            }
+            state = transitions[state * ALPHABET + symbol];
+            if (output[state] >= 0) {
+                return phrases.get(output[state]);
+            }
+        }
+        if (!inGap) {
+            state = transitions[state * ALPHABET + SPACE]; // trailing pad
+        }
+        return output[state] >= 0 ? phrases.get(output[state]) : null;
+    }
+
+    int phraseCount() {
+        return phrases.size();
+    }
+
+    static String normalize(String text) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean inGap = true;
+        for (int i = 0; i < text.length(); i++) {
+            int symbol = symbol(Character.toLowerCase(text.charAt(i)));
+            if (symbol == SPACE) {
+                if (!inGap) {
+                    normalized.append(' ');
+                }
+                inGap = true;
+            } else {
+                normalized.append(Character.toLowerCase(text.charAt(i)));
+                inGap = false;
+            }
+        }
+        return normalized.toString().strip();
+    }
+
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        if (c >= '0' && c <= '9') {
+            return 26 + (c - '0');
+        }
+        return SPACE;
+    }
+
+    private static int[] newNode() {
+        int[] children = new int[ALPHABET];
+        Arrays.fill(children, -1);
+        return children;
+    }
+}
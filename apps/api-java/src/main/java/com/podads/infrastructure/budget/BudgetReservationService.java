@@ -0,0 +1,157 @@
+package com.podads.infrastructure.budget;
+
+import com.podads.domain.entities.Campaign;
+import com.podads.domain.services.BudgetLedger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-phase budget reservations: debit at decision time, commit on the impression event,
+ * release automatically if no impression arrives within the timeout.
+ *
+ * Reserved money is already out of the ledger, so concurrent decisions cannot spend it twice.
+ * Expiries are tracked in a single {@link HierarchicalTimingWheel} driven by one ticker thread,
+ * not one scheduled task per reservation.
+ *
+ * A reservation that expires after UTC midnight goes back to the total budget only: the daily budget it
+ * came out of has already been reset, and crediting the new day would let it overspend.
+ */
+@Service
+public class BudgetReservationService {
+    private static final Logger logger = LoggerFactory.getLogger(BudgetReservationService.class);
+
+    private final BudgetLedger budgetLedger;
+    private final Clock clock;
+    private final long timeoutMillis;
+    private final long tickMillis;
+    private final ConcurrentHashMap<String, Reservation> reservations = new ConcurrentHashMap<>();
+    private final HierarchicalTimingWheel<Reservation> expiryWheel;
+    private final Counter committedCounter;
+    private final Counter expiredCounter;
+    private ScheduledExecutorService ticker;
+
+    @Autowired
+    public BudgetReservationService(
+            BudgetLedger budgetLedger,
+            MeterRegistry meterRegistry,
+            @Value("${podads.budget.reservation.timeout-seconds:60}") long timeoutSeconds,
+            @Value("${podads.budget.reservation.tick-millis:100}") long tickMillis
+    ) {
+        this(budgetLedger, meterRegistry, timeoutSeconds, tickMillis, Clock.systemUTC());
+    }
+
+    BudgetReservationService(BudgetLedger budgetLedger, MeterRegistry meterRegistry, long timeoutSeconds,
+                             long tickMillis, Clock clock) {
+        this.budgetLedger = budgetLedger;
+        this.clock = clock;
+        this.timeoutMillis = timeoutSeconds * 1000;
+        this.tickMillis = tickMillis;
+        this.expiryWheel = new HierarchicalTimingWheel<>(tickMillis, clock.millis());
+
+        Gauge.builder("ad_budget_reservations_outstanding", reservations, ConcurrentHashMap::size)
+                .description("Budget reservations awaiting an impression event")
+                .register(meterRegistry);
+        this.committedCounter = Counter.builder("ad_budget_reservations_total")
+                .description("Budget reservations by outcome")
+                .tag("outcome", "committed")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("ad_budget_reservations_total")
+                .description("Budget reservations by outcome")
+                .tag("outcome", "expired")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "budget-reservation-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::expireDue, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Reserve the impression cost for a decision. Returns false if the campaign cannot cover it.
+     */
+    public boolean reserve(String decisionId, Campaign campaign, long amountMillicents) {
+        // Read the day before debiting: a debit that straddles midnight is then at worst not credited
+        // back to the new day, never credited to a day it did not come out of
+        LocalDate day = LocalDate.now(clock);
+        if (!budgetLedger.tryDebit(campaign, amountMillicents)) {
+            return false;
+        }
+        Reservation reservation = new Reservation(decisionId, campaign, amountMillicents, day);
+        reservations.put(decisionId, reservation);
+        reservation.timeout = expiryWheel.schedule(reservation, clock.millis() + timeoutMillis);
+        return true;
+    }
+
+    /**
+     * Commit the reservation for a decision. Returns false if it is unknown or already expired.
+     */
+    public boolean commit(String decisionId) {
+        Reservation reservation = reservations.remove(decisionId);
+        if (reservation == null) {
+            return false;
+        }
+        if (reservation.timeout != null) {
+            expiryWheel.cancel(reservation.timeout);
+        }
+        committedCounter.increment();
+        return true;
+    }
+
+    void expireDue() {
+        try {
+            expiryWheel.advanceTo(clock.millis(), this::release);
+        } catch (RuntimeException e) {
+            logger.error("Budget reservation expiry tick failed", e); // keep the ticker alive
+        }
+    }
+
+    private void release(Reservation reservation) {
+        // remove(key, value) loses the race cleanly against a concurrent commit
+        if (reservations.remove(reservation.decisionId, reservation)) {
+            budgetLedger.credit(reservation.campaign, reservation.amountMillicents, reservation.day);
+            expiredCounter.increment();
+        }
+    }
+
+    private static final class Reservation {
+        private final String decisionId;
+        private final Campaign campaign;
+        private final long amountMillicents;
+        private final LocalDate day; // day the amount was debited
+        private volatile HierarchicalTimingWheel.Timeout<Reservation> timeout;
+
+        Reservation(String decisionId, Campaign campaign, long amountMillicents, LocalDate day) {
+            this.decisionId = decisionId;
+            this.campaign = campaign;
+            this.amountMillicents = amountMillicents;
+            this.day = day;
+        }
+    }
+}
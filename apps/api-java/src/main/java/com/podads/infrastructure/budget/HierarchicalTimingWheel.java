@@ -0,0 +1,178 @@
+package com.podads.infrastructure.budget;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical hashed timing wheel (Varghese &amp; Lauck), as used for kernel timers.
+ *
+ * Four levels of 64 slots each: level 0 holds timeouts due within 64 ticks, level 1 within 64^2, and so on.
+ * Scheduling and cancelling are O(1) (doubly linked buckets); each tick expires one level-0 slot and,
+ * every 64 ticks, cascades one slot of the next level down. Timeouts further out than the wheel span
+ * park in the top level and are re-placed on each cascade until they come into range.
+ *
+ * All operations synchronize on the wheel; each critical section is constant time.
+ */
+public final class HierarchicalTimingWheel<T> {
+    private static final int LEVEL_BITS = 6;
+    private static final int SLOTS = 1 << LEVEL_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (LEVEL_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final Bucket<T>[][] wheels;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        this.wheels = (Bucket<T>[][]) new Bucket<?>[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheels[level][slot] = new Bucket<>();
+            }
+        }
+    }
+
+    /**
+     * Schedule a payload to expire at {@code deadlineMillis} (rounded up to the next tick).
+     */
+    public synchronized Timeout<T> schedule(T payload, long deadlineMillis) {
+        long deadlineTick = Math.max((deadlineMillis + tickMillis - 1) / tickMillis, currentTick + 1);
+        Timeout<T> timeout = new Timeout<>(payload, deadlineTick);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Cancel a pending timeout. Returns false if it already expired or was cancelled.
+     */
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.bucket == null) {
+            return false;
+        }
+        timeout.bucket.remove(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Advance the wheel to {@code nowMillis}, handing every expired payload to {@code onExpire}.
+     * The callback runs outside the wheel lock.
+     */
+    public int advanceTo(long nowMillis, Consumer<T> onExpire) {
+        List<T> expired = new ArrayList<>();
+        synchronized (this) {
+            long targetTick = nowMillis / tickMillis;
+            while (currentTick < targetTick) {
+                currentTick++;
+                cascade();
+                Bucket<T> bucket = wheels[0][(int) (currentTick & SLOT_MASK)];
+                for (Timeout<T> timeout = bucket.drain(); timeout != null; timeout = timeout.next) {
+                    expired.add(timeout.payload);
+                    size--;
+                }
+            }
+        }
+        expired.forEach(onExpire);
+        return expired.size();
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            long lowerSpan = (1L << (LEVEL_BITS * level)) - 1;
+            if ((currentTick & lowerSpan) != 0) {
+                return;
+            }
+            Bucket<T> bucket = wheels[level][(int) ((currentTick >>> (LEVEL_BITS * level)) & SLOT_MASK)];
+            Timeout<T> timeout = bucket.drain();
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                place(timeout);
+                timeout = next;
+            }
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        long placeTick = delta > MAX_DELTA ? currentTick + MAX_DELTA : timeout.deadlineTick;
+        delta = Math.max(0, placeTick - currentTick);
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (LEVEL_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = (int) ((placeTick >>> (LEVEL_BITS * level)) & SLOT_MASK);
+        wheels[level][slot].add(timeout);
+    }
+
+    /**
+     * Handle for a scheduled payload.
+     */
+    public static final class Timeout<T> {
+        private final T payload;
+        private final long deadlineTick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private Bucket<T> bucket;
+
+        private Timeout(T payload, long deadlineTick) {
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+    }
+
+    private static final class Bucket<T> {
+        private Timeout<T> head;
+
+        void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.prev = null;
+            timeout.next = head;
+            if (head != null) {
+                head.prev = timeout;
+            }
+            head = timeout;
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        /**
+         * Detach the whole list; returned timeouts are still linked through {@code next}.
+         */
+        Timeout<T> drain() {
+            Timeout<T> first = head;
+            head = null;
+            for (Timeout<T> timeout = first; timeout != null; timeout = timeout.next) {
+                timeout.bucket = null;
+                timeout.prev = null;
+            }
+            return first;
+        }
+    }
+}
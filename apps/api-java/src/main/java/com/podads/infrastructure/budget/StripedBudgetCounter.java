@@ -0,0 +1,87 @@
+package com.podads.infrastructure.budget;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Non-negative balance split across cache-line padded stripes.
+ *
+ * Each thread debits its home stripe with a CAS, so decisions for the same hot campaign only contend
+ * when they hash to the same stripe. A debit never takes a stripe below zero, which is what bounds
+ * overspend: the sum of successful debits can never exceed the opening balance plus credits.
+ * When the home stripe runs dry the debit tries the other stripes and finally drains everything
+ * into the home stripe, so a fragmented balance is still spendable.
+ *
+ * There is deliberately no reset: overwriting stripes that in-flight debits are CASing or draining
+ * would lose those debits, or let a drain add the old balance back on top. Callers start a new
+ * period by publishing a fresh counter instead.
+ */
+final class StripedBudgetCounter {
+    private static final int PADDING = 8; // one stripe per 64-byte cache line
+
+    private final int stripeMask;
+    private final AtomicLongArray cells;
+
+    StripedBudgetCounter(int stripes, long balance) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripeMask = size - 1;
+        this.cells = new AtomicLongArray(size * PADDING);
+        long share = balance / size;
+        for (int i = 0; i < size; i++) {
+            cells.set(i * PADDING, share);
+        }
+        cells.addAndGet(0, balance - share * size);
+    }
+
+    boolean tryTake(long amount) {
+        int home = homeStripe();
+        if (tryTakeFrom(home, amount)) {
+            return true;
+        }
+        for (int i = 1; i <= stripeMask; i++) {
+            if (tryTakeFrom((home + i) & stripeMask, amount)) {
+                return true;
+            }
+        }
+        // Balance is fragmented across stripes - gather it into the home stripe and retry once
+        long drained = 0;
+        for (int i = 0; i <= stripeMask; i++) {
+            drained += cells.getAndSet(i * PADDING, 0L);
+        }
+        if (drained >= amount) {
+            cells.addAndGet(home * PADDING, drained - amount);
+            return true;
+        }
+        cells.addAndGet(home * PADDING, drained);
+        return false;
+    }
+
+    void add(long amount) {
+        cells.addAndGet(homeStripe() * PADDING, amount);
+    }
+
+    long sum() {
+        long sum = 0;
+        for (int i = 0; i <= stripeMask; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    private boolean tryTakeFrom(int stripe, long amount) {
+        int index = stripe * PADDING;
+        while (true) {
+            long balance = cells.get(index);
+            if (balance < amount) {
+                return false;
+            }
+            if (cells.compareAndSet(index, balance, balance - amount)) {
+                return true;
+            }
+        }
+    }
+
+    private int homeStripe() {
+        long h = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & stripeMask;
+    }
+}
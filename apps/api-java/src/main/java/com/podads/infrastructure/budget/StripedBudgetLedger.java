@@ -0,0 +1,125 @@
+package com.podads.infrastructure.budget;
+
+import com.podads.domain.entities.Campaign;
+import com.podads.domain.entities.Pacing;
+import com.podads.domain.services.BudgetLedger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory budget ledger built on striped CAS counters.
+ *
+ * An account is opened the first time a campaign is seen, seeded from its fixture
+ * {@code budget.remaining} and {@code pacing.dailySpend}. Daily budgets reset at UTC midnight by
+ * swapping in a fresh counter, so debits racing the rollover land on the old day and can't leak
+ * into (or be wiped from) the new one.
+ * Debits never drive a balance negative, so total spend is bounded by the budget even under
+ * heavy concurrency; the only slack is the opposite direction (a debit may fail while a racing
+ * debit is gathering fragmented stripes).
+ */
+@Component
+public class StripedBudgetLedger implements BudgetLedger {
+    private final ConcurrentHashMap<String, Account> accounts = new ConcurrentHashMap<>();
+    private final int stripes;
+    private final Clock clock;
+
+    @Autowired
+    public StripedBudgetLedger(@Value("${podads.budget.ledger.stripes:8}") int stripes) {
+        this(stripes, Clock.systemUTC());
+    }
+
+    public StripedBudgetLedger(int stripes, Clock clock) {
+        this.stripes = stripes;
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean tryDebit(Campaign campaign, long amountMillicents) {
+        Account account = account(campaign);
+        if (!account.total.tryTake(amountMillicents)) {
+            return false;
+        }
+        DailyBalance daily = account.daily();
+        if (daily != null && !daily.remaining().tryTake(amountMillicents)) {
+            account.total.add(amountMillicents); // refund - daily budget is the binding limit
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void credit(Campaign campaign, long amountMillicents, LocalDate debitedOn) {
+        Account account = account(campaign);
+        account.total.add(amountMillicents);
+        DailyBalance daily = account.daily();
+        if (daily != null && debitedOn.equals(daily.day())) {
+            daily.remaining().add(amountMillicents);
+        }
+    }
+
+    @Override
+    public long remainingMillicents(Campaign campaign) {
+        return account(campaign).total.sum();
+    }
+
+    @Override
+    public long dailySpendMillicents(Campaign campaign) {
+        Account account = account(campaign);
+        DailyBalance daily = account.daily();
+        return daily == null ? 0 : Math.max(0, account.dailyBudget - daily.remaining().sum());
+    }
+
+    private Account account(Campaign campaign) {
+        return accounts.computeIfAbsent(campaign.getId(), id -> new Account(campaign));
+    }
+
+    private final class Account {
+        private final StripedBudgetCounter total;
+        private final AtomicReference<DailyBalance> daily;
+        private final long dailyBudget;
+
+        Account(Campaign campaign) {
+            Integer remaining = campaign.getBudget() != null ? campaign.getBudget().getRemaining() : null;
+            this.total = new StripedBudgetCounter(stripes, remaining != null ? remaining * 1000L : 0L);
+
+            Pacing pacing = campaign.getPacing();
+            if (pacing != null && pacing.getDailyBudget() != null) {
+                long spent = pacing.getDailySpend() != null ? pacing.getDailySpend() : 0;
+                this.dailyBudget = pacing.getDailyBudget() * 1000L;
+                this.daily = new AtomicReference<>(new DailyBalance(LocalDate.now(clock),
+                        new StripedBudgetCounter(stripes, dailyBudget - spent * 1000L)));
+            } else {
+                this.dailyBudget = 0;
+                this.daily = null;
+            }
+        }
+
+        /**
+         * Today's balance, opening a fresh one on the first call after midnight.
+         */
+        DailyBalance daily() {
+            if (daily == null) {
+                return null;
+            }
+            DailyBalance current = daily.get();
+            LocalDate today = LocalDate.now(clock);
+            while (!today.equals(current.day())) {
+                DailyBalance next = new DailyBalance(today, new StripedBudgetCounter(stripes, dailyBudget));
+                if (daily.compareAndSet(current, next)) {
+                    return next;
+                }
+                current = daily.get();
+            }
+            return current;
+        }
+    }
+
+    private record DailyBalance(LocalDate day, StripedBudgetCounter remaining) {
+    }
+}
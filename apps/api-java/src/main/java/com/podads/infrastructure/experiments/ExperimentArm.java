@@ -0,0 +1,137 @@
+package com.podads.infrastructure.experiments;
+
+import com.podads.domain.services.Filter;
+import com.podads.domain.valueobjects.ScoringWeights;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One arm of an experiment: what it changes in the decision pipeline, and its meters.
+ *
+ * Every override is optional; an arm without any is a control. Meters are registered when the
+ * configuration is loaded, so recording a decision is a few increments with no meter lookup.
+ */
+public final class ExperimentArm {
+    private final String experiment;
+    private final String name;
+    private final String auctionStrategy;
+    private final ScoringWeights scoringWeights;
+    private final List<String> filterOrder;
+    private final Boolean modelScoring;
+    private final Boolean creativeRotation;
+    private final Timer latency;
+    private final Counter fills;
+    private final Counter noFills;
+    private final Counter revenue;
+    private volatile FilterChain filterChain;
+
+    ExperimentArm(String experiment, String name, String auctionStrategy, ScoringWeights scoringWeights,
+                  List<String> filterOrder, Boolean modelScoring, Boolean creativeRotation, MeterRegistry meterRegistry) {
+        this.experiment = experiment;
+        this.name = name;
+        this.auctionStrategy = auctionStrategy;
+        this.scoringWeights = scoringWeights != null ? scoringWeights : ScoringWeights.DEFAULT;
+        this.filterOrder = List.copyOf(filterOrder);
+        this.modelScoring = modelScoring;
+        this.creativeRotation = creativeRotation;
+
+        this.latency = Timer.builder("ad_experiment_decision_latency_ms")
+                .description("Decision latency per experiment arm")
+                .tag("experiment", experiment)
+                .tag("arm", name)
+                .register(meterRegistry);
+        this.fills = Counter.builder("ad_experiment_decisions_total")
+                .description("Decisions per experiment arm by outcome")
+                .tag("experiment", experiment)
+                .tag("arm", name)
+                .tag("outcome", "fill")
+                .register(meterRegistry);
+        this.noFills = Counter.builder("ad_experiment_decisions_total")
+                .description("Decisions per experiment arm by outcome")
+                .tag("experiment", experiment)
+                .tag("arm", name)
+                .tag("outcome", "no_fill")
+                .register(meterRegistry);
+        this.revenue = Counter.builder("ad_experiment_revenue_total")
+                .description("Revenue in dollars per experiment arm")
+                .tag("experiment", experiment)
+                .tag("arm", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The filter chain for this arm: filters named in its order first, in that order, then the rest
+     * in default order. Built once per default chain and reused.
+     */
+    public List<Filter> filterChain(List<Filter> defaultChain) {
+        if (filterOrder.isEmpty()) {
+            return defaultChain;
+        }
+        FilterChain chain = filterChain;
+        if (chain == null || chain.base != defaultChain) {
+            List<Filter> ordered = new ArrayList<>(defaultChain.size());
+            for (String filterName : filterOrder) {
+                for (Filter filter : defaultChain) {
+                    if (filter.getName().equals(filterName)) {
+                        ordered.add(filter);
+                    }
+                }
+            }
+            for (Filter filter : defaultChain) {
+                if (!filterOrder.contains(filter.getName())) {
+                    ordered.add(filter);
+                }
+            }
+            chain = new FilterChain(defaultChain, List.copyOf(ordered));
+            filterChain = chain;
+        }
+        return chain.ordered;
+    }
+
+    public void record(long latencyNanos, boolean filled, double revenueDollars) {
+        latency.record(latencyNanos, TimeUnit.NANOSECONDS);
+        (filled ? fills : noFills).increment();
+        if (revenueDollars > 0) {
+            revenue.increment(revenueDollars);
+        }
+    }
+
+    public String getExperiment() {
+        return experiment;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Auction strategy name for this arm, or null for the usual selection.
+     */
+    public String getAuctionStrategy() {
+        return auctionStrategy;
+    }
+
+    public ScoringWeights getScoringWeights() {
+        return scoringWeights;
+    }
+
+    public List<String> getFilterOrder() {
+        return filterOrder;
+    }
+
+    public boolean modelScoring(boolean defaultValue) {
+        return modelScoring != null ? modelScoring : defaultValue;
+    }
+
+    public boolean creativeRotation(boolean defaultValue) {
+        return creativeRotation != null ? creativeRotation : defaultValue;
+    }
+
+    private record FilterChain(List<Filter> base, List<Filter> ordered) {
+    }
+}
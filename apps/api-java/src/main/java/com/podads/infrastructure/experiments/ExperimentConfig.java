@@ -0,0 +1,141 @@
+package com.podads.infrastructure.experiments;
+
+import com.podads.domain.entities.AdRequest;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable, versioned experiment configuration, compiled into bucket ranges.
+ *
+ * Experiments own disjoint ranges of {@link #BUCKETS} buckets sized by their traffic share, and each
+ * experiment's range is split between its arms by weight, so a request is in at most one arm. Buckets
+ * past the last range run the default pipeline.
+ *
+ * The listener id (the request id for listeners without one) is hashed with the salt to pick the range.
+ * That settles listener-level arms. A listener whose bucket falls in a request-level experiment's range
+ * is in the request-level share of traffic; each of its requests then hashes its request id to a
+ * position in the request-level ranges taken together, which picks the arm. Each experiment thus gets
+ * exactly its traffic share whatever the mix and order of units (two independent hashes over one range
+ * space would let earlier experiments take a cut of the later ones'). Assignment reads the ids' cached
+ * hash codes and scans a few ints: nothing is allocated.
+ */
+public final class ExperimentConfig {
+    public static final int BUCKETS = 10_000;
+
+    static final ExperimentConfig EMPTY = new ExperimentConfig(0, "none", Instant.EPOCH, 0, new int[0],
+            new boolean[0], new ExperimentArm[0], List.of());
+
+    private final long version;
+    private final String sourceVersion;
+    private final Instant loadedAt;
+    private final int salt;
+    private final int[] upperBounds;
+    private final boolean[] byRequest;
+    private final int requestUnitBuckets; // buckets in request-level arms, all experiments together
+    private final ExperimentArm[] arms;
+    private final List<String> experiments;
+
+    /**
+     * @param upperBounds exclusive upper bucket of each arm's range, ascending
+     * @param byRequest   per arm, whether its experiment splits by request id rather than listener id
+     */
+    ExperimentConfig(long version, String sourceVersion, Instant loadedAt, int salt, int[] upperBounds,
+                     boolean[] byRequest, ExperimentArm[] arms, List<String> experiments) {
+        this.version = version;
+        this.sourceVersion = sourceVersion;
+        this.loadedAt = loadedAt;
+        this.salt = salt;
+        this.upperBounds = upperBounds;
+        this.byRequest = byRequest;
+        int requestUnit = 0;
+        for (int i = 0; i < upperBounds.length; i++) {
+            if (byRequest[i]) {
+                requestUnit += upperBounds[i] - (i == 0 ? 0 : upperBounds[i - 1]);
+            }
+        }
+        this.requestUnitBuckets = requestUnit;
+        this.arms = arms;
+        this.experiments = experiments;
+    }
+
+    /**
+     * Arm for a request, or null when it is not in any experiment.
+     */
+    public ExperimentArm assign(AdRequest request) {
+        if (arms.length == 0) {
+            return null;
+        }
+        String listenerId = request.getListener().getListenerId();
+        if (listenerId == null) {
+            int arm = armAt(bucket(request.getRequestId(), salt)); // already a per-request draw
+            return arm < 0 ? null : arms[arm];
+        }
+        int arm = armAt(bucket(listenerId, salt));
+        if (arm < 0 || !byRequest[arm]) {
+            return arm < 0 ? null : arms[arm];
+        }
+        // In the request-level share: the request id picks a position among all request-level buckets
+        int position = (int) ((long) bucket(request.getRequestId(), salt) * requestUnitBuckets / BUCKETS);
+        for (int i = 0; i < arms.length; i++) {
+            if (byRequest[i]) {
+                int width = upperBounds[i] - (i == 0 ? 0 : upperBounds[i - 1]);
+                if (position < width) {
+                    return arms[i];
+                }
+                position -= width;
+            }
+        }
+        return null; // unreachable: position < requestUnitBuckets
+    }
+
+    /**
+     * Index of the arm whose range holds the bucket, or -1 past the last range.
+     */
+    private int armAt(int bucket) {
+        for (int i = 0; i < arms.length; i++) {
+            if (bucket < upperBounds[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Stable bucket of a unit id: String's hash code mixed with the salt (splitmix64 finalizer).
+     */
+    static int bucket(String unitId, int salt) {
+        long z = ((long) salt << 32) ^ (unitId != null ? unitId.hashCode() & 0xffffffffL : 0);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        z ^= z >>> 31;
+        return (int) ((z >>> 1) % BUCKETS);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getSourceVersion() {
+        return sourceVersion;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    public List<String> getExperiments() {
+        return experiments;
+    }
+
+    public int armCount() {
+        return arms.length;
+    }
+
+    /**
+     * Share of buckets covered by experiments, 0 to 1.
+     */
+    public double traffic() {
+        return upperBounds.length == 0 ? 0.0 : (double) upperBounds[upperBounds.length - 1] / BUCKETS;
+    }
+}
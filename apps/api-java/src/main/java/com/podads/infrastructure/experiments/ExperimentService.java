@@ -0,0 +1,284 @@
+package com.podads.infrastructure.experiments;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.services.Filter;
+import com.podads.domain.valueobjects.ScoringWeights;
+import com.podads.infrastructure.auction.AuctionStrategySelector;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Owns the experiment registry and publishes it as versioned immutable {@link ExperimentConfig}s.
+ *
+ * Each experiment has a {@code traffic} share (0 to 1; all experiments together at most 1), a
+ * {@code unit} ({@code listener} or {@code request}) and weighted arms. An arm may set an
+ * {@code auctionStrategy}, {@code scoringWeights} ({@code category}, {@code show}), a
+ * {@code filterOrder} (filter names to run first), and turn {@code modelScoring} or
+ * {@code creativeRotation} off. Strategy and filter names are checked at load.
+ *
+ * The registry is read from {@code podads.experiments.location} (a file path) or, when unset, the
+ * bundled {@code fixtures/experiments.json}, polled for changes and reloadable from the admin API. A
+ * new configuration is compiled completely - arms, bucket ranges, meters - before it is swapped in
+ * with one reference write, so a decision sees either the old or the new configuration, never a mix.
+ * A failed reload keeps the previous one.
+ */
+@Service
+public class ExperimentService {
+    private static final Logger logger = LoggerFactory.getLogger(ExperimentService.class);
+    private static final String EXPERIMENTS_PATH = "fixtures/experiments.json";
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Set<String> filterNames;
+    private final Set<String> strategyNames;
+    private final boolean enabled;
+    private final Resource resource;
+    private final long pollSeconds;
+    private final AtomicReference<ExperimentConfig> current = new AtomicReference<>(ExperimentConfig.EMPTY);
+    private volatile long lastModified = Long.MIN_VALUE;
+    private ScheduledExecutorService poller;
+
+    @Autowired
+    public ExperimentService(
+            MeterRegistry meterRegistry,
+            List<Filter> filters,
+            AuctionStrategySelector auctionStrategySelector,
+            @Value("${podads.experiments.enabled:true}") boolean enabled,
+            @Value("${podads.experiments.location:}") String location,
+            @Value("${podads.experiments.poll-seconds:5}") long pollSeconds
+    ) {
+        this(meterRegistry, filters.stream().map(Filter::getName).collect(Collectors.toSet()),
+                auctionStrategySelector.strategyNames(), enabled, location, pollSeconds);
+    }
+
+    ExperimentService(MeterRegistry meterRegistry, Set<String> filterNames, Set<String> strategyNames,
+                      boolean enabled, String location, long pollSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.filterNames = Set.copyOf(filterNames);
+        this.strategyNames = Set.copyOf(strategyNames);
+        this.enabled = enabled;
+        this.resource = location == null || location.isBlank()
+                ? new ClassPathResource(EXPERIMENTS_PATH)
+                : new FileSystemResource(location);
+        this.pollSeconds = pollSeconds;
+
+        Gauge.builder("ad_experiment_config_version", current, ref -> ref.get().getVersion())
+                .description("Version of the experiment configuration serving requests")
+                .register(meterRegistry);
+        Gauge.builder("ad_experiment_traffic", current, ref -> ref.get().traffic())
+                .description("Share of traffic assigned to an experiment arm")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void initialize() {
+        if (!enabled) {
+            return;
+        }
+        reload();
+        if (pollSeconds > 0) {
+            poller = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "experiment-poller");
+                thread.setDaemon(true);
+                return thread;
+            });
+            poller.scheduleWithFixedDelay(this::reloadIfChanged, pollSeconds, pollSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    /**
+     * Experiment arm for a request, or null for the default pipeline. Lock-free and allocation-free.
+     */
+    public ExperimentArm assign(AdRequest request) {
+        return current.get().assign(request);
+    }
+
+    public ExperimentConfig config() {
+        return current.get();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Re-read the experiment source and publish it as a new version.
+     * Returns the configuration now serving requests (the old one if the load failed or experiments are off).
+     */
+    public synchronized ExperimentConfig reload() {
+        if (!enabled) {
+            return current.get();
+        }
+        long modified = lastModifiedOrUnknown();
+        try {
+            JsonNode root;
+            try (InputStream inputStream = resource.getInputStream()) {
+                root = objectMapper.readTree(inputStream);
+            }
+            ExperimentConfig published = compile(current.get().getVersion() + 1, root);
+            current.set(published);
+            lastModified = modified;
+            recordReload("success");
+            logger.info("Experiments loaded successfully", Map.of(
+                    "experiments", published.getExperiments().size(),
+                    "arms", published.armCount(),
+                    "traffic", published.traffic(),
+                    "version", published.getVersion(),
+                    "sourceVersion", published.getSourceVersion()));
+            return published;
+        } catch (Exception e) {
+            lastModified = modified; // a broken file is retried once it changes again, not on every poll
+            recordReload("failure");
+            logger.error("Failed to load experiments from " + resource.getDescription() + ", keeping version "
+                    + current.get().getVersion(), e);
+            return current.get();
+        }
+    }
+
+    ExperimentConfig compile(long version, JsonNode root) {
+        List<ExperimentArm> arms = new ArrayList<>();
+        List<Integer> upperBounds = new ArrayList<>();
+        List<Boolean> byRequest = new ArrayList<>();
+        List<String> experiments = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        int start = 0;
+        for (JsonNode experiment : root.path("experiments")) {
+            String name = requireText(experiment, "name", "experiment");
+            if (!seen.add(name)) {
+                throw new IllegalArgumentException("Duplicate experiment '" + name + "'");
+            }
+            double traffic = experiment.path("traffic").asDouble(0);
+            String unit = experiment.path("unit").asText("listener");
+            if (!"listener".equals(unit) && !"request".equals(unit)) {
+                throw new IllegalArgumentException("Experiment '" + name + "' unit must be listener or request");
+            }
+            int size = (int) Math.round(traffic * ExperimentConfig.BUCKETS);
+            if (traffic < 0 || start + size > ExperimentConfig.BUCKETS) {
+                throw new IllegalArgumentException("Experiment traffic must be non-negative and add up to at most 1");
+            }
+            JsonNode armNodes = experiment.path("arms");
+            double totalWeight = 0;
+            for (JsonNode arm : armNodes) {
+                totalWeight += arm.path("weight").asDouble(1);
+            }
+            if (armNodes.isEmpty() || totalWeight <= 0) {
+                throw new IllegalArgumentException("Experiment '" + name + "' needs arms with positive weight");
+            }
+
+            double cumulative = 0;
+            Set<String> armNames = new HashSet<>();
+            for (JsonNode arm : armNodes) {
+                ExperimentArm compiled = compileArm(name, arm);
+                if (!armNames.add(compiled.getName())) {
+                    throw new IllegalArgumentException("Duplicate arm '" + compiled.getName() + "' in '" + name + "'");
+                }
+                cumulative += arm.path("weight").asDouble(1);
+                arms.add(compiled);
+                upperBounds.add(start + (int) Math.round(size * cumulative / totalWeight));
+                byRequest.add("request".equals(unit));
+            }
+            experiments.add(name);
+            start += size;
+        }
+
+        int[] bounds = new int[upperBounds.size()];
+        boolean[] requestUnits = new boolean[byRequest.size()];
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = upperBounds.get(i);
+            requestUnits[i] = byRequest.get(i);
+        }
+        return new ExperimentConfig(version, root.path("version").asText("unknown"), Instant.now(),
+                root.path("salt").asText("").hashCode(), bounds, requestUnits,
+                arms.toArray(new ExperimentArm[0]), List.copyOf(experiments));
+    }
+
+    private ExperimentArm compileArm(String experiment, JsonNode arm) {
+        String name = requireText(arm, "name", "arm of '" + experiment + "'");
+        String strategy = arm.hasNonNull("auctionStrategy") ? arm.get("auctionStrategy").asText() : null;
+        if (strategy != null && !strategyNames.contains(strategy)) {
+            throw new IllegalArgumentException("Unknown auction strategy '" + strategy + "' in " + experiment + "/" + name);
+        }
+        ScoringWeights weights = null;
+        if (arm.has("scoringWeights")) {
+            JsonNode node = arm.get("scoringWeights");
+            weights = new ScoringWeights(node.path("category").asDouble(ScoringWeights.DEFAULT.category()),
+                    node.path("show").asDouble(ScoringWeights.DEFAULT.show()));
+        }
+        List<String> filterOrder = new ArrayList<>();
+        for (JsonNode filter : arm.path("filterOrder")) {
+            if (!filterNames.contains(filter.asText())) {
+                throw new IllegalArgumentException("Unknown filter '" + filter.asText() + "' in " + experiment + "/" + name);
+            }
+            filterOrder.add(filter.asText());
+        }
+        return new ExperimentArm(experiment, name, strategy, weights, filterOrder,
+                arm.hasNonNull("modelScoring") ? arm.get("modelScoring").asBoolean() : null,
+                arm.hasNonNull("creativeRotation") ? arm.get("creativeRotation").asBoolean() : null,
+                meterRegistry);
+    }
+
+    private static String requireText(JsonNode node, String field, String what) {
+        String value = node.path(field).asText("");
+        if (value.isBlank()) {
+            throw new IllegalArgumentException("Missing " + field + " for " + what);
+        }
+        return value;
+    }
+
+    void reloadIfChanged() {
+        long modified = lastModifiedOrUnknown();
+        if (modified != lastModified) {
+            reload();
+        }
+    }
+
+    private long lastModifiedOrUnknown() {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return Long.MIN_VALUE; // missing file: nothing to reload until it appears
+        }
+    }
+
+    private void recordReload(String outcome) {
+        Counter.builder("ad_experiment_reloads_total")
+                .description("Experiment configuration reload attempts")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
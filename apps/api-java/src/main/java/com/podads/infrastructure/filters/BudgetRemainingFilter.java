@@ -1,16 +1,23 @@
 package com.podads.infrastructure.filters;
 
 import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.Campaign;
 import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.entities.Pacing;
+import com.podads.domain.services.BudgetLedger;
 import com.podads.domain.services.Filter;
 import com.podads.domain.valueobjects.FilterReasonCode;
 import com.podads.domain.valueobjects.FilterResult;
 import org.springframework.stereotype.Component;
 
-import java.util.Random;
-
 @Component
 public class BudgetRemainingFilter implements Filter {
+    private final BudgetLedger budgetLedger;
+
+    public BudgetRemainingFilter(BudgetLedger budgetLedger) {
+        this.budgetLedger = budgetLedger;
+    }
+
     @Override
     public String getName() {
         return "BudgetRemainingFilter";
@@ -18,27 +25,28 @@ public class BudgetRemainingFilter implements Filter {
 
     @Override
     public FilterResult apply(AdRequest request, CandidateAd candidate, int randomSeed) {
-        Random rng = new Random(randomSeed);
-        
-        boolean hasBudget = candidate.getCampaign().getBudget().getRemaining() > 0;
-        if (!hasBudget) {
-            return FilterResult.builder()
-                    .passed(false)
-                    .reasonCode(FilterReasonCode.BUDGET_EXHAUSTED)
-                    .details("Campaign budget exhausted")
-                    .build();
+        // Live balances from the ledger - each must cover at least one impression at the campaign's own bid
+        Campaign campaign = candidate.getCampaign();
+        long impressionCost = BudgetLedger.impressionCostMillicents(campaign.getBidCpm());
+        long remaining = budgetLedger.remainingMillicents(campaign);
+        if (remaining <= 0 || remaining < impressionCost) {
+            return exhausted("Campaign budget exhausted");
         }
-        // Simulate concurrent budget reservations: when budget < $100, 1% chance of exhaustion
-        // This models real-world race conditions where multiple requests compete for same budget
-        if (rng.nextDouble() < 0.01 && candidate.getCampaign().getBudget().getRemaining() < 10000) {
-            return FilterResult.builder()
-                    .passed(false)
-                    .reasonCode(FilterReasonCode.BUDGET_EXHAUSTED)
-                    .details("Budget exhausted due to concurrent reservations")
-                    .build();
+        Pacing pacing = campaign.getPacing();
+        if (pacing != null && pacing.getDailyBudget() != null) {
+            long dailyRemaining = pacing.getDailyBudget() * 1000L - budgetLedger.dailySpendMillicents(campaign);
+            if (dailyRemaining <= 0 || dailyRemaining < impressionCost) {
+                return exhausted("Campaign daily budget exhausted");
+            }
         }
         return FilterResult.builder().passed(true).build();
     }
-}
-
 
+    private static FilterResult exhausted(String details) {
+        return FilterResult.builder()
+                .passed(false)
+                .reasonCode(FilterReasonCode.BUDGET_EXHAUSTED)
+                .details(details)
+                .build();
+    }
+}
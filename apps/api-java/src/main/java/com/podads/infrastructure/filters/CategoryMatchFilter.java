@@ -3,12 +3,11 @@ package com.podads.infrastructure.filters;
 import com.podads.domain.entities.AdRequest;
 import com.podads.domain.entities.CandidateAd;
 import com.podads.domain.services.Filter;
+import com.podads.domain.valueobjects.EnumMask;
 import com.podads.domain.valueobjects.FilterReasonCode;
 import com.podads.domain.valueobjects.FilterResult;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-
 @Component
 public class CategoryMatchFilter implements Filter {
     @Override
@@ -18,11 +17,8 @@ public class CategoryMatchFilter implements Filter {
 
     @Override
     public FilterResult apply(AdRequest request, CandidateAd candidate, int randomSeed) {
-        List<com.podads.domain.valueobjects.PodcastCategory> targeting = candidate.getCampaign().getTargeting().getCategories();
-        if (targeting == null || targeting.isEmpty()) {
-            return FilterResult.builder().passed(true).build();
-        }
-        if (!targeting.contains(request.getPodcast().getCategory())) {
+        // Untargeted campaigns compile to EnumMask.ANY, so this single AND covers both cases
+        if (!EnumMask.contains(candidate.getTargetingMasks().getCategories(), request.getPodcast().getCategory())) {
             return FilterResult.builder()
                     .passed(false)
                     .reasonCode(FilterReasonCode.CATEGORY_MISMATCH)
@@ -0,0 +1,44 @@
+package com.podads.infrastructure.filters;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.services.Filter;
+import com.podads.domain.valueobjects.FilterReasonCode;
+import com.podads.domain.valueobjects.FilterResult;
+import com.podads.infrastructure.separation.CompetitiveSeparationService;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Competitive Separation Filter - Drops candidates whose brand or advertiser category the listener
+ * heard within the session window. Separation inside a pod is enforced by the pod solver.
+ */
+@Component
+public class CompetitiveSeparationFilter implements Filter {
+    private final CompetitiveSeparationService separationService;
+
+    public CompetitiveSeparationFilter(CompetitiveSeparationService separationService) {
+        this.separationService = separationService;
+    }
+
+    @Override
+    public String getName() {
+        return "CompetitiveSeparationFilter";
+    }
+
+    @Override
+    public FilterResult apply(AdRequest request, CandidateAd candidate, int randomSeed) {
+        String rule = separationService.sessionConflict(
+                request.getListener().getListenerId(), candidate, request.getTimestamp());
+        if (rule == null) {
+            return FilterResult.builder().passed(true).build();
+        }
+        return FilterResult.builder()
+                .passed(false)
+                .reasonCode(FilterReasonCode.COMPETITIVE_SEPARATION)
+                .details("Listener recently heard the same " + rule.replace('-', ' '))
+                .metadata(Map.of("rule", rule))
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.podads.infrastructure.filters;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.services.Filter;
+import com.podads.domain.valueobjects.FilterReasonCode;
+import com.podads.domain.valueobjects.FilterResult;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+
+/**
+ * Dayparting: one bit probe of the campaign's compiled hour-of-week mask at the listener's local hour.
+ * Catalog candidates that are dark this hour never reach the filter chain; this catches the rest.
+ */
+@Component
+public class DaypartingFilter implements Filter {
+    @Override
+    public String getName() {
+        return "DaypartingFilter";
+    }
+
+    @Override
+    public FilterResult apply(AdRequest request, CandidateAd candidate, int randomSeed) {
+        int hourOfWeek = request.getListenerHourOfWeek();
+        if (!candidate.getTargetingMasks().getHours().isActive(hourOfWeek)) {
+            return FilterResult.builder()
+                    .passed(false)
+                    .reasonCode(FilterReasonCode.OUTSIDE_DAYPART)
+                    .details("Campaign is dark at listener hour " + (hourOfWeek % 24) + ":00 ("
+                            + DayOfWeek.of(hourOfWeek / 24 + 1) + ")")
+                    .build();
+        }
+        return FilterResult.builder().passed(true).build();
+    }
+}
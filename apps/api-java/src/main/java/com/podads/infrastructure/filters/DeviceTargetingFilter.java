@@ -3,12 +3,11 @@ package com.podads.infrastructure.filters;
 import com.podads.domain.entities.AdRequest;
 import com.podads.domain.entities.CandidateAd;
 import com.podads.domain.services.Filter;
+import com.podads.domain.valueobjects.EnumMask;
 import com.podads.domain.valueobjects.FilterReasonCode;
 import com.podads.domain.valueobjects.FilterResult;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-
 @Component
 public class DeviceTargetingFilter implements Filter {
     @Override
@@ -18,11 +17,8 @@ public class DeviceTargetingFilter implements Filter {
 
     @Override
     public FilterResult apply(AdRequest request, CandidateAd candidate, int randomSeed) {
-        List<com.podads.domain.valueobjects.DeviceType> targeting = candidate.getCampaign().getTargeting().getDevice();
-        if (targeting == null || targeting.isEmpty()) {
-            return FilterResult.builder().passed(true).build();
-        }
-        if (!targeting.contains(request.getListener().getDevice())) {
+        // Untargeted campaigns compile to EnumMask.ANY, so this single AND covers both cases
+        if (!EnumMask.contains(candidate.getTargetingMasks().getDevices(), request.getListener().getDevice())) {
             return FilterResult.builder()
                     .passed(false)
                     .reasonCode(FilterReasonCode.DEVICE_MISMATCH)
@@ -0,0 +1,51 @@
+package com.podads.infrastructure.filters;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.services.Filter;
+import com.podads.domain.valueobjects.FilterReasonCode;
+import com.podads.domain.valueobjects.FilterResult;
+import com.podads.domain.valueobjects.SlotContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Duration Filter - Drops creatives that cannot fit the break.
+ *
+ * A creative longer than the pod's whole duration budget can never be placed, and one shorter than
+ * the slot's minimum ad length is not allowed. Runs once per candidate for the whole pod; fitting
+ * several ads into the budget together is the pod solver's job.
+ */
+@Component
+public class DurationFilter implements Filter {
+    @Override
+    public String getName() {
+        return "DurationFilter";
+    }
+
+    @Override
+    public FilterResult apply(AdRequest request, CandidateAd candidate, int randomSeed) {
+        SlotContext slot = request.getSlot();
+        Integer duration = candidate.getCreative().getDurationSeconds();
+        if (duration == null) {
+            return FilterResult.builder().passed(true).build();
+        }
+
+        if (slot.getPodMaxDurationSeconds() != null && duration > slot.getPodMaxDurationSeconds()) {
+            return FilterResult.builder()
+                    .passed(false)
+                    .reasonCode(FilterReasonCode.DURATION_TOO_LONG)
+                    .details("Creative runs " + duration + "s, break allows " + slot.getPodMaxDurationSeconds() + "s")
+                    .build();
+        }
+
+        if (slot.getMinAdDurationSeconds() != null && duration < slot.getMinAdDurationSeconds()) {
+            return FilterResult.builder()
+                    .passed(false)
+                    .reasonCode(FilterReasonCode.DURATION_TOO_SHORT)
+                    .details("Creative runs " + duration + "s, slot requires at least " + slot.getMinAdDurationSeconds() + "s")
+                    .build();
+        }
+
+        return FilterResult.builder().passed(true).build();
+    }
+}
@@ -3,12 +3,11 @@ package com.podads.infrastructure.filters;
 import com.podads.domain.entities.AdRequest;
 import com.podads.domain.entities.CandidateAd;
 import com.podads.domain.services.Filter;
+import com.podads.domain.valueobjects.EnumMask;
 import com.podads.domain.valueobjects.FilterReasonCode;
 import com.podads.domain.valueobjects.FilterResult;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-
 @Component
 public class ExcludedCategoryFilter implements Filter {
     @Override
@@ -18,11 +17,8 @@ public class ExcludedCategoryFilter implements Filter {
 
     @Override
     public FilterResult apply(AdRequest request, CandidateAd candidate, int randomSeed) {
-        List<com.podads.domain.valueobjects.PodcastCategory> excluded = candidate.getCampaign().getTargeting().getExcludeCategories();
-        if (excluded == null || excluded.isEmpty()) {
-            return FilterResult.builder().passed(true).build();
-        }
-        if (excluded.contains(request.getPodcast().getCategory())) {
+        // No exclusions compile to EnumMask.NONE, which never matches
+        if (EnumMask.contains(candidate.getTargetingMasks().getExcludedCategories(), request.getPodcast().getCategory())) {
             return FilterResult.builder()
                     .passed(false)
                     .reasonCode(FilterReasonCode.EXCLUDED_CATEGORY)
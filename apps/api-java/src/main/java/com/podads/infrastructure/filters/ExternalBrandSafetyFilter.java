@@ -0,0 +1,55 @@
+package com.podads.infrastructure.filters;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.services.AsyncFilter;
+import com.podads.domain.services.BatchLookupStore;
+import com.podads.domain.valueobjects.FilterReasonCode;
+import com.podads.domain.valueobjects.FilterResult;
+import com.podads.infrastructure.brandsafety.ExternalBrandSafetyStore;
+import org.springframework.stereotype.Component;
+
+/**
+ * External Brand Safety Filter - Drops creatives a third-party verification vendor flagged.
+ *
+ * Unlike {@link AbusiveContentFilter}, the verdicts live behind a remote API, so this is an
+ * {@link AsyncFilter}: the vendor is asked once per decision for every surviving creative.
+ */
+@Component
+public class ExternalBrandSafetyFilter implements AsyncFilter<String, String> {
+    private final ExternalBrandSafetyStore store;
+
+    public ExternalBrandSafetyFilter(ExternalBrandSafetyStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public String getName() {
+        return "ExternalBrandSafetyFilter";
+    }
+
+    @Override
+    public BatchLookupStore<String, String> getStore() {
+        return store;
+    }
+
+    @Override
+    public String lookupKey(AdRequest request, CandidateAd candidate) {
+        return candidate.getCreative().getId();
+    }
+
+    @Override
+    public FilterResult apply(AdRequest request, CandidateAd candidate, String riskCategory, int randomSeed) {
+        if (riskCategory != null) {
+            return FilterResult.builder()
+                    .passed(false)
+                    .reasonCode(FilterReasonCode.BRAND_SAFETY_VIOLATION)
+                    .details("Creative flagged by brand safety vendor: " + riskCategory)
+                    .build();
+        }
+
+        return FilterResult.builder()
+                .passed(true)
+                .build();
+    }
+}
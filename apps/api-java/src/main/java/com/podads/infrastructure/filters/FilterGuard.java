@@ -0,0 +1,316 @@
+package com.podads.infrastructure.filters;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.services.AsyncFilter;
+import com.podads.domain.services.BatchLookupStore;
+import com.podads.domain.services.Filter;
+import com.podads.domain.services.RemoteFilter;
+import com.podads.domain.valueobjects.FilterReasonCode;
+import com.podads.domain.valueobjects.FilterResult;
+import com.podads.infrastructure.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs dependency-backed filters under a per-filter latency budget and circuit breaker.
+ *
+ * Only {@link AsyncFilter}s and {@link RemoteFilter}s are guarded. In-memory filters are called
+ * directly: a breaker around them could only turn a few bad candidates or a GC pause into rejecting
+ * every candidate. If one throws, just that candidate is decided by the filter's policy, and nothing
+ * counts towards a breaker.
+ *
+ * Policies come from {@code podads.filters.<FilterName>.budget-ms} and {@code .fail-open}, falling back
+ * to {@code podads.filters.default.*}. When a filter times out, throws, or has its breaker open, its
+ * policy decides the candidate: fail-open passes it, fail-closed drops it with
+ * {@link FilterReasonCode#FILTER_UNAVAILABLE}.
+ *
+ * Async filters are where the budget bounds latency: the decision waits for a store only until the
+ * filter's deadline, so a stalled dependency costs at most its budget. Remote synchronous filters run on
+ * the request thread and cannot be cut short; an overrun still counts as a timeout towards the breaker.
+ */
+@Component
+public class FilterGuard {
+    private static final Logger logger = LoggerFactory.getLogger(FilterGuard.class);
+    private static final String PREFIX = "podads.filters.";
+
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final Map<String, Policy> policies = new ConcurrentHashMap<>();
+
+    public FilterGuard(MeterRegistry meterRegistry, Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+        this.failureThreshold = environment.getProperty(PREFIX + "circuit.failure-threshold", Integer.class, 5);
+        this.openMillis = environment.getProperty(PREFIX + "circuit.open-millis", Long.class, 10_000L);
+    }
+
+    /**
+     * Apply a synchronous filter.
+     */
+    public FilterResult apply(Filter filter, AdRequest request, CandidateAd candidate, int randomSeed) {
+        if (!(filter instanceof RemoteFilter)) {
+            try {
+                return filter.apply(request, candidate, randomSeed);
+            } catch (RuntimeException e) {
+                return errored(policyFor(filter.getName(), false), e); // bad data on this candidate, not an outage
+            }
+        }
+        Policy policy = policyFor(filter.getName(), true);
+        if (!policy.breaker.tryAcquire()) {
+            return fallback(policy, "circuit_open", "circuit breaker open");
+        }
+        long start = System.nanoTime();
+        FilterResult result;
+        try {
+            result = filter.apply(request, candidate, randomSeed);
+        } catch (RuntimeException e) {
+            return failed(policy, e);
+        } catch (Error e) {
+            policy.breaker.recordFailure(); // release a half-open trial before the error propagates
+            throw e;
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        if (elapsedNanos > policy.budgetNanos) {
+            // The answer is already here, so keep it - but a slow filter still counts against its breaker
+            policy.breaker.recordFailure();
+            policy.timeouts.increment();
+        } else {
+            policy.breaker.recordSuccess();
+        }
+        return result;
+    }
+
+    /**
+     * Issue one batched lookup per store for the async filters whose breakers admit the call, then
+     * wait for each filter's results until its own deadline. All stores are queried concurrently, so
+     * the wait is bounded by the largest budget, not their sum.
+     */
+    public AsyncLookups lookup(List<AsyncFilter<?, ?>> filters, AdRequest request, List<CandidateAd> candidates) {
+        AsyncLookups lookups = new AsyncLookups();
+        Map<BatchLookupStore<?, ?>, Set<Object>> keysByStore = new LinkedHashMap<>();
+        List<AsyncFilter<?, ?>> admitted = new ArrayList<>();
+        for (AsyncFilter<?, ?> filter : filters) {
+            Policy policy = policyFor(filter.getName(), true);
+            if (!policy.breaker.tryAcquire()) {
+                lookups.fallbacks.put(filter, fallback(policy, "circuit_open", "circuit breaker open"));
+                continue;
+            }
+            Map<CandidateAd, Object> keys = new IdentityHashMap<>(candidates.size());
+            try {
+                for (CandidateAd candidate : candidates) {
+                    keys.put(candidate, filter.lookupKey(request, candidate));
+                }
+            } catch (RuntimeException e) {
+                lookups.fallbacks.put(filter, failed(policy, e));
+                continue;
+            }
+            admitted.add(filter);
+            lookups.keys.put(filter, keys);
+            Set<Object> storeKeys = keysByStore.computeIfAbsent(filter.getStore(), store -> new HashSet<>());
+            for (Object key : keys.values()) {
+                if (key != null) {
+                    storeKeys.add(key);
+                }
+            }
+        }
+
+        long issuedAt = System.nanoTime();
+        Map<BatchLookupStore<?, ?>, CompletableFuture<Map<Object, Object>>> pending = new HashMap<>();
+        keysByStore.forEach((store, keys) -> pending.put(store, keys.isEmpty()
+                ? CompletableFuture.completedFuture(Map.of())
+                : lookupAll(store, keys)));
+
+        for (AsyncFilter<?, ?> filter : admitted) {
+            Policy policy = policyFor(filter.getName(), true);
+            long remainingNanos = issuedAt + policy.budgetNanos - System.nanoTime();
+            try {
+                lookups.values.put(filter, pending.get(filter.getStore()).get(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS));
+                policy.breaker.recordSuccess();
+            } catch (TimeoutException e) {
+                policy.breaker.recordFailure();
+                policy.timeouts.increment();
+                lookups.fallbacks.put(filter, fallback(policy, "timeout",
+                        filter.getStore().getName() + " lookup exceeded " + policy.budgetMillis + "ms budget"));
+            } catch (ExecutionException e) {
+                lookups.fallbacks.put(filter, failed(policy, e.getCause()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // Every admitted call must report back, or a half-open breaker would keep its trial forever
+                policy.breaker.recordFailure();
+                lookups.fallbacks.put(filter, fallback(policy, "error", "interrupted"));
+            } catch (RuntimeException e) {
+                lookups.fallbacks.put(filter, failed(policy, e)); // cancelled
+            }
+        }
+        return lookups;
+    }
+
+    /**
+     * Apply an async filter to one candidate using the results of {@link #lookup}.
+     */
+    public FilterResult apply(AsyncFilter<?, ?> filter, AsyncLookups lookups, AdRequest request, CandidateAd candidate,
+                              int randomSeed) {
+        FilterResult fallback = lookups.fallbacks.get(filter);
+        if (fallback != null) {
+            return fallback;
+        }
+        try {
+            return applyAsync(filter, request, candidate, lookups.keys.get(filter), lookups.values.get(filter), randomSeed);
+        } catch (RuntimeException e) {
+            return failed(policyFor(filter.getName(), true), e);
+        }
+    }
+
+    /**
+     * Breaker state of every guarded filter that has run, by filter name.
+     */
+    public Map<String, String> breakerStates() {
+        Map<String, String> states = new TreeMap<>();
+        policies.forEach((name, policy) -> {
+            if (policy.guarded) {
+                states.put(name, policy.breaker.getState().name().toLowerCase());
+            }
+        });
+        return states;
+    }
+
+    public CircuitBreaker.State breakerState(String filterName) {
+        return policyFor(filterName, true).breaker.getState();
+    }
+
+    private FilterResult failed(Policy policy, Throwable error) {
+        policy.breaker.recordFailure();
+        return errored(policy, error);
+    }
+
+    private FilterResult errored(Policy policy, Throwable error) {
+        policy.errors.increment();
+        logger.warn("Filter failed", Map.of(
+                "filter", policy.filterName,
+                "error", String.valueOf(error)));
+        return fallback(policy, "error", "error: " + error.getClass().getSimpleName());
+    }
+
+    private FilterResult fallback(Policy policy, String cause, String why) {
+        Counter.builder("ad_filter_fallbacks_total")
+                .description("Filter outcomes decided by fail-open/fail-closed policy instead of the filter")
+                .tag("filter_name", policy.filterName)
+                .tag("policy", policy.failOpen ? "fail_open" : "fail_closed")
+                .tag("cause", cause)
+                .register(meterRegistry)
+                .increment();
+        if (policy.failOpen) {
+            return FilterResult.builder()
+                    .passed(true)
+                    .details(policy.filterName + " unavailable (" + why + "), failing open")
+                    .build();
+        }
+        return FilterResult.builder()
+                .passed(false)
+                .reasonCode(FilterReasonCode.FILTER_UNAVAILABLE)
+                .details(policy.filterName + " unavailable (" + why + "), failing closed")
+                .build();
+    }
+
+    private Policy policyFor(String filterName, boolean guarded) {
+        return policies.computeIfAbsent(filterName, name -> createPolicy(name, guarded));
+    }
+
+    private Policy createPolicy(String filterName, boolean guarded) {
+        long budgetMillis = environment.getProperty(PREFIX + filterName + ".budget-ms", Long.class,
+                environment.getProperty(PREFIX + "default.budget-ms", Long.class, 50L));
+        boolean failOpen = environment.getProperty(PREFIX + filterName + ".fail-open", Boolean.class,
+                environment.getProperty(PREFIX + "default.fail-open", Boolean.class, false));
+        CircuitBreaker breaker = new CircuitBreaker(failureThreshold, openMillis);
+
+        if (guarded) {
+            Gauge.builder("ad_filter_circuit_state", breaker, b -> b.getState().ordinal())
+                    .description("Filter circuit breaker state: 0 closed, 1 half-open, 2 open")
+                    .tag("filter_name", filterName)
+                    .register(meterRegistry);
+        }
+        Counter timeouts = Counter.builder("ad_filter_timeouts_total")
+                .description("Filter calls that exceeded their latency budget")
+                .tag("filter_name", filterName)
+                .register(meterRegistry);
+        Counter errors = Counter.builder("ad_filter_errors_total")
+                .description("Filter calls that threw")
+                .tag("filter_name", filterName)
+                .register(meterRegistry);
+        return new Policy(filterName, guarded, budgetMillis, failOpen, breaker, timeouts, errors);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> CompletableFuture<Map<Object, Object>> lookupAll(BatchLookupStore<K, V> store, Set<Object> keys) {
+        try {
+            return store.lookupAll((Set<K>) (Set<?>) keys).thenApply(found -> (Map<Object, Object>) (Map<?, ?>) found);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> FilterResult applyAsync(AsyncFilter<K, V> filter, AdRequest request, CandidateAd candidate,
+                                                  Map<CandidateAd, Object> keys, Map<Object, Object> values, int seed) {
+        // Reuse the key computed for the batch; only a candidate that was not part of it derives its own
+        K key = keys.containsKey(candidate) ? (K) keys.get(candidate) : filter.lookupKey(request, candidate);
+        V value = key != null ? (V) values.get(key) : null;
+        return filter.apply(request, candidate, value, seed);
+    }
+
+    /**
+     * Per-decision results of {@link #lookup}: each candidate's key and the looked-up values, or the
+     * policy outcome for filters whose lookup was skipped or failed.
+     */
+    public static final class AsyncLookups {
+        private final Map<AsyncFilter<?, ?>, Map<CandidateAd, Object>> keys = new HashMap<>();
+        private final Map<AsyncFilter<?, ?>, Map<Object, Object>> values = new HashMap<>();
+        private final Map<AsyncFilter<?, ?>, FilterResult> fallbacks = new HashMap<>();
+    }
+
+    private static final class Policy {
+        private final String filterName;
+        private final boolean guarded;
+        private final long budgetMillis;
+        private final long budgetNanos;
+        private final boolean failOpen;
+        private final CircuitBreaker breaker;
+        private final Counter timeouts;
+        private final Counter errors;
+
+        private Policy(String filterName, boolean guarded, long budgetMillis, boolean failOpen,
+                       CircuitBreaker breaker, Counter timeouts, Counter errors) {
+            this.filterName = filterName;
+            this.guarded = guarded;
+            this.budgetMillis = budgetMillis;
+            this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+            this.failOpen = failOpen;
+            this.breaker = breaker;
+            this.timeouts = timeouts;
+            this.errors = errors;
+        }
+    }
+}
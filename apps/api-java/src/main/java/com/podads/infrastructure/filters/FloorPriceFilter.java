@@ -0,0 +1,51 @@
+package com.podads.infrastructure.filters;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.services.Filter;
+import com.podads.domain.valueobjects.FilterReasonCode;
+import com.podads.domain.valueobjects.FilterResult;
+import com.podads.infrastructure.floors.FloorPriceService;
+import com.podads.infrastructure.floors.FloorPriceTable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Floor Price Filter - Drops candidates bidding below the floor for the request's
+ * geo, category, slot type and tier, so they never reach scoring or the auction.
+ *
+ * Guaranteed campaigns pass: they are sold in advance at their contracted CPM.
+ */
+@Component
+public class FloorPriceFilter implements Filter {
+    private final FloorPriceService floorPriceService;
+
+    public FloorPriceFilter(FloorPriceService floorPriceService) {
+        this.floorPriceService = floorPriceService;
+    }
+
+    @Override
+    public String getName() {
+        return "FloorPriceFilter";
+    }
+
+    @Override
+    public FilterResult apply(AdRequest request, CandidateAd candidate, int randomSeed) {
+        Integer bidCpm = candidate.getCampaign().getBidCpm();
+        if (candidate.getCampaign().isGuaranteed() || bidCpm == null) {
+            return FilterResult.builder().passed(true).build();
+        }
+
+        FloorPriceTable table = floorPriceService.table();
+        int cell = table.cellOf(request);
+        double floorCpm = table.floorCpm(cell);
+        if (bidCpm < floorCpm) {
+            table.recordDrop(cell);
+            return FilterResult.builder()
+                    .passed(false)
+                    .reasonCode(FilterReasonCode.BELOW_FLOOR_PRICE)
+                    .details("Bid " + bidCpm + " below floor " + (long) floorCpm + " (" + table.ruleKey(cell) + ")")
+                    .build();
+        }
+        return FilterResult.builder().passed(true).build();
+    }
+}
@@ -6,12 +6,20 @@ import com.podads.domain.entities.FrequencyCap;
 import com.podads.domain.services.Filter;
 import com.podads.domain.valueobjects.FilterReasonCode;
 import com.podads.domain.valueobjects.FilterResult;
+import com.podads.infrastructure.frequency.FrequencyCapService;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
 import java.util.Random;
 
 @Component
 public class FrequencyCapFilter implements Filter {
+    private final FrequencyCapService frequencyCapService;
+
+    public FrequencyCapFilter(FrequencyCapService frequencyCapService) {
+        this.frequencyCapService = frequencyCapService;
+    }
+
     @Override
     public String getName() {
         return "FrequencyCapFilter";
@@ -19,24 +27,39 @@ public class FrequencyCapFilter implements Filter {
 
     @Override
     public FilterResult apply(AdRequest request, CandidateAd candidate, int randomSeed) {
-        Random rng = new Random(randomSeed);
         FrequencyCap freqCap = candidate.getCampaign().getFrequencyCap();
-        
-        if (freqCap == null) {
+
+        if (freqCap == null || freqCap.getMaxImpressions() == null) {
             return FilterResult.builder().passed(true).build(); // No frequency cap = always pass
         }
-        
-        // Simulate frequency cap: 1% chance of rejection (models user hitting impression limit)
-        // In production, this would check actual impression history per user
-        if (rng.nextDouble() < 0.01) {
-            return FilterResult.builder()
-                    .passed(false)
-                    .reasonCode(FilterReasonCode.FREQUENCY_CAP_EXCEEDED)
-                    .details(String.format("Frequency cap exceeded: %d impressions in %dh",
-                            freqCap.getMaxImpressions(), freqCap.getWindowHours()))
-                    .build();
+
+        String listenerId = request.getListener().getListenerId();
+        if (listenerId == null) {
+            // Anonymous listener: no impression history to check against.
+            // Simulate frequency cap: 1% chance of rejection (models user hitting impression limit)
+            Random rng = new Random(randomSeed);
+            if (rng.nextDouble() < 0.01) {
+                return capExceeded(freqCap, null);
+            }
+            return FilterResult.builder().passed(true).build();
+        }
+
+        int impressions = frequencyCapService.countImpressions(listenerId, candidate.getCampaign(), request.getTimestamp());
+        if (impressions >= freqCap.getMaxImpressions()) {
+            return capExceeded(freqCap, Map.of(
+                    "impressions", impressions,
+                    "backend", frequencyCapService.backendFor(candidate.getCampaign()).name().toLowerCase()));
         }
         return FilterResult.builder().passed(true).build();
     }
-}
 
+    private FilterResult capExceeded(FrequencyCap freqCap, Map<String, Object> metadata) {
+        return FilterResult.builder()
+                .passed(false)
+                .reasonCode(FilterReasonCode.FREQUENCY_CAP_EXCEEDED)
+                .details(String.format("Frequency cap exceeded: %d impressions in %dh",
+                        freqCap.getMaxImpressions(), freqCap.windowHoursOrDefault()))
+                .metadata(metadata)
+                .build();
+    }
+}
@@ -2,15 +2,27 @@ package com.podads.infrastructure.filters;
 
 import com.podads.domain.entities.AdRequest;
 import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.entities.TargetingRule;
 import com.podads.domain.services.Filter;
 import com.podads.domain.valueobjects.FilterReasonCode;
 import com.podads.domain.valueobjects.FilterResult;
+import com.podads.infrastructure.sourcing.FixtureSourcingService;
+import com.podads.infrastructure.sourcing.GeoTargetingIndex;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-
+/**
+ * Hierarchical geo targeting (US, US-CA, US-CA-807) with inclusions and exclusions.
+ * Catalog candidates are answered from the compiled {@link GeoTargetingIndex}; candidates built
+ * outside the catalog fall back to evaluating their own rules.
+ */
 @Component
 public class GeoTargetingFilter implements Filter {
+    private final FixtureSourcingService sourcingService;
+
+    public GeoTargetingFilter(FixtureSourcingService sourcingService) {
+        this.sourcingService = sourcingService;
+    }
+
     @Override
     public String getName() {
         return "GeoTargetingFilter";
@@ -18,19 +30,23 @@ public class GeoTargetingFilter implements Filter {
 
     @Override
     public FilterResult apply(AdRequest request, CandidateAd candidate, int randomSeed) {
-        List<String> targeting = candidate.getCampaign().getTargeting().getGeo();
-        if (targeting == null || targeting.isEmpty()) {
-            return FilterResult.builder().passed(true).build(); // No geo targeting = allow all
-        }
-        if (!targeting.contains(request.getListener().getGeo())) {
+        String geo = request.getListener().getGeo();
+        TargetingRule targeting = candidate.getCampaign().getTargeting();
+        GeoTargetingIndex index = sourcingService.getGeoIndex();
+        boolean allowed = index.covers(candidate)
+                ? index.allows(candidate, geo)
+                : GeoTargetingIndex.matches(targeting.getGeo(), targeting.getExcludeGeo(), geo);
+        if (!allowed) {
+            // Included at some level but carved out deeper = excluded; otherwise simply not targeted
+            boolean included = GeoTargetingIndex.matches(targeting.getGeo(), null, geo);
             return FilterResult.builder()
                     .passed(false)
                     .reasonCode(FilterReasonCode.GEO_MISMATCH)
-                    .details("Listener geo " + request.getListener().getGeo() + " not in targeting list")
+                    .details(included
+                            ? "Listener geo " + geo + " is excluded by targeting"
+                            : "Listener geo " + geo + " not in targeting list")
                     .build();
         }
         return FilterResult.builder().passed(true).build();
     }
 }
-
-
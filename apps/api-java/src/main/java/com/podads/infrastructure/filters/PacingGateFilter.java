@@ -4,14 +4,19 @@ import com.podads.domain.entities.AdRequest;
 import com.podads.domain.entities.CandidateAd;
 import com.podads.domain.entities.Pacing;
 import com.podads.domain.services.Filter;
+import com.podads.domain.services.PacingController;
 import com.podads.domain.valueobjects.FilterReasonCode;
 import com.podads.domain.valueobjects.FilterResult;
 import org.springframework.stereotype.Component;
 
-import java.util.Random;
-
 @Component
 public class PacingGateFilter implements Filter {
+    private final PacingController pacingController;
+
+    public PacingGateFilter(PacingController pacingController) {
+        this.pacingController = pacingController;
+    }
+
     @Override
     public String getName() {
         return "PacingGateFilter";
@@ -19,33 +24,54 @@ public class PacingGateFilter implements Filter {
 
     @Override
     public FilterResult apply(AdRequest request, CandidateAd candidate, int randomSeed) {
-        Random rng = new Random(randomSeed);
         Pacing pacing = candidate.getCampaign().getPacing();
         
         if (pacing.getDailyBudget() == null) {
             return FilterResult.builder().passed(true).build(); // No pacing limit
         }
+        if (candidate.getCampaign().isGuaranteed()) {
+            return FilterResult.builder().passed(true).build(); // Paced by the guaranteed allocation plan
+        }
         
-        double spendRatio = (pacing.getDailySpend() != null ? pacing.getDailySpend() : 0.0) 
-                / (double) pacing.getDailyBudget();
+        double passProbability = pacingController.passProbability(candidate.getCampaign());
         
-        if (spendRatio >= 1.0) {
+        if (passProbability <= 0.0) {
             return FilterResult.builder()
                     .passed(false)
                     .reasonCode(FilterReasonCode.PACING_LIMIT_EXCEEDED)
                     .details("Daily pacing limit exceeded")
                     .build();
         }
-        // Probabilistic throttling: when spend > 90%, 10% chance of rejection
-        // This simulates gradual throttling as we approach daily budget limit
-        if (spendRatio > 0.9 && rng.nextDouble() < 0.1) {
+        // Probabilistic throttling: the controller lowers the pass probability while the campaign
+        // is ahead of its intraday delivery curve
+        if (passProbability < 1.0
+                && throttleDraw(randomSeed, request.getRequestId(), candidate.getCampaign().getId()) >= passProbability) {
             return FilterResult.builder()
                     .passed(false)
                     .reasonCode(FilterReasonCode.PACING_LIMIT_EXCEEDED)
-                    .details("Pacing throttled to stay within daily budget")
+                    .details(String.format("Pacing throttled to stay on delivery curve (pass probability %.2f)", passProbability))
                     .build();
         }
         return FilterResult.builder().passed(true).build();
     }
+
+    /**
+     * Uniform draw in [0, 1) for one (decision, campaign) pair: the seed, request id and campaign id
+     * mixed with splitmix64. Campaigns in one decision, and decisions sharing a seed, draw independently,
+     * so a pass probability of p admits about p of the traffic instead of acting as a cutoff; replaying
+     * the same request with the same seed draws the same numbers.
+     */
+    static double throttleDraw(int seed, String requestId, String campaignId) {
+        long z = mix(((long) seed << 32) ^ (requestId != null ? requestId.hashCode() & 0xffffffffL : 0));
+        z = mix(z ^ (campaignId != null ? campaignId.hashCode() & 0xffffffffL : 0));
+        return (z >>> 11) * 0x1.0p-53;
+    }
+
+    private static long mix(long z) {
+        z += 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
 }
 
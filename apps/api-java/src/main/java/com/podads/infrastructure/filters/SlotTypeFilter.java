@@ -3,6 +3,7 @@ package com.podads.infrastructure.filters;
 import com.podads.domain.entities.AdRequest;
 import com.podads.domain.entities.CandidateAd;
 import com.podads.domain.services.Filter;
+import com.podads.domain.valueobjects.EnumMask;
 import com.podads.domain.valueobjects.FilterReasonCode;
 import com.podads.domain.valueobjects.FilterResult;
 import org.springframework.stereotype.Component;
@@ -16,7 +17,7 @@ public class SlotTypeFilter implements Filter {
 
     @Override
     public FilterResult apply(AdRequest request, CandidateAd candidate, int randomSeed) {
-        if (!candidate.getEligibleSlotTypes().contains(request.getSlot().getType())) {
+        if (!EnumMask.contains(candidate.getTargetingMasks().getEligibleSlotTypes(), request.getSlot().getType())) {
             return FilterResult.builder()
                     .passed(false)
                     .reasonCode(FilterReasonCode.SLOT_TYPE_MISMATCH)
@@ -0,0 +1,259 @@
+package com.podads.infrastructure.floors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.podads.domain.valueobjects.PodcastCategory;
+import com.podads.domain.valueobjects.SlotType;
+import com.podads.domain.valueobjects.TierType;
+import com.podads.infrastructure.guaranteed.AllocationPlan;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Owns the floor-price table and publishes it as versioned immutable {@link FloorPriceTable}s.
+ *
+ * Each entry of the source sets a floor CPM (cents, like bids) for any combination of {@code geo}
+ * (country), {@code category}, {@code slotType} and {@code tier}; an omitted dimension matches
+ * everything. Where entries overlap the most specific one wins, and among equally specific ones the
+ * later entry. Rules are expanded into every cell they cover at load time, so the request path never
+ * resolves them.
+ *
+ * The table is read from {@code podads.floors.location} (a file path) or, when unset, the bundled
+ * {@code fixtures/floors.json}, polled for changes and reloadable from the admin API. A failed
+ * reload keeps the previous table. Drops are counted per rule in {@code ad_floor_drops_total}; the
+ * counter of a rule survives reloads that keep the rule.
+ */
+@Service
+public class FloorPriceService {
+    private static final Logger logger = LoggerFactory.getLogger(FloorPriceService.class);
+    private static final String FLOORS_PATH = "fixtures/floors.json";
+    private static final String ANY = "*";
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Resource resource;
+    private final long pollSeconds;
+    private final Map<String, LongAdder> dropsByRule = new ConcurrentHashMap<>();
+    private final AtomicReference<FloorPriceTable> current = new AtomicReference<>(FloorPriceTable.EMPTY);
+    private volatile long lastModified = Long.MIN_VALUE;
+    private ScheduledExecutorService poller;
+
+    @Autowired
+    public FloorPriceService(
+            MeterRegistry meterRegistry,
+            @Value("${podads.floors.location:}") String location,
+            @Value("${podads.floors.poll-seconds:5}") long pollSeconds
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.resource = location == null || location.isBlank()
+                ? new ClassPathResource(FLOORS_PATH)
+                : new FileSystemResource(location);
+        this.pollSeconds = pollSeconds;
+
+        Gauge.builder("ad_floor_table_version", current, ref -> ref.get().getVersion())
+                .description("Version of the floor-price table serving requests")
+                .register(meterRegistry);
+        Gauge.builder("ad_floor_rules", current, ref -> ref.get().ruleCount())
+                .description("Rules in the current floor-price table")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Bundled floors with no file polling - for tests.
+     */
+    public FloorPriceService(MeterRegistry meterRegistry) {
+        this(meterRegistry, "", 0);
+    }
+
+    @PostConstruct
+    public void initialize() {
+        reload();
+        if (pollSeconds > 0) {
+            poller = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "floor-price-poller");
+                thread.setDaemon(true);
+                return thread;
+            });
+            poller.scheduleWithFixedDelay(this::reloadIfChanged, pollSeconds, pollSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    /**
+     * Table to use for the whole of one decision. Lock-free.
+     */
+    public FloorPriceTable table() {
+        return current.get();
+    }
+
+    /**
+     * Re-read the floor source and publish it as a new version.
+     * Returns the table now serving requests (the old one if the load failed).
+     */
+    public synchronized FloorPriceTable reload() {
+        long modified = lastModifiedOrUnknown();
+        try {
+            JsonNode root;
+            try (InputStream inputStream = resource.getInputStream()) {
+                root = objectMapper.readTree(inputStream);
+            }
+            FloorPriceTable published = compile(current.get().getVersion() + 1, root);
+            current.set(published);
+            lastModified = modified;
+            recordReload("success");
+            logger.info("Floor prices loaded successfully", Map.of(
+                    "rules", published.ruleCount(),
+                    "countries", published.countryCount(),
+                    "version", published.getVersion(),
+                    "sourceVersion", published.getSourceVersion()));
+            return published;
+        } catch (Exception e) {
+            lastModified = modified; // a broken file is retried once it changes again, not on every poll
+            recordReload("failure");
+            logger.error("Failed to load floor prices from " + resource.getDescription() + ", keeping version "
+                    + current.get().getVersion(), e);
+            return current.get();
+        }
+    }
+
+    FloorPriceTable compile(long version, JsonNode root) {
+        List<Rule> rules = new ArrayList<>();
+        Map<String, Integer> countryBlocks = new LinkedHashMap<>();
+        JsonNode entries = root.path("floors");
+        for (int i = 0; i < entries.size(); i++) {
+            JsonNode entry = entries.get(i);
+            if (!entry.path("floorCpm").isNumber() || entry.get("floorCpm").asDouble() < 0) {
+                throw new IllegalArgumentException("Floor entry " + i + " needs a non-negative floorCpm");
+            }
+            String geo = entry.path("geo").asText(ANY);
+            Rule rule = new Rule(i, geo,
+                    entry.has("category") ? PodcastCategory.fromString(entry.get("category").asText()) : null,
+                    entry.has("slotType") ? SlotType.fromString(entry.get("slotType").asText()) : null,
+                    entry.has("tier") ? TierType.fromString(entry.get("tier").asText()) : null,
+                    entry.get("floorCpm").asDouble());
+            if (!ANY.equals(geo)) {
+                countryBlocks.putIfAbsent(geo, countryBlocks.size() + 1);
+            }
+            rules.add(rule);
+        }
+        // Broad rules first, so narrower ones overwrite them; equal specificity keeps file order
+        rules.sort(Comparator.comparingInt(Rule::specificity).thenComparingInt(Rule::position));
+
+        int cells = (countryBlocks.size() + 1) * AllocationPlan.CONTEXTS;
+        double[] floors = new double[cells];
+        LongAdder[] drops = new LongAdder[cells];
+        String[] ruleKeys = new String[cells];
+        for (Rule rule : rules) {
+            String key = rule.key();
+            LongAdder counter = dropCounter(key);
+            for (int block = 0; block <= countryBlocks.size(); block++) {
+                if (!ANY.equals(rule.geo()) && block != countryBlocks.get(rule.geo())) {
+                    continue;
+                }
+                for (PodcastCategory category : PodcastCategory.values()) {
+                    for (SlotType slotType : SlotType.values()) {
+                        for (TierType tier : TierType.values()) {
+                            if (rule.covers(category, slotType, tier)) {
+                                int cell = block * AllocationPlan.CONTEXTS + AllocationPlan.contextOf(category, slotType, tier);
+                                floors[cell] = rule.floorCpm();
+                                drops[cell] = counter;
+                                ruleKeys[cell] = key;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return new FloorPriceTable(version, root.path("version").asText("unknown"), Instant.now(),
+                Map.copyOf(countryBlocks), floors, drops, ruleKeys, rules.size());
+    }
+
+    private LongAdder dropCounter(String ruleKey) {
+        return dropsByRule.computeIfAbsent(ruleKey, key -> {
+            LongAdder counter = new LongAdder();
+            FunctionCounter.builder("ad_floor_drops_total", counter, LongAdder::sum)
+                    .description("Candidates dropped for bidding below the floor, by floor rule")
+                    .tag("floor", key)
+                    .register(meterRegistry);
+            return counter;
+        });
+    }
+
+    void reloadIfChanged() {
+        long modified = lastModifiedOrUnknown();
+        if (modified != lastModified) {
+            reload();
+        }
+    }
+
+    private long lastModifiedOrUnknown() {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return Long.MIN_VALUE; // missing file: nothing to reload until it appears
+        }
+    }
+
+    private void recordReload(String outcome) {
+        Counter.builder("ad_floor_reloads_total")
+                .description("Floor-price table reload attempts")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * One source entry; null dimensions match everything.
+     */
+    private record Rule(int position, String geo, PodcastCategory category, SlotType slotType, TierType tier,
+                        double floorCpm) {
+        int specificity() {
+            return (ANY.equals(geo) ? 0 : 1) + (category != null ? 1 : 0) + (slotType != null ? 1 : 0) + (tier != null ? 1 : 0);
+        }
+
+        boolean covers(PodcastCategory category, SlotType slotType, TierType tier) {
+            return (this.category == null || this.category == category)
+                    && (this.slotType == null || this.slotType == slotType)
+                    && (this.tier == null || this.tier == tier);
+        }
+
+        String key() {
+            return geo + "/" + (category != null ? category.getValue() : ANY)
+                    + "/" + (slotType != null ? slotType.getValue() : ANY)
+                    + "/" + (tier != null ? tier.getValue() : ANY);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.podads.infrastructure.floors;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.infrastructure.guaranteed.AllocationPlan;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Immutable, versioned floor prices compiled into a dense array.
+ *
+ * A cell is (country, podcast category, slot type, listener tier): the context numbering of
+ * {@link AllocationPlan#contextOf} within a block per country, with block 0 for listeners in a
+ * country that has no floors of its own. Looking up a floor is one map probe for the country and
+ * one array read. Each cell also points at the drop counter of the rule that set its floor, so
+ * counting a drop is a single {@link LongAdder} increment.
+ */
+public final class FloorPriceTable {
+    static final FloorPriceTable EMPTY = new FloorPriceTable(0, "none", Instant.EPOCH, Map.of(),
+            new double[AllocationPlan.CONTEXTS], new LongAdder[AllocationPlan.CONTEXTS], new String[AllocationPlan.CONTEXTS], 0);
+
+    private final long version;
+    private final String sourceVersion;
+    private final Instant loadedAt;
+    private final Map<String, Integer> countryBlocks;
+    private final double[] floors;
+    private final LongAdder[] drops;
+    private final String[] ruleKeys;
+    private final int ruleCount;
+
+    /**
+     * @param countryBlocks block number (1..) of each country with its own floors
+     * @param floors        floor CPM per cell, 0 where no rule applies
+     * @param drops         drop counter of the rule behind each cell, null where no rule applies
+     * @param ruleKeys      key of the rule behind each cell, null where no rule applies
+     */
+    FloorPriceTable(long version, String sourceVersion, Instant loadedAt, Map<String, Integer> countryBlocks,
+                    double[] floors, LongAdder[] drops, String[] ruleKeys, int ruleCount) {
+        this.version = version;
+        this.sourceVersion = sourceVersion;
+        this.loadedAt = loadedAt;
+        this.countryBlocks = countryBlocks;
+        this.floors = floors;
+        this.drops = drops;
+        this.ruleKeys = ruleKeys;
+        this.ruleCount = ruleCount;
+    }
+
+    /**
+     * Cell for a request; listener geos are matched on their country (US-CA-807 uses the US floors).
+     */
+    public int cellOf(AdRequest request) {
+        String geo = request.getListener().getGeo();
+        int block = 0;
+        if (geo != null && !countryBlocks.isEmpty()) {
+            int dash = geo.indexOf('-');
+            block = countryBlocks.getOrDefault(dash < 0 ? geo : geo.substring(0, dash), 0);
+        }
+        return block * AllocationPlan.CONTEXTS + AllocationPlan.contextOf(request);
+    }
+
+    public double floorCpm(int cell) {
+        return floors[cell];
+    }
+
+    public double floorCpm(AdRequest request) {
+        return floors[cellOf(request)];
+    }
+
+    /**
+     * Key of the rule that set a cell's floor (geo/category/slot-type/tier, * for any), or null.
+     */
+    public String ruleKey(int cell) {
+        return ruleKeys[cell];
+    }
+
+    public void recordDrop(int cell) {
+        LongAdder counter = drops[cell];
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getSourceVersion() {
+        return sourceVersion;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    public int ruleCount() {
+        return ruleCount;
+    }
+
+    public int countryCount() {
+        return countryBlocks.size();
+    }
+}
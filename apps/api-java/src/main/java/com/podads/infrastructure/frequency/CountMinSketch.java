@@ -0,0 +1,102 @@
+package com.podads.infrastructure.frequency;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size count-min sketch with saturating 8-bit counters.
+ *
+ * Width and depth come from the classic bounds: an estimate exceeds the true count by more than
+ * {@code epsilon * N} (N = total increments) with probability at most {@code delta}.
+ * Frequency caps are small, so eight counters are packed into each {@code long} and updated with CAS.
+ */
+final class CountMinSketch {
+    private static final int COUNTERS_PER_WORD = 8;
+    private static final long COUNTER_MASK = 0xFFL;
+
+    private final int width;
+    private final int depth;
+    private final AtomicLongArray words;
+    private final LongAdder increments = new LongAdder();
+
+    CountMinSketch(int width, int depth) {
+        this.width = width;
+        this.depth = depth;
+        long counters = (long) width * depth;
+        this.words = new AtomicLongArray((int) ((counters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD));
+    }
+
+    static int depthFor(double delta) {
+        return Math.max(1, (int) Math.ceil(Math.log(1.0 / delta)));
+    }
+
+    void increment(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int row = 0; row < depth; row++) {
+            incrementCounter((long) row * width + column(h1 + row * h2));
+        }
+        increments.increment();
+    }
+
+    int estimate(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counter((long) row * width + column(h1 + row * h2)));
+        }
+        return min;
+    }
+
+    void clear() {
+        for (int i = 0; i < words.length(); i++) {
+            words.set(i, 0L);
+        }
+        increments.reset();
+    }
+
+    long totalIncrements() {
+        return increments.sum();
+    }
+
+    int width() {
+        return width;
+    }
+
+    int depth() {
+        return depth;
+    }
+
+    long memoryBytes() {
+        return words.length() * (long) Long.BYTES;
+    }
+
+    // Lemire's multiply-shift range reduction - avoids rounding width up to a power of two
+    private int column(int hash) {
+        return (int) (((hash & 0xFFFFFFFFL) * width) >>> 32);
+    }
+
+    private int counter(long index) {
+        long word = words.get((int) (index / COUNTERS_PER_WORD));
+        return (int) ((word >>> shift(index)) & COUNTER_MASK);
+    }
+
+    private void incrementCounter(long index) {
+        int wordIndex = (int) (index / COUNTERS_PER_WORD);
+        int shift = shift(index);
+        while (true) {
+            long word = words.get(wordIndex);
+            if (((word >>> shift) & COUNTER_MASK) == COUNTER_MASK) {
+                return; // saturated - only reachable when the width is far too small for the population
+            }
+            if (words.compareAndSet(wordIndex, word, word + (1L << shift))) {
+                return;
+            }
+        }
+    }
+
+    private static int shift(long index) {
+        return (int) (index % COUNTERS_PER_WORD) * 8;
+    }
+}
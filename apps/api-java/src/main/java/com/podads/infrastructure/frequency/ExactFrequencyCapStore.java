@@ -0,0 +1,76 @@
+package com.podads.infrastructure.frequency;
+
+import com.podads.domain.entities.FrequencyCap;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exact frequency counters: one small ring of impression timestamps per (listener, campaign).
+ *
+ * Only the most recent {@code maxImpressions} timestamps are kept, which is all the cap check needs.
+ * Memory grows with the number of distinct listener/campaign pairs - use the sketch backend
+ * for large listener populations.
+ */
+public class ExactFrequencyCapStore implements FrequencyCapStore {
+    private final ConcurrentHashMap<String, ImpressionLog> logs = new ConcurrentHashMap<>();
+
+    @Override
+    public int countImpressions(String listenerId, String campaignId, FrequencyCap cap, Instant now) {
+        ImpressionLog log = logs.get(key(listenerId, campaignId));
+        if (log == null) {
+            return 0;
+        }
+        long windowStart = now.toEpochMilli() - cap.windowHoursOrDefault() * 3_600_000L;
+        return log.countSince(windowStart);
+    }
+
+    @Override
+    public void recordImpression(String listenerId, String campaignId, FrequencyCap cap, Instant now) {
+        int capacity = Math.max(1, cap.getMaxImpressions());
+        logs.computeIfAbsent(key(listenerId, campaignId), k -> new ImpressionLog(capacity))
+                .add(now.toEpochMilli());
+    }
+
+    /**
+     * Number of tracked listener/campaign pairs.
+     */
+    public int size() {
+        return logs.size();
+    }
+
+    private static String key(String listenerId, String campaignId) {
+        return listenerId + '|' + campaignId;
+    }
+
+    /**
+     * Ring buffer of the most recent impression timestamps for one listener/campaign pair.
+     */
+    private static final class ImpressionLog {
+        private final long[] timestamps;
+        private int next;
+        private int size;
+
+        ImpressionLog(int capacity) {
+            this.timestamps = new long[capacity];
+        }
+
+        synchronized void add(long timestampMs) {
+            timestamps[next] = timestampMs;
+            next = (next + 1) % timestamps.length;
+            if (size < timestamps.length) {
+                size++;
+            }
+        }
+
+        synchronized int countSince(long windowStartMs) {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (timestamps[i] > windowStartMs) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
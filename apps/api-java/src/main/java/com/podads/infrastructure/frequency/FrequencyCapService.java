@@ -0,0 +1,113 @@
+package com.podads.infrastructure.frequency;
+
+import com.podads.domain.entities.Campaign;
+import com.podads.domain.entities.FrequencyCap;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+/**
+ * Frequency cap bookkeeping - routes each campaign to the exact or sketch backend.
+ *
+ * The backend comes from the campaign's {@code frequencyCap.backend} when set, otherwise from
+ * {@code podads.frequency-cap.backend}. The sketch backend is allocated on first use so that
+ * deployments running exact-only do not pay for its fixed memory.
+ */
+@Service
+public class FrequencyCapService {
+    private static final Logger logger = LoggerFactory.getLogger(FrequencyCapService.class);
+
+    private final FrequencyCap.Backend defaultBackend;
+    private final int sketchMaxOvercount;
+    private final long sketchWindowImpressions;
+    private final double sketchDelta;
+    private final int sketchBucketMinutes;
+    private final int sketchBuckets;
+    private final ExactFrequencyCapStore exactStore = new ExactFrequencyCapStore();
+    private volatile SketchFrequencyCapStore sketchStore;
+
+    public FrequencyCapService(
+            MeterRegistry meterRegistry,
+            @Value("${podads.frequency-cap.backend:exact}") String defaultBackend,
+            @Value("${podads.frequency-cap.sketch.max-overcount:2}") int sketchMaxOvercount,
+            @Value("${podads.frequency-cap.sketch.window-impressions:10000000}") long sketchWindowImpressions,
+            @Value("${podads.frequency-cap.sketch.delta:0.01}") double sketchDelta,
+            @Value("${podads.frequency-cap.sketch.bucket-minutes:360}") int sketchBucketMinutes,
+            @Value("${podads.frequency-cap.sketch.buckets:5}") int sketchBuckets
+    ) {
+        this.defaultBackend = FrequencyCap.Backend.valueOf(defaultBackend.toUpperCase());
+        this.sketchMaxOvercount = sketchMaxOvercount;
+        this.sketchWindowImpressions = sketchWindowImpressions;
+        this.sketchDelta = sketchDelta;
+        this.sketchBucketMinutes = sketchBucketMinutes;
+        this.sketchBuckets = sketchBuckets;
+
+        Gauge.builder("ad_frequency_cap_exact_keys", exactStore, ExactFrequencyCapStore::size)
+                .description("Listener/campaign pairs tracked by the exact frequency cap backend")
+                .register(meterRegistry);
+        Gauge.builder("ad_frequency_cap_sketch_memory_bytes", this,
+                        s -> s.sketchStore != null ? s.sketchStore.memoryBytes() : 0)
+                .description("Fixed memory held by the count-min sketch frequency cap backend")
+                .register(meterRegistry);
+        Gauge.builder("ad_frequency_cap_sketch_error_rate", this,
+                        s -> s.sketchStore != null
+                                ? s.sketchStore.estimatedOverCapErrorRate(s.sketchStore.spanHours(), Instant.now())
+                                : 0.0)
+                .description("Estimated probability that the sketch backend caps a listener early")
+                .register(meterRegistry);
+        Gauge.builder("ad_frequency_cap_sketch_overcount_bound", this,
+                        s -> s.sketchStore != null
+                                ? s.sketchStore.overcountBound(s.sketchStore.spanHours(), Instant.now())
+                                : 0.0)
+                .description("Impressions a sketch estimate exceeds the true count by with probability at most delta")
+                .register(meterRegistry);
+    }
+
+    public FrequencyCap.Backend backendFor(Campaign campaign) {
+        FrequencyCap cap = campaign.getFrequencyCap();
+        return cap != null && cap.getBackend() != null ? cap.getBackend() : defaultBackend;
+    }
+
+    public int countImpressions(String listenerId, Campaign campaign, Instant now) {
+        return storeFor(campaign).countImpressions(listenerId, campaign.getId(), campaign.getFrequencyCap(), now);
+    }
+
+    public void recordImpression(String listenerId, Campaign campaign, Instant now) {
+        FrequencyCap cap = campaign.getFrequencyCap();
+        if (listenerId == null || cap == null || cap.getMaxImpressions() == null) {
+            return;
+        }
+        storeFor(campaign).recordImpression(listenerId, campaign.getId(), cap, now);
+    }
+
+    private FrequencyCapStore storeFor(Campaign campaign) {
+        return backendFor(campaign) == FrequencyCap.Backend.SKETCH ? sketchStore() : exactStore;
+    }
+
+    private SketchFrequencyCapStore sketchStore() {
+        SketchFrequencyCapStore store = sketchStore;
+        if (store == null) {
+            synchronized (this) {
+                store = sketchStore;
+                if (store == null) {
+                    store = new SketchFrequencyCapStore(sketchMaxOvercount, sketchWindowImpressions, sketchDelta,
+                            sketchBucketMinutes, sketchBuckets);
+                    sketchStore = store;
+                    logger.info("Frequency cap sketch allocated",
+                            java.util.Map.of("memoryBytes", store.memoryBytes(),
+                                           "spanHours", store.spanHours(),
+                                           "width", store.width(),
+                                           "maxOvercount", sketchMaxOvercount,
+                                           "windowImpressions", sketchWindowImpressions,
+                                           "delta", sketchDelta));
+                }
+            }
+        }
+        return store;
+    }
+}
@@ -0,0 +1,22 @@
+package com.podads.infrastructure.frequency;
+
+import com.podads.domain.entities.FrequencyCap;
+
+import java.time.Instant;
+
+/**
+ * Backend that remembers how often a listener has heard a campaign.
+ *
+ * Implementations must be safe for concurrent use from request threads.
+ */
+public interface FrequencyCapStore {
+    /**
+     * Count impressions of a campaign for a listener within the cap's window ending at {@code now}.
+     */
+    int countImpressions(String listenerId, String campaignId, FrequencyCap cap, Instant now);
+
+    /**
+     * Record one impression of a campaign for a listener at {@code now}.
+     */
+    void recordImpression(String listenerId, String campaignId, FrequencyCap cap, Instant now);
+}
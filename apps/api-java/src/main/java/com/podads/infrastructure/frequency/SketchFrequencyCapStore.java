@@ -0,0 +1,183 @@
+package com.podads.infrastructure.frequency;
+
+import com.podads.domain.entities.FrequencyCap;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Approximate frequency counters backed by a ring of count-min sketches, one per time bucket.
+ *
+ * A window of N hours is answered by summing the per-bucket estimates of the buckets it covers,
+ * so old impressions fall out as buckets rotate (a bucket is cleared the first time it is written
+ * in a new epoch). Windows are rounded up to whole buckets, and the current bucket is only partly
+ * elapsed, so a window covers one bucket more than it spans: up to one bucket of older impressions is
+ * counted, none inside the window is missed. Coarse buckets (the default is 6 hours, 5 buckets) keep
+ * the ring short at the cost of capping on slightly older history.
+ *
+ * Estimates never undercount within the ring's span; they may overcount because of hash collisions,
+ * which shows up as listeners being capped early. Collisions add up across the buckets a window sums,
+ * so the bound is set against the impressions in the whole window: with {@code N} impressions in the
+ * window, width {@code w = ceil(e * windowImpressions / maxOvercount)} and depth
+ * {@code d = ceil(ln(1 / delta))}, an estimate exceeds the true count by more than
+ * {@code e * N / w} (= {@code maxOvercount} at the configured load) with probability at most delta -
+ * see {@link #overcountBound} and {@link #estimatedOverCapErrorRate}. Windows longer than the ring
+ * (less one bucket) are clamped to the ring's span.
+ *
+ * Memory is {@code buckets x d x w} bytes, fixed at construction and independent of how many listeners
+ * there are: about {@code 13.6 x buckets / maxOvercount} bytes per impression per window at delta 0.01.
+ * For example 5 buckets, 10M impressions per window and an overcount bound of 2 take 340 MB; 300M
+ * impressions with a bound of 20 take about 1 GB. An exact counter costs on the order of 150 bytes per
+ * listener/campaign pair, so the sketch pays off once the tolerated overcount is a few impressions.
+ */
+public class SketchFrequencyCapStore implements FrequencyCapStore {
+    private final long bucketMillis;
+    private final CountMinSketch[] buckets;
+    private final AtomicLongArray bucketEpochs;
+
+    /**
+     * @param maxOvercount     impressions an estimate may exceed the true count by, with probability 1 - delta
+     * @param windowImpressions impressions expected across all listeners within the longest cap window
+     */
+    public SketchFrequencyCapStore(int maxOvercount, long windowImpressions, double delta, int bucketMinutes,
+                                   int bucketCount) {
+        if (maxOvercount < 1 || windowImpressions < 1) {
+            throw new IllegalArgumentException("maxOvercount and windowImpressions must be positive");
+        }
+        if (delta <= 0 || delta >= 1) {
+            throw new IllegalArgumentException("delta must be in (0, 1)");
+        }
+        int depth = CountMinSketch.depthFor(delta);
+        double epsilon = (double) maxOvercount / windowImpressions;
+        long width = (long) Math.ceil(Math.E / epsilon);
+        if (width > Integer.MAX_VALUE || width * depth > (long) Integer.MAX_VALUE * 8) {
+            throw new IllegalArgumentException("Sketch of " + width + " x " + depth
+                    + " counters is too large; raise maxOvercount or lower windowImpressions");
+        }
+        this.bucketMillis = bucketMinutes * 60_000L;
+        this.buckets = new CountMinSketch[bucketCount];
+        this.bucketEpochs = new AtomicLongArray(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new CountMinSketch((int) width, depth);
+            bucketEpochs.set(i, Long.MIN_VALUE);
+        }
+    }
+
+    @Override
+    public int countImpressions(String listenerId, String campaignId, FrequencyCap cap, Instant now) {
+        long hash = hash(listenerId, campaignId);
+        long currentEpoch = now.toEpochMilli() / bucketMillis;
+        int covered = bucketsFor(cap.windowHoursOrDefault());
+        int count = 0;
+        for (int i = 0; i < covered; i++) {
+            long epoch = currentEpoch - i;
+            int slot = slot(epoch);
+            if (bucketEpochs.get(slot) == epoch) {
+                count += buckets[slot].estimate(hash);
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void recordImpression(String listenerId, String campaignId, FrequencyCap cap, Instant now) {
+        long epoch = now.toEpochMilli() / bucketMillis;
+        int slot = slot(epoch);
+        if (bucketEpochs.get(slot) != epoch) {
+            rotate(slot, epoch);
+        }
+        buckets[slot].increment(hash(listenerId, campaignId));
+    }
+
+    /**
+     * Estimated probability that a listener who is one impression under the cap is reported as capped
+     * for a window of {@code windowHours}: every row of the sketch must have picked up at least one
+     * colliding increment, i.e. {@code (1 - e^(-n/w))^d} with n increments in the window.
+     */
+    public double estimatedOverCapErrorRate(int windowHours, Instant now) {
+        CountMinSketch shape = buckets[0];
+        double rowCollision = 1.0 - Math.exp(-(double) impressionsIn(windowHours, now) / shape.width());
+        return Math.pow(rowCollision, shape.depth());
+    }
+
+    /**
+     * Over-count that an estimate for a window of {@code windowHours} exceeds with probability at most
+     * delta, given the impressions actually recorded in it: {@code e * N / width}.
+     */
+    public double overcountBound(int windowHours, Instant now) {
+        return Math.E * impressionsIn(windowHours, now) / buckets[0].width();
+    }
+
+    private long impressionsIn(int windowHours, Instant now) {
+        long currentEpoch = now.toEpochMilli() / bucketMillis;
+        long increments = 0;
+        for (int i = 0; i < bucketsFor(windowHours); i++) {
+            long epoch = currentEpoch - i;
+            int slot = slot(epoch);
+            if (bucketEpochs.get(slot) == epoch) {
+                increments += buckets[slot].totalIncrements();
+            }
+        }
+        return increments;
+    }
+
+    public long memoryBytes() {
+        long total = 0;
+        for (CountMinSketch bucket : buckets) {
+            total += bucket.memoryBytes();
+        }
+        return total;
+    }
+
+    int width() {
+        return buckets[0].width();
+    }
+
+    int depth() {
+        return buckets[0].depth();
+    }
+
+    public int spanHours() {
+        return (int) (buckets.length * bucketMillis / 3_600_000L);
+    }
+
+    private void rotate(int slot, long epoch) {
+        synchronized (buckets[slot]) {
+            if (bucketEpochs.get(slot) < epoch) {
+                buckets[slot].clear();
+                bucketEpochs.set(slot, epoch);
+            }
+        }
+    }
+
+    // Whole buckets spanned by the window, plus the partly elapsed current one
+    private int bucketsFor(int windowHours) {
+        long covered = (windowHours * 3_600_000L + bucketMillis - 1) / bucketMillis + 1;
+        return (int) Math.min(covered, buckets.length);
+    }
+
+    private int slot(long epoch) {
+        return (int) Math.floorMod(epoch, (long) buckets.length);
+    }
+
+    /**
+     * 64-bit FNV-1a over both ids (separated so "ab"+"c" != "a"+"bc"), finished with a murmur3 mix.
+     * Hashes chars directly to avoid building a composite key string per lookup.
+     */
+    static long hash(String listenerId, String campaignId) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < listenerId.length(); i++) {
+            h = (h ^ listenerId.charAt(i)) * 0x100000001b3L;
+        }
+        h = (h ^ 0x1F) * 0x100000001b3L;
+        for (int i = 0; i < campaignId.length(); i++) {
+            h = (h ^ campaignId.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
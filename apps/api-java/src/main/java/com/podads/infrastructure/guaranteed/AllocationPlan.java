@@ -0,0 +1,120 @@
+package com.podads.infrastructure.guaranteed;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.valueobjects.PodcastCategory;
+import com.podads.domain.valueobjects.SlotType;
+import com.podads.domain.valueobjects.TierType;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Serving probabilities of the guaranteed line items in each supply context, as computed by
+ * {@link HighWaterMarkAllocator}. Immutable; the delivery service publishes a new one per recompute.
+ *
+ * A context is (podcast category, slot type, listener tier), numbered densely by {@link #contextOf}.
+ * The line items of a context are stored contiguously with cumulative probabilities that sum to at
+ * most 1, so one uniform draw selects at most one of them; a draw past the last leaves the request
+ * to the auction.
+ */
+public final class AllocationPlan {
+    public static final int CONTEXTS = PodcastCategory.values().length * SlotType.values().length * TierType.values().length;
+
+    static final AllocationPlan EMPTY = new AllocationPlan(0, Instant.EPOCH, new int[CONTEXTS + 1], new String[0],
+            new double[0], Map.of(), Map.of());
+
+    private final long version;
+    private final Instant computedAt;
+    private final int[] contextStart;
+    private final String[] campaignIds;
+    private final double[] cumulative;
+    private final Map<String, Double> demand;
+    private final Map<String, Double> expectedDelivery;
+
+    /**
+     * @param contextStart per context, first index of its line items in {@code campaignIds}/{@code cumulative};
+     *                     entry {@link #CONTEXTS} is the total
+     * @param cumulative   running sum of the serving probabilities within each context
+     */
+    AllocationPlan(long version, Instant computedAt, int[] contextStart, String[] campaignIds, double[] cumulative,
+                   Map<String, Double> demand, Map<String, Double> expectedDelivery) {
+        this.version = version;
+        this.computedAt = computedAt;
+        this.contextStart = contextStart;
+        this.campaignIds = campaignIds;
+        this.cumulative = cumulative;
+        this.demand = demand;
+        this.expectedDelivery = expectedDelivery;
+    }
+
+    public static int contextOf(PodcastCategory category, SlotType slotType, TierType tier) {
+        return (category.ordinal() * SlotType.values().length + slotType.ordinal()) * TierType.values().length + tier.ordinal();
+    }
+
+    public static int contextOf(AdRequest request) {
+        return contextOf(request.getPodcast().getCategory(), request.getSlot().getType(), request.getListener().getTier());
+    }
+
+    /**
+     * Line item that takes this request, or null to leave it to the auction.
+     *
+     * @param draw uniform in [0, 1)
+     */
+    public String select(int context, double draw) {
+        for (int k = contextStart[context]; k < contextStart[context + 1]; k++) {
+            if (draw < cumulative[k]) {
+                return campaignIds[k];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Serving probability of one line item in a context (0 when it has no allocation there).
+     */
+    public double probability(int context, String campaignId) {
+        for (int k = contextStart[context]; k < contextStart[context + 1]; k++) {
+            if (campaignIds[k].equals(campaignId)) {
+                return cumulative[k] - (k > contextStart[context] ? cumulative[k - 1] : 0.0);
+            }
+        }
+        return 0.0;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getComputedAt() {
+        return computedAt;
+    }
+
+    public int lineItemCount() {
+        return demand.size();
+    }
+
+    /**
+     * Impressions each line item still needs today, by campaign id.
+     */
+    public Map<String, Double> getDemand() {
+        return demand;
+    }
+
+    /**
+     * Impressions the plan expects each line item to get for the rest of the day, by campaign id.
+     */
+    public Map<String, Double> getExpectedDelivery() {
+        return expectedDelivery;
+    }
+
+    /**
+     * Forecast impressions the plan cannot cover, summed over line items.
+     */
+    public double shortfall() {
+        double shortfall = 0;
+        for (Map.Entry<String, Double> entry : demand.entrySet()) {
+            shortfall += Math.max(0, entry.getValue() - expectedDelivery.getOrDefault(entry.getKey(), 0.0));
+        }
+        return shortfall;
+    }
+}
@@ -0,0 +1,323 @@
+package com.podads.infrastructure.guaranteed;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.Campaign;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.entities.Creative;
+import com.podads.domain.valueobjects.EnumMask;
+import com.podads.domain.valueobjects.PodcastCategory;
+import com.podads.domain.valueobjects.SlotType;
+import com.podads.domain.valueobjects.TargetingMasks;
+import com.podads.domain.valueobjects.TierType;
+import com.podads.infrastructure.sourcing.FixtureSourcingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers guaranteed line items ahead of the auction from a precomputed {@link AllocationPlan}.
+ *
+ * A background thread re-plans every {@code podads.guaranteed.recompute-seconds}: it forecasts the
+ * supply left today in each (category, slot type, tier) context - the daily forecast in
+ * {@code fixtures/supply-forecast.json}, blended with the rate observed so far today - subtracts what
+ * each line item has already delivered from its daily goal, runs {@link HighWaterMarkAllocator} and
+ * publishes the plan with one reference write. The request path only counts the opportunity and does
+ * one lookup in the published plan.
+ *
+ * Guaranteed campaigns never bid in the auction. Line items are delivered into single-ad slots;
+ * pods are filled by the auction alone.
+ */
+@Service
+public class GuaranteedDeliveryService {
+    private static final Logger logger = LoggerFactory.getLogger(GuaranteedDeliveryService.class);
+    private static final String FORECAST_PATH = "fixtures/supply-forecast.json";
+    private static final double MIN_OBSERVED_DAY_FRACTION = 0.05; // too little of the day seen to extrapolate
+
+    private final FixtureSourcingService sourcingService;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final boolean enabled;
+    private final long recomputeSeconds;
+    private final double observedWeight;
+    private final double[] dailyForecast;
+    private final AtomicLong planVersions = new AtomicLong();
+    private final AtomicReference<DayCounters> counters = new AtomicReference<>();
+    private final Timer planTimer;
+    private volatile AllocationPlan plan = AllocationPlan.EMPTY;
+    private ScheduledExecutorService planner;
+
+    @Autowired
+    public GuaranteedDeliveryService(
+            FixtureSourcingService sourcingService,
+            MeterRegistry meterRegistry,
+            @Value("${podads.guaranteed.enabled:true}") boolean enabled,
+            @Value("${podads.pacing.zone:UTC}") String zone,
+            @Value("${podads.guaranteed.recompute-seconds:60}") long recomputeSeconds,
+            @Value("${podads.guaranteed.observed-weight:0.5}") double observedWeight
+    ) {
+        this(sourcingService, meterRegistry, Clock.system(ZoneId.of(zone)), enabled, recomputeSeconds, observedWeight);
+    }
+
+    GuaranteedDeliveryService(FixtureSourcingService sourcingService, MeterRegistry meterRegistry, Clock clock,
+                              boolean enabled, long recomputeSeconds, double observedWeight) {
+        this.sourcingService = sourcingService;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.recomputeSeconds = recomputeSeconds;
+        this.observedWeight = observedWeight;
+        this.dailyForecast = loadForecast();
+        this.counters.set(new DayCounters(LocalDate.now(clock)));
+
+        this.planTimer = Timer.builder("ad_guaranteed_plan_latency")
+                .description("Time to recompute the guaranteed delivery allocation plan")
+                .register(meterRegistry);
+        Gauge.builder("ad_guaranteed_plan_version", this, service -> service.plan.getVersion())
+                .description("Version of the allocation plan serving requests")
+                .register(meterRegistry);
+        Gauge.builder("ad_guaranteed_forecast_shortfall", this, service -> service.plan.shortfall())
+                .description("Guaranteed impressions owed today that the forecast supply cannot cover")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        recompute();
+        if (recomputeSeconds > 0) {
+            planner = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "guaranteed-planner");
+                thread.setDaemon(true);
+                return thread;
+            });
+            planner.scheduleWithFixedDelay(this::recomputeSafely, recomputeSeconds, recomputeSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (planner != null) {
+            planner.shutdownNow();
+        }
+    }
+
+    public AllocationPlan plan() {
+        return plan;
+    }
+
+    /**
+     * Count this single-ad opportunity towards today's observed supply and pick the guaranteed line
+     * item the plan assigns it to. Returns that line item's candidate among {@code eligible} (those
+     * that passed every filter), or null to leave the request to the auction.
+     */
+    public CandidateAd select(AdRequest request, List<CandidateAd> eligible, int seed) {
+        if (!enabled) {
+            return null;
+        }
+        int context = AllocationPlan.contextOf(request);
+        countersFor(LocalDate.now(clock)).supply[context].increment();
+        String campaignId = plan.select(context, draw(seed, request.getRequestId()));
+        if (campaignId == null) {
+            return null;
+        }
+        for (CandidateAd candidate : eligible) {
+            if (candidate.getCampaign().getId().equals(campaignId)) {
+                return candidate;
+            }
+        }
+        // Allocated here but filtered out for this listener (frequency cap, geo, brand safety...)
+        recordSelection("filtered");
+        return null;
+    }
+
+    /**
+     * Count a served guaranteed impression against its line item's daily goal.
+     */
+    public void recordDelivered(Campaign campaign) {
+        countersFor(LocalDate.now(clock)).delivered.computeIfAbsent(campaign.getId(), id -> new LongAdder()).increment();
+        recordSelection("served");
+    }
+
+    /**
+     * Re-plan now from the current forecast and delivery, and publish the result.
+     */
+    public synchronized AllocationPlan recompute() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        DayCounters today = countersFor(now.toLocalDate());
+        double dayFraction = now.toLocalTime().toSecondOfDay() / 86_400.0;
+
+        double[] supply = new double[AllocationPlan.CONTEXTS];
+        for (int j = 0; j < supply.length; j++) {
+            double daily = dailyForecast[j];
+            if (dayFraction >= MIN_OBSERVED_DAY_FRACTION) {
+                double observedDaily = today.supply[j].sum() / dayFraction;
+                daily = (1 - observedWeight) * daily + observedWeight * observedDaily;
+            }
+            supply[j] = daily * (1 - dayFraction);
+        }
+
+        List<HighWaterMarkAllocator.Contract> contracts = new ArrayList<>();
+        for (Map.Entry<Campaign, int[]> entry : eligibleContexts(sourcingService.loadCandidates()).entrySet()) {
+            Campaign campaign = entry.getKey();
+            LongAdder delivered = today.delivered.get(campaign.getId());
+            double owed = campaign.getGuarantee().getDailyImpressions() - (delivered != null ? delivered.sum() : 0);
+            contracts.add(new HighWaterMarkAllocator.Contract(campaign.getId(), Math.max(0, owed), entry.getValue()));
+        }
+
+        AllocationPlan computed = HighWaterMarkAllocator.allocate(planVersions.incrementAndGet(), Instant.now(clock),
+                contracts, supply);
+        plan = computed;
+        sample.stop(planTimer);
+        logger.debug("Guaranteed allocation plan published", Map.of(
+                "version", computed.getVersion(),
+                "lineItems", computed.lineItemCount(),
+                "shortfall", computed.shortfall()));
+        return computed;
+    }
+
+    private void recomputeSafely() {
+        try {
+            recompute();
+        } catch (RuntimeException e) {
+            logger.error("Guaranteed allocation plan recompute failed, keeping version " + plan.getVersion(), e);
+        }
+    }
+
+    // Request threads roll the day over too: between midnight and the next re-plan, counts belong to the new day
+    private DayCounters countersFor(LocalDate day) {
+        DayCounters current = counters.get();
+        if (!current.day.equals(day)) {
+            counters.compareAndSet(current, new DayCounters(day)); // new day: goals and observed supply start over
+        }
+        return counters.get();
+    }
+
+    /**
+     * Contexts each active guaranteed campaign can serve in, from the targeting of its approved creatives.
+     */
+    static Map<Campaign, int[]> eligibleContexts(List<CandidateAd> candidates) {
+        Map<Campaign, boolean[]> eligible = new LinkedHashMap<>();
+        for (CandidateAd candidate : candidates) {
+            Campaign campaign = candidate.getCampaign();
+            if (!campaign.isGuaranteed() || campaign.getStatus() != Campaign.CampaignStatus.ACTIVE
+                    || candidate.getCreative().getApprovalStatus() != Creative.ApprovalStatus.APPROVED) {
+                continue;
+            }
+            boolean[] contexts = eligible.computeIfAbsent(campaign, c -> new boolean[AllocationPlan.CONTEXTS]);
+            TargetingMasks masks = candidate.getTargetingMasks();
+            for (PodcastCategory category : PodcastCategory.values()) {
+                if (!EnumMask.contains(masks.getCategories(), category) || EnumMask.contains(masks.getExcludedCategories(), category)) {
+                    continue;
+                }
+                for (SlotType slotType : SlotType.values()) {
+                    if (!EnumMask.contains(masks.getEligibleSlotTypes(), slotType)) {
+                        continue;
+                    }
+                    for (TierType tier : TierType.values()) {
+                        if (EnumMask.contains(masks.getTiers(), tier)) {
+                            contexts[AllocationPlan.contextOf(category, slotType, tier)] = true;
+                        }
+                    }
+                }
+            }
+        }
+        Map<Campaign, int[]> result = new LinkedHashMap<>();
+        eligible.forEach((campaign, contexts) -> {
+            int[] indices = new int[AllocationPlan.CONTEXTS];
+            int count = 0;
+            for (int j = 0; j < contexts.length; j++) {
+                if (contexts[j]) {
+                    indices[count++] = j;
+                }
+            }
+            result.put(campaign, Arrays.copyOf(indices, count));
+        });
+        return result;
+    }
+
+    /**
+     * Uniform draw in [0, 1) for one request: replayable from the decision seed, but distinct across
+     * requests that share a seed.
+     */
+    static double draw(int seed, String requestId) {
+        long z = ((long) seed << 32) ^ (requestId != null ? requestId.hashCode() & 0xffffffffL : 0);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        z ^= z >>> 31;
+        return (z >>> 11) * 0x1.0p-53;
+    }
+
+    private double[] loadForecast() {
+        try (InputStream inputStream = new ClassPathResource(FORECAST_PATH).getInputStream()) {
+            JsonNode root = new ObjectMapper().readTree(inputStream);
+            double[] forecast = new double[AllocationPlan.CONTEXTS];
+            Arrays.fill(forecast, root.path("defaultDailyImpressions").asDouble(0));
+            for (JsonNode context : root.path("contexts")) {
+                forecast[AllocationPlan.contextOf(
+                        PodcastCategory.fromString(context.get("category").asText()),
+                        SlotType.fromString(context.get("slotType").asText()),
+                        TierType.fromString(context.get("tier").asText()))] = context.get("dailyImpressions").asDouble();
+            }
+            return forecast;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load supply forecast", e);
+        }
+    }
+
+    private void recordSelection(String outcome) {
+        Counter.builder("ad_guaranteed_selections_total")
+                .description("Requests the allocation plan assigned to a guaranteed line item")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Today's observed supply per context and delivered impressions per line item.
+     */
+    private static final class DayCounters {
+        private final LocalDate day;
+        private final LongAdder[] supply = new LongAdder[AllocationPlan.CONTEXTS];
+        private final ConcurrentHashMap<String, LongAdder> delivered = new ConcurrentHashMap<>();
+
+        private DayCounters(LocalDate day) {
+            this.day = day;
+            for (int j = 0; j < supply.length; j++) {
+                supply[j] = new LongAdder();
+            }
+        }
+    }
+}
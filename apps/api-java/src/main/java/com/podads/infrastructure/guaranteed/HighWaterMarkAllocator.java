@@ -0,0 +1,126 @@
+package com.podads.infrastructure.guaranteed;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * High-water-mark allocation of forecast supply to guaranteed line items.
+ *
+ * Line items are allocated one at a time, those with the least eligible supply first (they have the
+ * fewest alternatives). Each gets the same fraction {@code alpha} of every eligible context, capped by
+ * what earlier line items left there: {@code x_j = min(remaining_j, alpha * supply_j)}, with
+ * {@code alpha} the smallest value whose allocations add up to its demand (or everything left, if that
+ * is not enough). Spreading each line item evenly over its contexts keeps it from draining the
+ * contexts a later, narrower line item depends on. The serving probability of a line item in a
+ * context is then {@code x_j / supply_j}.
+ */
+public final class HighWaterMarkAllocator {
+    private HighWaterMarkAllocator() {
+    }
+
+    /**
+     * @param contracts line items with their remaining demand and eligible contexts
+     * @param supply    forecast impressions per context for the planning period, indexed by context
+     */
+    public static AllocationPlan allocate(long version, Instant computedAt, List<Contract> contracts, double[] supply) {
+        double[] remaining = supply.clone();
+        List<Contract> order = new ArrayList<>(contracts);
+        order.sort(Comparator.comparingDouble((Contract c) -> eligibleSupply(c, supply)).thenComparing(Contract::campaignId));
+
+        List<List<Integer>> byContext = new ArrayList<>(supply.length);
+        List<List<Double>> probabilityByContext = new ArrayList<>(supply.length);
+        for (int j = 0; j < supply.length; j++) {
+            byContext.add(new ArrayList<>());
+            probabilityByContext.add(new ArrayList<>());
+        }
+        Map<String, Double> demand = new HashMap<>();
+        Map<String, Double> expected = new HashMap<>();
+
+        for (int i = 0; i < order.size(); i++) {
+            Contract contract = order.get(i);
+            demand.put(contract.campaignId(), contract.demand());
+            double alpha = waterLevel(contract, supply, remaining);
+            double delivered = 0;
+            for (int j : contract.contexts()) {
+                if (supply[j] <= 0) {
+                    continue;
+                }
+                double x = Math.min(remaining[j], alpha * supply[j]);
+                if (x > 0) {
+                    remaining[j] -= x;
+                    delivered += x;
+                    byContext.get(j).add(i);
+                    probabilityByContext.get(j).add(x / supply[j]);
+                }
+            }
+            expected.put(contract.campaignId(), delivered);
+        }
+
+        int[] contextStart = new int[supply.length + 1];
+        for (int j = 0; j < supply.length; j++) {
+            contextStart[j + 1] = contextStart[j] + byContext.get(j).size();
+        }
+        String[] campaignIds = new String[contextStart[supply.length]];
+        double[] cumulative = new double[campaignIds.length];
+        for (int j = 0; j < supply.length; j++) {
+            double running = 0;
+            for (int k = 0; k < byContext.get(j).size(); k++) {
+                running += probabilityByContext.get(j).get(k);
+                campaignIds[contextStart[j] + k] = order.get(byContext.get(j).get(k)).campaignId();
+                cumulative[contextStart[j] + k] = Math.min(1.0, running);
+            }
+        }
+        return new AllocationPlan(version, computedAt, contextStart, campaignIds, cumulative, Map.copyOf(demand), Map.copyOf(expected));
+    }
+
+    /**
+     * Smallest {@code alpha} with {@code sum_j min(remaining_j, alpha * supply_j) >= demand}, or infinity
+     * when the remaining supply cannot cover the demand.
+     */
+    static double waterLevel(Contract contract, double[] supply, double[] remaining) {
+        if (contract.demand() <= 0) {
+            return 0;
+        }
+        Integer[] contexts = Arrays.stream(contract.contexts()).filter(j -> supply[j] > 0).boxed().toArray(Integer[]::new);
+        double left = 0;
+        double openSupply = 0;
+        for (int j : contexts) {
+            left += remaining[j];
+            openSupply += supply[j];
+        }
+        if (left <= contract.demand()) {
+            return Double.POSITIVE_INFINITY;
+        }
+        // f(alpha) is piecewise linear: contexts run out in order of remaining/supply, each then adding a constant
+        Arrays.sort(contexts, Comparator.comparingDouble(j -> remaining[j] / supply[j]));
+        double capped = 0;
+        for (int j : contexts) {
+            double alpha = (contract.demand() - capped) / openSupply;
+            if (alpha <= remaining[j] / supply[j]) {
+                return alpha;
+            }
+            capped += remaining[j];
+            openSupply -= supply[j];
+        }
+        return Double.POSITIVE_INFINITY; // unreachable: left > demand
+    }
+
+    private static double eligibleSupply(Contract contract, double[] supply) {
+        double total = 0;
+        for (int j : contract.contexts()) {
+            total += supply[j];
+        }
+        return total;
+    }
+
+    /**
+     * A guaranteed line item to allocate: impressions still owed and the contexts it may serve in.
+     */
+    public record Contract(String campaignId, double demand, int[] contexts) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.podads.infrastructure.lookup;
+
+import com.podads.domain.services.BatchLookupStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for a remote batch lookup store (a profile service, a cache cluster, a vendor API).
+ *
+ * Each {@link #lookupAll} call completes after a fixed simulated round-trip latency, independent of
+ * the number of keys, so comparing per-candidate lookups with one batch per decision shows what
+ * batching saves. The wait is a delayed completion, not a sleeping request thread.
+ */
+public class InMemoryBatchLookupStore<K, V> implements BatchLookupStore<K, V> {
+    private final String name;
+    private final Map<K, V> values = new ConcurrentHashMap<>();
+    private final Executor delayedExecutor;
+    private final long latencyMillis;
+    private final Counter batches;
+    private final DistributionSummary batchKeys;
+
+    public InMemoryBatchLookupStore(String name, long latencyMillis, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.latencyMillis = latencyMillis;
+        this.delayedExecutor = latencyMillis > 0
+                ? CompletableFuture.delayedExecutor(latencyMillis, TimeUnit.MILLISECONDS)
+                : null;
+        this.batches = Counter.builder("ad_lookup_batches_total")
+                .description("Batched lookups issued against a backing store")
+                .tag("store", name)
+                .register(meterRegistry);
+        this.batchKeys = DistributionSummary.builder("ad_lookup_batch_keys")
+                .description("Keys per batched lookup")
+                .tag("store", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public CompletableFuture<Map<K, V>> lookupAll(Set<K> keys) {
+        batches.increment();
+        batchKeys.record(keys.size());
+        if (delayedExecutor == null) {
+            return CompletableFuture.completedFuture(read(keys));
+        }
+        return CompletableFuture.supplyAsync(() -> read(keys), delayedExecutor);
+    }
+
+    public void put(K key, V value) {
+        values.put(key, value);
+    }
+
+    public void remove(K key) {
+        values.remove(key);
+    }
+
+    public long getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    private Map<K, V> read(Set<K> keys) {
+        Map<K, V> found = new HashMap<>();
+        for (K key : keys) {
+            V value = values.get(key);
+            if (value != null) {
+                found.put(key, value);
+            }
+        }
+        return found;
+    }
+}
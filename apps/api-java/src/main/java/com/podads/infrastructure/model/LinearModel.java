@@ -0,0 +1,61 @@
+package com.podads.infrastructure.model;
+
+import com.podads.domain.services.PredictionModel;
+import com.podads.domain.valueobjects.ModelFeature;
+
+/**
+ * {@code intercept + sum(weight_j * x_j)} over the model's features, optionally through a logistic link.
+ * A NaN feature contributes nothing, as if it were at its training mean of zero.
+ */
+public final class LinearModel implements PredictionModel {
+    private final String name;
+    private final String version;
+    private final String target;
+    private final double intercept;
+    private final int[] columns;
+    private final double[] weights;
+    private final boolean logistic;
+
+    public LinearModel(String name, String version, String target, double intercept, int[] columns,
+                       double[] weights, boolean logistic) {
+        if (columns.length != weights.length) {
+            throw new IllegalArgumentException("Linear model has " + columns.length + " features but "
+                    + weights.length + " weights");
+        }
+        this.name = name;
+        this.version = version;
+        this.target = target;
+        this.intercept = intercept;
+        this.columns = columns.clone();
+        this.weights = weights.clone();
+        this.logistic = logistic;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getVersion() {
+        return version;
+    }
+
+    @Override
+    public String getTarget() {
+        return target;
+    }
+
+    @Override
+    public void predict(double[] features, int rows, double[] out) {
+        for (int r = 0; r < rows; r++) {
+            int offset = r * ModelFeature.COUNT;
+            double sum = intercept;
+            for (int j = 0; j < columns.length; j++) {
+                double x = features[offset + columns[j]];
+                sum += x == x ? weights[j] * x : 0.0;
+            }
+            out[r] = logistic ? TreeEnsembleModel.sigmoid(sum) : sum;
+        }
+    }
+}
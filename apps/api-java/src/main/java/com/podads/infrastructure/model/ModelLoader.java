@@ -0,0 +1,148 @@
+package com.podads.infrastructure.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.podads.domain.services.PredictionModel;
+import com.podads.domain.valueobjects.ModelFeature;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds a {@link PredictionModel} from its JSON file.
+ *
+ * <pre>
+ * {"name": "...", "version": "...", "target": "completion", "link": "logistic" | "identity",
+ *  "type": "linear", "intercept": -0.2, "weights": {"show_match": 0.8, "duration_seconds": -0.01}}
+ *
+ * {"name": "...", "version": "...", "target": "completion", "link": "logistic",
+ *  "type": "gbt", "baseScore": 0.4,
+ *  "trees": [{"feature": "duration_seconds", "threshold": 35, "left": {"leaf": 0.2}, "right": {"leaf": -0.3}}]}
+ * </pre>
+ * Feature names are {@link ModelFeature} values. A split sends {@code x > threshold} right, anything
+ * else (including a missing value) left. Learning rates must already be folded into the leaf values.
+ */
+public final class ModelLoader {
+    static final int MAX_DEPTH = 16;
+
+    private ModelLoader() {
+    }
+
+    public static PredictionModel parse(JsonNode root) {
+        String name = root.path("name").asText("unnamed");
+        String version = root.path("version").asText("unknown");
+        String target = root.path("target").asText("completion");
+        String link = root.path("link").asText("logistic");
+        if (!link.equals("logistic") && !link.equals("identity")) {
+            throw new IllegalArgumentException("Unknown model link: " + link);
+        }
+        boolean logistic = link.equals("logistic");
+        String type = root.path("type").asText("");
+        switch (type) {
+            case "linear":
+                return parseLinear(root, name, version, target, logistic);
+            case "gbt":
+                return parseTrees(root, name, version, target, logistic);
+            default:
+                throw new IllegalArgumentException("Unknown model type: '" + type + "'");
+        }
+    }
+
+    private static LinearModel parseLinear(JsonNode root, String name, String version, String target, boolean logistic) {
+        JsonNode weightsNode = root.path("weights");
+        int[] columns = new int[weightsNode.size()];
+        double[] weights = new double[weightsNode.size()];
+        int j = 0;
+        for (Iterator<Map.Entry<String, JsonNode>> it = weightsNode.fields(); it.hasNext(); j++) {
+            Map.Entry<String, JsonNode> entry = it.next();
+            columns[j] = ModelFeature.fromString(entry.getKey()).ordinal();
+            weights[j] = requireNumber(entry.getValue(), "weight of " + entry.getKey());
+        }
+        return new LinearModel(name, version, target, root.path("intercept").asDouble(0.0), columns, weights, logistic);
+    }
+
+    private static TreeEnsembleModel parseTrees(JsonNode root, String name, String version, String target, boolean logistic) {
+        JsonNode trees = root.path("trees");
+        if (!trees.isArray() || trees.isEmpty()) {
+            throw new IllegalArgumentException("Tree model has no trees");
+        }
+        Flattener flat = new Flattener();
+        int[] roots = new int[trees.size()];
+        int[] depths = new int[trees.size()];
+        for (int t = 0; t < trees.size(); t++) {
+            roots[t] = flat.allocate(1);
+            depths[t] = flat.fill(trees.get(t), roots[t], 0);
+        }
+        return new TreeEnsembleModel(name, version, target, root.path("baseScore").asDouble(0.0), logistic,
+                roots, depths, flat.toIntArray(flat.feature), flat.toDoubleArray(flat.threshold),
+                flat.toIntArray(flat.child), flat.toDoubleArray(flat.value));
+    }
+
+    private static double requireNumber(JsonNode node, String what) {
+        if (!node.isNumber()) {
+            throw new IllegalArgumentException("Model " + what + " is not a number");
+        }
+        return node.asDouble();
+    }
+
+    /**
+     * Lays nodes out with each split's children in adjacent slots.
+     */
+    private static final class Flattener {
+        private final List<Integer> feature = new ArrayList<>();
+        private final List<Double> threshold = new ArrayList<>();
+        private final List<Integer> child = new ArrayList<>();
+        private final List<Double> value = new ArrayList<>();
+
+        int allocate(int count) {
+            int first = feature.size();
+            for (int i = 0; i < count; i++) {
+                feature.add(0);
+                threshold.add(Double.POSITIVE_INFINITY);
+                child.add(first + i);
+                value.add(0.0);
+            }
+            return first;
+        }
+
+        /**
+         * Write {@code node} into slot {@code index}; returns the depth of its subtree.
+         */
+        int fill(JsonNode node, int index, int depth) {
+            if (depth > MAX_DEPTH) {
+                throw new IllegalArgumentException("Tree deeper than " + MAX_DEPTH);
+            }
+            if (node.has("leaf")) {
+                value.set(index, requireNumber(node.get("leaf"), "leaf"));
+                return 0; // slot already self-looping with an infinite threshold
+            }
+            if (!node.has("left") || !node.has("right")) {
+                throw new IllegalArgumentException("Tree split needs both 'left' and 'right'");
+            }
+            feature.set(index, ModelFeature.fromString(node.path("feature").asText()).ordinal());
+            threshold.set(index, requireNumber(node.path("threshold"), "threshold"));
+            int left = allocate(2);
+            child.set(index, left);
+            int leftDepth = fill(node.get("left"), left, depth + 1);
+            int rightDepth = fill(node.get("right"), left + 1, depth + 1);
+            return 1 + Math.max(leftDepth, rightDepth);
+        }
+
+        int[] toIntArray(List<Integer> list) {
+            int[] array = new int[list.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = list.get(i);
+            }
+            return array;
+        }
+
+        double[] toDoubleArray(List<Double> list) {
+            double[] array = new double[list.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = list.get(i);
+            }
+            return array;
+        }
+    }
+}
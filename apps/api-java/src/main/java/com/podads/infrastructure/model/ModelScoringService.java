@@ -0,0 +1,261 @@
+package com.podads.infrastructure.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.services.PredictionModel;
+import com.podads.domain.valueobjects.CandidateScore;
+import com.podads.domain.valueobjects.DeviceType;
+import com.podads.domain.valueobjects.ModelFeature;
+import com.podads.domain.valueobjects.SlotType;
+import com.podads.domain.valueobjects.TierType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Owns the predicted-performance model and scores auction candidates with it.
+ *
+ * Off by default ({@code podads.model.enabled}). When on, the model is read from
+ * {@code podads.model.location} (a file path) or, when unset, the bundled {@code fixtures/model.json},
+ * and reloaded by a background poller when the file changes or through the admin API. A new model is
+ * parsed and flattened on the reloading thread and published with one reference write, so a decision
+ * scores all its candidates with whichever model it read first. A failed load keeps the previous model.
+ *
+ * Scoring cost is recorded per candidate ({@code ad_model_scoring_ns_per_candidate}) so a richer
+ * model can be sized against the decision latency budget before it is rolled out.
+ */
+@Service
+public class ModelScoringService {
+    private static final Logger logger = LoggerFactory.getLogger(ModelScoringService.class);
+    private static final String MODEL_PATH = "fixtures/model.json";
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final boolean enabled;
+    private final Resource resource;
+    private final long pollSeconds;
+    private final AtomicReference<LoadedModel> current = new AtomicReference<>();
+    private volatile long lastModified = Long.MIN_VALUE;
+    private ScheduledExecutorService poller;
+
+    @Autowired
+    public ModelScoringService(
+            MeterRegistry meterRegistry,
+            @Value("${podads.model.enabled:false}") boolean enabled,
+            @Value("${podads.model.location:}") String location,
+            @Value("${podads.model.poll-seconds:5}") long pollSeconds
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.resource = location == null || location.isBlank()
+                ? new ClassPathResource(MODEL_PATH)
+                : new FileSystemResource(location);
+        this.pollSeconds = pollSeconds;
+
+        Gauge.builder("ad_model_generation", current, ref -> ref.get() != null ? ref.get().generation() : 0)
+                .description("Number of successful model loads; 0 while no model is serving")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Disabled service - for tests.
+     */
+    public ModelScoringService(MeterRegistry meterRegistry) {
+        this(meterRegistry, false, "", 0);
+    }
+
+    @PostConstruct
+    public void initialize() {
+        if (!enabled) {
+            return;
+        }
+        reload();
+        if (pollSeconds > 0) {
+            poller = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "model-poller");
+                thread.setDaemon(true);
+                return thread;
+            });
+            poller.scheduleWithFixedDelay(this::reloadIfChanged, pollSeconds, pollSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Model serving requests, or null when disabled or none has loaded.
+     */
+    public LoadedModel current() {
+        return current.get();
+    }
+
+    /**
+     * Re-read the model file and publish it. Returns the model now serving (the old one if the load failed).
+     */
+    public synchronized LoadedModel reload() {
+        long modified = lastModifiedOrUnknown();
+        try {
+            JsonNode root;
+            try (InputStream inputStream = resource.getInputStream()) {
+                root = objectMapper.readTree(inputStream);
+            }
+            PredictionModel model = ModelLoader.parse(root);
+            LoadedModel published = publish(model);
+            lastModified = modified;
+            recordReload("success");
+            logger.info("Prediction model loaded", Map.of(
+                    "model", model.getName(),
+                    "version", model.getVersion(),
+                    "target", model.getTarget(),
+                    "generation", published.generation()));
+            return published;
+        } catch (Exception e) {
+            lastModified = modified; // a broken file is retried once it changes again, not on every poll
+            recordReload("failure");
+            logger.error("Failed to load prediction model from " + resource.getDescription(), e);
+            return current.get();
+        }
+    }
+
+    /**
+     * Swap in an already-built model - for tests and programmatic rollouts.
+     */
+    public LoadedModel publish(PredictionModel model) {
+        return current.updateAndGet(previous -> new LoadedModel(model,
+                previous != null ? previous.generation() + 1 : 1, Instant.now()));
+    }
+
+    /**
+     * Predict every candidate with the current model, or return null when there is none. The feature
+     * rows are built from the auction scores already computed for the same candidates.
+     */
+    public Predictions predict(AdRequest request, List<CandidateAd> candidates, List<CandidateScore> scores) {
+        LoadedModel loaded = current.get();
+        int n = candidates.size();
+        if (loaded == null || n == 0) {
+            return null;
+        }
+        long start = System.nanoTime();
+        double[] features = features(request, candidates, scores);
+        double[] values = new double[n];
+        loaded.model().predict(features, n, values);
+        long elapsedNanos = System.nanoTime() - start;
+
+        DistributionSummary.builder("ad_model_scoring_ns_per_candidate")
+                .description("Model feature extraction and evaluation time per candidate, in nanoseconds")
+                .baseUnit("nanoseconds")
+                .tag("model", loaded.model().getName())
+                .register(meterRegistry)
+                .record((double) elapsedNanos / n);
+        return new Predictions(loaded, values, elapsedNanos);
+    }
+
+    /**
+     * Feature matrix for {@link PredictionModel#predict}: one row of {@link ModelFeature#COUNT} values per candidate.
+     */
+    static double[] features(AdRequest request, List<CandidateAd> candidates, List<CandidateScore> scores) {
+        int n = candidates.size();
+        double[] features = new double[n * ModelFeature.COUNT];
+
+        // Request-wide values, copied into every row
+        double[] shared = new double[ModelFeature.COUNT];
+        SlotType slot = request.getSlot().getType();
+        DeviceType device = request.getListener().getDevice();
+        shared[ModelFeature.SLOT_PRE_ROLL.ordinal()] = slot == SlotType.PRE_ROLL ? 1.0 : 0.0;
+        shared[ModelFeature.SLOT_MID_ROLL.ordinal()] = slot == SlotType.MID_ROLL ? 1.0 : 0.0;
+        shared[ModelFeature.SLOT_POST_ROLL.ordinal()] = slot == SlotType.POST_ROLL ? 1.0 : 0.0;
+        shared[ModelFeature.DEVICE_MOBILE.ordinal()] = device == DeviceType.MOBILE ? 1.0 : 0.0;
+        shared[ModelFeature.DEVICE_DESKTOP.ordinal()] = device == DeviceType.DESKTOP ? 1.0 : 0.0;
+        shared[ModelFeature.DEVICE_SMART_SPEAKER.ordinal()] = device == DeviceType.SMART_SPEAKER ? 1.0 : 0.0;
+        shared[ModelFeature.DEVICE_CAR.ordinal()] = device == DeviceType.CAR ? 1.0 : 0.0;
+        shared[ModelFeature.TIER_PREMIUM.ordinal()] = request.getListener().getTier() == TierType.PREMIUM ? 1.0 : 0.0;
+        shared[ModelFeature.HOUR_OF_DAY.ordinal()] = request.getTimestamp() != null
+                ? request.getListenerHourOfWeek() % 24
+                : Double.NaN;
+
+        for (int i = 0; i < n; i++) {
+            int offset = i * ModelFeature.COUNT;
+            System.arraycopy(shared, 0, features, offset, ModelFeature.COUNT);
+            CandidateScore score = scores.get(i);
+            Integer duration = candidates.get(i).getCreative().getDurationSeconds();
+            features[offset + ModelFeature.BID_CPM.ordinal()] = score.bidCpm();
+            features[offset + ModelFeature.CATEGORY_MATCH.ordinal()] = score.match().categoryMatch();
+            features[offset + ModelFeature.SHOW_MATCH.ordinal()] = score.match().showMatch();
+            features[offset + ModelFeature.LISTENER_SEGMENT_WEIGHT.ordinal()] = score.match().listenerSegmentWeight();
+            features[offset + ModelFeature.MATCH_SCORE.ordinal()] = score.matchScore();
+            features[offset + ModelFeature.PACING_MULTIPLIER.ordinal()] = score.pacingMultiplier();
+            features[offset + ModelFeature.DURATION_SECONDS.ordinal()] = duration != null ? duration : Double.NaN;
+        }
+        return features;
+    }
+
+    void reloadIfChanged() {
+        long modified = lastModifiedOrUnknown();
+        if (modified != lastModified) {
+            reload();
+        }
+    }
+
+    private long lastModifiedOrUnknown() {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return Long.MIN_VALUE; // missing file: nothing to reload until it appears
+        }
+    }
+
+    private void recordReload(String outcome) {
+        Counter.builder("ad_model_reloads_total")
+                .description("Prediction model reload attempts")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * A published model and when it went live.
+     */
+    public record LoadedModel(PredictionModel model, long generation, Instant loadedAt) {
+    }
+
+    /**
+     * Predictions for one decision's candidates, in input order, and what computing them cost.
+     */
+    public record Predictions(LoadedModel loaded, double[] values, long elapsedNanos) {
+        public double nanosPerCandidate() {
+            return values.length == 0 ? 0 : (double) elapsedNanos / values.length;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.podads.infrastructure.model;
+
+import com.podads.domain.services.PredictionModel;
+import com.podads.domain.valueobjects.ModelFeature;
+
+/**
+ * Gradient-boosted regression trees flattened into parallel primitive arrays.
+ *
+ * All trees share one node table: {@code feature[]}, {@code threshold[]}, {@code child[]} and
+ * {@code value[]}. A split's two children are stored next to each other, so stepping down is
+ * {@code node = child[node] + (x > threshold ? 1 : 0)} - an index computation rather than a
+ * taken/not-taken branch. A leaf points at itself with a threshold of +infinity, so it absorbs any
+ * further steps; each tree is then walked exactly its depth times with no leaf test in the loop.
+ * A NaN (missing) feature compares false and goes left. Evaluation allocates nothing.
+ *
+ * The prediction is {@code baseScore + sum(leaf values)}, optionally through a logistic link.
+ */
+public final class TreeEnsembleModel implements PredictionModel {
+    private final String name;
+    private final String version;
+    private final String target;
+    private final double baseScore;
+    private final boolean logistic;
+    private final int[] roots;
+    private final int[] depths;
+    private final int[] feature;
+    private final double[] threshold;
+    private final int[] child;
+    private final double[] value;
+
+    /**
+     * @param roots     node index of each tree's root
+     * @param depths    number of steps from each root to its deepest leaf
+     * @param feature   per node: {@link ModelFeature} ordinal to test (any valid ordinal for leaves)
+     * @param threshold per node: split point, {@code +Infinity} for leaves
+     * @param child     per node: index of the left child (the right one follows it), or the node itself for leaves
+     * @param value     per node: leaf value (ignored for splits)
+     */
+    public TreeEnsembleModel(String name, String version, String target, double baseScore, boolean logistic,
+                             int[] roots, int[] depths, int[] feature, double[] threshold, int[] child, double[] value) {
+        this.name = name;
+        this.version = version;
+        this.target = target;
+        this.baseScore = baseScore;
+        this.logistic = logistic;
+        this.roots = roots;
+        this.depths = depths;
+        this.feature = feature;
+        this.threshold = threshold;
+        this.child = child;
+        this.value = value;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getVersion() {
+        return version;
+    }
+
+    @Override
+    public String getTarget() {
+        return target;
+    }
+
+    public int treeCount() {
+        return roots.length;
+    }
+
+    public int nodeCount() {
+        return feature.length;
+    }
+
+    @Override
+    public void predict(double[] features, int rows, double[] out) {
+        for (int r = 0; r < rows; r++) {
+            int offset = r * ModelFeature.COUNT;
+            double sum = baseScore;
+            for (int t = 0; t < roots.length; t++) {
+                int node = roots[t];
+                for (int d = depths[t]; d > 0; d--) {
+                    node = child[node] + (features[offset + feature[node]] > threshold[node] ? 1 : 0);
+                }
+                sum += value[node];
+            }
+            out[r] = logistic ? sigmoid(sum) : sum;
+        }
+    }
+
+    static double sigmoid(double x) {
+        return 1.0 / (1.0 + Math.exp(-x));
+    }
+}
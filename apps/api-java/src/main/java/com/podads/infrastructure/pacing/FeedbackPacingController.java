@@ -0,0 +1,217 @@
+package com.podads.infrastructure.pacing;
+
+import com.podads.domain.entities.Campaign;
+import com.podads.domain.services.BudgetLedger;
+import com.podads.domain.services.PacingController;
+import com.podads.domain.valueobjects.TimeOfDay;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PI pacing controller that tracks an intraday delivery curve.
+ *
+ * The curve gives each {@link TimeOfDay} bucket a share of the daily budget (night 00-06, morning 06-12,
+ * afternoon 12-18, evening 18-24); the target at any instant is the cumulative share, interpolated within
+ * the current bucket. A background ticker compares live daily spend from the {@link BudgetLedger} with the
+ * target and updates each campaign's pass probability:
+ *
+ *   error = target - actual   (fractions of the daily budget)
+ *   p     = clamp(1 + kp * error + ki * integral(error), minProbability, 1)
+ *
+ * so campaigns behind schedule run unthrottled and campaigns ahead of schedule are thinned out smoothly
+ * instead of hitting a hard cutoff. The request path only reads the precomputed float.
+ *
+ * The integral is clamped to +-(1 - minProbability) / ki budget-fraction seconds, so the integral term on
+ * its own can move p across its whole range but no further (anti-windup), and it restarts from zero when
+ * the day rolls over along with the daily spend it integrates.
+ */
+@Component
+public class FeedbackPacingController implements PacingController {
+    private static final Logger logger = LoggerFactory.getLogger(FeedbackPacingController.class);
+
+    private final BudgetLedger budgetLedger;
+    private final Clock clock;
+    private final Map<TimeOfDay, Double> curveShares;
+    private final double kp;
+    private final double ki;
+    private final double minProbability;
+    private final long tickMillis;
+    private final double integralLimit; // anti-windup, in budget-fraction seconds
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, CampaignPacing> campaigns = new ConcurrentHashMap<>();
+    private ScheduledExecutorService ticker;
+
+    @Autowired
+    public FeedbackPacingController(
+            BudgetLedger budgetLedger,
+            MeterRegistry meterRegistry,
+            @Value("${podads.pacing.zone:UTC}") String zone,
+            @Value("${podads.pacing.curve.night:0.10}") double nightShare,
+            @Value("${podads.pacing.curve.morning:0.25}") double morningShare,
+            @Value("${podads.pacing.curve.afternoon:0.30}") double afternoonShare,
+            @Value("${podads.pacing.curve.evening:0.35}") double eveningShare,
+            @Value("${podads.pacing.kp:2.0}") double kp,
+            @Value("${podads.pacing.ki:0.01}") double ki,
+            @Value("${podads.pacing.min-probability:0.05}") double minProbability,
+            @Value("${podads.pacing.tick-millis:1000}") long tickMillis
+    ) {
+        this(budgetLedger, meterRegistry, Clock.system(ZoneId.of(zone)),
+                shares(nightShare, morningShare, afternoonShare, eveningShare), kp, ki, minProbability, tickMillis);
+    }
+
+    /**
+     * Default curve and gains - for tests that pin the clock.
+     */
+    public FeedbackPacingController(BudgetLedger budgetLedger, Clock clock) {
+        this(budgetLedger, null, clock, shares(0.10, 0.25, 0.30, 0.35), 2.0, 0.01, 0.05, 1000);
+    }
+
+    FeedbackPacingController(BudgetLedger budgetLedger, MeterRegistry meterRegistry, Clock clock,
+                             Map<TimeOfDay, Double> curveShares, double kp, double ki, double minProbability,
+                             long tickMillis) {
+        this.budgetLedger = budgetLedger;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.curveShares = curveShares;
+        this.kp = kp;
+        this.ki = ki;
+        this.minProbability = minProbability;
+        this.tickMillis = tickMillis;
+        this.integralLimit = ki > 0 ? (1.0 - minProbability) / ki : 0.0;
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "pacing-controller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    @Override
+    public double passProbability(Campaign campaign) {
+        if (campaign.getPacing() == null || campaign.getPacing().getDailyBudget() == null) {
+            return 1.0; // No pacing limit = no throttling
+        }
+        CampaignPacing pacing = campaigns.get(campaign.getId());
+        if (pacing == null) {
+            CampaignPacing created = new CampaignPacing(campaign);
+            update(created, targetFraction(), 0); // first request is already paced, no need to wait for a tick
+            pacing = campaigns.putIfAbsent(campaign.getId(), created);
+            if (pacing == null) {
+                pacing = created;
+                registerGauge(created); // outside the map update; only the thread whose entry won registers
+            }
+        }
+        return pacing.passProbability;
+    }
+
+    /**
+     * One controller step for every known campaign. Runs on the ticker thread.
+     */
+    void tick() {
+        try {
+            double target = targetFraction();
+            double dtSeconds = tickMillis / 1000.0;
+            for (CampaignPacing pacing : campaigns.values()) {
+                update(pacing, target, dtSeconds);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Pacing controller tick failed", e); // keep the ticker alive
+        }
+    }
+
+    /**
+     * Cumulative share of the daily budget that should be spent by now.
+     */
+    double targetFraction() {
+        LocalTime time = LocalTime.now(clock);
+        double hour = time.toSecondOfDay() / 3600.0;
+        TimeOfDay[] chronological = {TimeOfDay.NIGHT, TimeOfDay.MORNING, TimeOfDay.AFTERNOON, TimeOfDay.EVENING};
+        double cumulative = 0;
+        for (int i = 0; i < chronological.length; i++) {
+            double bucketStart = i * 6.0;
+            double share = curveShares.get(chronological[i]);
+            if (hour < bucketStart + 6.0) {
+                return cumulative + share * (hour - bucketStart) / 6.0;
+            }
+            cumulative += share;
+        }
+        return cumulative;
+    }
+
+    private void registerGauge(CampaignPacing pacing) {
+        if (meterRegistry != null) {
+            Gauge.builder("ad_pacing_pass_probability", pacing, p -> p.passProbability)
+                    .description("Probability a campaign passes the pacing gate")
+                    .tag("campaign_id", pacing.campaign.getId())
+                    .register(meterRegistry);
+        }
+    }
+
+    private void update(CampaignPacing pacing, double target, double dtSeconds) {
+        long today = LocalDate.now(clock).toEpochDay();
+        if (pacing.epochDay != today) {
+            pacing.epochDay = today;
+            pacing.integral = 0.0; // yesterday's error says nothing about today's curve
+        }
+        double dailyBudget = pacing.campaign.getPacing().getDailyBudget() * 1000.0;
+        double actual = budgetLedger.dailySpendMillicents(pacing.campaign) / dailyBudget;
+        if (actual >= 1.0) {
+            pacing.passProbability = 0.0f;
+            return;
+        }
+        double error = target - actual;
+        pacing.integral = Math.max(-integralLimit, Math.min(integralLimit, pacing.integral + error * dtSeconds));
+        double control = 1.0 + kp * error + ki * pacing.integral;
+        pacing.passProbability = (float) Math.max(minProbability, Math.min(1.0, control));
+    }
+
+    private static Map<TimeOfDay, Double> shares(double night, double morning, double afternoon, double evening) {
+        double total = night + morning + afternoon + evening;
+        Map<TimeOfDay, Double> shares = new EnumMap<>(TimeOfDay.class);
+        shares.put(TimeOfDay.NIGHT, night / total);
+        shares.put(TimeOfDay.MORNING, morning / total);
+        shares.put(TimeOfDay.AFTERNOON, afternoon / total);
+        shares.put(TimeOfDay.EVENING, evening / total);
+        return shares;
+    }
+
+    private static final class CampaignPacing {
+        private final Campaign campaign;
+        private volatile float passProbability = 1.0f;
+        private double integral; // ticker thread only
+        private long epochDay = Long.MIN_VALUE; // day the integral belongs to
+
+        CampaignPacing(Campaign campaign) {
+            this.campaign = campaign;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.podads.infrastructure.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Consecutive-failure circuit breaker.
+ *
+ * CLOSED lets every call through and trips to OPEN after {@code failureThreshold} failures in a row.
+ * OPEN rejects calls until {@code openMillis} have passed, then moves to HALF_OPEN, which admits one
+ * trial call at a time: a success closes the breaker, a failure re-opens it. A success reported while
+ * OPEN comes from a call admitted before the breaker tripped and is ignored.
+ *
+ * The closed-state fast path is a volatile read, so guarding every filter call is cheap.
+ */
+public final class CircuitBreaker {
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+    private volatile State state = State.CLOSED;
+    private volatile long openedAtNanos;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+    }
+
+    /**
+     * Whether a call may proceed. Every admitted call must be followed by
+     * {@link #recordSuccess()} or {@link #recordFailure()}.
+     */
+    public boolean tryAcquire() {
+        State current = state;
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN) {
+            synchronized (this) {
+                if (state == State.OPEN) {
+                    if (System.nanoTime() - openedAtNanos < openNanos) {
+                        return false;
+                    }
+                    state = State.HALF_OPEN;
+                    trialInFlight.set(false);
+                }
+            }
+        }
+        return trialInFlight.compareAndSet(false, true);
+    }
+
+    public void recordSuccess() {
+        if (state == State.CLOSED) {
+            if (consecutiveFailures.get() != 0) {
+                consecutiveFailures.set(0);
+            }
+            return;
+        }
+        synchronized (this) {
+            if (state == State.OPEN) {
+                return;
+            }
+            state = State.CLOSED;
+            consecutiveFailures.set(0);
+            trialInFlight.set(false);
+        }
+    }
+
+    public void recordFailure() {
+        if (state == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            trip();
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    private synchronized void trip() {
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+        trialInFlight.set(false);
+    }
+}
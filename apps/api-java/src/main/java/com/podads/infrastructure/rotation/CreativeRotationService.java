@@ -0,0 +1,229 @@
+package com.podads.infrastructure.rotation;
+
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.entities.Creative;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Picks one creative per campaign before the auction with a UCB1 bandit.
+ *
+ * Creatives of one campaign score identically, so without rotation the first in catalog order
+ * always wins. Each creative that has competed keeps two {@link LongAdder}s - serves and rewards
+ * (completions, or clicks with {@code podads.rotation.reward-event=click}) - which decision threads
+ * and event handlers update and read without locks. The pick maximises
+ * {@code reward rate + exploration * sqrt(ln(total serves) / serves)}; creatives never served go
+ * first. Serves are counted when the ad is served rather than on the impression beacon, so the
+ * exploration bonus of a pick shrinks immediately and concurrent decisions spread over the creatives
+ * instead of piling onto one while its events are in flight. Ties are broken from the decision seed.
+ *
+ * A reward only counts for a decision that actually served that creative, and only once: each serve of
+ * a rotated creative is remembered by its tracking id for {@code podads.rotation.event-window-minutes},
+ * and the first matching reward event consumes it.
+ */
+@Service
+public class CreativeRotationService {
+    private final boolean enabled;
+    private final String rewardEvent;
+    private final double exploration;
+    private final ConcurrentHashMap<String, Arm> arms = new ConcurrentHashMap<>();
+    private final Cache<String, String> servedCreatives; // tracking id -> creative id, awaiting its reward
+    private final Counter rotationsCounter;
+    private final Counter rotatedOutCounter;
+
+    @Autowired
+    public CreativeRotationService(
+            MeterRegistry meterRegistry,
+            @Value("${podads.rotation.enabled:true}") boolean enabled,
+            @Value("${podads.rotation.reward-event:complete}") String rewardEvent,
+            @Value("${podads.rotation.exploration:1.41}") double exploration,
+            @Value("${podads.rotation.event-window-minutes:60}") long eventWindowMinutes,
+            @Value("${podads.rotation.max-open-serves:1000000}") long maxOpenServes
+    ) {
+        this(meterRegistry, enabled, rewardEvent, exploration, eventWindowMinutes, maxOpenServes, Ticker.systemTicker());
+    }
+
+    CreativeRotationService(MeterRegistry meterRegistry, boolean enabled, String rewardEvent, double exploration,
+                            long eventWindowMinutes, long maxOpenServes, Ticker ticker) {
+        if (!"complete".equals(rewardEvent) && !"click".equals(rewardEvent)) {
+            throw new IllegalArgumentException("podads.rotation.reward-event must be complete or click, got " + rewardEvent);
+        }
+        this.enabled = enabled;
+        this.rewardEvent = rewardEvent;
+        this.exploration = exploration;
+        this.servedCreatives = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(eventWindowMinutes))
+                .maximumSize(maxOpenServes)
+                .ticker(ticker)
+                .build();
+
+        this.rotationsCounter = Counter.builder("ad_creative_rotations_total")
+                .description("Campaigns whose creative was picked by the rotation bandit")
+                .register(meterRegistry);
+        this.rotatedOutCounter = Counter.builder("ad_creative_rotated_out_total")
+                .description("Candidates kept out of the auction because another creative of the campaign was picked")
+                .register(meterRegistry);
+        Gauge.builder("ad_creative_rotation_arms", arms, ConcurrentHashMap::size)
+                .description("Creatives with rotation statistics")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rotation on, rewarded by completions - for tests.
+     */
+    public CreativeRotationService(MeterRegistry meterRegistry) {
+        this(meterRegistry, true, "complete", 1.41, 60, 1_000_000, Ticker.systemTicker());
+    }
+
+    /**
+     * Keep one creative per campaign. Candidates of campaigns with a single creative pass through in
+     * order; the others are appended to {@code rotatedOut}.
+     */
+    public List<CandidateAd> rotate(List<CandidateAd> candidates, int seed, List<CandidateAd> rotatedOut) {
+        if (!enabled || candidates.size() < 2) {
+            return candidates;
+        }
+        Map<String, List<CandidateAd>> byCampaign = new LinkedHashMap<>();
+        for (CandidateAd candidate : candidates) {
+            byCampaign.computeIfAbsent(candidate.getCampaign().getId(), id -> new ArrayList<>(1)).add(candidate);
+        }
+        if (byCampaign.size() == candidates.size()) {
+            return candidates;
+        }
+
+        List<CandidateAd> selected = new ArrayList<>(byCampaign.size());
+        for (Map.Entry<String, List<CandidateAd>> entry : byCampaign.entrySet()) {
+            List<CandidateAd> creatives = entry.getValue();
+            if (creatives.size() == 1) {
+                selected.add(creatives.get(0));
+                continue;
+            }
+            CandidateAd pick = choose(entry.getKey(), creatives, seed);
+            selected.add(pick);
+            for (CandidateAd candidate : creatives) {
+                if (candidate != pick) {
+                    rotatedOut.add(candidate);
+                }
+            }
+            rotationsCounter.increment();
+            rotatedOutCounter.increment(creatives.size() - 1);
+        }
+        return selected;
+    }
+
+    /**
+     * Count a serve of a rotated creative under its tracking id (a no-op for creatives that never competed).
+     */
+    public void recordServed(String trackingId, Creative creative) {
+        Arm arm = arms.get(creative.getId());
+        if (arm != null) {
+            arm.serves.increment();
+            servedCreatives.put(trackingId, creative.getId());
+        }
+    }
+
+    /**
+     * Count a tracking event for a served ad. Returns whether it rewarded a creative: the event must be
+     * the reward event, for a tracking id that served a rotated creative and has not been rewarded yet.
+     * A {@code creativeId} that does not match the served creative is not rewarded (and does not use up
+     * the serve's reward); a null one rewards whatever the tracking id served.
+     */
+    public boolean recordEvent(String trackingId, String creativeId, String event) {
+        if (trackingId == null || !rewardEvent.equals(event)) {
+            return false;
+        }
+        String served;
+        if (creativeId == null) {
+            served = servedCreatives.asMap().remove(trackingId);
+        } else {
+            served = servedCreatives.asMap().remove(trackingId, creativeId) ? creativeId : null;
+        }
+        Arm arm = served != null ? arms.get(served) : null;
+        if (arm == null) {
+            return false;
+        }
+        arm.rewards.increment();
+        return true;
+    }
+
+    /**
+     * Serves, rewards and reward rate per rotated creative, by creative id.
+     */
+    public Map<String, Map<String, Object>> stats() {
+        Map<String, Map<String, Object>> stats = new TreeMap<>();
+        arms.forEach((creativeId, arm) -> {
+            long serves = arm.serves.sum();
+            long rewards = arm.rewards.sum();
+            stats.put(creativeId, Map.of(
+                    "campaignId", arm.campaignId,
+                    "serves", serves,
+                    "rewards", rewards,
+                    "rewardRate", serves > 0 ? Math.min(1.0, (double) rewards / serves) : 0.0));
+        });
+        return stats;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getRewardEvent() {
+        return rewardEvent;
+    }
+
+    private CandidateAd choose(String campaignId, List<CandidateAd> creatives, int seed) {
+        int n = creatives.size();
+        long[] serves = new long[n];
+        long[] rewards = new long[n];
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            Arm arm = arms.computeIfAbsent(creatives.get(i).getCreative().getId(), id -> new Arm(campaignId));
+            serves[i] = arm.serves.sum();
+            rewards[i] = arm.rewards.sum();
+            total += serves[i];
+        }
+
+        double logTotal = Math.log(Math.max(1, total));
+        int start = Math.floorMod(seed ^ campaignId.hashCode(), n);
+        int best = -1;
+        double bestBound = Double.NEGATIVE_INFINITY;
+        for (int k = 0; k < n; k++) {
+            int i = (start + k) % n;
+            double bound = serves[i] == 0
+                    ? Double.POSITIVE_INFINITY
+                    // The two adders are not read as one snapshot, so cap the rate at 1
+                    : Math.min(1.0, (double) rewards[i] / serves[i]) + exploration * Math.sqrt(logTotal / serves[i]);
+            if (bound > bestBound) {
+                best = i;
+                bestBound = bound;
+            }
+        }
+        return creatives.get(best);
+    }
+
+    private static final class Arm {
+        private final String campaignId;
+        private final LongAdder serves = new LongAdder();
+        private final LongAdder rewards = new LongAdder();
+
+        Arm(String campaignId) {
+            this.campaignId = campaignId;
+        }
+    }
+}
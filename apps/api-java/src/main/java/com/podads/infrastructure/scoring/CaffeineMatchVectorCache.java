@@ -0,0 +1,119 @@
+package com.podads.infrastructure.scoring;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.services.MatchRules;
+import com.podads.domain.services.MatchVectorCache;
+import com.podads.domain.services.ScoringBlock;
+import com.podads.domain.services.ScoringKernel;
+import com.podads.domain.valueobjects.DeviceType;
+import com.podads.domain.valueobjects.EnumMask;
+import com.podads.domain.valueobjects.MatchVector;
+import com.podads.domain.valueobjects.PodcastCategory;
+import com.podads.domain.valueobjects.TierType;
+import com.podads.infrastructure.sourcing.FixtureSourcingService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Match vectors keyed by (catalog version, podcast category, show, listener tier, device), held in a
+ * Caffeine cache bounded by {@code podads.scoring.match-cache.max-bytes} with W-TinyLFU eviction.
+ *
+ * A miss scores the whole catalog for the context with the scoring kernel, so a hot show pays for
+ * match computation once per catalog version. Entries of an old version are never hit again and
+ * age out under the size bound.
+ */
+@Component
+public class CaffeineMatchVectorCache implements MatchVectorCache {
+    private final FixtureSourcingService sourcingService;
+    private final ScoringKernel scoringKernel;
+    private final boolean enabled;
+    private final Cache<MatchContext, MatchVector> cache;
+
+    public CaffeineMatchVectorCache(
+            FixtureSourcingService sourcingService,
+            ScoringKernel scoringKernel,
+            MeterRegistry meterRegistry,
+            @Value("${podads.scoring.match-cache.enabled:true}") boolean enabled,
+            @Value("${podads.scoring.match-cache.max-bytes:16777216}") long maxBytes
+    ) {
+        this.sourcingService = sourcingService;
+        this.scoringKernel = scoringKernel;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((MatchContext context, MatchVector vector) -> (int) Math.min(Integer.MAX_VALUE, vector.memoryBytes()))
+                .recordStats()
+                .build();
+
+        Gauge.builder("ad_match_cache_hit_ratio", cache, c -> c.stats().hitRate())
+                .description("Share of match-vector lookups served from cache")
+                .register(meterRegistry);
+        Gauge.builder("ad_match_cache_memory_bytes", cache, CaffeineMatchVectorCache::weightedSize)
+                .description("Heap held by cached match vectors")
+                .register(meterRegistry);
+        Gauge.builder("ad_match_cache_entries", cache, Cache::estimatedSize)
+                .description("Match contexts cached")
+                .register(meterRegistry);
+        FunctionCounter.builder("ad_match_cache_requests_total", cache, c -> c.stats().hitCount())
+                .description("Match-vector lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("ad_match_cache_requests_total", cache, c -> c.stats().missCount())
+                .description("Match-vector lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("ad_match_cache_evictions_total", cache, c -> c.stats().evictionCount())
+                .description("Match vectors evicted by the size bound")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public MatchVector get(AdRequest request) {
+        if (!enabled) {
+            return null;
+        }
+        long version = sourcingService.getCatalogVersion();
+        MatchContext context = new MatchContext(version,
+                request.getPodcast().getCategory(),
+                request.getPodcast().getShow(),
+                request.getListener().getTier(),
+                request.getListener().getDevice());
+        return cache.get(context, key -> compute(key, request));
+    }
+
+    // Reads only the request fields in the context, so the vector is valid for every request sharing it
+    private MatchVector compute(MatchContext context, AdRequest request) {
+        List<CandidateAd> catalog = sourcingService.loadCandidates();
+        int n = catalog.size();
+        ScoringBlock block = new ScoringBlock(n);
+        for (int i = 0; i < n; i++) {
+            CandidateAd candidate = catalog.get(i);
+            block.categoryMasks[i] = candidate.getTargetingMasks().getCategories();
+            block.showMatch[i] = MatchRules.showMatch(request, candidate);
+        }
+        double listenerSegmentWeight = MatchRules.listenerSegmentWeight(request);
+        scoringKernel.score(block, EnumMask.bit(context.category()), listenerSegmentWeight);
+        // Catalog index i is position i; the vector keeps the list it was computed from, so a reload
+        // between reading the version and the list cannot pair scores with the wrong candidates
+        return new MatchVector(context.catalogVersion(), catalog, listenerSegmentWeight,
+                block.categoryMatch, block.showMatch, block.matchScore);
+    }
+
+    // Weights are applied by Caffeine's asynchronous maintenance; drain it first so a scrape sees recent inserts
+    private static long weightedSize(Cache<MatchContext, MatchVector> cache) {
+        cache.cleanUp();
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    private record MatchContext(long catalogVersion, PodcastCategory category, String show, TierType tier,
+                                DeviceType device) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.podads.infrastructure.scoring;
+
+import com.podads.domain.services.ScoringBlock;
+import com.podads.domain.services.ScoringKernel;
+import com.podads.domain.valueobjects.EnumMask;
+
+/**
+ * One candidate at a time - the reference kernel, and the fallback when the Vector API is unavailable.
+ */
+public class ScalarScoringKernel implements ScoringKernel {
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+
+    @Override
+    public void score(ScoringBlock block, long categoryBit, double listenerSegmentWeight) {
+        scoreRange(block, categoryBit, listenerSegmentWeight, 0, block.size());
+    }
+
+    @Override
+    public void finalScores(ScoringBlock block) {
+        finalScoreRange(block, 0, block.size());
+    }
+
+    /**
+     * Score candidates {@code [from, to)}; also the tail loop of the vector kernel.
+     */
+    static void scoreRange(ScoringBlock block, long categoryBit, double listenerSegmentWeight, int from, int to) {
+        for (int i = from; i < to; i++) {
+            long categories = block.categoryMasks[i];
+            double categoryMatch = categories == EnumMask.ANY ? 0.5 : (categories & categoryBit) != 0 ? 1.0 : 0.3;
+            double matchScore = categoryMatch * block.categoryWeight + block.showMatch[i] * block.showWeight * listenerSegmentWeight;
+            block.categoryMatch[i] = categoryMatch;
+            block.matchScore[i] = matchScore;
+            block.finalScore[i] = block.bidCpm[i] * matchScore * block.pacingMultiplier[i];
+        }
+    }
+
+    static void finalScoreRange(ScoringBlock block, int from, int to) {
+        for (int i = from; i < to; i++) {
+            block.finalScore[i] = block.bidCpm[i] * block.matchScore[i] * block.pacingMultiplier[i];
+        }
+    }
+}
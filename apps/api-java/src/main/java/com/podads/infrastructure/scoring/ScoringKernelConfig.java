@@ -0,0 +1,54 @@
+package com.podads.infrastructure.scoring;
+
+import com.podads.domain.services.ScoringKernel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * Picks the auction scoring kernel from {@code podads.scoring.kernel}: {@code auto} (vector when the
+ * JVM was started with {@code --add-modules jdk.incubator.vector}, scalar otherwise), {@code vector}
+ * or {@code scalar}. Asking for vector without the module falls back to scalar with a warning.
+ */
+@Configuration
+public class ScoringKernelConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ScoringKernelConfig.class);
+    static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNEL = "com.podads.infrastructure.scoring.VectorScoringKernel";
+
+    @Bean
+    public ScoringKernel scoringKernel(@Value("${podads.scoring.kernel:auto}") String kernel) {
+        ScoringKernel selected = select(kernel);
+        logger.info("Scoring kernel selected", Map.of(
+                "requested", kernel,
+                "kernel", selected.getName()));
+        return selected;
+    }
+
+    static ScoringKernel select(String kernel) {
+        if ("scalar".equals(kernel)) {
+            return new ScalarScoringKernel();
+        }
+        if (!vectorModulePresent()) {
+            if ("vector".equals(kernel)) {
+                logger.warn("Vector scoring kernel requested but " + VECTOR_MODULE + " is not enabled, using scalar");
+            }
+            return new ScalarScoringKernel();
+        }
+        try {
+            // Loaded by name: the class links against the incubator module, which may be absent
+            return (ScoringKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            logger.warn("Vector scoring kernel unavailable, using scalar: " + e);
+            return new ScalarScoringKernel();
+        }
+    }
+
+    static boolean vectorModulePresent() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+}
@@ -0,0 +1,66 @@
+package com.podads.infrastructure.scoring;
+
+import com.podads.domain.services.ScoringBlock;
+import com.podads.domain.services.ScoringKernel;
+import com.podads.domain.valueobjects.EnumMask;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD kernel on the incubating Vector API: scores one register's worth of candidates per step
+ * (4 on AVX2, 8 on AVX-512) and leaves the remainder to the scalar loop.
+ *
+ * Lanes evaluate the same IEEE multiplies and adds as the scalar kernel in the same order (no fused
+ * multiply-add), so scores are bit-identical. Only loaded through {@link ScoringKernelConfig} after
+ * checking that {@code jdk.incubator.vector} is in the boot layer.
+ */
+public class VectorScoringKernel implements ScoringKernel {
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED; // 64-bit lanes: same count
+
+    @Override
+    public String getName() {
+        return "vector";
+    }
+
+    @Override
+    public void score(ScoringBlock block, long categoryBit, double listenerSegmentWeight) {
+        int upper = DOUBLES.loopBound(block.size());
+        DoubleVector neutral = DoubleVector.broadcast(DOUBLES, 0.5);
+        DoubleVector hit = DoubleVector.broadcast(DOUBLES, 1.0);
+        DoubleVector miss = DoubleVector.broadcast(DOUBLES, 0.3);
+        for (int i = 0; i < upper; i += DOUBLES.length()) {
+            LongVector masks = LongVector.fromArray(LONGS, block.categoryMasks, i);
+            VectorMask<Double> untargeted = masks.compare(VectorOperators.EQ, EnumMask.ANY).cast(DOUBLES);
+            VectorMask<Double> matched = masks.and(categoryBit).compare(VectorOperators.NE, 0L).cast(DOUBLES);
+            DoubleVector categoryMatch = miss.blend(hit, matched).blend(neutral, untargeted);
+
+            DoubleVector showMatch = DoubleVector.fromArray(DOUBLES, block.showMatch, i);
+            DoubleVector matchScore = categoryMatch.mul(block.categoryWeight)
+                    .add(showMatch.mul(block.showWeight).mul(listenerSegmentWeight));
+            DoubleVector finalScore = DoubleVector.fromArray(DOUBLES, block.bidCpm, i)
+                    .mul(matchScore)
+                    .mul(DoubleVector.fromArray(DOUBLES, block.pacingMultiplier, i));
+
+            categoryMatch.intoArray(block.categoryMatch, i);
+            matchScore.intoArray(block.matchScore, i);
+            finalScore.intoArray(block.finalScore, i);
+        }
+        ScalarScoringKernel.scoreRange(block, categoryBit, listenerSegmentWeight, upper, block.size());
+    }
+
+    @Override
+    public void finalScores(ScoringBlock block) {
+        int upper = DOUBLES.loopBound(block.size());
+        for (int i = 0; i < upper; i += DOUBLES.length()) {
+            DoubleVector.fromArray(DOUBLES, block.bidCpm, i)
+                    .mul(DoubleVector.fromArray(DOUBLES, block.matchScore, i))
+                    .mul(DoubleVector.fromArray(DOUBLES, block.pacingMultiplier, i))
+                    .intoArray(block.finalScore, i);
+        }
+        ScalarScoringKernel.finalScoreRange(block, upper, block.size());
+    }
+}
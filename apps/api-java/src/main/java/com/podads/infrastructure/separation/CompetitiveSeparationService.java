@@ -0,0 +1,155 @@
+package com.podads.infrastructure.separation;
+
+import com.podads.domain.entities.CandidateAd;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Competitive separation: no two ads of the same brand or advertiser category in one pod, or within
+ * {@code podads.separation.session-minutes} for one listener.
+ *
+ * Which rules apply is set per scope with {@code podads.separation.pod} and
+ * {@code podads.separation.session} (comma-separated {@code brand}, {@code advertiser-category}).
+ * Rules compare the int ids assigned at catalog load, so candidates built outside the catalog carry
+ * no ids and are never separated. Pod rules become separation keys for the pod solver; session rules
+ * are checked against a small ring of the listener's recently served ads. A listener's ring is dropped
+ * once it has not been used for a session window, and at most {@code podads.separation.max-listeners}
+ * are kept (Caffeine evicts the rest), so memory stays bounded however many listeners come by.
+ */
+@Service
+public class CompetitiveSeparationService {
+    public static final int KEYS_PER_AD = 2;
+    private static final int RECENT_ADS_PER_LISTENER = 16;
+
+    private final boolean podBrand;
+    private final boolean podCategory;
+    private final boolean sessionBrand;
+    private final boolean sessionCategory;
+    private final long sessionMillis;
+    private final Cache<String, RecentAds> recentByListener;
+
+    @Autowired
+    public CompetitiveSeparationService(
+            MeterRegistry meterRegistry,
+            @Value("${podads.separation.pod:brand,advertiser-category}") List<String> podRules,
+            @Value("${podads.separation.session:brand,advertiser-category}") List<String> sessionRules,
+            @Value("${podads.separation.session-minutes:30}") long sessionMinutes,
+            @Value("${podads.separation.max-listeners:1000000}") long maxListeners
+    ) {
+        this(meterRegistry, podRules, sessionRules, sessionMinutes, maxListeners, Ticker.systemTicker());
+    }
+
+    CompetitiveSeparationService(MeterRegistry meterRegistry, List<String> podRules, List<String> sessionRules,
+                                 long sessionMinutes, long maxListeners, Ticker ticker) {
+        this.podBrand = podRules.contains("brand");
+        this.podCategory = podRules.contains("advertiser-category");
+        this.sessionBrand = sessionRules.contains("brand");
+        this.sessionCategory = sessionRules.contains("advertiser-category");
+        this.sessionMillis = sessionMinutes * 60_000L;
+        this.recentByListener = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMillis(Math.max(1, sessionMillis)))
+                .maximumSize(maxListeners)
+                .ticker(ticker)
+                .build();
+
+        Gauge.builder("ad_separation_session_listeners", recentByListener, Cache::estimatedSize)
+                .description("Listeners with recently served ads tracked for competitive separation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Write the candidate's pod separation keys (brand id, advertiser-category id; -1 when the rule
+     * is off or the id unknown) into {@code keys} at {@code offset}.
+     */
+    public void podKeys(CandidateAd candidate, int[] keys, int offset) {
+        keys[offset] = podBrand ? candidate.getBrandId() : -1;
+        keys[offset + 1] = podCategory ? candidate.getAdvertiserCategoryId() : -1;
+    }
+
+    /**
+     * The session rule the candidate would break for this listener ("brand" or "advertiser-category"),
+     * or null if it may be served.
+     */
+    public String sessionConflict(String listenerId, CandidateAd candidate, Instant now) {
+        if (listenerId == null || sessionMillis <= 0) {
+            return null;
+        }
+        RecentAds recent = recentByListener.getIfPresent(listenerId);
+        if (recent == null) {
+            return null;
+        }
+        long since = now.toEpochMilli() - sessionMillis;
+        if (sessionBrand && recent.contains(candidate.getBrandId(), RecentAds.BRAND, since)) {
+            return "brand";
+        }
+        if (sessionCategory && recent.contains(candidate.getAdvertiserCategoryId(), RecentAds.CATEGORY, since)) {
+            return "advertiser-category";
+        }
+        return null;
+    }
+
+    public void recordServed(String listenerId, CandidateAd candidate, Instant now) {
+        if (listenerId == null || sessionMillis <= 0 || (!sessionBrand && !sessionCategory)) {
+            return;
+        }
+        recentByListener.get(listenerId, id -> new RecentAds(RECENT_ADS_PER_LISTENER))
+                .add(candidate.getBrandId(), candidate.getAdvertiserCategoryId(), now.toEpochMilli());
+    }
+
+    long trackedListeners() {
+        recentByListener.cleanUp();
+        return recentByListener.estimatedSize();
+    }
+
+    /**
+     * Ring buffer of (brand id, category id, served-at) for one listener's most recent ads.
+     */
+    private static final class RecentAds {
+        static final int BRAND = 0;
+        static final int CATEGORY = 1;
+
+        private final int[] ids; // brand, category per entry
+        private final long[] servedAt;
+        private int next;
+        private int size;
+
+        RecentAds(int capacity) {
+            this.ids = new int[capacity * 2];
+            this.servedAt = new long[capacity];
+            Arrays.fill(ids, -1);
+        }
+
+        synchronized void add(int brandId, int categoryId, long servedAtMs) {
+            ids[next * 2 + BRAND] = brandId;
+            ids[next * 2 + CATEGORY] = categoryId;
+            servedAt[next] = servedAtMs;
+            next = (next + 1) % servedAt.length;
+            if (size < servedAt.length) {
+                size++;
+            }
+        }
+
+        synchronized boolean contains(int id, int kind, long sinceMs) {
+            if (id < 0) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                if (ids[i * 2 + kind] == id && servedAt[i] > sinceMs) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
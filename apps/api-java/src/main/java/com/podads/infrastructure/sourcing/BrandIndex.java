@@ -0,0 +1,50 @@
+package com.podads.infrastructure.sourcing;
+
+import com.podads.application.utils.BrandNameExtractor;
+import com.podads.domain.entities.Campaign;
+import com.podads.domain.entities.CandidateAd;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brand and advertiser-category ids for catalog candidates, resolved once when the catalog is built.
+ *
+ * Decisions then read a candidate's brand and compare ints instead of re-running brand extraction
+ * for every scored and filtered candidate. Ids are interned for the life of the index and never
+ * reused, so an id recorded in a listener's session still means the same brand after a reload.
+ */
+public final class BrandIndex {
+    private final Map<String, Integer> brandIds = new HashMap<>();
+    private final Map<String, Integer> categoryIds = new HashMap<>();
+
+    /**
+     * Set brand name, brand id and advertiser-category id on each candidate (once per campaign).
+     * Called while building a catalog, under the sourcing service's lock.
+     */
+    public void assign(List<CandidateAd> candidates) {
+        Map<Campaign, String> brandByCampaign = new IdentityHashMap<>();
+        for (CandidateAd candidate : candidates) {
+            Campaign campaign = candidate.getCampaign();
+            String brandName = brandByCampaign.computeIfAbsent(campaign, BrandIndex::brandName);
+            candidate.setBrandName(brandName);
+            candidate.setBrandId(intern(brandIds, brandName));
+            candidate.setAdvertiserCategoryId(intern(categoryIds, campaign.getAdvertiserCategory()));
+        }
+    }
+
+    // Normalized brand, or the campaign id when no brand can be extracted
+    private static String brandName(Campaign campaign) {
+        String brandName = BrandNameExtractor.extractAndNormalizeBrandName(campaign.getName());
+        return brandName == null || brandName.isEmpty() ? campaign.getId() : brandName;
+    }
+
+    private static int intern(Map<String, Integer> ids, String name) {
+        if (name == null || name.isEmpty()) {
+            return -1;
+        }
+        return ids.computeIfAbsent(name, n -> ids.size());
+    }
+}
@@ -3,6 +3,8 @@ package com.podads.infrastructure.sourcing;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.podads.domain.entities.*;
+import com.podads.domain.valueobjects.EnumMask;
+import com.podads.domain.valueobjects.HourOfWeekMask;
 import com.podads.domain.valueobjects.PodcastCategory;
 import com.podads.domain.valueobjects.SlotType;
 import org.springframework.core.io.ClassPathResource;
@@ -11,41 +13,108 @@ import org.springframework.stereotype.Service;
 import java.io.InputStream;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+/**
+ * Candidate catalog built from the JSON fixtures.
+ *
+ * The catalog (campaigns joined with their creatives, targeting compiled to bitmasks, brand ids, a
+ * geo trie and the active candidate list for each hour of the week) is built once and shared read-only
+ * by every request; {@link #reload()} rebuilds it and bumps the catalog version.
+ */
 @Service
 public class FixtureSourcingService {
+    private static final List<SlotType> DEFAULT_SLOT_TYPES = List.of(SlotType.PRE_ROLL, SlotType.MID_ROLL, SlotType.POST_ROLL);
+
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong catalogVersions = new AtomicLong();
+    private final BrandIndex brandIndex = new BrandIndex(); // outlives reloads so ids stay stable
+    private volatile Catalog catalog;
 
     public List<CandidateAd> loadCandidates() {
-        List<Campaign> campaigns = loadCampaigns();
-        List<Creative> creatives = loadCreatives();
+        return catalog().candidates();
+    }
 
-        List<CandidateAd> candidates = new ArrayList<>();
-        for (Campaign campaign : campaigns) {
-            List<Creative> campaignCreatives = creatives.stream()
-                    .filter(c -> c.getCampaignId().equals(campaign.getId()))
-                    .collect(Collectors.toList());
-
-            for (Creative creative : campaignCreatives) {
-                // Get eligible slot types from creative data
-                List<SlotType> eligibleSlots = getEligibleSlotTypes(creative.getId());
-                candidates.add(new CandidateAd(campaign, creative, eligibleSlots));
-            }
-        }
-        return candidates;
+    /**
+     * Increments each time the catalog is rebuilt; caches derived from candidates can key on it.
+     */
+    public long getCatalogVersion() {
+        return catalog().version();
+    }
+
+    /**
+     * Catalog candidates whose dayparting allows this listener-local hour of the week; campaigns in
+     * their dark hours are left out entirely so they cost nothing downstream.
+     */
+    public List<CandidateAd> loadActiveCandidates(int hourOfWeek) {
+        return catalog().activeByHour().get(hourOfWeek);
+    }
+
+    /**
+     * Geo targeting trie compiled from the same catalog as {@link #loadCandidates()}.
+     */
+    public GeoTargetingIndex getGeoIndex() {
+        return catalog().geoIndex();
+    }
+
+    /**
+     * Re-read the fixtures and publish a new catalog version.
+     */
+    public synchronized void reload() {
+        catalog = buildCatalog();
     }
 
     public List<CandidateAd> filterCandidatesByCategory(List<CandidateAd> candidates, PodcastCategory category) {
         return candidates.stream()
-                .filter(candidate -> {
-                    var categories = candidate.getCampaign().getTargeting().getCategories();
-                    return categories == null || categories.isEmpty() || categories.contains(category);
-                })
+                .filter(candidate -> EnumMask.contains(candidate.getTargetingMasks().getCategories(), category))
                 .collect(Collectors.toList());
     }
 
+    private Catalog catalog() {
+        Catalog current = catalog;
+        if (current == null) {
+            synchronized (this) {
+                if (catalog == null) {
+                    catalog = buildCatalog();
+                }
+                current = catalog;
+            }
+        }
+        return current;
+    }
+
+    private Catalog buildCatalog() {
+        List<Campaign> campaigns = loadCampaigns();
+        Map<String, List<Creative>> creativesByCampaign = new LinkedHashMap<>();
+        Map<String, List<SlotType>> eligibleSlots = new HashMap<>();
+        for (Creative creative : loadCreatives(eligibleSlots)) {
+            creativesByCampaign.computeIfAbsent(creative.getCampaignId(), id -> new ArrayList<>()).add(creative);
+        }
+
+        List<CandidateAd> candidates = new ArrayList<>();
+        for (Campaign campaign : campaigns) {
+            for (Creative creative : creativesByCampaign.getOrDefault(campaign.getId(), List.of())) {
+                List<SlotType> slots = eligibleSlots.getOrDefault(creative.getId(), DEFAULT_SLOT_TYPES);
+                candidates.add(new CandidateAd(campaign, creative, slots));
+            }
+        }
+        brandIndex.assign(candidates);
+        List<List<CandidateAd>> activeByHour = new ArrayList<>(HourOfWeekMask.HOURS_PER_WEEK);
+        for (int hour = 0; hour < HourOfWeekMask.HOURS_PER_WEEK; hour++) {
+            int hourOfWeek = hour;
+            activeByHour.add(candidates.stream()
+                    .filter(candidate -> candidate.getTargetingMasks().getHours().isActive(hourOfWeek))
+                    .toList());
+        }
+        return new Catalog(catalogVersions.incrementAndGet(), List.copyOf(candidates),
+                GeoTargetingIndex.build(candidates), List.copyOf(activeByHour));
+    }
+
     private List<Campaign> loadCampaigns() {
         try {
             ClassPathResource resource = new ClassPathResource("fixtures/campaigns.json");
@@ -58,6 +127,9 @@ public class FixtureSourcingService {
                 Campaign campaign = new Campaign();
                 campaign.setId(campNode.get("id").asText());
                 campaign.setAdvertiserId(campNode.get("advertiserId").asText());
+                if (campNode.has("advertiserCategory")) {
+                    campaign.setAdvertiserCategory(campNode.get("advertiserCategory").asText());
+                }
                 campaign.setName(campNode.get("name").asText());
                 campaign.setStatus(Campaign.CampaignStatus.valueOf(campNode.get("status").asText().toUpperCase()));
 
@@ -94,6 +166,18 @@ public class FixtureSourcingService {
                             .map(c -> PodcastCategory.fromString(c))
                             .collect(Collectors.toList()));
                 }
+                if (targetingNode.has("excludeGeo")) {
+                    targeting.setExcludeGeo(objectMapper.convertValue(targetingNode.get("excludeGeo"), List.class));
+                }
+                if (targetingNode.has("timeOfDay")) {
+                    List<String> timeStrings = objectMapper.convertValue(targetingNode.get("timeOfDay"), List.class);
+                    targeting.setTimeOfDay(timeStrings.stream()
+                            .map(t -> com.podads.domain.valueobjects.TimeOfDay.fromString(t))
+                            .collect(Collectors.toList()));
+                }
+                if (targetingNode.has("hours")) {
+                    targeting.setHours(objectMapper.convertValue(targetingNode.get("hours"), List.class));
+                }
                 if (targetingNode.has("shows")) {
                     targeting.setShows(objectMapper.convertValue(targetingNode.get("shows"), List.class));
                 }
@@ -119,10 +203,17 @@ public class FixtureSourcingService {
                     JsonNode freqCapNode = campNode.get("frequencyCap");
                     campaign.setFrequencyCap(new FrequencyCap(
                             freqCapNode.get("maxImpressions").asInt(),
-                            freqCapNode.get("windowHours").asInt()
+                            freqCapNode.get("windowHours").asInt(),
+                            freqCapNode.has("backend")
+                                    ? FrequencyCap.Backend.valueOf(freqCapNode.get("backend").asText().toUpperCase())
+                                    : null
                     ));
                 }
 
+                if (campNode.has("guarantee")) {
+                    campaign.setGuarantee(new Guarantee(campNode.get("guarantee").get("dailyImpressions").asInt()));
+                }
+
                 campaigns.add(campaign);
             }
             return campaigns;
@@ -131,7 +222,7 @@ public class FixtureSourcingService {
         }
     }
 
-    private List<Creative> loadCreatives() {
+    private List<Creative> loadCreatives(Map<String, List<SlotType>> eligibleSlots) {
         try {
             ClassPathResource resource = new ClassPathResource("fixtures/creatives.json");
             InputStream inputStream = resource.getInputStream();
@@ -147,6 +238,12 @@ public class FixtureSourcingService {
                 creative.setAssetUrl(creatNode.get("assetUrl").asText());
                 creative.setApprovalStatus(Creative.ApprovalStatus.valueOf(
                         creatNode.get("approvalStatus").asText().toUpperCase()));
+                if (creatNode.has("eligibleSlotTypes")) {
+                    List<String> slotStrings = objectMapper.convertValue(creatNode.get("eligibleSlotTypes"), List.class);
+                    eligibleSlots.put(creative.getId(), slotStrings.stream()
+                            .map(slot -> SlotType.fromString(slot))
+                            .collect(Collectors.toList()));
+                }
                 creatives.add(creative);
             }
             return creatives;
@@ -155,30 +252,7 @@ public class FixtureSourcingService {
         }
     }
 
-    private List<SlotType> getEligibleSlotTypes(String creativeId) {
-        try {
-            ClassPathResource resource = new ClassPathResource("fixtures/creatives.json");
-            InputStream inputStream = resource.getInputStream();
-            JsonNode root = objectMapper.readTree(inputStream);
-            JsonNode creativesNode = root.get("creatives");
-
-            for (JsonNode creatNode : creativesNode) {
-                if (creatNode.get("id").asText().equals(creativeId)) {
-                    if (creatNode.has("eligibleSlotTypes")) {
-                        List<String> slotStrings = objectMapper.convertValue(creatNode.get("eligibleSlotTypes"), List.class);
-                        return slotStrings.stream()
-                                .map(s -> SlotType.fromString(s))
-                                .collect(Collectors.toList());
-                    }
-                    break;
-                }
-            }
-            // Default
-            return List.of(SlotType.PRE_ROLL, SlotType.MID_ROLL, SlotType.POST_ROLL);
-        } catch (Exception e) {
-            return List.of(SlotType.PRE_ROLL, SlotType.MID_ROLL, SlotType.POST_ROLL);
-        }
+    private record Catalog(long version, List<CandidateAd> candidates, GeoTargetingIndex geoIndex,
+                           List<List<CandidateAd>> activeByHour) {
     }
 }
-
-
@@ -0,0 +1,155 @@
+package com.podads.infrastructure.sourcing;
+
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.entities.TargetingRule;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hierarchical geo targeting compiled into a trie over geo code segments ({@code US}, {@code US-CA},
+ * {@code US-CA-807}).
+ *
+ * Every trie node stores the set of catalog candidates allowed for a listener at that node, derived
+ * from its parent by adding candidates that include the code and removing those that exclude it - so
+ * the most specific rule wins (exclude {@code US} + include {@code US-CA} serves California only;
+ * include {@code US} + exclude {@code US-CA} serves the rest of the US). Resolving a request geo walks
+ * at most one node per segment and returns a precomputed bitset; per candidate the filter then does a
+ * single bit test, however many or deep the campaign rules are.
+ */
+public final class GeoTargetingIndex {
+    private static final int MAX_CACHED_GEOS = 4096;
+
+    private final List<CandidateAd> candidates;
+    private final Node root;
+    private final ConcurrentHashMap<String, BitSet> resolvedByGeo = new ConcurrentHashMap<>();
+
+    private GeoTargetingIndex(List<CandidateAd> candidates, Node root) {
+        this.candidates = candidates;
+        this.root = root;
+    }
+
+    /**
+     * Compile the geo rules of the given candidates. Assigns each candidate its catalog index.
+     */
+    public static GeoTargetingIndex build(List<CandidateAd> candidates) {
+        Node root = new Node();
+        BitSet untargeted = new BitSet(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            CandidateAd candidate = candidates.get(i);
+            candidate.setCatalogIndex(i);
+            TargetingRule targeting = candidate.getCampaign().getTargeting();
+            List<String> include = targeting != null ? targeting.getGeo() : null;
+            List<String> exclude = targeting != null ? targeting.getExcludeGeo() : null;
+            if (include == null || include.isEmpty()) {
+                untargeted.set(i); // No geo targeting = allow all
+            } else {
+                for (String code : include) {
+                    root.descend(code).include.set(i);
+                }
+            }
+            if (exclude != null) {
+                for (String code : exclude) {
+                    root.descend(code).exclude.set(i);
+                }
+            }
+        }
+        root.resolve(untargeted);
+        return new GeoTargetingIndex(List.copyOf(candidates), root);
+    }
+
+    /**
+     * Whether this index was compiled from this exact candidate instance.
+     */
+    public boolean covers(CandidateAd candidate) {
+        int index = candidate.getCatalogIndex();
+        return index >= 0 && index < candidates.size() && candidates.get(index) == candidate;
+    }
+
+    public boolean allows(CandidateAd candidate, String geo) {
+        return resolve(geo).get(candidate.getCatalogIndex());
+    }
+
+    /**
+     * Candidates (by catalog index) allowed for a listener in {@code geo}. Shared - do not modify.
+     */
+    public BitSet resolve(String geo) {
+        if (geo == null) {
+            return root.resolved;
+        }
+        BitSet cached = resolvedByGeo.get(geo);
+        if (cached != null) {
+            return cached;
+        }
+        Node node = root;
+        int start = 0;
+        while (start <= geo.length()) {
+            int end = geo.indexOf('-', start);
+            if (end < 0) {
+                end = geo.length();
+            }
+            Node child = node.children.get(geo.substring(0, end));
+            if (child == null) {
+                break; // no rules below this depth
+            }
+            node = child;
+            start = end + 1;
+        }
+        if (resolvedByGeo.size() < MAX_CACHED_GEOS) {
+            resolvedByGeo.putIfAbsent(geo, node.resolved);
+        }
+        return node.resolved;
+    }
+
+    /**
+     * Same decision as the index for a single rule set - used for candidates built outside the catalog.
+     */
+    public static boolean matches(List<String> include, List<String> exclude, String geo) {
+        boolean allowed = include == null || include.isEmpty();
+        if (geo == null) {
+            return allowed;
+        }
+        int end = 0;
+        while (end >= 0) {
+            end = geo.indexOf('-', end + 1);
+            String prefix = end < 0 ? geo : geo.substring(0, end);
+            if (include != null && include.contains(prefix)) {
+                allowed = true;
+            }
+            if (exclude != null && exclude.contains(prefix)) {
+                allowed = false; // exclude wins over include at the same depth
+            }
+        }
+        return allowed;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>(); // keyed by full code prefix
+        private final BitSet include = new BitSet();
+        private final BitSet exclude = new BitSet();
+        private BitSet resolved;
+
+        Node descend(String code) {
+            Node node = this;
+            int end = 0;
+            while (end >= 0) {
+                end = code.indexOf('-', end + 1);
+                String prefix = end < 0 ? code : code.substring(0, end);
+                node = node.children.computeIfAbsent(prefix, p -> new Node());
+            }
+            return node;
+        }
+
+        void resolve(BitSet inherited) {
+            resolved = (BitSet) inherited.clone();
+            resolved.or(include);
+            resolved.andNot(exclude);
+            for (Node child : children.values()) {
+                child.resolve(resolved);
+            }
+        }
+    }
+}
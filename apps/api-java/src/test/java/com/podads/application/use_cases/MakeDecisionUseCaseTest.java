@@ -0,0 +1,192 @@
+package com.podads.application.use_cases;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.services.AuctionService;
+import com.podads.domain.services.Filter;
+import com.podads.domain.valueobjects.PodcastCategory;
+import com.podads.infrastructure.auction.AuctionStrategySelector;
+import com.podads.infrastructure.auction.FirstPriceAuction;
+import com.podads.infrastructure.auction.GeneralizedSecondPriceAuction;
+import com.podads.infrastructure.auction.PodSolver;
+import com.podads.infrastructure.auction.SecondPriceAuction;
+import com.podads.infrastructure.brandsafety.BlocklistService;
+import com.podads.infrastructure.brandsafety.ExternalBrandSafetyStore;
+import com.podads.infrastructure.budget.BudgetReservationService;
+import com.podads.infrastructure.budget.StripedBudgetLedger;
+import com.podads.infrastructure.experiments.ExperimentService;
+import com.podads.infrastructure.filters.*;
+import com.podads.infrastructure.floors.FloorPriceService;
+import com.podads.infrastructure.frequency.FrequencyCapService;
+import com.podads.infrastructure.guaranteed.GuaranteedDeliveryService;
+import com.podads.infrastructure.model.ModelScoringService;
+import com.podads.infrastructure.pacing.FeedbackPacingController;
+import com.podads.infrastructure.rotation.CreativeRotationService;
+import com.podads.infrastructure.scoring.ScalarScoringKernel;
+import com.podads.infrastructure.separation.CompetitiveSeparationService;
+import com.podads.infrastructure.sourcing.FixtureSourcingService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MakeDecisionUseCaseTest {
+
+    @Test
+    void sellsToTheBestBidThatClearsTheReserve() {
+        // Show targeting makes the 750 bid the top scorer, but only the 900 bid clears an 800 reserve
+        CandidateAd topScorerBelowReserve = candidate("camp-low", 750).targetShows(List.of("Test Show")).build();
+        CandidateAd clearsReserve = candidate("camp-high", 900).build();
+        MakeDecisionUseCase useCase = useCase(List.of(topScorerBelowReserve, clearsReserve), new MockEnvironment()
+                .withProperty("podads.auction.strategy.default", "second-price")
+                .withProperty("podads.auction.reserve-cpm.mid-roll", "800"));
+
+        Map<String, Object> decision = useCase.execute(request(), 12345);
+
+        assertEquals("camp-low", candidates(decision).get(0).get("campaignId")); // ranked first by score
+        assertEquals("camp-high", serve(decision).get("campaignId"));
+        assertEquals(800.0, serve(decision).get("pricePaid")); // outbid on score by a bid the reserve holds at 800
+    }
+
+    @Test
+    void podLeavesBidsUnderTheReserveOutOfTheBreak() {
+        CandidateAd topScorerBelowReserve = candidate("camp-low", 750).targetShows(List.of("Test Show")).build();
+        CandidateAd clearsReserve = candidate("camp-high", 900).build();
+        MakeDecisionUseCase useCase = useCase(List.of(topScorerBelowReserve, clearsReserve), new MockEnvironment()
+                .withProperty("podads.auction.strategy.default", "second-price")
+                .withProperty("podads.auction.reserve-cpm.mid-roll", "800"));
+
+        Map<String, Object> decision = useCase.execute(TestDataBuilder.adRequest().pod(1, 60).build(), 12345);
+
+        assertEquals("camp-high", serve(decision).get("campaignId"));
+        assertEquals(800.0, serve(decision).get("pricePaid"));
+    }
+
+    @Test
+    void noFillWhenNoBidClearsTheReserve() {
+        MakeDecisionUseCase useCase = useCase(List.of(candidate("camp-low", 750).build()),
+                new MockEnvironment().withProperty("podads.auction.reserve-cpm.mid-roll", "800"));
+
+        Map<String, Object> decision = useCase.execute(request(), 12345);
+
+        assertNull(decision.get("winner"));
+        assertEquals("No bid clears the reserve price", decision.get("noFillReason"));
+    }
+
+    @Test
+    void asyncFiltersIssueOneBatchedLookupPerStorePerDecision() {
+        SimpleMeterRegistry storeRegistry = new SimpleMeterRegistry();
+        ExternalBrandSafetyStore store = new ExternalBrandSafetyStore(storeRegistry, 0);
+        store.put("creat-camp-flagged", "violence");
+        MakeDecisionUseCase useCase = useCase(List.of(
+                candidate("camp-flagged", 1200).build(),
+                candidate("camp-a", 900).build(),
+                candidate("camp-b", 800).build()), new MockEnvironment(), store);
+
+        Map<String, Object> first = useCase.execute(request(), 12345);
+        Map<String, Object> second = useCase.execute(request(), 54321);
+
+        assertEquals(2.0, storeRegistry.get("ad_lookup_batches_total").tag("store", store.getName()).counter().count());
+        DistributionSummary batchKeys = storeRegistry.get("ad_lookup_batch_keys").tag("store", store.getName()).summary();
+        assertEquals(6.0, batchKeys.totalAmount()); // every survivor's creative, in the same batch
+        assertEquals(3.0, batchKeys.max());
+        assertEquals("camp-a", serve(first).get("campaignId"));
+        assertEquals("camp-a", serve(second).get("campaignId"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> candidates(Map<String, Object> decision) {
+        return (List<Map<String, Object>>) decision.get("candidates");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> serve(Map<String, Object> decision) {
+        Map<String, Object> winner = (Map<String, Object>) decision.get("winner");
+        assertNotNull(winner, "no fill: " + decision.get("noFillReason"));
+        return (Map<String, Object>) winner.get("serve");
+    }
+
+    private static AdRequest request() {
+        return TestDataBuilder.adRequest().build();
+    }
+
+    private static TestDataBuilder.CandidateAdBuilder candidate(String campaignId, int bidCpm) {
+        return TestDataBuilder.candidateAd()
+                .campaignId(campaignId)
+                .advertiserId("adv-" + campaignId)
+                .creativeId("creat-" + campaignId)
+                .bidCpm(bidCpm)
+                .pacingDailyBudget(null); // keep the pacing gate out of the way
+    }
+
+    /**
+     * The decision pipeline with every real filter and service, sourcing the given candidates.
+     */
+    static MakeDecisionUseCase useCase(List<CandidateAd> candidates, MockEnvironment environment) {
+        return useCase(candidates, environment, new ExternalBrandSafetyStore(new SimpleMeterRegistry(), 0));
+    }
+
+    static MakeDecisionUseCase useCase(List<CandidateAd> candidates, MockEnvironment environment,
+                                       ExternalBrandSafetyStore brandSafetyStore) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        FixtureSourcingService sourcing = new FixtureSourcingService() {
+            @Override
+            public List<CandidateAd> loadActiveCandidates(int hourOfWeek) {
+                return candidates;
+            }
+
+            @Override
+            public List<CandidateAd> filterCandidatesByCategory(List<CandidateAd> all, PodcastCategory category) {
+                return all;
+            }
+        };
+        StripedBudgetLedger ledger = new StripedBudgetLedger(8);
+        FeedbackPacingController pacing = new FeedbackPacingController(ledger, Clock.systemUTC());
+        FrequencyCapService frequencyCaps = new FrequencyCapService(registry, "exact", 2, 100_000, 0.01, 360, 5);
+        CompetitiveSeparationService separation = new CompetitiveSeparationService(registry,
+                List.of("brand", "advertiser-category"), List.of("brand", "advertiser-category"), 30, 1_000);
+        FloorPriceService floors = new FloorPriceService(registry);
+        AuctionStrategySelector strategies = new AuctionStrategySelector(
+                List.of(new FirstPriceAuction(), new SecondPriceAuction(), new GeneralizedSecondPriceAuction()), environment);
+        List<Filter> noFilters = List.of();
+        return new MakeDecisionUseCase(
+                sourcing,
+                new AuctionService(pacing, new ScalarScoringKernel(), request -> null),
+                frequencyCaps,
+                new BudgetReservationService(ledger, registry, 60, 100),
+                registry,
+                new FilterGuard(registry, environment),
+                strategies,
+                new PodSolver(),
+                separation,
+                new ModelScoringService(registry),
+                new GuaranteedDeliveryService(sourcing, registry, false, "UTC", 60, 0.5),
+                floors,
+                new CreativeRotationService(registry),
+                new ExperimentService(registry, noFilters, strategies, false, "", 0),
+                new CampaignStatusFilter(),
+                new AbusiveContentFilter(registry, new BlocklistService(registry)),
+                new ScheduleWindowFilter(),
+                new DaypartingFilter(),
+                new SlotTypeFilter(),
+                new FloorPriceFilter(floors),
+                new CreativeApprovalFilter(),
+                new DurationFilter(),
+                new GeoTargetingFilter(sourcing),
+                new DeviceTargetingFilter(),
+                new TierTargetingFilter(),
+                new CategoryMatchFilter(),
+                new ExcludedCategoryFilter(),
+                new BudgetRemainingFilter(ledger),
+                new PacingGateFilter(pacing),
+                new FrequencyCapFilter(frequencyCaps),
+                new CompetitiveSeparationFilter(separation),
+                new ExternalBrandSafetyFilter(brandSafetyStore));
+    }
+}
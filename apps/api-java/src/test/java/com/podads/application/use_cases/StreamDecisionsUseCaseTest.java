@@ -0,0 +1,197 @@
+package com.podads.application.use_cases;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.infrastructure.filters.TestDataBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamDecisionsUseCaseTest {
+
+    @Test
+    void decidesEveryRequestOnceWithItsOwnSeed() throws Exception {
+        Map<String, Integer> seeds = Collections.synchronizedMap(new HashMap<>());
+        StreamDecisionsUseCase useCase = new StreamDecisionsUseCase((request, seed, explain) -> {
+            seeds.put(request.getRequestId(), seed);
+            return decision(request, !request.getRequestId().endsWith("7"));
+        }, new SimpleMeterRegistry());
+
+        List<Map<String, Object>> lines = new ArrayList<>();
+        StreamDecisionsUseCase.Summary summary = useCase.execute(requests(50), 100, false, 8, lines::add);
+
+        assertEquals(50, lines.size());
+        Set<Object> indexes = new HashSet<>();
+        for (Map<String, Object> line : lines) {
+            int index = (Integer) line.get("index");
+            assertTrue(indexes.add(index));
+            assertEquals("req-" + index, line.get("requestId"));
+            assertEquals(100 + index, seeds.get("req-" + index));
+            assertNotNull(line.get("decision"));
+        }
+        assertEquals(50, summary.count());
+        assertEquals(45, summary.fills());
+        assertEquals(0, summary.errors());
+        assertFalse(summary.abandoned());
+        assertEquals(5, summary.toMap().get("noFills"));
+    }
+
+    @Test
+    void keepsAtMostConcurrencyDecisionsInFlightAndReadsLazily() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        AtomicInteger read = new AtomicInteger();
+        AtomicInteger maxAhead = new AtomicInteger();
+        AtomicInteger decided = new AtomicInteger();
+        StreamDecisionsUseCase useCase = new StreamDecisionsUseCase((request, seed, explain) -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            decided.incrementAndGet();
+            return decision(request, true);
+        }, new SimpleMeterRegistry());
+
+        Iterator<AdRequest> source = requests(200);
+        Iterator<AdRequest> counting = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public AdRequest next() {
+                maxAhead.accumulateAndGet(read.incrementAndGet() - decided.get(), Math::max);
+                return source.next();
+            }
+        };
+        StreamDecisionsUseCase.Summary summary = useCase.execute(counting, 1, false, 4, line -> { });
+
+        assertEquals(200, summary.count());
+        assertTrue(peak.get() <= 4, "peak " + peak.get());
+        assertTrue(peak.get() > 1, "decisions ran one at a time");
+        assertTrue(maxAhead.get() <= 4, "read " + maxAhead.get() + " requests ahead of the decisions");
+    }
+
+    @Test
+    void invalidRequestYieldsAnErrorLineAndTheStreamContinues() throws Exception {
+        List<AdRequest> source = IntStream.range(0, 5).mapToObj(StreamDecisionsUseCaseTest::request).toList();
+        Iterator<AdRequest> withInvalid = new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < source.size();
+            }
+
+            @Override
+            public AdRequest next() {
+                AdRequest request = source.get(next++);
+                if (request.getRequestId().equals("req-2")) {
+                    throw new IllegalArgumentException("Invalid request req-2: slot must not be null");
+                }
+                return request;
+            }
+        };
+        StreamDecisionsUseCase useCase = new StreamDecisionsUseCase((request, seed, explain) -> {
+            if (request.getRequestId().equals("req-4")) {
+                throw new IllegalStateException("catalog unavailable");
+            }
+            return decision(request, true);
+        }, new SimpleMeterRegistry());
+
+        List<Map<String, Object>> lines = Collections.synchronizedList(new ArrayList<>());
+        StreamDecisionsUseCase.Summary summary = useCase.execute(withInvalid, 1, false, 2, lines::add);
+
+        assertEquals(5, lines.size());
+        Map<Object, Map<String, Object>> byIndex = new HashMap<>();
+        lines.forEach(line -> byIndex.put(line.get("index"), line));
+        assertEquals("Invalid request req-2: slot must not be null", byIndex.get(2).get("error"));
+        assertEquals("catalog unavailable", byIndex.get(4).get("error"));
+        assertEquals("req-4", byIndex.get(4).get("requestId"));
+        assertNotNull(byIndex.get(3).get("decision"));
+        assertEquals(5, summary.count());
+        assertEquals(3, summary.fills());
+        assertEquals(2, summary.errors());
+    }
+
+    @Test
+    void unreadableInputEndsTheBatchAfterStartedDecisions() throws Exception {
+        Iterator<AdRequest> source = requests(3);
+        Iterator<AdRequest> truncated = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public AdRequest next() {
+                if (!source.hasNext()) {
+                    throw new IllegalStateException("unexpected end of input");
+                }
+                return source.next();
+            }
+        };
+        StreamDecisionsUseCase useCase = new StreamDecisionsUseCase(
+                (request, seed, explain) -> decision(request, true), new SimpleMeterRegistry());
+
+        List<Map<String, Object>> lines = Collections.synchronizedList(new ArrayList<>());
+        StreamDecisionsUseCase.Summary summary = useCase.execute(truncated, 1, false, 2, lines::add);
+
+        assertEquals(4, lines.size());
+        assertTrue(lines.stream().anyMatch(line -> line.get("index").equals(3)
+                && "Unreadable batch input: unexpected end of input".equals(line.get("error"))));
+        assertEquals(4, summary.count());
+        assertEquals(3, summary.fills());
+        assertEquals(0, summary.toMap().get("noFills"));
+    }
+
+    @Test
+    void sinkFailureAbandonsTheRestOfTheBatch() throws Exception {
+        AtomicInteger decisions = new AtomicInteger();
+        StreamDecisionsUseCase useCase = new StreamDecisionsUseCase((request, seed, explain) -> {
+            decisions.incrementAndGet();
+            return decision(request, true);
+        }, new SimpleMeterRegistry());
+
+        AtomicInteger written = new AtomicInteger();
+        StreamDecisionsUseCase.Summary summary = useCase.execute(requests(1_000), 1, false, 4, line -> {
+            if (written.incrementAndGet() == 3) {
+                throw new RuntimeException("client disconnected");
+            }
+        });
+
+        assertTrue(summary.abandoned());
+        assertEquals(3, written.get());
+        assertTrue(decisions.get() < 20, decisions.get() + " decisions after the client went away");
+    }
+
+    private static Iterator<AdRequest> requests(int count) {
+        return IntStream.range(0, count).mapToObj(StreamDecisionsUseCaseTest::request).iterator();
+    }
+
+    private static AdRequest request(int index) {
+        return TestDataBuilder.adRequest().requestId("req-" + index).build();
+    }
+
+    private static Map<String, Object> decision(AdRequest request, boolean filled) {
+        Map<String, Object> decision = new HashMap<>();
+        decision.put("requestId", request.getRequestId());
+        decision.put("winner", filled ? Map.of("campaignId", "camp-001") : null);
+        return decision;
+    }
+}
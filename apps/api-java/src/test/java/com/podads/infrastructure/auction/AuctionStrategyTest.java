@@ -0,0 +1,90 @@
+package com.podads.infrastructure.auction;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.services.AuctionStrategy;
+import com.podads.domain.valueobjects.CandidateScore;
+import com.podads.domain.valueobjects.ListenerContext;
+import com.podads.domain.valueobjects.MatchComponents;
+import com.podads.domain.valueobjects.SlotContext;
+import com.podads.domain.valueobjects.SlotType;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuctionStrategyTest {
+    private static final MatchComponents MATCH = new MatchComponents(1.0, 0.5, 1.0);
+
+    private final AuctionStrategy firstPrice = new FirstPriceAuction();
+    private final AuctionStrategy secondPrice = new SecondPriceAuction();
+    private final AuctionStrategy gsp = new GeneralizedSecondPriceAuction();
+
+    private static CandidateScore score(double bidCpm, double matchScore) {
+        return new CandidateScore(bidCpm, MATCH, matchScore, 1.0, bidCpm * matchScore);
+    }
+
+    @Test
+    void testFirstPricePaysOwnBid() {
+        assertEquals(1250.0, firstPrice.price(score(1250, 0.8), score(1200, 0.8), 0));
+    }
+
+    @Test
+    void testSecondPricePaysRunnerUpBid() {
+        assertEquals(1200.0, secondPrice.price(score(1250, 0.8), score(1200, 0.8), 0));
+        assertEquals(1250.0, secondPrice.price(score(1250, 0.8), null, 0), "alone: pays own bid");
+    }
+
+    @Test
+    void testSecondPriceNeverExceedsWinnerBid() {
+        // Well-matched winner outscores a higher raw bid
+        assertEquals(1000.0, secondPrice.price(score(1000, 1.0), score(1500, 0.5), 0));
+    }
+
+    @Test
+    void testGeneralizedSecondPriceNormalizesByMatchScore() {
+        // Winner: 1000 x 1.0 = 1000; runner-up: 1500 x 0.5 = 750 -> winner needs only 750 to keep the slot
+        assertEquals(750.0, gsp.price(score(1000, 1.0), score(1500, 0.5), 0), 1e-9);
+        // Equal match scores reduce to classic second price
+        assertEquals(1200.0, gsp.price(score(1250, 0.8), score(1200, 0.8), 0), 1e-9);
+    }
+
+    @Test
+    void testReserveRaisesPriceAndRejectsLowBids() {
+        for (AuctionStrategy strategy : List.of(firstPrice, secondPrice, gsp)) {
+            assertEquals(AuctionStrategy.NO_SALE, strategy.price(score(900, 1.0), null, 1000), strategy.getName());
+            assertTrue(strategy.price(score(1250, 1.0), score(500, 1.0), 1000) >= 1000, strategy.getName());
+        }
+        assertEquals(1100.0, gsp.price(score(1250, 1.0), score(500, 1.0), 1100), 1e-9);
+    }
+
+    @Test
+    void testSelectorPrefersRequestThenSlotTypeThenDefault() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("podads.auction.strategy.default", "second-price")
+                .withProperty("podads.auction.strategy.pre-roll", "gsp")
+                .withProperty("podads.auction.reserve-cpm.pre-roll", "800");
+        AuctionStrategySelector selector = new AuctionStrategySelector(List.of(firstPrice, secondPrice, gsp), environment);
+
+        AdRequest preRoll = request(SlotType.PRE_ROLL);
+        AdRequest midRoll = request(SlotType.MID_ROLL);
+
+        assertEquals("gsp", selector.select(preRoll).getName());
+        assertEquals(800.0, selector.reserveCpm(preRoll));
+        assertEquals("second-price", selector.select(midRoll).getName());
+        assertEquals(0.0, selector.reserveCpm(midRoll));
+
+        midRoll.setAuctionStrategy("first-price");
+        assertEquals("first-price", selector.select(midRoll).getName());
+
+        midRoll.setAuctionStrategy("vickrey-clarke-groves");
+        assertThrows(IllegalArgumentException.class, () -> selector.select(midRoll));
+    }
+
+    private static AdRequest request(SlotType slotType) {
+        return new AdRequest("req-1", null, new SlotContext(slotType, 0),
+                new ListenerContext(), Instant.parse("2024-01-15T10:30:00Z"));
+    }
+}
@@ -0,0 +1,77 @@
+package com.podads.infrastructure.auction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pod solve over 500 candidates with campaign, brand and category keys: a few standard lengths in a
+ * 180s break, and arbitrary 10-90s lengths in a 600s break (the case that needs duration rounding).
+ *
+ * Not a unit test. Run with:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *     com.podads.infrastructure.auction.PodSolverBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PodSolverBenchmark {
+    private static final int CANDIDATES = 500;
+
+    @Param({"standard", "arbitrary"})
+    String lengths;
+
+    private final PodSolver solver = new PodSolver();
+    private int[] durations;
+    private double[] values;
+    private int[] keys;
+    private int maxDuration;
+    private int maxAds;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        boolean standard = lengths.equals("standard");
+        durations = new int[CANDIDATES];
+        values = new double[CANDIDATES];
+        keys = new int[CANDIDATES * 3];
+        for (int i = 0; i < CANDIDATES; i++) {
+            durations[i] = standard ? new int[]{30, 45, 60}[random.nextInt(3)] : 10 + random.nextInt(81);
+            values[i] = random.nextDouble() * 1500;
+            keys[i * 3] = i / 3;
+            keys[i * 3 + 1] = i / 6;
+            keys[i * 3 + 2] = random.nextInt(20);
+        }
+        maxDuration = standard ? 180 : 600;
+        maxAds = standard ? 4 : 8;
+    }
+
+    @Benchmark
+    public int[] solve() {
+        return solver.solve(durations, values, keys, 3, CANDIDATES, maxDuration, maxAds);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PodSolverBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,187 @@
+package com.podads.infrastructure.auction;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PodSolverTest {
+    private final PodSolver solver = new PodSolver();
+
+    @Test
+    void testPicksBestCombinationNotGreedyPrefix() {
+        // Greedy would take the 60s ad and have no room left; two 45s ads + a 30s ad is worth more
+        int[] durations = {60, 45, 45, 30};
+        double[] values = {10, 7, 6, 5};
+        int[] campaigns = {0, 1, 2, 3};
+
+        int[] chosen = solver.solve(durations, values, campaigns, 1, 4, 120, 3);
+
+        assertArrayEquals(new int[]{1, 2, 3}, chosen);
+    }
+
+    @Test
+    void testAtMostOneAdPerCampaign() {
+        int[] durations = {30, 30, 30};
+        double[] values = {10, 9, 1};
+        int[] campaigns = {0, 0, 1};
+
+        int[] chosen = solver.solve(durations, values, campaigns, 1, 3, 90, 3);
+
+        assertArrayEquals(new int[]{0, 2}, chosen);
+    }
+
+    @Test
+    void testSeparatesSharedKeysButNotMissingOnes() {
+        // keys per ad: campaign, brand, advertiser category (-1 = none)
+        int[] durations = {30, 30, 30, 30};
+        double[] values = {10, 9, 8, 7};
+        int[] keys = {
+                0, 0, 5,
+                1, 1, 5, // same category as ad 0
+                2, 2, -1,
+                3, 2, -1 // same brand as ad 2
+        };
+
+        int[] chosen = solver.solve(durations, values, keys, 3, 4, 120, 4);
+
+        assertArrayEquals(new int[]{0, 2}, chosen);
+    }
+
+    @Test
+    void testUnkeyedAdsOfOneLengthAreAllKept() {
+        int[] durations = {30, 30, 30};
+        double[] values = {3, 2, 1};
+        int[] keys = {-1, -1, -1};
+
+        assertArrayEquals(new int[]{0, 1, 2}, solver.solve(durations, values, keys, 1, 3, 90, 3));
+    }
+
+    @Test
+    void testRespectsSlotCountAndSkipsAdsThatNeverFit() {
+        int[] durations = {30, 30, 30, 150};
+        double[] values = {3, 2, 1, 100};
+        int[] campaigns = {0, 1, 2, 3};
+
+        assertArrayEquals(new int[]{0, 1}, solver.solve(durations, values, campaigns, 1, 4, 120, 2));
+        assertEquals(0, solver.solve(durations, values, campaigns, 1, 4, 20, 2).length);
+        assertEquals(0, solver.solve(durations, values, campaigns, 1, 0, 120, 2).length);
+    }
+
+    @Test
+    void testMatchesBruteForceOnRandomPods() {
+        Random random = new Random(42);
+        int[] lengths = {15, 30, 45, 60};
+        for (int round = 0; round < 200; round++) {
+            int count = 1 + random.nextInt(10);
+            int[] durations = new int[count];
+            double[] values = new double[count];
+            int[] campaigns = new int[count];
+            for (int i = 0; i < count; i++) {
+                durations[i] = lengths[random.nextInt(lengths.length)];
+                values[i] = 1 + random.nextInt(1000);
+                campaigns[i] = i; // distinct keys: the DP is exact
+            }
+            int maxDuration = 30 + 15 * random.nextInt(8);
+            int maxAds = 1 + random.nextInt(4);
+
+            int[] chosen = solver.solve(durations, values, campaigns, 1, count, maxDuration, maxAds);
+
+            int used = 0;
+            double total = 0;
+            for (int i : chosen) {
+                used += durations[i];
+                total += values[i];
+            }
+            assertTrue(chosen.length <= maxAds);
+            assertTrue(used <= maxDuration);
+            assertEquals(bruteForce(durations, values, count, maxDuration, maxAds), total, 1e-9, "round " + round);
+        }
+    }
+
+    @Test
+    void testRoundsArbitraryDurationsInLongBreaksWithoutOverrunning() {
+        // 10-90s lengths in a 600s break: gcd 1s would mean 600 units, so durations are rounded up to 5s
+        Random random = new Random(11);
+        int unit = (600 + PodSolver.MAX_CAPACITY_UNITS - 1) / PodSolver.MAX_CAPACITY_UNITS;
+        for (int round = 0; round < 200; round++) {
+            int count = 1 + random.nextInt(12);
+            int[] durations = new int[count];
+            int[] rounded = new int[count];
+            double[] values = new double[count];
+            int[] campaigns = new int[count];
+            for (int i = 0; i < count; i++) {
+                durations[i] = 10 + random.nextInt(81);
+                rounded[i] = (durations[i] + unit - 1) / unit * unit;
+                values[i] = 1 + random.nextInt(1000);
+                campaigns[i] = i;
+            }
+            int maxAds = 1 + random.nextInt(8);
+
+            int[] chosen = solver.solve(durations, values, campaigns, 1, count, 600, maxAds);
+
+            int used = 0;
+            double total = 0;
+            for (int i : chosen) {
+                used += durations[i];
+                total += values[i];
+            }
+            assertTrue(used <= 600, "round " + round);
+            assertTrue(total <= bruteForce(durations, values, count, 600, maxAds) + 1e-9);
+            assertEquals(bruteForce(rounded, values, count, 600 / unit * unit, maxAds), total, 1e-9, "round " + round);
+        }
+    }
+
+    @Test
+    void testLargeCatalogPodIsValid() {
+        // Timing for this shape lives in PodSolverBenchmark
+        Random random = new Random(7);
+        int count = 500;
+        int[] durations = new int[count];
+        double[] values = new double[count];
+        int[] keys = new int[count * 3]; // campaign, brand, advertiser category
+        for (int i = 0; i < count; i++) {
+            durations[i] = 10 + random.nextInt(81);
+            values[i] = random.nextDouble() * 1500;
+            keys[i * 3] = i / 3;
+            keys[i * 3 + 1] = i / 6;
+            keys[i * 3 + 2] = random.nextInt(20);
+        }
+
+        int[] chosen = solver.solve(durations, values, keys, 3, count, 600, 8);
+
+        assertEquals(8, chosen.length);
+        int used = 0;
+        for (int a = 0; a < chosen.length; a++) {
+            used += durations[chosen[a]];
+            for (int b = a + 1; b < chosen.length; b++) {
+                for (int j = 0; j < 3; j++) {
+                    assertNotEquals(keys[chosen[a] * 3 + j], keys[chosen[b] * 3 + j]);
+                }
+            }
+        }
+        assertTrue(used <= 600);
+    }
+
+    private static double bruteForce(int[] durations, double[] values, int count, int maxDuration, int maxAds) {
+        double best = 0;
+        for (int subset = 1; subset < (1 << count); subset++) {
+            if (Integer.bitCount(subset) > maxAds) {
+                continue;
+            }
+            int used = 0;
+            double total = 0;
+            for (int i = 0; i < count; i++) {
+                if ((subset & (1 << i)) != 0) {
+                    used += durations[i];
+                    total += values[i];
+                }
+            }
+            if (used <= maxDuration) {
+                best = Math.max(best, total);
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,150 @@
+package com.podads.infrastructure.brandsafety;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * HashSet vs {@link CompactIdSet} for blocklist lookups: 1,024 catalog ids per op, none of them
+ * blocked (the common case) or all of them blocked, against 100k, 1M and 4M blocked ids.
+ *
+ * {@link #main} first prints the retained heap of each structure and the observed false-match rate,
+ * then runs the timings. Not a unit test. Run with:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -Xmx4g -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *     com.podads.infrastructure.brandsafety.BlocklistLookupBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BlocklistLookupBenchmark {
+    private static final int LOOKUPS = 1_024;
+
+    @Param({"100000", "1000000", "4000000"})
+    int blockedIds;
+
+    private Set<String> hashSet;
+    private CompactIdSet compact;
+    private String[] clean;
+    private String[] blocked;
+
+    @Setup
+    public void setUp() {
+        List<String> ids = blockedIds(blockedIds);
+        hashSet = new HashSet<>(ids);
+        compact = CompactIdSet.of(ids, null);
+        clean = new String[LOOKUPS];
+        blocked = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            clean[i] = "camp-" + i;
+            clean[i].hashCode(); // catalog ids arrive with their hash already cached
+            blocked[i] = new String(ids.get((int) ((long) i * blockedIds / LOOKUPS))); // not the set's own instance
+            blocked[i].hashCode();
+        }
+    }
+
+    @Benchmark
+    public int hashSetClean() {
+        return count(hashSet::contains, clean);
+    }
+
+    @Benchmark
+    public int compactClean() {
+        return count(compact::contains, clean);
+    }
+
+    @Benchmark
+    public int hashSetBlocked() {
+        return count(hashSet::contains, blocked);
+    }
+
+    @Benchmark
+    public int compactBlocked() {
+        return count(compact::contains, blocked);
+    }
+
+    private static int count(Predicate<String> contains, String[] ids) {
+        int hits = 0;
+        for (String id : ids) {
+            if (contains.test(id)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    private static List<String> blockedIds(int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add("camp-abuse-" + i);
+        }
+        return ids;
+    }
+
+    /**
+     * Heap still reachable from the structure built by {@code build}, measured around full GCs.
+     */
+    private static long retainedBytes(Supplier<Object> build) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long before = memory.getHeapMemoryUsage().getUsed();
+        Object structure = build.get();
+        System.gc();
+        long after = memory.getHeapMemoryUsage().getUsed();
+        if (structure.hashCode() == 42) {
+            System.out.print(""); // keep the structure reachable until after the second GC
+        }
+        return after - before;
+    }
+
+    private static void printMemoryReport() {
+        System.out.printf("%-12s %16s %16s %16s %18s%n",
+                "blocked ids", "HashSet B/id", "compact B/id", "compact (est)", "false matches");
+        for (int count : new int[]{100_000, 1_000_000, 4_000_000}) {
+            long hashSetBytes = retainedBytes(() -> new HashSet<>(blockedIds(count)));
+            long compactBytes = retainedBytes(() -> CompactIdSet.of(blockedIds(count), null));
+            LongAdder falseMatches = new LongAdder();
+            CompactIdSet set = CompactIdSet.of(blockedIds(count), falseMatches);
+            int probes = 10_000_000;
+            for (int i = 0; i < probes; i++) {
+                set.contains("camp-" + i);
+            }
+            System.out.printf("%-12d %16.1f %16.1f %16.1f %11.2e (exp %.2e)%n", count,
+                    (double) hashSetBytes / count, (double) compactBytes / count,
+                    (double) set.memoryBytes() / count,
+                    falseMatches.sum() / (double) probes, set.expectedFalseMatchRate());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        printMemoryReport();
+        new Runner(new OptionsBuilder().include(BlocklistLookupBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,47 @@
+package com.podads.infrastructure.brandsafety;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlocklistServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private double reloads(String outcome) {
+        return registry.get("ad_blocklist_reloads_total").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void brokenFileIsRetriedOnlyOnceItChangesAgain(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("blocklist.json");
+        Files.writeString(file, "{\"version\":\"1\",\"sources\":{}}");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2024-01-15T12:00:00Z")));
+        BlocklistService service = new BlocklistService(registry, file.toString(), 0);
+        service.initialize();
+
+        Files.writeString(file, "{ not json");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2024-01-15T12:01:00Z")));
+        service.reloadIfChanged();
+        service.reloadIfChanged();
+        service.reloadIfChanged();
+
+        assertEquals(1, reloads("failure"));
+        assertEquals(1, service.snapshot().getVersion());
+
+        Files.writeString(file, "{\"version\":\"2\",\"sources\":{\"manual_curation\":"
+                + "{\"entries\":[{\"campaignId\":\"camp-takedown\"}]}}}");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2024-01-15T12:02:00Z")));
+        service.reloadIfChanged();
+
+        assertEquals(2, reloads("success"));
+        assertTrue(service.snapshot().isCampaignBlocked("camp-takedown"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.podads.infrastructure.brandsafety;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactIdSetTest {
+
+    private static List<String> ids(String prefix, int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(prefix + i);
+        }
+        return ids;
+    }
+
+    @Test
+    void testAnswersExactlyForClusteredIds() {
+        List<String> blocked = ids("camp-abuse-", 200_000);
+        CompactIdSet set = CompactIdSet.of(blocked, null);
+
+        assertEquals(200_000, set.size());
+        for (String id : blocked) {
+            assertTrue(set.contains(id), id);
+        }
+        for (String id : ids("camp-", 200_000)) {
+            assertFalse(set.contains(id), id);
+        }
+        assertFalse(set.contains("camp-abuse-200000"));
+        assertFalse(set.contains(null));
+        assertFalse(CompactIdSet.empty().contains("camp-abuse-1"));
+    }
+
+    @Test
+    void testEqualHashCodesAreToldApart() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        LongAdder falseMatches = new LongAdder();
+        CompactIdSet set = CompactIdSet.of(List.of("Aa", "AaAa"), falseMatches);
+
+        assertTrue(set.contains("Aa"));
+        assertFalse(set.contains("BB"));
+        assertFalse(set.contains("BBBB"));
+        assertEquals(2, falseMatches.sum()); // each shares a fingerprint and a length with a blocked id
+        assertTrue(CompactIdSet.of(List.of("Aa", "BB"), null).contains("BB"));
+    }
+
+    @Test
+    void testKeepsNonLatin1IdsExact() {
+        CompactIdSet set = CompactIdSet.of(List.of("camp-ü", "camp-日本", "camp-1"), null);
+
+        assertTrue(set.contains("camp-ü"));
+        assertTrue(set.contains("camp-日本"));
+        assertTrue(set.contains("camp-1"));
+        assertFalse(set.contains("camp-日"));
+        assertEquals(Set.of("camp-ü", "camp-日本", "camp-1"), set.toSet());
+    }
+
+    @Test
+    void testWithAddsOneIdAndKeepsTheRest() {
+        CompactIdSet set = CompactIdSet.of(ids("crt-", 1_000), null);
+        CompactIdSet added = set.with("crt-takedown");
+
+        assertFalse(set.contains("crt-takedown"));
+        assertTrue(added.contains("crt-takedown"));
+        assertTrue(added.contains("crt-999"));
+        assertEquals(1_001, added.size());
+        assertSame(added, added.with("crt-takedown"));
+    }
+
+    @Test
+    void testMillionIdsFitInAboutEightBytesOverTheirLength() {
+        List<String> blocked = ids("camp-abuse-", 1_000_000);
+        long idBytes = blocked.stream().mapToLong(String::length).sum();
+        CompactIdSet set = CompactIdSet.of(blocked, null);
+
+        // fingerprint + offset + a quarter of a directory slot; a HashSet holds ~90 bytes on top of each id
+        long overhead = set.memoryBytes() - idBytes;
+        assertTrue(overhead < 1_000_000 * 10L, "overhead " + overhead + " bytes");
+        assertEquals(1_000_000 / 0x1.0p32, set.expectedFalseMatchRate(), 1e-12);
+    }
+}
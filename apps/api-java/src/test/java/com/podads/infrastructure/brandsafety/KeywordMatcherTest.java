@@ -0,0 +1,63 @@
+package com.podads.infrastructure.brandsafety;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeywordMatcherTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private JsonNode fixture(String name) throws Exception {
+        try (InputStream in = new ClassPathResource("fixtures/" + name).getInputStream()) {
+            return objectMapper.readTree(in);
+        }
+    }
+
+    @Test
+    void testMatchesWholeWordsAcrossSeparators() {
+        KeywordMatcher matcher = KeywordMatcher.compile(List.of("get rich", "Trading Bot", "scam"));
+
+        assertEquals("get rich", matcher.firstMatch("https://assets.podads.lab/get-rich-quick-45s.mp3"));
+        assertEquals("trading bot", matcher.firstMatch("Turn $100 into $10,000 with Crypto Trading   Bot"));
+        assertEquals("scam", matcher.firstMatch("crypto-scam-60s"));
+        assertNull(matcher.firstMatch("Get richer every day"));
+        assertNull(matcher.firstMatch("Scampi recipes"));
+        assertNull(matcher.firstMatch(null));
+    }
+
+    @Test
+    void testOverlappingPhrasesFoundViaFailureLinks() {
+        KeywordMatcher matcher = KeywordMatcher.compile(List.of("no credit check", "credit"));
+
+        assertEquals("credit", matcher.firstMatch("No Credit Score Needed"));
+        assertEquals("credit", matcher.firstMatch("Instant Cash Loan - No Credit Check"));
+    }
+
+    @Test
+    void testFixturePhrasesSpareLegitimateCatalog() throws Exception {
+        List<String> phrases = new ArrayList<>();
+        fixture("blocklist.json").path("sources").forEach(source ->
+                source.path("phrases").forEach(phrase -> phrases.add(phrase.asText())));
+        KeywordMatcher matcher = KeywordMatcher.compile(phrases);
+        assertTrue(matcher.phraseCount() > 0);
+
+        for (JsonNode campaign : fixture("campaigns.json")) {
+            if (!campaign.path("id").asText().startsWith("camp-abuse-")) {
+                assertNull(matcher.firstMatch(campaign.path("name").asText()), campaign.path("name").asText());
+            }
+        }
+        for (JsonNode creative : fixture("creatives.json")) {
+            if (!creative.path("id").asText().startsWith("creat-abuse-")) {
+                assertNull(matcher.firstMatch(creative.path("assetUrl").asText()), creative.path("assetUrl").asText());
+            }
+        }
+    }
+}
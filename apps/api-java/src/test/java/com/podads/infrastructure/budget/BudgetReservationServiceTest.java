@@ -0,0 +1,210 @@
+package com.podads.infrastructure.budget;
+
+import com.podads.domain.entities.Campaign;
+import com.podads.infrastructure.filters.TestDataBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BudgetReservationServiceTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-15T12:00:00Z"));
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final StripedBudgetLedger ledger = new StripedBudgetLedger(8, clock);
+    private final BudgetReservationService service = new BudgetReservationService(ledger, registry, 60, 100, clock);
+
+    private static Campaign campaign(int budgetRemaining, Integer dailyBudget) {
+        return TestDataBuilder.candidateAd()
+                .budgetRemaining(budgetRemaining)
+                .pacingDailyBudget(dailyBudget)
+                .pacingDailySpend(0)
+                .build()
+                .getCampaign();
+    }
+
+    private double outcomes(String outcome) {
+        return registry.get("ad_budget_reservations_total").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void reserveDebitsAndCommitKeepsTheSpend() {
+        Campaign campaign = campaign(10, null); // 10,000 millicents
+
+        assertTrue(service.reserve("dec-1", campaign, 4_000));
+        assertEquals(6_000, ledger.remainingMillicents(campaign));
+
+        assertTrue(service.commit("dec-1"));
+        assertFalse(service.commit("dec-1"));
+        clock.advanceSeconds(120);
+        service.expireDue();
+
+        assertEquals(6_000, ledger.remainingMillicents(campaign));
+        assertEquals(1, outcomes("committed"));
+        assertEquals(0, outcomes("expired"));
+    }
+
+    @Test
+    void reserveFailsWithoutDebitingWhenBudgetCannotCoverIt() {
+        Campaign campaign = campaign(10, null);
+
+        assertTrue(service.reserve("dec-1", campaign, 8_000));
+        assertFalse(service.reserve("dec-2", campaign, 8_000));
+
+        assertEquals(2_000, ledger.remainingMillicents(campaign));
+        assertFalse(service.commit("dec-2"));
+    }
+
+    @Test
+    void expiryCreditsTheReservationBackAndALateCommitFails() {
+        Campaign campaign = campaign(10, null);
+        assertTrue(service.reserve("dec-1", campaign, 4_000));
+
+        clock.advanceSeconds(59);
+        service.expireDue();
+        assertEquals(6_000, ledger.remainingMillicents(campaign)); // not due yet
+
+        clock.advanceSeconds(2);
+        service.expireDue();
+
+        assertEquals(10_000, ledger.remainingMillicents(campaign));
+        assertFalse(service.commit("dec-1"));
+        assertEquals(1, outcomes("expired"));
+        assertEquals(0, outcomes("committed"));
+    }
+
+    @Test
+    void commitRacingExpirySettlesEachReservationExactlyOnce() throws InterruptedException {
+        int reservations = 5_000;
+        Campaign campaign = campaign(reservations, null); // 1,000 millicents each
+        for (int i = 0; i < reservations; i++) {
+            assertTrue(service.reserve("dec-" + i, campaign, 1_000));
+        }
+        assertEquals(0, ledger.remainingMillicents(campaign));
+        clock.advanceSeconds(61); // every reservation is due while the commits arrive
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger committed = new AtomicInteger();
+        Thread committer = Thread.ofPlatform().start(() -> {
+            awaitQuietly(start);
+            for (int i = 0; i < reservations; i++) {
+                if (service.commit("dec-" + i)) {
+                    committed.incrementAndGet();
+                }
+            }
+        });
+        Thread expirer = Thread.ofPlatform().start(() -> {
+            awaitQuietly(start);
+            service.expireDue();
+        });
+        start.countDown();
+        committer.join();
+        expirer.join();
+
+        int expired = reservations - committed.get();
+        assertEquals(committed.get(), outcomes("committed"));
+        assertEquals(expired, outcomes("expired"));
+        assertEquals(expired * 1_000L, ledger.remainingMillicents(campaign)); // only expired ones refunded
+    }
+
+    @Test
+    void expiryAfterMidnightDoesNotTopUpTheNewDay() {
+        clock.instant = Instant.parse("2024-01-15T23:59:30Z");
+        Campaign campaign = campaign(100, 10); // 100,000 total, 10,000 per day
+        assertTrue(service.reserve("dec-1", campaign, 4_000));
+
+        clock.instant = Instant.parse("2024-01-16T00:01:00Z");
+        service.expireDue();
+
+        assertEquals(100_000, ledger.remainingMillicents(campaign)); // the total budget gets it back
+        assertTrue(ledger.tryDebit(campaign, 10_000));
+        assertFalse(ledger.tryDebit(campaign, 1_000)); // today's allowance is still just the daily budget
+    }
+
+    @Test
+    void expirySameDayRestoresTheDailyBudget() {
+        Campaign campaign = campaign(100, 10);
+        assertTrue(service.reserve("dec-1", campaign, 4_000));
+
+        clock.advanceSeconds(61);
+        service.expireDue();
+
+        assertEquals(0, ledger.dailySpendMillicents(campaign));
+        assertTrue(ledger.tryDebit(campaign, 10_000));
+    }
+
+    @Test
+    void debitsRacingMidnightSpendExactlyTwoDailyBudgets() throws InterruptedException {
+        clock.instant = Instant.parse("2024-01-15T23:59:59Z");
+        Campaign campaign = campaign(1_000, 10); // 10,000 millicents per day
+        assertEquals(0, ledger.dailySpendMillicents(campaign));
+        AtomicInteger successes = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(16);
+
+        Thread[] threads = new Thread[16];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = Thread.ofPlatform().start(() -> {
+                started.countDown();
+                for (int i = 0; i < 2_000; i++) {
+                    if (ledger.tryDebit(campaign, 100)) {
+                        successes.incrementAndGet();
+                    }
+                }
+            });
+        }
+        awaitQuietly(started);
+        clock.instant = Instant.parse("2024-01-16T00:00:01Z");
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        while (ledger.tryDebit(campaign, 100)) {
+            successes.incrementAndGet();
+        }
+
+        // Nothing debited on either day is lost or handed back to the new day
+        assertEquals(200, successes.get());
+        assertEquals(10_000, ledger.dailySpendMillicents(campaign));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advanceSeconds(long seconds) {
+            instant = instant.plusSeconds(seconds);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
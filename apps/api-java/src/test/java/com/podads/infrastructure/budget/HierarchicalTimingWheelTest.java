@@ -0,0 +1,85 @@
+package com.podads.infrastructure.budget;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long START = 1_000_000L;
+    private HierarchicalTimingWheel<String> wheel;
+    private List<String> expired;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new HierarchicalTimingWheel<>(100, START);
+        expired = new ArrayList<>();
+    }
+
+    @Test
+    void testExpiresWithinLevelZero() {
+        wheel.schedule("a", START + 500);
+
+        wheel.advanceTo(START + 400, expired::add);
+        assertTrue(expired.isEmpty());
+
+        wheel.advanceTo(START + 500, expired::add);
+        assertEquals(List.of("a"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testCascadesFromHigherLevels() {
+        // 60s at 100ms ticks = 600 ticks -> level 1; 2h = 72,000 ticks -> level 2
+        wheel.schedule("minute", START + 60_000);
+        wheel.schedule("hours", START + 7_200_000);
+
+        wheel.advanceTo(START + 59_900, expired::add);
+        assertTrue(expired.isEmpty());
+        wheel.advanceTo(START + 60_000, expired::add);
+        assertEquals(List.of("minute"), expired);
+
+        wheel.advanceTo(START + 7_199_900, expired::add);
+        assertEquals(1, expired.size());
+        wheel.advanceTo(START + 7_200_000, expired::add);
+        assertEquals(List.of("minute", "hours"), expired);
+    }
+
+    @Test
+    void testCancelledTimeoutNeverFires() {
+        HierarchicalTimingWheel.Timeout<String> timeout = wheel.schedule("a", START + 60_000);
+
+        assertTrue(wheel.cancel(timeout));
+        assertFalse(wheel.cancel(timeout));
+        wheel.advanceTo(START + 120_000, expired::add);
+
+        assertTrue(expired.isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testPastDeadlineFiresOnNextTick() {
+        wheel.schedule("late", START - 5_000);
+
+        wheel.advanceTo(START + 100, expired::add);
+
+        assertEquals(List.of("late"), expired);
+    }
+
+    @Test
+    void testManyTimeoutsExpireInDeadlineOrderAcrossLevels() {
+        for (int i = 1; i <= 2_000; i++) {
+            wheel.schedule(String.valueOf(i), START + i * 1_000L);
+        }
+
+        for (long now = START; now <= START + 2_000_000; now += 1_000) {
+            wheel.advanceTo(now, expired::add);
+            assertEquals((now - START) / 1_000, expired.size());
+        }
+        assertEquals("2000", expired.get(expired.size() - 1));
+    }
+}
@@ -0,0 +1,261 @@
+package com.podads.infrastructure.experiments;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.services.Filter;
+import com.podads.domain.valueobjects.FilterResult;
+import com.podads.domain.valueobjects.ScoringWeights;
+import com.podads.infrastructure.filters.TestDataBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExperimentServiceTest {
+
+    private static final String EXPERIMENTS = """
+            {"version": "t1", "salt": "s1", "experiments": [
+              {"name": "weights", "unit": "listener", "traffic": 0.3, "arms": [
+                {"name": "control", "weight": 1},
+                {"name": "show-heavy", "weight": 2, "scoringWeights": {"category": 0.5, "show": 0.5},
+                 "filterOrder": ["BudgetFilter"], "modelScoring": false}
+              ]},
+              {"name": "pricing", "unit": "request", "traffic": 0.2, "arms": [
+                {"name": "gsp", "auctionStrategy": "gsp", "creativeRotation": false}
+              ]}
+            ]}
+            """;
+
+    @TempDir
+    Path dir;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExperimentService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.writeString(dir.resolve("experiments.json"), EXPERIMENTS);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new ExperimentService(meterRegistry, Set.of("GeoFilter", "BudgetFilter", "CapFilter"),
+                Set.of("first-price", "second-price", "gsp"), true, dir.resolve("experiments.json").toString(), 0);
+        service.initialize();
+    }
+
+    @Test
+    void splitsTrafficByShareAndWeight() {
+        Map<String, Integer> counts = new HashMap<>();
+        int requests = 20_000;
+        for (int i = 0; i < requests; i++) {
+            ExperimentArm arm = service.assign(request("listener-" + i, "req-" + i));
+            counts.merge(arm == null ? "none" : arm.getExperiment() + "/" + arm.getName(), 1, Integer::sum);
+        }
+
+        assertEquals(0.10, counts.get("weights/control") / (double) requests, 0.02);
+        assertEquals(0.20, counts.get("weights/show-heavy") / (double) requests, 0.02);
+        assertEquals(0.20, counts.get("pricing/gsp") / (double) requests, 0.02);
+        assertEquals(0.5, service.config().traffic(), 1e-9);
+    }
+
+    @Test
+    void mixedUnitsEachGetTheirShareInEitherOrder() throws Exception {
+        Files.writeString(dir.resolve("experiments.json"), """
+                {"version": "t3", "salt": "s3", "experiments": [
+                  {"name": "pricing", "unit": "request", "traffic": 0.05, "arms": [
+                    {"name": "control"}, {"name": "gsp", "auctionStrategy": "gsp"}
+                  ]},
+                  {"name": "weights", "unit": "listener", "traffic": 0.10, "arms": [
+                    {"name": "control"}, {"name": "show-heavy", "scoringWeights": {"category": 0.5, "show": 0.5}}
+                  ]},
+                  {"name": "rotation", "unit": "request", "traffic": 0.05, "arms": [
+                    {"name": "off", "creativeRotation": false}
+                  ]}
+                ]}
+                """);
+        service.reload();
+
+        Map<String, Integer> counts = new HashMap<>();
+        Map<String, Set<String>> requestLevelByListener = new HashMap<>();
+        int requests = 200_000;
+        for (int i = 0; i < requests; i++) {
+            String listenerId = "listener-" + (i % 50_000);
+            ExperimentArm arm = service.assign(request(listenerId, "req-" + i));
+            counts.merge(arm == null ? "none" : arm.getExperiment(), 1, Integer::sum);
+            if (arm != null && !arm.getExperiment().equals("weights")) {
+                requestLevelByListener.computeIfAbsent(listenerId, id -> new HashSet<>()).add(arm.getExperiment());
+            }
+        }
+
+        assertEquals(0.05, counts.get("pricing") / (double) requests, 0.005);
+        assertEquals(0.10, counts.get("weights") / (double) requests, 0.01);
+        assertEquals(0.05, counts.get("rotation") / (double) requests, 0.005);
+        // Request-level experiments are split per request, not per listener
+        assertTrue(requestLevelByListener.values().stream().anyMatch(experiments -> experiments.size() == 2));
+    }
+
+    @Test
+    void listenerKeepsItsArmAcrossRequests() {
+        for (int i = 0; i < 200; i++) {
+            ExperimentArm first = service.assign(request("listener-" + i, "a"));
+            if (first != null && first.getExperiment().equals("weights")) {
+                assertSame(first, service.assign(request("listener-" + i, "b")));
+                assertSame(first, service.assign(request("listener-" + i, "c")));
+            }
+        }
+    }
+
+    @Test
+    void armCarriesItsOverrides() {
+        ExperimentArm showHeavy = findArm("weights", "show-heavy");
+        assertEquals(new ScoringWeights(0.5, 0.5), showHeavy.getScoringWeights());
+        assertNull(showHeavy.getAuctionStrategy());
+        assertFalse(showHeavy.modelScoring(true));
+        assertTrue(showHeavy.creativeRotation(true));
+
+        ExperimentArm gsp = findArm("pricing", "gsp");
+        assertEquals("gsp", gsp.getAuctionStrategy());
+        assertTrue(gsp.getScoringWeights().isDefault());
+        assertFalse(gsp.creativeRotation(true));
+    }
+
+    @Test
+    void filterOrderMovesNamedFiltersFirstAndIsBuiltOnce() {
+        List<Filter> chain = List.of(filter("GeoFilter"), filter("BudgetFilter"), filter("CapFilter"));
+        ExperimentArm showHeavy = findArm("weights", "show-heavy");
+
+        List<Filter> reordered = showHeavy.filterChain(chain);
+        assertEquals(List.of("BudgetFilter", "GeoFilter", "CapFilter"), reordered.stream().map(Filter::getName).toList());
+        assertSame(reordered, showHeavy.filterChain(chain));
+        assertSame(chain, findArm("weights", "control").filterChain(chain));
+    }
+
+    @Test
+    void armMetersArePreRegisteredAndRecordDecisions() {
+        assertEquals(0.0, meterRegistry.get("ad_experiment_decisions_total")
+                .tags("experiment", "pricing", "arm", "gsp", "outcome", "fill").counter().count());
+
+        ExperimentArm gsp = findArm("pricing", "gsp");
+        gsp.record(2_000_000, true, 0.012);
+        gsp.record(1_000_000, false, 0);
+
+        assertEquals(1.0, meterRegistry.get("ad_experiment_decisions_total")
+                .tags("experiment", "pricing", "arm", "gsp", "outcome", "fill").counter().count());
+        assertEquals(1.0, meterRegistry.get("ad_experiment_decisions_total")
+                .tags("experiment", "pricing", "arm", "gsp", "outcome", "no_fill").counter().count());
+        assertEquals(0.012, meterRegistry.get("ad_experiment_revenue_total")
+                .tags("experiment", "pricing", "arm", "gsp").counter().count(), 1e-12);
+        assertEquals(2, meterRegistry.get("ad_experiment_decision_latency_ms")
+                .tags("experiment", "pricing", "arm", "gsp").timer().count());
+    }
+
+    @Test
+    void assignmentDoesNotAllocate() {
+        AdRequest request = request("listener-42", "req-42");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 10_000; i++) {
+            service.assign(request); // warm up
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            service.assign(request);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        assertTrue(allocated < 10_000, "allocated " + allocated + " bytes");
+    }
+
+    @Test
+    void reloadSwapsConfigurationAndKeepsItOnFailure() throws Exception {
+        ExperimentConfig first = service.config();
+        Path file = dir.resolve("experiments.json");
+
+        Files.writeString(file, EXPERIMENTS.replace("\"gsp\", \"creativeRotation\"", "\"vickrey\", \"creativeRotation\""));
+        assertSame(first, service.reload());
+        Files.writeString(file, EXPERIMENTS.replace("0.3", "0.9"));
+        assertSame(first, service.reload()); // traffic over 1
+        Files.writeString(file, EXPERIMENTS.replace("[\"BudgetFilter\"]", "[\"NoSuchFilter\"]"));
+        assertSame(first, service.reload());
+
+        Files.writeString(file, "{\"version\": \"t2\", \"experiments\": []}");
+        ExperimentConfig second = service.reload();
+        assertEquals(2, second.getVersion());
+        assertEquals("t2", second.getSourceVersion());
+        assertNull(service.assign(request("listener-1", "req-1")));
+        assertEquals(3.0, meterRegistry.get("ad_experiment_reloads_total").tag("outcome", "failure").counter().count());
+    }
+
+    @Test
+    void brokenFileIsRetriedOnlyOnceItChangesAgain() throws Exception {
+        Path file = dir.resolve("experiments.json");
+        Files.writeString(file, EXPERIMENTS.replace("0.3", "0.9"));
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2024-01-15T12:01:00Z")));
+        service.reloadIfChanged();
+        service.reloadIfChanged();
+        service.reloadIfChanged();
+        assertEquals(1.0, meterRegistry.get("ad_experiment_reloads_total").tag("outcome", "failure").counter().count());
+
+        Files.writeString(file, "{\"version\": \"t2\", \"experiments\": []}");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2024-01-15T12:02:00Z")));
+        service.reloadIfChanged();
+        assertEquals("t2", service.config().getSourceVersion());
+    }
+
+    @Test
+    void disabledServiceAssignsNothing() {
+        ExperimentService disabled = new ExperimentService(new SimpleMeterRegistry(), Set.of(), Set.of("gsp"), false,
+                dir.resolve("experiments.json").toString(), 0);
+        disabled.initialize();
+
+        assertNull(disabled.assign(request("listener-1", "req-1")));
+        assertEquals(0, disabled.reload().getVersion());
+    }
+
+    @Test
+    void bundledExperimentsLoad() {
+        ExperimentService bundled = new ExperimentService(new SimpleMeterRegistry(), Set.of(),
+                Set.of("first-price", "second-price", "gsp"), true, "", 0);
+        bundled.initialize();
+
+        assertEquals(1, bundled.config().getVersion());
+        assertFalse(bundled.config().getExperiments().isEmpty());
+    }
+
+    private ExperimentArm findArm(String experiment, String name) {
+        for (int i = 0; i < 20_000; i++) {
+            ExperimentArm arm = service.assign(request("listener-" + i, "req-" + i));
+            if (arm != null && arm.getExperiment().equals(experiment) && arm.getName().equals(name)) {
+                return arm;
+            }
+        }
+        throw new AssertionError("no request assigned to " + experiment + "/" + name);
+    }
+
+    private static AdRequest request(String listenerId, String requestId) {
+        return TestDataBuilder.adRequest().listenerId(listenerId).requestId(requestId).build();
+    }
+
+    private static Filter filter(String name) {
+        return new Filter() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public FilterResult apply(AdRequest request, CandidateAd candidate, int randomSeed) {
+                return FilterResult.builder().passed(true).build();
+            }
+        };
+    }
+}
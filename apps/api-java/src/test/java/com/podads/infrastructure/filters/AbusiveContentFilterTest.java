@@ -4,9 +4,14 @@ import com.podads.domain.entities.AdRequest;
 import com.podads.domain.entities.CandidateAd;
 import com.podads.domain.valueobjects.FilterReasonCode;
 import com.podads.domain.valueobjects.FilterResult;
+import com.podads.infrastructure.brandsafety.BlocklistService;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -17,7 +22,7 @@ class AbusiveContentFilterTest {
     @BeforeEach
     void setUp() {
         meterRegistry = new SimpleMeterRegistry();
-        filter = new AbusiveContentFilter(meterRegistry);
+        filter = new AbusiveContentFilter(meterRegistry, new BlocklistService(meterRegistry));
     }
 
     @Test
@@ -120,4 +125,75 @@ class AbusiveContentFilterTest {
             "id", blockedCampaignId).count();
         assertEquals(1.0, count);
     }
+
+    @Test
+    void testReloadPublishesTakedownFromExternalFile(@TempDir Path dir) throws Exception {
+        // Given: A service watching an external blocklist file
+        Path file = dir.resolve("blocklist.json");
+        Files.writeString(file, "{\"version\":\"1\",\"sources\":{}}");
+        BlocklistService service = new BlocklistService(meterRegistry, file.toString(), 0);
+        AbusiveContentFilter watchingFilter = new AbusiveContentFilter(meterRegistry, service);
+        service.initialize();
+
+        AdRequest request = TestDataBuilder.adRequest().build();
+        CandidateAd candidate = TestDataBuilder.candidateAd().campaignId("camp-takedown").build();
+        assertTrue(watchingFilter.apply(request, candidate, 12345).getPassed());
+        long before = service.snapshot().getVersion();
+
+        // When: The file gains an entry and a reload is triggered
+        Files.writeString(file, "{\"version\":\"2\",\"sources\":{\"manual_curation\":"
+                + "{\"entries\":[{\"campaignId\":\"camp-takedown\"}]}}}");
+        service.reload();
+
+        // Then: The new version blocks the campaign
+        assertEquals(before + 1, service.snapshot().getVersion());
+        assertFalse(watchingFilter.apply(request, candidate, 12345).getPassed());
+    }
+
+    @Test
+    void testFailedReloadKeepsPreviousSnapshot(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("blocklist.json");
+        Files.writeString(file, "{\"version\":\"1\",\"sources\":{\"manual_curation\":"
+                + "{\"entries\":[{\"campaignId\":\"camp-takedown\"}]}}}");
+        BlocklistService service = new BlocklistService(meterRegistry, file.toString(), 0);
+        service.initialize();
+
+        Files.writeString(file, "{ not json");
+        service.reload();
+
+        assertEquals(1, service.snapshot().getVersion());
+        assertTrue(service.snapshot().isCampaignBlocked("camp-takedown"));
+    }
+
+    @Test
+    void testBlocksOnPhraseInCampaignNameOrAssetUrl(@TempDir Path dir) throws Exception {
+        // Given: A blocklist with phrases but no ids
+        Path file = dir.resolve("blocklist.json");
+        Files.writeString(file, "{\"version\":\"1\",\"sources\":{\"ml_keyword_match\":"
+                + "{\"phrases\":[\"get rich\",\"crypto scam\"],\"entries\":[]}}}");
+        BlocklistService service = new BlocklistService(meterRegistry, file.toString(), 0);
+        AbusiveContentFilter phraseFilter = new AbusiveContentFilter(meterRegistry, service);
+        service.initialize();
+        AdRequest request = TestDataBuilder.adRequest().build();
+
+        CandidateAd byName = TestDataBuilder.candidateAd()
+                .campaignId("camp-new-1")
+                .campaignName("Get Rich With Real Estate")
+                .build();
+        CandidateAd byUrl = TestDataBuilder.candidateAd()
+                .creativeId("creat-new-1")
+                .creativeAssetUrl("https://assets.podads.lab/crypto-scam-30s.mp3")
+                .build();
+        CandidateAd clean = TestDataBuilder.candidateAd()
+                .campaignName("Getting Richer Podcasts")
+                .build();
+
+        // Then: Name and URL matches are blocked; partial-word matches are not
+        FilterResult nameResult = phraseFilter.apply(request, byName, 12345);
+        assertFalse(nameResult.getPassed());
+        assertEquals(FilterReasonCode.BRAND_SAFETY_VIOLATION, nameResult.getReasonCode());
+        assertTrue(nameResult.getDetails().contains("get rich"));
+        assertFalse(phraseFilter.apply(request, byUrl, 12345).getPassed());
+        assertTrue(phraseFilter.apply(request, clean, 12345).getPassed());
+    }
 }
@@ -0,0 +1,99 @@
+package com.podads.infrastructure.filters;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.valueobjects.FilterReasonCode;
+import com.podads.domain.valueobjects.FilterResult;
+import com.podads.infrastructure.separation.CompetitiveSeparationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompetitiveSeparationFilterTest {
+
+    private CompetitiveSeparationService separationService;
+    private CompetitiveSeparationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        separationService = new CompetitiveSeparationService(new SimpleMeterRegistry(),
+                List.of("brand", "advertiser-category"), List.of("brand", "advertiser-category"), 30, 1_000_000);
+        filter = new CompetitiveSeparationFilter(separationService);
+    }
+
+    private static CandidateAd candidate(String campaignId, int brandId, int categoryId) {
+        CandidateAd candidate = TestDataBuilder.candidateAd().campaignId(campaignId).build();
+        candidate.setBrandId(brandId);
+        candidate.setAdvertiserCategoryId(categoryId);
+        return candidate;
+    }
+
+    @Test
+    void testGetName() {
+        assertEquals("CompetitiveSeparationFilter", filter.getName());
+    }
+
+    @Test
+    void testPassesWhenListenerHasNoHistory() {
+        AdRequest request = TestDataBuilder.adRequest().listenerId("listener-1").build();
+
+        FilterResult result = filter.apply(request, candidate("camp-001", 1, 1), 12345);
+
+        assertTrue(result.getPassed());
+    }
+
+    @Test
+    void testFailsForSameBrandInSession() {
+        Instant now = Instant.now();
+        AdRequest request = TestDataBuilder.adRequest().listenerId("listener-1").timestamp(now).build();
+        separationService.recordServed("listener-1", candidate("camp-001", 1, 1), now.minusSeconds(60));
+
+        FilterResult result = filter.apply(request, candidate("camp-002", 1, 2), 12345);
+
+        assertFalse(result.getPassed());
+        assertEquals(FilterReasonCode.COMPETITIVE_SEPARATION, result.getReasonCode());
+        assertEquals("brand", result.getMetadata().get("rule"));
+    }
+
+    @Test
+    void testFailsForCompetitorInSameCategory() {
+        Instant now = Instant.now();
+        AdRequest request = TestDataBuilder.adRequest().listenerId("listener-1").timestamp(now).build();
+        separationService.recordServed("listener-1", candidate("camp-001", 1, 7), now.minusSeconds(60));
+
+        FilterResult result = filter.apply(request, candidate("camp-002", 2, 7), 12345);
+
+        assertFalse(result.getPassed());
+        assertEquals("advertiser-category", result.getMetadata().get("rule"));
+    }
+
+    @Test
+    void testPassesAfterSessionWindow() {
+        Instant now = Instant.now();
+        AdRequest request = TestDataBuilder.adRequest().listenerId("listener-1").timestamp(now).build();
+        separationService.recordServed("listener-1", candidate("camp-001", 1, 7), now.minusSeconds(31 * 60));
+
+        FilterResult result = filter.apply(request, candidate("camp-002", 1, 7), 12345);
+
+        assertTrue(result.getPassed());
+    }
+
+    @Test
+    void testPassesForOtherListenersAndUnknownIds() {
+        Instant now = Instant.now();
+        separationService.recordServed("listener-1", candidate("camp-001", 1, 7), now);
+
+        AdRequest other = TestDataBuilder.adRequest().listenerId("listener-2").timestamp(now).build();
+        AdRequest anonymous = TestDataBuilder.adRequest().listenerId(null).timestamp(now).build();
+        AdRequest same = TestDataBuilder.adRequest().listenerId("listener-1").timestamp(now).build();
+
+        assertTrue(filter.apply(other, candidate("camp-002", 1, 7), 12345).getPassed());
+        assertTrue(filter.apply(anonymous, candidate("camp-002", 1, 7), 12345).getPassed());
+        assertTrue(filter.apply(same, candidate("camp-002", -1, -1), 12345).getPassed(), "built outside the catalog");
+    }
+}
@@ -0,0 +1,123 @@
+package com.podads.infrastructure.filters;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.valueobjects.FilterReasonCode;
+import com.podads.domain.valueobjects.FilterResult;
+import com.podads.domain.valueobjects.TimeOfDay;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DaypartingFilterTest {
+
+    // Monday 2024-01-15
+    private static final Instant MONDAY_1430_UTC = Instant.parse("2024-01-15T14:30:00Z");
+
+    private DaypartingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new DaypartingFilter();
+    }
+
+    @Test
+    void testGetName() {
+        assertEquals("DaypartingFilter", filter.getName());
+    }
+
+    @Test
+    void testPassesWhenNoDayparting() {
+        AdRequest request = TestDataBuilder.adRequest().timestamp(MONDAY_1430_UTC).build();
+        CandidateAd candidate = TestDataBuilder.candidateAd().build();
+
+        FilterResult result = filter.apply(request, candidate, 12345);
+
+        assertTrue(result.getPassed());
+    }
+
+    @Test
+    void testHourWindowsUseListenerTimezone() {
+        CandidateAd weekdayMornings = TestDataBuilder.candidateAd()
+                .targetHours(List.of("mon-fri 06-10"))
+                .build();
+
+        // 14:30 UTC = 09:30 in New York, 14:30 in London
+        AdRequest newYork = TestDataBuilder.adRequest()
+                .timestamp(MONDAY_1430_UTC)
+                .timezone("America/New_York")
+                .build();
+        AdRequest london = TestDataBuilder.adRequest()
+                .timestamp(MONDAY_1430_UTC)
+                .timezone("Europe/London")
+                .build();
+
+        assertTrue(filter.apply(newYork, weekdayMornings, 12345).getPassed());
+        FilterResult result = filter.apply(london, weekdayMornings, 12345);
+        assertFalse(result.getPassed());
+        assertEquals(FilterReasonCode.OUTSIDE_DAYPART, result.getReasonCode());
+    }
+
+    @Test
+    void testWindowWrapsPastMidnightIntoNextDay() {
+        CandidateAd lateSaturday = TestDataBuilder.candidateAd()
+                .targetHours(List.of("sat 22-02"))
+                .build();
+
+        AdRequest sundayEarly = TestDataBuilder.adRequest()
+                .timestamp(Instant.parse("2024-01-21T01:15:00Z"))
+                .timezone("UTC")
+                .build();
+        AdRequest sundayLater = TestDataBuilder.adRequest()
+                .timestamp(Instant.parse("2024-01-21T02:15:00Z"))
+                .timezone("UTC")
+                .build();
+
+        assertTrue(filter.apply(sundayEarly, lateSaturday, 12345).getPassed());
+        assertFalse(filter.apply(sundayLater, lateSaturday, 12345).getPassed());
+    }
+
+    @Test
+    void testReportedTimeOfDayUsedWithoutTimezone() {
+        CandidateAd eveningsOnly = TestDataBuilder.candidateAd()
+                .targetTimeOfDay(List.of(TimeOfDay.EVENING))
+                .build();
+
+        // No timezone: UTC says afternoon, but the listener reports evening
+        AdRequest eveningListener = TestDataBuilder.adRequest()
+                .timestamp(MONDAY_1430_UTC)
+                .timeOfDay(TimeOfDay.EVENING)
+                .build();
+        AdRequest afternoonListener = TestDataBuilder.adRequest()
+                .timestamp(MONDAY_1430_UTC)
+                .timeOfDay(TimeOfDay.AFTERNOON)
+                .build();
+
+        assertTrue(filter.apply(eveningListener, eveningsOnly, 12345).getPassed());
+        assertFalse(filter.apply(afternoonListener, eveningsOnly, 12345).getPassed());
+    }
+
+    @Test
+    void testBucketsAndWindowsMustBothHold() {
+        CandidateAd weekendMornings = TestDataBuilder.candidateAd()
+                .targetTimeOfDay(List.of(TimeOfDay.MORNING))
+                .targetHours(List.of("weekends 00-24"))
+                .build();
+
+        AdRequest saturdayMorning = TestDataBuilder.adRequest()
+                .timestamp(Instant.parse("2024-01-20T08:00:00Z"))
+                .timezone("UTC")
+                .build();
+        AdRequest mondayMorning = TestDataBuilder.adRequest()
+                .timestamp(Instant.parse("2024-01-15T08:00:00Z"))
+                .timezone("UTC")
+                .build();
+
+        assertTrue(filter.apply(saturdayMorning, weekendMornings, 12345).getPassed());
+        assertFalse(filter.apply(mondayMorning, weekendMornings, 12345).getPassed());
+    }
+}
@@ -98,4 +98,38 @@ class DeviceTargetingFilterTest {
 
         assertTrue(result.getPassed());
     }
+
+    @Test
+    void testUnknownDeviceMatchesOnlyUntargetedCampaigns() {
+        AdRequest request = TestDataBuilder.adRequest()
+                .device(null)
+                .build();
+        CandidateAd untargeted = TestDataBuilder.candidateAd()
+                .targetDevices(null)
+                .build();
+        CandidateAd targeted = TestDataBuilder.candidateAd()
+                .targetDevices(List.of(DeviceType.MOBILE, DeviceType.DESKTOP, DeviceType.SMART_SPEAKER))
+                .build();
+
+        assertTrue(filter.apply(request, untargeted, 12345).getPassed());
+        assertFalse(filter.apply(request, targeted, 12345).getPassed());
+    }
+
+    @Test
+    void testSeesCampaignReplacedAfterMasksWereCompiled() {
+        AdRequest request = TestDataBuilder.adRequest()
+                .device(DeviceType.MOBILE)
+                .build();
+        CandidateAd candidate = TestDataBuilder.candidateAd()
+                .targetDevices(List.of(DeviceType.MOBILE))
+                .build();
+        assertTrue(filter.apply(request, candidate, 12345).getPassed());
+
+        candidate.setCampaign(TestDataBuilder.candidateAd()
+                .targetDevices(List.of(DeviceType.DESKTOP))
+                .build()
+                .getCampaign());
+
+        assertFalse(filter.apply(request, candidate, 12345).getPassed());
+    }
 }
@@ -0,0 +1,82 @@
+package com.podads.infrastructure.filters;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.valueobjects.FilterReasonCode;
+import com.podads.domain.valueobjects.FilterResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DurationFilterTest {
+
+    private DurationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new DurationFilter();
+    }
+
+    @Test
+    void testGetName() {
+        assertEquals("DurationFilter", filter.getName());
+    }
+
+    @Test
+    void testPassesWhenSlotHasNoDurationLimits() {
+        AdRequest request = TestDataBuilder.adRequest().build();
+        CandidateAd candidate = TestDataBuilder.candidateAd()
+                .creativeDuration(60)
+                .build();
+
+        FilterResult result = filter.apply(request, candidate, 12345);
+
+        assertTrue(result.getPassed());
+    }
+
+    @Test
+    void testPassesWhenCreativeFitsPod() {
+        AdRequest request = TestDataBuilder.adRequest()
+                .pod(3, 90)
+                .minAdDurationSeconds(15)
+                .build();
+        CandidateAd candidate = TestDataBuilder.candidateAd()
+                .creativeDuration(90)
+                .build();
+
+        FilterResult result = filter.apply(request, candidate, 12345);
+
+        assertTrue(result.getPassed());
+    }
+
+    @Test
+    void testFailsWhenCreativeLongerThanPod() {
+        AdRequest request = TestDataBuilder.adRequest()
+                .pod(2, 45)
+                .build();
+        CandidateAd candidate = TestDataBuilder.candidateAd()
+                .creativeDuration(60)
+                .build();
+
+        FilterResult result = filter.apply(request, candidate, 12345);
+
+        assertFalse(result.getPassed());
+        assertEquals(FilterReasonCode.DURATION_TOO_LONG, result.getReasonCode());
+    }
+
+    @Test
+    void testFailsWhenCreativeShorterThanMinimum() {
+        AdRequest request = TestDataBuilder.adRequest()
+                .minAdDurationSeconds(45)
+                .build();
+        CandidateAd candidate = TestDataBuilder.candidateAd()
+                .creativeDuration(30)
+                .build();
+
+        FilterResult result = filter.apply(request, candidate, 12345);
+
+        assertFalse(result.getPassed());
+        assertEquals(FilterReasonCode.DURATION_TOO_SHORT, result.getReasonCode());
+    }
+}
@@ -0,0 +1,92 @@
+package com.podads.infrastructure.filters;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.valueobjects.FilterReasonCode;
+import com.podads.domain.valueobjects.FilterResult;
+import com.podads.infrastructure.brandsafety.ExternalBrandSafetyStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalBrandSafetyFilterTest {
+    private SimpleMeterRegistry meterRegistry;
+    private ExternalBrandSafetyStore store;
+    private ExternalBrandSafetyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new ExternalBrandSafetyStore(meterRegistry, 0);
+        filter = new ExternalBrandSafetyFilter(store);
+    }
+
+    @Test
+    void testGetName() {
+        assertEquals("ExternalBrandSafetyFilter", filter.getName());
+    }
+
+    @Test
+    void testLooksUpByCreativeId() {
+        AdRequest request = TestDataBuilder.adRequest().build();
+        CandidateAd candidate = TestDataBuilder.candidateAd().creativeId("creat-042").build();
+
+        assertEquals("creat-042", filter.lookupKey(request, candidate));
+        assertSame(store, filter.getStore());
+    }
+
+    @Test
+    void testPassesWhenVendorHasNoVerdict() {
+        AdRequest request = TestDataBuilder.adRequest().build();
+        CandidateAd candidate = TestDataBuilder.candidateAd().build();
+
+        FilterResult result = filter.apply(request, candidate, null, 12345);
+
+        assertTrue(result.getPassed());
+        assertNull(result.getReasonCode());
+    }
+
+    @Test
+    void testFailsWhenVendorFlaggedCreative() {
+        AdRequest request = TestDataBuilder.adRequest().build();
+        CandidateAd candidate = TestDataBuilder.candidateAd().build();
+
+        FilterResult result = filter.apply(request, candidate, "violence", 12345);
+
+        assertFalse(result.getPassed());
+        assertEquals(FilterReasonCode.BRAND_SAFETY_VIOLATION, result.getReasonCode());
+        assertTrue(result.getDetails().contains("violence"));
+    }
+
+    @Test
+    void testStoreAnswersWholeBatchInOneRoundTrip() {
+        store.put("creat-002", "violence");
+        store.put("creat-003", "hate_speech");
+
+        Map<String, String> verdicts = store.lookupAll(Set.of("creat-001", "creat-002", "creat-003")).join();
+
+        assertEquals(Map.of("creat-002", "violence", "creat-003", "hate_speech"), verdicts);
+        assertEquals(1.0, meterRegistry.get("ad_lookup_batches_total").counter().count());
+        assertEquals(3.0, meterRegistry.get("ad_lookup_batch_keys").summary().totalAmount());
+    }
+
+    @Test
+    void testSimulatedLatencyDoesNotBlockCaller() {
+        ExternalBrandSafetyStore slowStore = new ExternalBrandSafetyStore(meterRegistry, 50);
+        slowStore.put("creat-001", "violence");
+
+        long start = System.nanoTime();
+        CompletableFuture<Map<String, String>> pending = slowStore.lookupAll(Set.of("creat-001"));
+        long issueMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(issueMillis < 50, "lookupAll should return before the simulated round trip");
+        assertEquals("violence", pending.join().get("creat-001"));
+        assertTrue((System.nanoTime() - start) / 1_000_000 >= 50);
+    }
+}
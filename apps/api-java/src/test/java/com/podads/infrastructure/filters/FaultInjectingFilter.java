@@ -0,0 +1,103 @@
+package com.podads.infrastructure.filters;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.services.AsyncFilter;
+import com.podads.domain.services.BatchLookupStore;
+import com.podads.domain.services.RemoteFilter;
+import com.podads.domain.valueobjects.FilterResult;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stand-in filter for exercising {@link FilterGuard}: its backing store can be made slow or broken,
+ * and its synchronous form can be made to throw. Passes every candidate when healthy.
+ */
+class FaultInjectingFilter implements RemoteFilter, AsyncFilter<String, String> {
+    private final String name;
+    private final Store store = new Store();
+    private final AtomicInteger keyLookups = new AtomicInteger();
+    private volatile boolean throwOnApply;
+
+    FaultInjectingFilter(String name) {
+        this.name = name;
+    }
+
+    FaultInjectingFilter withLatency(long millis) {
+        store.latencyMillis = millis;
+        return this;
+    }
+
+    FaultInjectingFilter failingLookups(boolean failing) {
+        store.failing = failing;
+        return this;
+    }
+
+    FaultInjectingFilter throwingOnApply(boolean throwing) {
+        this.throwOnApply = throwing;
+        return this;
+    }
+
+    int lookupCount() {
+        return store.lookups.get();
+    }
+
+    int lookupKeyCount() {
+        return keyLookups.get();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public FilterResult apply(AdRequest request, CandidateAd candidate, int randomSeed) {
+        if (throwOnApply) {
+            throw new IllegalStateException("injected failure");
+        }
+        return FilterResult.builder().passed(true).build();
+    }
+
+    @Override
+    public BatchLookupStore<String, String> getStore() {
+        return store;
+    }
+
+    @Override
+    public String lookupKey(AdRequest request, CandidateAd candidate) {
+        keyLookups.incrementAndGet();
+        return candidate.getCampaign().getId();
+    }
+
+    @Override
+    public FilterResult apply(AdRequest request, CandidateAd candidate, String value, int randomSeed) {
+        return apply(request, candidate, randomSeed);
+    }
+
+    private final class Store implements BatchLookupStore<String, String> {
+        private final AtomicInteger lookups = new AtomicInteger();
+        private volatile long latencyMillis;
+        private volatile boolean failing;
+
+        @Override
+        public String getName() {
+            return name + "_store";
+        }
+
+        @Override
+        public CompletableFuture<Map<String, String>> lookupAll(Set<String> keys) {
+            lookups.incrementAndGet();
+            if (failing) {
+                return CompletableFuture.failedFuture(new IllegalStateException("injected store failure"));
+            }
+            return CompletableFuture.supplyAsync(HashMap::new,
+                    CompletableFuture.delayedExecutor(latencyMillis, TimeUnit.MILLISECONDS));
+        }
+    }
+}
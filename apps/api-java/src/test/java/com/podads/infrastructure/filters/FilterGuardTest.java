@@ -0,0 +1,218 @@
+package com.podads.infrastructure.filters;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.services.AsyncFilter;
+import com.podads.domain.services.Filter;
+import com.podads.domain.valueobjects.FilterReasonCode;
+import com.podads.domain.valueobjects.FilterResult;
+import com.podads.infrastructure.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilterGuardTest {
+    private SimpleMeterRegistry meterRegistry;
+    private MockEnvironment environment;
+    private AdRequest request;
+    private CandidateAd candidate;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        environment = new MockEnvironment()
+                .withProperty("podads.filters.default.budget-ms", "20")
+                .withProperty("podads.filters.circuit.failure-threshold", "3")
+                .withProperty("podads.filters.circuit.open-millis", "60000");
+        request = TestDataBuilder.adRequest().build();
+        candidate = TestDataBuilder.candidateAd().build();
+    }
+
+    private FilterGuard guard() {
+        return new FilterGuard(meterRegistry, environment);
+    }
+
+    private FilterResult applyAsync(FilterGuard guard, FaultInjectingFilter filter) {
+        List<AsyncFilter<?, ?>> filters = List.of(filter);
+        FilterGuard.AsyncLookups lookups = guard.lookup(filters, request, List.of(candidate));
+        return guard.apply(filter, lookups, request, candidate, 12345);
+    }
+
+    @Test
+    void testHealthyFilterPassesThrough() {
+        FilterGuard guard = guard();
+        FaultInjectingFilter filter = new FaultInjectingFilter("Healthy");
+
+        assertTrue(guard.apply(filter, request, candidate, 12345).getPassed());
+        assertTrue(applyAsync(guard, filter).getPassed());
+        assertEquals(CircuitBreaker.State.CLOSED, guard.breakerState("Healthy"));
+    }
+
+    @Test
+    void testLookupKeyIsDerivedOncePerCandidate() {
+        FilterGuard guard = guard();
+        FaultInjectingFilter filter = new FaultInjectingFilter("Keyed");
+        List<CandidateAd> candidates = List.of(
+                TestDataBuilder.candidateAd().campaignId("camp-a").build(),
+                TestDataBuilder.candidateAd().campaignId("camp-b").build(),
+                TestDataBuilder.candidateAd().campaignId("camp-c").build());
+
+        FilterGuard.AsyncLookups lookups = guard.lookup(List.of(filter), request, candidates);
+        for (CandidateAd each : candidates) {
+            assertTrue(guard.apply(filter, lookups, request, each, 12345).getPassed());
+        }
+
+        assertEquals(3, filter.lookupKeyCount());
+        assertEquals(1, filter.lookupCount());
+    }
+
+    @Test
+    void testSlowLookupIsAbandonedAtBudget() {
+        FilterGuard guard = guard();
+        FaultInjectingFilter filter = new FaultInjectingFilter("Slow").withLatency(2_000);
+
+        long start = System.nanoTime();
+        FilterResult result = applyAsync(guard, filter);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < 1_000, "decision should not wait for the slow store: " + elapsedMillis + "ms");
+        assertFalse(result.getPassed());
+        assertEquals(FilterReasonCode.FILTER_UNAVAILABLE, result.getReasonCode());
+        assertTrue(result.getDetails().contains("20ms budget"));
+        assertEquals(1.0, meterRegistry.get("ad_filter_timeouts_total").tag("filter_name", "Slow").counter().count());
+    }
+
+    @Test
+    void testFailOpenPolicyPassesWhenUnavailable() {
+        environment.setProperty("podads.filters.Flaky.fail-open", "true");
+        FilterGuard guard = guard();
+        FaultInjectingFilter filter = new FaultInjectingFilter("Flaky").failingLookups(true);
+
+        FilterResult result = applyAsync(guard, filter);
+
+        assertTrue(result.getPassed());
+        assertTrue(result.getDetails().contains("failing open"));
+    }
+
+    @Test
+    void testBreakerOpensAfterRepeatedErrorsAndStopsCallingStore() {
+        FilterGuard guard = guard();
+        FaultInjectingFilter filter = new FaultInjectingFilter("Broken").failingLookups(true);
+
+        for (int i = 0; i < 3; i++) {
+            applyAsync(guard, filter);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, guard.breakerState("Broken"));
+        assertEquals("open", guard.breakerStates().get("Broken"));
+        assertEquals(2.0, meterRegistry.get("ad_filter_circuit_state").tag("filter_name", "Broken").gauge().value());
+
+        FilterResult result = applyAsync(guard, filter);
+
+        assertEquals(3, filter.lookupCount(), "open breaker should skip the store");
+        assertFalse(result.getPassed());
+        assertTrue(result.getDetails().contains("circuit breaker open"));
+    }
+
+    @Test
+    void testThrowingSyncFilterTripsBreaker() {
+        FilterGuard guard = guard();
+        FaultInjectingFilter filter = new FaultInjectingFilter("Throwing").throwingOnApply(true);
+
+        FilterResult result = guard.apply(filter, request, candidate, 12345);
+        assertFalse(result.getPassed());
+        assertEquals(FilterReasonCode.FILTER_UNAVAILABLE, result.getReasonCode());
+
+        guard.apply(filter, request, candidate, 12345);
+        guard.apply(filter, request, candidate, 12345);
+        assertEquals(CircuitBreaker.State.OPEN, guard.breakerState("Throwing"));
+    }
+
+    @Test
+    void testThrowingInMemoryFilterOnlyDropsTheBadCandidate() {
+        FilterGuard guard = guard();
+        CandidateAd bad = TestDataBuilder.candidateAd().campaignId("camp-bad").build();
+        Filter inMemory = new Filter() {
+            @Override
+            public String getName() {
+                return "InMemory";
+            }
+
+            @Override
+            public FilterResult apply(AdRequest request, CandidateAd candidate, int randomSeed) {
+                if (candidate.getCampaign().getId().equals("camp-bad")) {
+                    throw new IllegalStateException("malformed targeting");
+                }
+                return FilterResult.builder().passed(true).build();
+            }
+        };
+
+        for (int i = 0; i < 10; i++) {
+            FilterResult result = guard.apply(inMemory, request, bad, 12345);
+            assertFalse(result.getPassed());
+            assertEquals(FilterReasonCode.FILTER_UNAVAILABLE, result.getReasonCode());
+        }
+
+        assertTrue(guard.apply(inMemory, request, candidate, 12345).getPassed());
+        assertFalse(guard.breakerStates().containsKey("InMemory"));
+        assertTrue(meterRegistry.find("ad_filter_circuit_state").tag("filter_name", "InMemory").gauges().isEmpty());
+        assertEquals(10.0, meterRegistry.get("ad_filter_errors_total").tag("filter_name", "InMemory").counter().count());
+    }
+
+    @Test
+    void testHalfOpenTrialClosesBreakerOnRecovery() {
+        environment.setProperty("podads.filters.circuit.open-millis", "0");
+        FilterGuard guard = guard();
+        FaultInjectingFilter filter = new FaultInjectingFilter("Recovering").throwingOnApply(true);
+        for (int i = 0; i < 3; i++) {
+            guard.apply(filter, request, candidate, 12345);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, guard.breakerState("Recovering"));
+
+        filter.throwingOnApply(false);
+        assertTrue(guard.apply(filter, request, candidate, 12345).getPassed());
+        assertEquals(CircuitBreaker.State.CLOSED, guard.breakerState("Recovering"));
+    }
+
+    @Test
+    void testInterruptedHalfOpenTrialReleasesTheBreaker() {
+        environment.setProperty("podads.filters.circuit.open-millis", "0");
+        FilterGuard guard = guard();
+        FaultInjectingFilter filter = new FaultInjectingFilter("Interrupted").failingLookups(true);
+        for (int i = 0; i < 3; i++) {
+            applyAsync(guard, filter);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, guard.breakerState("Interrupted"));
+
+        // The half-open trial is admitted, then the decision thread is interrupted while waiting on it
+        filter.failingLookups(false).withLatency(2_000);
+        Thread.currentThread().interrupt();
+        try {
+            assertFalse(applyAsync(guard, filter).getPassed());
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, guard.breakerState("Interrupted"));
+
+        filter.withLatency(0);
+        assertTrue(applyAsync(guard, filter).getPassed());
+        assertEquals(CircuitBreaker.State.CLOSED, guard.breakerState("Interrupted"));
+    }
+
+    @Test
+    void testLateSuccessDoesNotCloseAnOpenBreaker() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 60_000);
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire()); // two calls admitted while closed
+
+        breaker.recordFailure();
+        breaker.recordSuccess(); // the slower call finishes after the breaker tripped
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+}
@@ -0,0 +1,140 @@
+package com.podads.infrastructure.filters;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.valueobjects.FilterReasonCode;
+import com.podads.domain.valueobjects.FilterResult;
+import com.podads.domain.valueobjects.PodcastCategory;
+import com.podads.domain.valueobjects.SlotType;
+import com.podads.domain.valueobjects.TierType;
+import com.podads.infrastructure.floors.FloorPriceService;
+import com.podads.infrastructure.floors.FloorPriceTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FloorPriceFilterTest {
+
+    private static final String FLOORS = """
+            {"version": "t1", "floors": [
+              {"floorCpm": 500},
+              {"slotType": "mid-roll", "tier": "premium", "floorCpm": 800},
+              {"category": "news", "slotType": "mid-roll", "tier": "premium", "floorCpm": 900},
+              {"geo": "GB", "floorCpm": 300},
+              {"geo": "GB", "category": "news", "slotType": "mid-roll", "tier": "premium", "floorCpm": 700}
+            ]}
+            """;
+
+    @TempDir
+    Path dir;
+
+    private SimpleMeterRegistry meterRegistry;
+    private FloorPriceService service;
+    private FloorPriceFilter filter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path file = dir.resolve("floors.json");
+        Files.writeString(file, FLOORS);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new FloorPriceService(meterRegistry, file.toString(), 0);
+        service.initialize();
+        filter = new FloorPriceFilter(service);
+    }
+
+    @Test
+    void testGetName() {
+        assertEquals("FloorPriceFilter", filter.getName());
+    }
+
+    @Test
+    void testMostSpecificRuleSetsTheFloor() {
+        FloorPriceTable table = service.table();
+
+        assertEquals(500, table.floorCpm(request("US", PodcastCategory.TECH, SlotType.PRE_ROLL, TierType.FREE)));
+        assertEquals(800, table.floorCpm(request("US", PodcastCategory.TECH, SlotType.MID_ROLL, TierType.PREMIUM)));
+        assertEquals(900, table.floorCpm(request("US-CA-807", PodcastCategory.NEWS, SlotType.MID_ROLL, TierType.PREMIUM)));
+        // A country rule beats the global default, but not a more specific global rule
+        assertEquals(300, table.floorCpm(request("GB", PodcastCategory.TECH, SlotType.PRE_ROLL, TierType.FREE)));
+        assertEquals(800, table.floorCpm(request("GB", PodcastCategory.TECH, SlotType.MID_ROLL, TierType.PREMIUM)));
+        assertEquals(700, table.floorCpm(request("GB-LND", PodcastCategory.NEWS, SlotType.MID_ROLL, TierType.PREMIUM)));
+    }
+
+    @Test
+    void testDropsBidBelowFloorAndCountsItPerRule() {
+        AdRequest request = request("US", PodcastCategory.NEWS, SlotType.MID_ROLL, TierType.PREMIUM);
+        CandidateAd candidate = TestDataBuilder.candidateAd().bidCpm(850).build();
+
+        FilterResult result = filter.apply(request, candidate, 12345);
+
+        assertFalse(result.getPassed());
+        assertEquals(FilterReasonCode.BELOW_FLOOR_PRICE, result.getReasonCode());
+        assertTrue(result.getDetails().contains("*/news/mid-roll/premium"));
+        assertEquals(1.0, meterRegistry.get("ad_floor_drops_total")
+                .tag("floor", "*/news/mid-roll/premium").functionCounter().count());
+    }
+
+    @Test
+    void testPassesBidAtOrAboveFloor() {
+        AdRequest request = request("US", PodcastCategory.NEWS, SlotType.MID_ROLL, TierType.PREMIUM);
+
+        assertTrue(filter.apply(request, TestDataBuilder.candidateAd().bidCpm(900).build(), 12345).getPassed());
+        assertTrue(filter.apply(request, TestDataBuilder.candidateAd().bidCpm(1200).build(), 12345).getPassed());
+    }
+
+    @Test
+    void testGuaranteedCampaignPassesBelowFloor() {
+        AdRequest request = request("US", PodcastCategory.NEWS, SlotType.MID_ROLL, TierType.PREMIUM);
+        CandidateAd candidate = TestDataBuilder.candidateAd().bidCpm(100).guarantee(1000).build();
+
+        assertTrue(filter.apply(request, candidate, 12345).getPassed());
+    }
+
+    @Test
+    void testReloadSwapsTableAndKeepsItOnFailure() throws Exception {
+        FloorPriceTable first = service.table();
+        AdRequest request = request("US", PodcastCategory.TECH, SlotType.PRE_ROLL, TierType.FREE);
+        filter.apply(request, TestDataBuilder.candidateAd().bidCpm(400).build(), 12345);
+
+        Files.writeString(dir.resolve("floors.json"), "{\"floors\": [{\"category\": \"knitting\", \"floorCpm\": 1}]}");
+        assertSame(first, service.reload());
+        Files.writeString(dir.resolve("floors.json"), "{\"floors\": [{\"floorCpm\": -5}]}");
+        assertSame(first, service.reload());
+
+        Files.writeString(dir.resolve("floors.json"), "{\"version\": \"t2\", \"floors\": [{\"floorCpm\": 350}]}");
+        FloorPriceTable second = service.reload();
+        assertEquals(2, second.getVersion());
+        assertEquals("t2", second.getSourceVersion());
+        assertEquals(350, second.floorCpm(request));
+        assertTrue(filter.apply(request, TestDataBuilder.candidateAd().bidCpm(400).build(), 12345).getPassed());
+
+        // The default rule keeps its counter across the reload
+        filter.apply(request, TestDataBuilder.candidateAd().bidCpm(300).build(), 12345);
+        assertEquals(2.0, meterRegistry.get("ad_floor_drops_total").tag("floor", "*/*/*/*").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("ad_floor_reloads_total").tag("outcome", "failure").counter().count());
+    }
+
+    @Test
+    void testBundledFloorsLoad() {
+        FloorPriceService bundled = new FloorPriceService(new SimpleMeterRegistry());
+        bundled.initialize();
+
+        assertTrue(bundled.table().ruleCount() > 0);
+        assertTrue(bundled.table().floorCpm(request("US", PodcastCategory.TECH, SlotType.MID_ROLL, TierType.PREMIUM)) > 0);
+    }
+
+    private static AdRequest request(String geo, PodcastCategory category, SlotType slotType, TierType tier) {
+        return TestDataBuilder.adRequest()
+                .geo(geo)
+                .category(category)
+                .slotType(slotType)
+                .tier(tier)
+                .build();
+    }
+}
@@ -2,20 +2,28 @@ package com.podads.infrastructure.filters;
 
 import com.podads.domain.entities.AdRequest;
 import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.entities.FrequencyCap;
 import com.podads.domain.valueobjects.FilterReasonCode;
 import com.podads.domain.valueobjects.FilterResult;
+import com.podads.infrastructure.frequency.FrequencyCapService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Instant;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class FrequencyCapFilterTest {
 
     private FrequencyCapFilter filter;
+    private FrequencyCapService frequencyCapService;
 
     @BeforeEach
     void setUp() {
-        filter = new FrequencyCapFilter();
+        // Small sketch keeps the test fast; error bound is irrelevant for a handful of listeners
+        frequencyCapService = new FrequencyCapService(new SimpleMeterRegistry(), "exact", 2, 100_000, 0.01, 360, 5);
+        filter = new FrequencyCapFilter(frequencyCapService);
     }
 
     @Test
@@ -80,4 +88,67 @@ class FrequencyCapFilterTest {
         }
         // Note: Probabilistic test - with 1% chance over 1000 seeds, should find at least one
     }
+
+    @Test
+    void testExactBackendCapsListenerAfterMaxImpressions() {
+        Instant now = Instant.parse("2024-01-15T10:30:00Z");
+        AdRequest request = TestDataBuilder.adRequest()
+                .listenerId("listener-1")
+                .timestamp(now)
+                .build();
+        CandidateAd candidate = TestDataBuilder.candidateAd()
+                .frequencyCapMaxImpressions(2)
+                .frequencyCapWindowHours(1)
+                .build();
+
+        frequencyCapService.recordImpression("listener-1", candidate.getCampaign(), now.minusSeconds(600));
+        assertTrue(filter.apply(request, candidate, 12345).getPassed());
+
+        frequencyCapService.recordImpression("listener-1", candidate.getCampaign(), now.minusSeconds(300));
+        FilterResult result = filter.apply(request, candidate, 12345);
+
+        assertFalse(result.getPassed());
+        assertEquals(FilterReasonCode.FREQUENCY_CAP_EXCEEDED, result.getReasonCode());
+        assertEquals("exact", result.getMetadata().get("backend"));
+    }
+
+    @Test
+    void testExactBackendForgetsImpressionsOutsideWindow() {
+        Instant now = Instant.parse("2024-01-15T10:30:00Z");
+        AdRequest request = TestDataBuilder.adRequest()
+                .listenerId("listener-1")
+                .timestamp(now)
+                .build();
+        CandidateAd candidate = TestDataBuilder.candidateAd()
+                .frequencyCapMaxImpressions(1)
+                .frequencyCapWindowHours(1)
+                .build();
+
+        frequencyCapService.recordImpression("listener-1", candidate.getCampaign(), now.minusSeconds(2 * 3600));
+
+        assertTrue(filter.apply(request, candidate, 12345).getPassed());
+    }
+
+    @Test
+    void testSketchBackendCapsPerListener() {
+        Instant now = Instant.parse("2024-01-15T10:30:00Z");
+        CandidateAd candidate = TestDataBuilder.candidateAd()
+                .frequencyCapMaxImpressions(3)
+                .frequencyCapWindowHours(24)
+                .frequencyCapBackend(FrequencyCap.Backend.SKETCH)
+                .build();
+
+        for (int i = 0; i < 3; i++) {
+            frequencyCapService.recordImpression("listener-1", candidate.getCampaign(), now.minusSeconds(3600L * i));
+        }
+
+        FilterResult capped = filter.apply(
+                TestDataBuilder.adRequest().listenerId("listener-1").timestamp(now).build(), candidate, 12345);
+        FilterResult other = filter.apply(
+                TestDataBuilder.adRequest().listenerId("listener-2").timestamp(now).build(), candidate, 12345);
+
+        assertFalse(capped.getPassed());
+        assertEquals("sketch", capped.getMetadata().get("backend"));
+        assertTrue(other.getPassed());
+    }
 }
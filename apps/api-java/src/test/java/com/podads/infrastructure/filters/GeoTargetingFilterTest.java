@@ -4,6 +4,8 @@ import com.podads.domain.entities.AdRequest;
 import com.podads.domain.entities.CandidateAd;
 import com.podads.domain.valueobjects.FilterReasonCode;
 import com.podads.domain.valueobjects.FilterResult;
+import com.podads.infrastructure.sourcing.FixtureSourcingService;
+import com.podads.infrastructure.sourcing.GeoTargetingIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -17,7 +19,7 @@ class GeoTargetingFilterTest {
 
     @BeforeEach
     void setUp() {
-        filter = new GeoTargetingFilter();
+        filter = new GeoTargetingFilter(new FixtureSourcingService());
     }
 
     @Test
@@ -97,4 +99,47 @@ class GeoTargetingFilterTest {
 
         assertTrue(result.getPassed());
     }
+
+    @Test
+    void testMostSpecificGeoRuleWins() {
+        CandidateAd usExceptCalifornia = TestDataBuilder.candidateAd()
+                .targetGeo(List.of("US"))
+                .excludeGeo(List.of("US-CA"))
+                .build();
+        CandidateAd onlyLosAngeles = TestDataBuilder.candidateAd()
+                .targetGeo(List.of("US-CA-803"))
+                .build();
+
+        assertTrue(filter.apply(TestDataBuilder.adRequest().geo("US-NY-501").build(), usExceptCalifornia, 12345).getPassed());
+        FilterResult excluded = filter.apply(TestDataBuilder.adRequest().geo("US-CA-807").build(), usExceptCalifornia, 12345);
+        assertFalse(excluded.getPassed());
+        assertTrue(excluded.getDetails().contains("excluded"));
+
+        assertTrue(filter.apply(TestDataBuilder.adRequest().geo("US-CA-803").build(), onlyLosAngeles, 12345).getPassed());
+        assertFalse(filter.apply(TestDataBuilder.adRequest().geo("US-CA").build(), onlyLosAngeles, 12345).getPassed());
+        assertFalse(filter.apply(TestDataBuilder.adRequest().geo("US").build(), onlyLosAngeles, 12345).getPassed());
+    }
+
+    @Test
+    void testCompiledIndexAgreesWithDirectRules() {
+        List<CandidateAd> candidates = List.of(
+                TestDataBuilder.candidateAd().targetGeo(List.of("US")).excludeGeo(List.of("US-CA")).build(),
+                TestDataBuilder.candidateAd().targetGeo(List.of("US-CA")).excludeGeo(List.of("US-CA-807")).build(),
+                TestDataBuilder.candidateAd().targetGeo(null).excludeGeo(List.of("GB")).build(),
+                TestDataBuilder.candidateAd().targetGeo(List.of("CA", "US-TX")).build(),
+                TestDataBuilder.candidateAd().targetGeo(List.of("US-CA-807")).excludeGeo(List.of("US")).build()
+        );
+        GeoTargetingIndex index = GeoTargetingIndex.build(candidates);
+
+        for (String geo : new String[]{"US", "US-CA", "US-CA-807", "US-CA-803", "US-TX-623", "CA", "GB", "GB-LND", "FR", null}) {
+            for (CandidateAd candidate : candidates) {
+                assertTrue(index.covers(candidate));
+                assertEquals(
+                        GeoTargetingIndex.matches(candidate.getCampaign().getTargeting().getGeo(),
+                                candidate.getCampaign().getTargeting().getExcludeGeo(), geo),
+                        index.allows(candidate, geo),
+                        "geo " + geo + " candidate " + candidate.getCatalogIndex());
+            }
+        }
+    }
 }
@@ -4,9 +4,15 @@ import com.podads.domain.entities.AdRequest;
 import com.podads.domain.entities.CandidateAd;
 import com.podads.domain.valueobjects.FilterReasonCode;
 import com.podads.domain.valueobjects.FilterResult;
+import com.podads.infrastructure.budget.StripedBudgetLedger;
+import com.podads.infrastructure.pacing.FeedbackPacingController;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class PacingGateFilterTest {
@@ -15,7 +21,12 @@ class PacingGateFilterTest {
 
     @BeforeEach
     void setUp() {
-        filter = new PacingGateFilter();
+        filter = filterAt("2024-01-15T20:00:00Z"); // ~77% of the daily curve due by 20:00
+    }
+
+    private static PacingGateFilter filterAt(String instant) {
+        Clock clock = Clock.fixed(Instant.parse(instant), ZoneOffset.UTC);
+        return new PacingGateFilter(new FeedbackPacingController(new StripedBudgetLedger(8, clock), clock));
     }
 
     @Test
@@ -63,6 +74,20 @@ class PacingGateFilterTest {
         assertTrue(result.getDetails().contains("Daily pacing limit exceeded"));
     }
 
+    @Test
+    void testPassesGuaranteedCampaignOverLimit() {
+        AdRequest request = TestDataBuilder.adRequest().build();
+        CandidateAd candidate = TestDataBuilder.candidateAd()
+                .pacingDailyBudget(1000)
+                .pacingDailySpend(1500)
+                .guarantee(500) // delivery paced by the allocation plan instead
+                .build();
+
+        FilterResult result = filter.apply(request, candidate, 12345);
+
+        assertTrue(result.getPassed());
+    }
+
     @Test
     void testFailsWhenPacingOverLimit() {
         AdRequest request = TestDataBuilder.adRequest().build();
@@ -92,7 +117,7 @@ class PacingGateFilterTest {
 
     @Test
     void testRandomThrottlingNearLimit() {
-        // Test the 10% random throttling when spendRatio > 0.9
+        // 95% spent against a ~77% target: ahead of the curve, so the controller throttles
         AdRequest request = TestDataBuilder.adRequest().build();
         CandidateAd candidate = TestDataBuilder.candidateAd()
                 .pacingDailyBudget(1000)
@@ -109,6 +134,49 @@ class PacingGateFilterTest {
                 break;
             }
         }
-        // Note: Probabilistic test - should find at least one throttling case
+        assertTrue(foundThrottling);
+    }
+
+    @Test
+    void testHalfPassProbabilityAdmitsHalfOfDecisionsSharingASeed() {
+        PacingGateFilter halfPaced = new PacingGateFilter(campaign -> 0.5);
+        CandidateAd first = TestDataBuilder.candidateAd().campaignId("camp-a").pacingDailyBudget(1000).build();
+        CandidateAd second = TestDataBuilder.candidateAd().campaignId("camp-b").pacingDailyBudget(1000).build();
+
+        int decisions = 20_000;
+        int passed = 0;
+        int disagreed = 0;
+        for (int i = 0; i < decisions; i++) {
+            AdRequest request = TestDataBuilder.adRequest().requestId("req-" + i).build();
+            boolean firstPassed = halfPaced.apply(request, first, 12345).getPassed();
+            boolean secondPassed = halfPaced.apply(request, second, 12345).getPassed();
+            passed += firstPassed ? 1 : 0;
+            disagreed += firstPassed != secondPassed ? 1 : 0;
+            assertEquals(firstPassed, halfPaced.apply(request, first, 12345).getPassed()); // replays draw the same
+        }
+
+        assertEquals(0.5, passed / (double) decisions, 0.02);
+        assertEquals(0.5, disagreed / (double) decisions, 0.02); // campaigns in one decision draw independently
+    }
+
+    @Test
+    void testThrottlesWhenAheadOfMorningCurve() {
+        // Half the daily budget gone by 07:00 is far ahead of the ~14% target
+        PacingGateFilter morningFilter = filterAt("2024-01-15T07:00:00Z");
+        AdRequest request = TestDataBuilder.adRequest().build();
+        CandidateAd candidate = TestDataBuilder.candidateAd()
+                .pacingDailyBudget(1000)
+                .pacingDailySpend(500)
+                .build();
+
+        int throttled = 0;
+        for (int seed = 0; seed < 1000; seed++) {
+            if (!morningFilter.apply(request, candidate, seed).getPassed()) {
+                throttled++;
+            }
+        }
+
+        assertTrue(throttled > 500, "expected most requests throttled, got " + throttled);
+        assertTrue(filter.apply(request, candidate, 12345).getPassed()); // same spend is on track by 20:00
     }
 }
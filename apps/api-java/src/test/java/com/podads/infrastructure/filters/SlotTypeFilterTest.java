@@ -83,4 +83,19 @@ class SlotTypeFilterTest {
         assertFalse(result.getPassed());
         assertEquals(FilterReasonCode.SLOT_TYPE_MISMATCH, result.getReasonCode());
     }
+
+    @Test
+    void testSeesEligibleSlotTypesReplacedAfterMasksWereCompiled() {
+        AdRequest request = TestDataBuilder.adRequest()
+                .slotType(SlotType.MID_ROLL)
+                .build();
+        CandidateAd candidate = TestDataBuilder.candidateAd()
+                .eligibleSlotTypes(List.of(SlotType.MID_ROLL))
+                .build();
+        assertTrue(filter.apply(request, candidate, 12345).getPassed());
+
+        candidate.setEligibleSlotTypes(List.of(SlotType.PRE_ROLL));
+
+        assertFalse(filter.apply(request, candidate, 12345).getPassed());
+    }
 }
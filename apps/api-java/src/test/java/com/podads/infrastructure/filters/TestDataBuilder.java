@@ -18,11 +18,16 @@ public class TestDataBuilder {
         private String episode = "ep-001";
         private SlotType slotType = SlotType.MID_ROLL;
         private Integer cuePoint = 300;
+        private Integer podMaxDurationSeconds = null;
+        private Integer podSlots = null;
+        private Integer minAdDurationSeconds = null;
         private String geo = "US";
         private DeviceType device = DeviceType.MOBILE;
         private TierType tier = TierType.FREE;
         private Boolean consent = true;
         private TimeOfDay timeOfDay = TimeOfDay.AFTERNOON;
+        private String listenerId = null;
+        private String timezone = null;
         private Instant timestamp = Instant.now();
 
         public AdRequestBuilder requestId(String requestId) {
@@ -55,6 +60,17 @@ public class TestDataBuilder {
             return this;
         }
 
+        public AdRequestBuilder pod(Integer podSlots, Integer podMaxDurationSeconds) {
+            this.podSlots = podSlots;
+            this.podMaxDurationSeconds = podMaxDurationSeconds;
+            return this;
+        }
+
+        public AdRequestBuilder minAdDurationSeconds(Integer minAdDurationSeconds) {
+            this.minAdDurationSeconds = minAdDurationSeconds;
+            return this;
+        }
+
         public AdRequestBuilder geo(String geo) {
             this.geo = geo;
             return this;
@@ -80,6 +96,16 @@ public class TestDataBuilder {
             return this;
         }
 
+        public AdRequestBuilder timezone(String timezone) {
+            this.timezone = timezone;
+            return this;
+        }
+
+        public AdRequestBuilder listenerId(String listenerId) {
+            this.listenerId = listenerId;
+            return this;
+        }
+
         public AdRequestBuilder timestamp(Instant timestamp) {
             this.timestamp = timestamp;
             return this;
@@ -89,8 +115,8 @@ public class TestDataBuilder {
             return new AdRequest(
                     requestId,
                     new PodcastContext(category, show, episode),
-                    new SlotContext(slotType, cuePoint),
-                    new ListenerContext(geo, device, tier, consent, timeOfDay),
+                    new SlotContext(slotType, cuePoint, podMaxDurationSeconds, podSlots, minAdDurationSeconds),
+                    new ListenerContext(geo, device, tier, consent, timeOfDay, listenerId, timezone),
                     timestamp
             );
         }
@@ -99,6 +125,7 @@ public class TestDataBuilder {
     public static class CandidateAdBuilder {
         private String campaignId = "camp-001";
         private String advertiserId = "adv-001";
+        private String advertiserCategory = null;
         private String campaignName = "Test Campaign";
         private Campaign.CampaignStatus status = Campaign.CampaignStatus.ACTIVE;
         private Integer budgetTotal = 100000; // $1000 in cents
@@ -112,10 +139,15 @@ public class TestDataBuilder {
         private List<DeviceType> targetDevices = List.of(DeviceType.MOBILE);
         private List<TierType> targetTiers = List.of(TierType.FREE);
         private List<PodcastCategory> excludeCategories = new ArrayList<>();
+        private List<String> excludeGeo = null;
+        private List<TimeOfDay> targetTimeOfDay = null;
+        private List<String> targetHours = null;
         private Integer pacingDailyBudget = 1000; // in cents
         private Integer pacingDailySpend = 500; // in cents
         private Integer frequencyCapMaxImpressions = 3;
         private Integer frequencyCapWindowHours = 1; // hours
+        private FrequencyCap.Backend frequencyCapBackend = null; // null = service default
+        private Guarantee guarantee = null; // null = auction campaign
         private String creativeId = "creat-001";
         private String creativeAssetUrl = "https://example.com/ad.mp3";
         private Integer creativeDuration = 30;
@@ -132,6 +164,11 @@ public class TestDataBuilder {
             return this;
         }
 
+        public CandidateAdBuilder advertiserCategory(String advertiserCategory) {
+            this.advertiserCategory = advertiserCategory;
+            return this;
+        }
+
         public CandidateAdBuilder campaignName(String campaignName) {
             this.campaignName = campaignName;
             return this;
@@ -192,6 +229,21 @@ public class TestDataBuilder {
             return this;
         }
 
+        public CandidateAdBuilder targetTimeOfDay(List<TimeOfDay> targetTimeOfDay) {
+            this.targetTimeOfDay = targetTimeOfDay;
+            return this;
+        }
+
+        public CandidateAdBuilder targetHours(List<String> targetHours) {
+            this.targetHours = targetHours;
+            return this;
+        }
+
+        public CandidateAdBuilder excludeGeo(List<String> excludeGeo) {
+            this.excludeGeo = excludeGeo;
+            return this;
+        }
+
         public CandidateAdBuilder excludeCategories(List<PodcastCategory> excludeCategories) {
             this.excludeCategories = excludeCategories;
             return this;
@@ -217,6 +269,16 @@ public class TestDataBuilder {
             return this;
         }
 
+        public CandidateAdBuilder frequencyCapBackend(FrequencyCap.Backend frequencyCapBackend) {
+            this.frequencyCapBackend = frequencyCapBackend;
+            return this;
+        }
+
+        public CandidateAdBuilder guarantee(Integer dailyImpressions) {
+            this.guarantee = dailyImpressions != null ? new Guarantee(dailyImpressions) : null;
+            return this;
+        }
+
         public CandidateAdBuilder creativeId(String creativeId) {
             this.creativeId = creativeId;
             return this;
@@ -245,14 +307,17 @@ public class TestDataBuilder {
         public CandidateAd build() {
             Budget budget = new Budget(budgetTotal, budgetRemaining);
             Pacing pacing = new Pacing(pacingDailyBudget, pacingDailySpend);
-            FrequencyCap frequencyCap = new FrequencyCap(frequencyCapMaxImpressions, frequencyCapWindowHours);
+            FrequencyCap frequencyCap = new FrequencyCap(frequencyCapMaxImpressions, frequencyCapWindowHours, frequencyCapBackend);
             TargetingRule targeting = new TargetingRule(
                     targetGeo,
                     targetDevices,
                     targetTiers,
                     targetCategories,
                     targetShows,
-                    excludeCategories
+                    excludeCategories,
+                    excludeGeo,
+                    targetTimeOfDay,
+                    targetHours
             );
             Creative creative = new Creative(
                     creativeId,
@@ -264,6 +329,7 @@ public class TestDataBuilder {
             Campaign campaign = new Campaign(
                     campaignId,
                     advertiserId,
+                    advertiserCategory,
                     campaignName,
                     status,
                     budget,
@@ -272,7 +338,8 @@ public class TestDataBuilder {
                     endDate,
                     targeting,
                     pacing,
-                    frequencyCap
+                    frequencyCap,
+                    guarantee
             );
             return new CandidateAd(campaign, creative, eligibleSlotTypes);
         }
@@ -0,0 +1,89 @@
+package com.podads.infrastructure.frequency;
+
+import com.podads.domain.entities.FrequencyCap;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SketchFrequencyCapStoreTest {
+    private static final Instant NOW = Instant.parse("2024-01-15T10:30:00Z");
+
+    @Test
+    void countsImpressionJustInsideTheWindowEdge() {
+        SketchFrequencyCapStore store = new SketchFrequencyCapStore(1, 1_000, 0.01, 60, 25);
+        FrequencyCap cap = new FrequencyCap(1, 1, FrequencyCap.Backend.SKETCH);
+
+        // 59 minutes ago is inside a one-hour window but in the previous hourly bucket
+        store.recordImpression("listener-1", "camp-1", cap, NOW.minusSeconds(59 * 60));
+
+        assertEquals(1, store.countImpressions("listener-1", "camp-1", cap, NOW));
+    }
+
+    @Test
+    void capWithoutWindowCountsOverADay() {
+        SketchFrequencyCapStore sketch = new SketchFrequencyCapStore(1, 1_000, 0.01, 60, 25);
+        ExactFrequencyCapStore exact = new ExactFrequencyCapStore();
+        FrequencyCap cap = new FrequencyCap(2, null, null);
+
+        for (FrequencyCapStore store : new FrequencyCapStore[]{sketch, exact}) {
+            store.recordImpression("listener-1", "camp-1", cap, NOW.minusSeconds(23 * 3600));
+            store.recordImpression("listener-1", "camp-1", cap, NOW.minusSeconds(25 * 3600));
+            assertEquals(1, store.countImpressions("listener-1", "camp-1", cap, NOW), store.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    void overcountStaysWithinTheBoundWithFarMoreKeysThanCounters() {
+        int listeners = 200_000;
+        int maxOvercount = 20;
+        SketchFrequencyCapStore store = new SketchFrequencyCapStore(maxOvercount, listeners, 0.01, 360, 5);
+        FrequencyCap cap = new FrequencyCap(100, 24, FrequencyCap.Backend.SKETCH);
+        assertTrue(store.width() < listeners / 5, "width " + store.width());
+        assertEquals(5L * store.depth() * store.width(), store.memoryBytes(), 5 * Long.BYTES);
+
+        // One impression per listener over the last day
+        for (int i = 0; i < listeners; i++) {
+            store.recordImpression("listener-" + i, "camp-1", cap, NOW.minusSeconds(3600L * (i % 20)));
+        }
+        double bound = store.overcountBound(24, NOW);
+        assertEquals(maxOvercount, bound, 0.01);
+
+        int overBound = 0;
+        int sampled = 20_000;
+        for (int i = 0; i < sampled; i++) {
+            int overcount = store.countImpressions("listener-" + i, "camp-1", cap, NOW) - 1;
+            assertTrue(overcount >= 0, "undercounted listener-" + i);
+            if (overcount > bound) {
+                overBound++;
+            }
+        }
+        assertTrue(overBound <= sampled * 0.01, overBound + " of " + sampled + " estimates over the bound");
+    }
+
+    @Test
+    void boundOfOneImpressionRarelyCapsEarly() {
+        int listeners = 100_000;
+        SketchFrequencyCapStore store = new SketchFrequencyCapStore(1, listeners + 2, 0.01, 60, 25);
+        FrequencyCap cap = new FrequencyCap(3, 24, FrequencyCap.Backend.SKETCH);
+
+        // Every listener heard the campaign once over the last ten hours; listener-0 three times
+        for (int i = 0; i < listeners; i++) {
+            store.recordImpression("listener-" + i, "camp-1", cap, NOW.minusSeconds(3600L * (i % 10)));
+        }
+        store.recordImpression("listener-0", "camp-1", cap, NOW);
+        store.recordImpression("listener-0", "camp-1", cap, NOW);
+
+        assertTrue(store.countImpressions("listener-0", "camp-1", cap, NOW) >= 3);
+        int capped = 0;
+        int sampled = 20_000;
+        for (int i = 1; i <= sampled; i++) {
+            if (store.countImpressions("listener-" + i, "camp-1", cap, NOW) >= cap.getMaxImpressions()) {
+                capped++;
+            }
+        }
+        assertTrue(capped < sampled / 1000, capped + " of " + sampled + " listeners capped early");
+        assertTrue(store.estimatedOverCapErrorRate(24, NOW) < 0.01);
+    }
+}
@@ -0,0 +1,162 @@
+package com.podads.infrastructure.guaranteed;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.valueobjects.PodcastCategory;
+import com.podads.domain.valueobjects.SlotType;
+import com.podads.domain.valueobjects.TierType;
+import com.podads.infrastructure.filters.TestDataBuilder;
+import com.podads.infrastructure.sourcing.FixtureSourcingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HighWaterMarkAllocatorTest {
+
+    private static HighWaterMarkAllocator.Contract contract(String id, double demand, int... contexts) {
+        return new HighWaterMarkAllocator.Contract(id, demand, contexts);
+    }
+
+    @Test
+    void spreadsDemandEvenlyOverEligibleSupply() {
+        AllocationPlan plan = HighWaterMarkAllocator.allocate(1, Instant.EPOCH,
+                List.of(contract("a", 100, 0, 1)), new double[]{200, 300});
+
+        assertEquals(0.2, plan.probability(0, "a"), 1e-12);
+        assertEquals(0.2, plan.probability(1, "a"), 1e-12);
+        assertEquals(100, plan.getExpectedDelivery().get("a"), 1e-9);
+        assertEquals(0, plan.shortfall(), 1e-9);
+    }
+
+    @Test
+    void narrowLineItemIsAllocatedFirst() {
+        // b could take all of context 0, but a has nowhere else to go
+        AllocationPlan plan = HighWaterMarkAllocator.allocate(1, Instant.EPOCH,
+                List.of(contract("b", 100, 0, 1), contract("a", 80, 0)), new double[]{100, 100});
+
+        assertEquals(0.8, plan.probability(0, "a"), 1e-12);
+        assertEquals(0.2, plan.probability(0, "b"), 1e-12);
+        assertEquals(0.8, plan.probability(1, "b"), 1e-12);
+        assertEquals(100, plan.getExpectedDelivery().get("b"), 1e-9);
+        assertEquals(0, plan.shortfall(), 1e-9);
+    }
+
+    @Test
+    void oversoldLineItemTakesWhatIsLeftAndReportsShortfall() {
+        AllocationPlan plan = HighWaterMarkAllocator.allocate(1, Instant.EPOCH,
+                List.of(contract("a", 500, 0)), new double[]{300, 100});
+
+        assertEquals(1.0, plan.probability(0, "a"), 1e-12);
+        assertEquals(0.0, plan.probability(1, "a"));
+        assertEquals(200, plan.shortfall(), 1e-9);
+    }
+
+    @Test
+    void oneDrawSelectsAtMostOneLineItem() {
+        AllocationPlan plan = HighWaterMarkAllocator.allocate(1, Instant.EPOCH,
+                List.of(contract("b", 100, 0, 1), contract("a", 80, 0)), new double[]{100, 100});
+
+        assertEquals("a", plan.select(0, 0.0));
+        assertEquals("a", plan.select(0, 0.79));
+        assertEquals("b", plan.select(0, 0.81));
+        assertNull(plan.select(1, 0.85)); // 20% of context 1 goes to the auction
+    }
+
+    @Test
+    void servicePlansFixtureLineItemsAndCountsDelivery() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Clock noon = Clock.fixed(Instant.parse("2024-01-15T12:00:00Z"), ZoneOffset.UTC);
+        GuaranteedDeliveryService service = new GuaranteedDeliveryService(new FixtureSourcingService(), meterRegistry,
+                noon, true, 0, 0.5);
+        service.start();
+
+        AllocationPlan plan = service.plan();
+        assertEquals(1, plan.getVersion());
+        assertTrue(plan.getDemand().containsKey("camp-050"));
+        int newsPremium = AllocationPlan.contextOf(PodcastCategory.NEWS, SlotType.MID_ROLL, TierType.PREMIUM);
+        assertTrue(plan.probability(newsPremium, "camp-050") > 0);
+        assertEquals(0.0, plan.probability(newsPremium, "camp-051")); // not a guaranteed campaign
+
+        CandidateAd nyt = TestDataBuilder.candidateAd().campaignId("camp-050").guarantee(1500).build();
+        AdRequest request = TestDataBuilder.adRequest()
+                .category(PodcastCategory.NEWS)
+                .slotType(SlotType.MID_ROLL)
+                .tier(TierType.PREMIUM)
+                .build();
+        int selected = 0;
+        for (int seed = 0; seed < 500; seed++) {
+            CandidateAd chosen = service.select(request, List.of(nyt), seed);
+            if (chosen != null) {
+                assertSame(nyt, chosen);
+                service.recordDelivered(chosen.getCampaign());
+                selected++;
+            }
+        }
+        double expectedRate = plan.probability(newsPremium, "camp-050");
+        assertEquals(expectedRate, selected / 500.0, 0.05);
+
+        double owedBefore = plan.getDemand().get("camp-050");
+        AllocationPlan replanned = service.recompute();
+        assertEquals(2, replanned.getVersion());
+        assertEquals(owedBefore - selected, replanned.getDemand().get("camp-050"), 1e-9);
+        assertEquals(selected, meterRegistry.get("ad_guaranteed_selections_total").tag("outcome", "served").counter().count());
+    }
+
+    @Test
+    void deliveryAfterMidnightCountsTowardsTheNewDay() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-01-15T23:59:30Z"));
+        GuaranteedDeliveryService service = new GuaranteedDeliveryService(new FixtureSourcingService(),
+                new SimpleMeterRegistry(), clock, true, 0, 0.5);
+        service.start();
+        double goal = service.plan().getDemand().get("camp-050");
+
+        // Past midnight, before the planner has run again
+        clock.instant = Instant.parse("2024-01-16T00:00:30Z");
+        CandidateAd nyt = TestDataBuilder.candidateAd().campaignId("camp-050").guarantee(1500).build();
+        for (int i = 0; i < 7; i++) {
+            service.recordDelivered(nyt.getCampaign());
+        }
+
+        assertEquals(goal - 7, service.recompute().getDemand().get("camp-050"), 1e-9);
+    }
+
+    @Test
+    void disabledServiceNeverSelects() {
+        GuaranteedDeliveryService service = new GuaranteedDeliveryService(new FixtureSourcingService(),
+                new SimpleMeterRegistry(), Clock.systemUTC(), false, 0, 0.5);
+        service.start();
+        CandidateAd nyt = TestDataBuilder.candidateAd().campaignId("camp-050").guarantee(1500).build();
+        assertNull(service.select(TestDataBuilder.adRequest().category(PodcastCategory.NEWS).build(), List.of(nyt), 1));
+        assertEquals(0, service.plan().getVersion());
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.podads.infrastructure.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.services.PredictionModel;
+import com.podads.domain.valueobjects.CandidateScore;
+import com.podads.domain.valueobjects.DeviceType;
+import com.podads.domain.valueobjects.MatchComponents;
+import com.podads.domain.valueobjects.ModelFeature;
+import com.podads.domain.valueobjects.SlotType;
+import com.podads.domain.valueobjects.TierType;
+import com.podads.infrastructure.filters.TestDataBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PredictionModelTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String TREES = """
+            {"name": "test-gbt", "version": "1", "type": "gbt", "link": "identity", "baseScore": 0.5,
+             "trees": [
+               {"feature": "duration_seconds", "threshold": 30,
+                "left": {"leaf": 0.1},
+                "right": {"feature": "show_match", "threshold": 0.75,
+                          "left": {"feature": "hour_of_day", "threshold": 12, "left": {"leaf": -0.3}, "right": {"leaf": -0.2}},
+                          "right": {"leaf": 0.4}}},
+               {"leaf": 0.05},
+               {"feature": "device_car", "threshold": 0.5, "left": {"leaf": 0.0}, "right": {"leaf": 0.25}}
+             ]}
+            """;
+
+    @Test
+    void flattenedTreesMatchWalkingTheJson() throws Exception {
+        JsonNode json = MAPPER.readTree(TREES);
+        TreeEnsembleModel model = (TreeEnsembleModel) ModelLoader.parse(json);
+        assertEquals(3, model.treeCount());
+
+        Random random = new Random(7);
+        int rows = 500;
+        double[] features = new double[rows * ModelFeature.COUNT];
+        for (int i = 0; i < features.length; i++) {
+            features[i] = random.nextInt(10) == 0 ? Double.NaN : random.nextDouble() * 60;
+        }
+        double[] out = new double[rows];
+        model.predict(features, rows, out);
+
+        for (int r = 0; r < rows; r++) {
+            double expected = json.get("baseScore").asDouble();
+            for (JsonNode tree : json.get("trees")) {
+                expected += walk(tree, features, r * ModelFeature.COUNT);
+            }
+            assertEquals(expected, out[r], 1e-12, "row " + r);
+        }
+    }
+
+    @Test
+    void missingFeatureGoesLeft() throws Exception {
+        PredictionModel model = ModelLoader.parse(MAPPER.readTree(TREES));
+        double[] features = new double[ModelFeature.COUNT];
+        Arrays.fill(features, Double.NaN);
+        double[] out = new double[1];
+        model.predict(features, 1, out);
+        assertEquals(0.5 + 0.1 + 0.05 + 0.0, out[0], 1e-12);
+    }
+
+    @Test
+    void linearModelAppliesLogisticLink() throws Exception {
+        PredictionModel model = ModelLoader.parse(MAPPER.readTree("""
+                {"name": "lin", "version": "2", "type": "linear", "link": "logistic", "intercept": -1.0,
+                 "weights": {"show_match": 2.0, "duration_seconds": -0.01}}
+                """));
+        double[] features = new double[2 * ModelFeature.COUNT];
+        features[ModelFeature.SHOW_MATCH.ordinal()] = 1.0;
+        features[ModelFeature.DURATION_SECONDS.ordinal()] = 30;
+        features[ModelFeature.COUNT + ModelFeature.SHOW_MATCH.ordinal()] = Double.NaN;
+        double[] out = new double[2];
+        model.predict(features, 2, out);
+
+        assertEquals(1.0 / (1.0 + Math.exp(-(-1.0 + 2.0 - 0.3))), out[0], 1e-12);
+        assertEquals(1.0 / (1.0 + Math.exp(1.0)), out[1], 1e-12); // NaN contributes nothing
+    }
+
+    @Test
+    void rejectsUnknownFeaturesAndTypes() {
+        assertThrows(IllegalArgumentException.class, () -> ModelLoader.parse(MAPPER.readTree(
+                "{\"type\": \"linear\", \"weights\": {\"listener_age\": 1.0}}")));
+        assertThrows(IllegalArgumentException.class, () -> ModelLoader.parse(MAPPER.readTree(
+                "{\"type\": \"forest\"}")));
+        assertThrows(IllegalArgumentException.class, () -> ModelLoader.parse(MAPPER.readTree(
+                "{\"type\": \"gbt\", \"trees\": [{\"feature\": \"bid_cpm\", \"threshold\": 1, \"left\": {\"leaf\": 1}}]}")));
+    }
+
+    @Test
+    void bundledModelLoadsAndPredictsProbabilities() throws Exception {
+        JsonNode json;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("fixtures/model.json")) {
+            json = MAPPER.readTree(in);
+        }
+        PredictionModel model = ModelLoader.parse(json);
+        assertEquals("completion", model.getTarget());
+
+        double[] features = new double[ModelFeature.COUNT];
+        double[] out = new double[1];
+        model.predict(features, 1, out);
+        assertTrue(out[0] > 0 && out[0] < 1);
+    }
+
+    @Test
+    void featuresCarryRequestAndCandidateValues() {
+        AdRequest request = TestDataBuilder.adRequest()
+                .slotType(SlotType.POST_ROLL)
+                .device(DeviceType.CAR)
+                .tier(TierType.PREMIUM)
+                .build();
+        CandidateAd candidate = TestDataBuilder.candidateAd().build();
+        CandidateScore score = new CandidateScore(25, new MatchComponents(1.0, 0.4, 1.1), 0.776, 0.5, 9.7);
+
+        double[] features = ModelScoringService.features(request, List.of(candidate), List.of(score));
+
+        assertEquals(25, features[ModelFeature.BID_CPM.ordinal()]);
+        assertEquals(0.4, features[ModelFeature.SHOW_MATCH.ordinal()]);
+        assertEquals(0.5, features[ModelFeature.PACING_MULTIPLIER.ordinal()]);
+        assertEquals((double) candidate.getCreative().getDurationSeconds(), features[ModelFeature.DURATION_SECONDS.ordinal()]);
+        assertEquals(1.0, features[ModelFeature.SLOT_POST_ROLL.ordinal()]);
+        assertEquals(0.0, features[ModelFeature.SLOT_MID_ROLL.ordinal()]);
+        assertEquals(1.0, features[ModelFeature.DEVICE_CAR.ordinal()]);
+        assertEquals(0.0, features[ModelFeature.DEVICE_MOBILE.ordinal()]);
+        assertEquals(1.0, features[ModelFeature.TIER_PREMIUM.ordinal()]);
+    }
+
+    @Test
+    void reloadSwapsModelAndKeepsItOnFailure(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("model.json");
+        Files.writeString(file, TREES);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ModelScoringService service = new ModelScoringService(meterRegistry, true, file.toString(), 0);
+        service.initialize();
+
+        ModelScoringService.LoadedModel first = service.current();
+        assertEquals("test-gbt", first.model().getName());
+        assertEquals(1, first.generation());
+
+        Files.writeString(file, "{\"type\": \"gbt\", \"trees\": [");
+        assertSame(first, service.reload());
+
+        Files.writeString(file, "{\"name\": \"lin\", \"type\": \"linear\", \"link\": \"identity\", \"intercept\": 0.5}");
+        ModelScoringService.LoadedModel second = service.reload();
+        assertEquals("lin", second.model().getName());
+        assertEquals(2, second.generation());
+        assertEquals(1.0, meterRegistry.get("ad_model_reloads_total").tag("outcome", "failure").counter().count());
+
+        AdRequest request = TestDataBuilder.adRequest().build();
+        CandidateAd candidate = TestDataBuilder.candidateAd().build();
+        CandidateScore score = new CandidateScore(10, new MatchComponents(0.5, 0.5, 1.0), 0.5, 1.0, 5.0);
+        ModelScoringService.Predictions predictions = service.predict(request, List.of(candidate), List.of(score));
+        assertArrayEquals(new double[]{0.5}, predictions.values());
+        assertEquals(2.5, score.weightedBy(predictions.values()[0]).finalScore());
+        assertEquals(1, meterRegistry.get("ad_model_scoring_ns_per_candidate").summary().count());
+    }
+
+    @Test
+    void brokenModelFileIsRetriedOnlyOnceItChangesAgain(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("model.json");
+        Files.writeString(file, TREES);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2024-01-15T12:00:00Z")));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ModelScoringService service = new ModelScoringService(meterRegistry, true, file.toString(), 0);
+        service.initialize();
+
+        Files.writeString(file, "{\"type\": \"gbt\", \"trees\": [");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2024-01-15T12:01:00Z")));
+        service.reloadIfChanged();
+        service.reloadIfChanged();
+        service.reloadIfChanged();
+        assertEquals(1.0, meterRegistry.get("ad_model_reloads_total").tag("outcome", "failure").counter().count());
+        assertEquals("test-gbt", service.current().model().getName());
+
+        Files.writeString(file, "{\"name\": \"lin\", \"type\": \"linear\", \"link\": \"identity\", \"intercept\": 0.5}");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2024-01-15T12:02:00Z")));
+        service.reloadIfChanged();
+        assertEquals("lin", service.current().model().getName());
+    }
+
+    @Test
+    void disabledServiceDoesNotPredict() {
+        ModelScoringService service = new ModelScoringService(new SimpleMeterRegistry());
+        service.initialize();
+        assertNull(service.current());
+        assertNull(service.predict(TestDataBuilder.adRequest().build(),
+                List.of(TestDataBuilder.candidateAd().build()),
+                List.of(CandidateScore.notScored(10))));
+    }
+
+    private static double walk(JsonNode node, double[] features, int offset) {
+        while (!node.has("leaf")) {
+            double x = features[offset + ModelFeature.fromString(node.get("feature").asText()).ordinal()];
+            node = x > node.get("threshold").asDouble() ? node.get("right") : node.get("left");
+        }
+        return node.get("leaf").asDouble();
+    }
+}
@@ -0,0 +1,125 @@
+package com.podads.infrastructure.pacing;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.Campaign;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.services.AuctionService;
+import com.podads.domain.valueobjects.TimeOfDay;
+import com.podads.infrastructure.budget.StripedBudgetLedger;
+import com.podads.infrastructure.filters.TestDataBuilder;
+import com.podads.infrastructure.scoring.ScalarScoringKernel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeedbackPacingControllerTest {
+
+    private static final Map<TimeOfDay, Double> CURVE = Map.of(
+            TimeOfDay.NIGHT, 0.10, TimeOfDay.MORNING, 0.25, TimeOfDay.AFTERNOON, 0.30, TimeOfDay.EVENING, 0.35);
+
+    private static Campaign campaign(String id, int dailySpend) {
+        return TestDataBuilder.candidateAd()
+                .campaignId(id)
+                .pacingDailyBudget(1000)
+                .pacingDailySpend(dailySpend)
+                .build()
+                .getCampaign();
+    }
+
+    @Test
+    void integralTermMovesProbabilityWellBeyondTheProportionalStep() {
+        // ~77% of the curve is due by 20:00; 80% spent is slightly ahead of it
+        Clock clock = Clock.fixed(Instant.parse("2024-01-15T20:00:00Z"), ZoneOffset.UTC);
+        FeedbackPacingController controller = new FeedbackPacingController(new StripedBudgetLedger(8, clock), clock);
+        Campaign campaign = campaign("camp-ahead", 800);
+
+        double proportionalOnly = controller.passProbability(campaign);
+        for (int i = 0; i < 600; i++) {
+            controller.tick();
+        }
+        double afterTenMinutes = controller.passProbability(campaign);
+        for (int i = 0; i < 10_000; i++) {
+            controller.tick();
+        }
+
+        assertEquals(1.0 + 2.0 * (controller.targetFraction() - 0.8), proportionalOnly, 1e-6);
+        assertTrue(proportionalOnly - afterTenMinutes > 0.15,
+                "integral moved p from " + proportionalOnly + " to " + afterTenMinutes);
+        assertEquals(0.05, controller.passProbability(campaign), 1e-6); // saturates at the floor, no further
+    }
+
+    @Test
+    void integralRestartsWhenTheDayRollsOver() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-01-15T23:00:00Z"));
+        FeedbackPacingController controller = new FeedbackPacingController(new StripedBudgetLedger(8, clock), clock);
+        Campaign campaign = campaign("camp-late", 990);
+
+        controller.passProbability(campaign);
+        for (int i = 0; i < 3_000; i++) {
+            controller.tick();
+        }
+        assertEquals(0.05, controller.passProbability(campaign), 1e-6);
+
+        clock.instant = Instant.parse("2024-01-16T00:00:30Z"); // daily spend resets, so must the integral
+        controller.tick();
+
+        assertEquals(1.0, controller.passProbability(campaign), 1e-6);
+    }
+
+    @Test
+    void registersOneGaugePerCampaign() {
+        Clock clock = Clock.fixed(Instant.parse("2024-01-15T12:00:00Z"), ZoneOffset.UTC);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        FeedbackPacingController controller = new FeedbackPacingController(
+                new StripedBudgetLedger(8, clock), registry, clock, CURVE, 2.0, 0.01, 0.05, 1000);
+
+        controller.passProbability(campaign("camp-a", 0));
+        controller.passProbability(campaign("camp-a", 0));
+        controller.passProbability(campaign("camp-b", 0));
+
+        assertEquals(2, registry.find("ad_pacing_pass_probability").gauges().size());
+        assertEquals(1.0, registry.get("ad_pacing_pass_probability").tag("campaign_id", "camp-a").gauge().value());
+    }
+
+    @Test
+    void scoringLeavesThrottlingToThePacingGate() {
+        AdRequest request = TestDataBuilder.adRequest().build();
+        CandidateAd throttled = TestDataBuilder.candidateAd().pacingDailyBudget(1000).build();
+
+        AuctionService halfPaced = new AuctionService(campaign -> 0.5, new ScalarScoringKernel(), ignored -> null);
+        AuctionService exhausted = new AuctionService(campaign -> 0.0, new ScalarScoringKernel(), ignored -> null);
+
+        assertEquals(1.0, halfPaced.scoreCandidate(request, throttled).pacingMultiplier());
+        assertEquals(0.0, exhausted.scoreCandidate(request, throttled).pacingMultiplier());
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.podads.infrastructure.rotation;
+
+import com.podads.domain.entities.CandidateAd;
+import com.podads.infrastructure.filters.TestDataBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CreativeRotationServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CreativeRotationService service;
+    private CandidateAd short30;
+    private CandidateAd long60;
+    private CandidateAd other;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new CreativeRotationService(meterRegistry);
+        short30 = TestDataBuilder.candidateAd().campaignId("camp-001").creativeId("creat-001").build();
+        long60 = TestDataBuilder.candidateAd().campaignId("camp-001").creativeId("creat-002").build();
+        other = TestDataBuilder.candidateAd().campaignId("camp-002").creativeId("creat-003").build();
+    }
+
+    @Test
+    void keepsOneCreativePerCampaign() {
+        List<CandidateAd> rotatedOut = new ArrayList<>();
+        List<CandidateAd> selected = service.rotate(List.of(short30, other, long60), 7, rotatedOut);
+
+        assertEquals(2, selected.size());
+        assertSame(other, selected.get(1));
+        assertEquals(1, rotatedOut.size());
+        assertNotSame(selected.get(0), rotatedOut.get(0));
+        assertEquals(1.0, meterRegistry.get("ad_creative_rotated_out_total").counter().count());
+    }
+
+    @Test
+    void singleCreativeCampaignsPassThroughUntouched() {
+        List<CandidateAd> candidates = List.of(short30, other);
+        List<CandidateAd> rotatedOut = new ArrayList<>();
+
+        assertSame(candidates, service.rotate(candidates, 7, rotatedOut));
+        assertTrue(rotatedOut.isEmpty());
+        assertTrue(service.stats().isEmpty());
+    }
+
+    @Test
+    void exploresEachCreativeThenFavorsTheOneThatCompletes() {
+        Map<String, Integer> picks = new HashMap<>();
+        for (int seed = 0; seed < 400; seed++) {
+            CandidateAd pick = service.rotate(List.of(short30, long60), seed, new ArrayList<>()).get(0);
+            String creativeId = pick.getCreative().getId();
+            service.recordServed("dec-" + seed, pick.getCreative());
+            picks.merge(creativeId, 1, Integer::sum);
+            // creat-001 completes 60% of the time, creat-002 20%
+            if (seed % 5 < ("creat-001".equals(creativeId) ? 3 : 1)) {
+                assertTrue(service.recordEvent("dec-" + seed, creativeId, "complete"));
+            }
+        }
+
+        assertTrue(picks.get("creat-002") >= 10, "the weaker creative is still explored");
+        assertTrue(picks.get("creat-001") > 3 * picks.get("creat-002"), picks.toString());
+        assertEquals(400L, (long) service.stats().values().stream().mapToLong(s -> (Long) s.get("serves")).sum());
+    }
+
+    @Test
+    void untriedCreativeGoesFirst() {
+        service.rotate(List.of(short30, long60), 1, new ArrayList<>());
+        service.recordServed("dec-1", short30.getCreative());
+        service.recordEvent("dec-1", "creat-001", "complete");
+
+        assertSame(long60, service.rotate(List.of(short30, long60), 1, new ArrayList<>()).get(0));
+    }
+
+    @Test
+    void onlyTheRewardEventForTrackedCreativesCounts() {
+        service.rotate(List.of(short30, long60), 1, new ArrayList<>());
+        service.recordServed("dec-1", short30.getCreative());
+        service.recordServed("dec-2", other.getCreative()); // never competed
+
+        assertFalse(service.recordEvent("dec-1", "creat-001", "click"));
+        assertFalse(service.recordEvent("dec-2", "creat-003", "complete"));
+        assertFalse(service.recordEvent(null, "creat-001", "complete"));
+        assertTrue(service.recordEvent("dec-1", "creat-001", "complete"));
+        assertEquals(1L, service.stats().get("creat-001").get("rewards"));
+    }
+
+    @Test
+    void rewardsOnlyTheCreativeTheDecisionServed() {
+        service.rotate(List.of(short30, long60), 1, new ArrayList<>());
+        service.recordServed("dec-1", short30.getCreative());
+
+        assertFalse(service.recordEvent("dec-1", "creat-002", "complete")); // other creative, same decision
+        assertFalse(service.recordEvent("dec-9", "creat-001", "complete")); // decision that served nothing
+        assertTrue(service.recordEvent("dec-1", "creat-001", "complete")); // the mismatch did not use it up
+        assertEquals(0L, service.stats().get("creat-002").get("rewards"));
+    }
+
+    @Test
+    void rewardsEachDecisionOnce() {
+        service.rotate(List.of(short30, long60), 1, new ArrayList<>());
+        service.recordServed("dec-1", short30.getCreative());
+        service.recordServed("dec-2", short30.getCreative());
+
+        assertTrue(service.recordEvent("dec-1", "creat-001", "complete"));
+        assertFalse(service.recordEvent("dec-1", "creat-001", "complete"));
+        assertTrue(service.recordEvent("dec-2", null, "complete")); // no creative id: whatever dec-2 served
+        assertFalse(service.recordEvent("dec-2", null, "complete"));
+
+        assertEquals(2L, service.stats().get("creat-001").get("rewards"));
+        assertEquals(2L, service.stats().get("creat-001").get("serves"));
+    }
+
+    @Test
+    void eventsAfterTheWindowAreNotRewarded() {
+        AtomicLong nanos = new AtomicLong();
+        CreativeRotationService windowed = new CreativeRotationService(
+                new SimpleMeterRegistry(), true, "complete", 1.41, 60, 1_000, nanos::get);
+        windowed.rotate(List.of(short30, long60), 1, new ArrayList<>());
+        windowed.recordServed("dec-1", short30.getCreative());
+        windowed.recordServed("dec-2", short30.getCreative());
+
+        assertTrue(windowed.recordEvent("dec-1", "creat-001", "complete"));
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(61));
+
+        assertFalse(windowed.recordEvent("dec-2", "creat-001", "complete"));
+    }
+
+    @Test
+    void disabledRotationPassesEverything() {
+        CreativeRotationService disabled = new CreativeRotationService(new SimpleMeterRegistry(), false, "complete", 1.41, 60, 1_000);
+        List<CandidateAd> candidates = List.of(short30, long60);
+
+        assertSame(candidates, disabled.rotate(candidates, 1, new ArrayList<>()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CreativeRotationService(new SimpleMeterRegistry(), true, "impression", 1.41, 60, 1_000));
+    }
+
+    @Test
+    void concurrentServesAndEventsAreAllCounted() throws Exception {
+        service.rotate(List.of(short30, long60), 1, new ArrayList<>());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    String trackingId = "dec-" + thread + "-" + i;
+                    service.recordServed(trackingId, short30.getCreative());
+                    service.recordEvent(trackingId, "creat-001", "complete");
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(80_000L, service.stats().get("creat-001").get("serves"));
+        assertEquals(80_000L, service.stats().get("creat-001").get("rewards"));
+    }
+}
@@ -0,0 +1,103 @@
+package com.podads.infrastructure.scoring;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.services.AuctionService;
+import com.podads.domain.valueobjects.CandidateScore;
+import com.podads.domain.valueobjects.DeviceType;
+import com.podads.domain.valueobjects.MatchVector;
+import com.podads.domain.valueobjects.PodcastCategory;
+import com.podads.domain.valueobjects.TierType;
+import com.podads.infrastructure.filters.TestDataBuilder;
+import com.podads.infrastructure.sourcing.FixtureSourcingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchVectorCacheTest {
+    private FixtureSourcingService sourcingService;
+    private SimpleMeterRegistry meterRegistry;
+    private CaffeineMatchVectorCache cache;
+
+    @BeforeEach
+    void setUp() {
+        sourcingService = new FixtureSourcingService();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new CaffeineMatchVectorCache(sourcingService, new VectorScoringKernel(), meterRegistry, true, 1 << 20);
+    }
+
+    private static AdRequest request(String show, TierType tier) {
+        return TestDataBuilder.adRequest()
+                .category(PodcastCategory.TECH)
+                .show(show)
+                .tier(tier)
+                .device(DeviceType.SMART_SPEAKER)
+                .build();
+    }
+
+    @Test
+    void testSameContextSharesOneVector() {
+        MatchVector first = cache.get(request("The Daily Run", TierType.PREMIUM));
+        MatchVector second = cache.get(request("The Daily Run", TierType.PREMIUM));
+        MatchVector otherShow = cache.get(request("Tech Talk", TierType.PREMIUM));
+        MatchVector otherTier = cache.get(request("The Daily Run", TierType.FREE));
+
+        assertSame(first, second);
+        assertNotSame(first, otherShow);
+        assertNotSame(first, otherTier);
+        assertEquals(0.25, meterRegistry.get("ad_match_cache_hit_ratio").gauge().value(), 1e-9);
+        assertTrue(meterRegistry.get("ad_match_cache_memory_bytes").gauge().value() > 0);
+    }
+
+    @Test
+    void testCachedScoresMatchScoreCandidate() {
+        AuctionService cached = new AuctionService(campaign -> 0.75, new VectorScoringKernel(), cache);
+        AdRequest request = request("The Daily Run", TierType.PREMIUM);
+        List<CandidateAd> candidates = sourcingService.loadCandidates();
+
+        cached.scoreCandidates(request, candidates); // warm
+        List<CandidateScore> scores = cached.scoreCandidates(request, candidates);
+
+        for (int i = 0; i < candidates.size(); i++) {
+            assertEquals(cached.scoreCandidate(request, candidates.get(i)), scores.get(i), "candidate " + i);
+        }
+        assertEquals(0.5, meterRegistry.get("ad_match_cache_hit_ratio").gauge().value(), 1e-9);
+    }
+
+    @Test
+    void testCandidatesOutsideCatalogAreScoredDirectly() {
+        AuctionService cached = new AuctionService(campaign -> 1.0, new ScalarScoringKernel(), cache);
+        AdRequest request = request("The Daily Run", TierType.PREMIUM);
+        CandidateAd outside = TestDataBuilder.candidateAd().build();
+
+        List<CandidateScore> scores = cached.scoreCandidates(request, List.of(outside));
+
+        assertEquals(cached.scoreCandidate(request, outside), scores.get(0));
+    }
+
+    @Test
+    void testReloadStartsNewVersion() {
+        AdRequest request = request("The Daily Run", TierType.PREMIUM);
+        MatchVector before = cache.get(request);
+
+        sourcingService.reload();
+        MatchVector after = cache.get(request);
+
+        assertNotSame(before, after);
+        assertTrue(after.getCatalogVersion() > before.getCatalogVersion());
+        assertTrue(after.covers(sourcingService.loadCandidates().get(0)));
+        assertFalse(before.covers(sourcingService.loadCandidates().get(0)));
+    }
+
+    @Test
+    void testDisabledCacheReturnsNothing() {
+        CaffeineMatchVectorCache disabled = new CaffeineMatchVectorCache(
+                sourcingService, new ScalarScoringKernel(), new SimpleMeterRegistry(), false, 1 << 20);
+
+        assertNull(disabled.get(request("The Daily Run", TierType.PREMIUM)));
+    }
+}
@@ -0,0 +1,79 @@
+package com.podads.infrastructure.scoring;
+
+import com.podads.domain.services.ScoringBlock;
+import com.podads.domain.services.ScoringKernel;
+import com.podads.domain.valueobjects.EnumMask;
+import com.podads.domain.valueobjects.PodcastCategory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar vs vector scoring kernel over blocks of 1k, 10k and 100k candidates.
+ *
+ * Not a unit test. Run with:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java --add-modules jdk.incubator.vector -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *     com.podads.infrastructure.scoring.ScoringKernelBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ScoringKernelBenchmark {
+    private static final long CATEGORY_BIT = EnumMask.bit(PodcastCategory.TECH);
+
+    @Param({"1000", "10000", "100000"})
+    int candidates;
+
+    private ScoringBlock block;
+    private final ScoringKernel scalar = new ScalarScoringKernel();
+    private final ScoringKernel vector = new VectorScoringKernel();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        block = new ScoringBlock(candidates);
+        for (int i = 0; i < candidates; i++) {
+            block.bidCpm[i] = 100 + random.nextInt(1500);
+            block.categoryMasks[i] = random.nextInt(4) == 0 ? EnumMask.ANY : 1L << random.nextInt(8);
+            block.showMatch[i] = new double[]{0.4, 0.5, 1.0}[random.nextInt(3)];
+            block.pacingMultiplier[i] = random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public void scalar(Blackhole blackhole) {
+        scalar.score(block, CATEGORY_BIT, 1.1);
+        blackhole.consume(block.finalScore);
+    }
+
+    @Benchmark
+    public void vector(Blackhole blackhole) {
+        vector.score(block, CATEGORY_BIT, 1.1);
+        blackhole.consume(block.finalScore);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ScoringKernelBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,99 @@
+package com.podads.infrastructure.scoring;
+
+import com.podads.domain.entities.AdRequest;
+import com.podads.domain.entities.CandidateAd;
+import com.podads.domain.services.AuctionService;
+import com.podads.domain.services.ScoringBlock;
+import com.podads.domain.services.ScoringKernel;
+import com.podads.domain.valueobjects.CandidateScore;
+import com.podads.domain.valueobjects.DeviceType;
+import com.podads.domain.valueobjects.EnumMask;
+import com.podads.domain.valueobjects.PodcastCategory;
+import com.podads.domain.valueobjects.TierType;
+import com.podads.infrastructure.filters.TestDataBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoringKernelTest {
+    private static final PodcastCategory[] CATEGORIES = PodcastCategory.values();
+
+    @Test
+    void testVectorKernelSelectedWhenModuleEnabled() {
+        // Surefire starts the JVM with --add-modules jdk.incubator.vector
+        assertTrue(ScoringKernelConfig.vectorModulePresent());
+        assertEquals("vector", ScoringKernelConfig.select("auto").getName());
+        assertEquals("vector", ScoringKernelConfig.select("vector").getName());
+        assertEquals("scalar", ScoringKernelConfig.select("scalar").getName());
+    }
+
+    @Test
+    void testVectorKernelBitIdenticalToScalar() {
+        ScoringKernel scalar = new ScalarScoringKernel();
+        ScoringKernel vector = new VectorScoringKernel();
+        Random random = new Random(42);
+        for (int size : new int[]{0, 1, 3, 4, 7, 8, 9, 31, 64, 1000, 1003}) {
+            ScoringBlock expected = randomBlock(size, new Random(size));
+            ScoringBlock actual = randomBlock(size, new Random(size));
+            long categoryBit = EnumMask.bit(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            double weight = random.nextBoolean() ? 1.1 * 1.05 : 1.0;
+            if (random.nextBoolean()) { // experiment arm weights
+                expected.categoryWeight = actual.categoryWeight = 0.45;
+                expected.showWeight = actual.showWeight = 0.55;
+            }
+
+            scalar.score(expected, categoryBit, weight);
+            vector.score(actual, categoryBit, weight);
+
+            for (int i = 0; i < size; i++) {
+                assertEquals(Double.doubleToRawLongBits(expected.categoryMatch[i]), Double.doubleToRawLongBits(actual.categoryMatch[i]));
+                assertEquals(Double.doubleToRawLongBits(expected.matchScore[i]), Double.doubleToRawLongBits(actual.matchScore[i]));
+                assertEquals(Double.doubleToRawLongBits(expected.finalScore[i]), Double.doubleToRawLongBits(actual.finalScore[i]),
+                        "size " + size + " candidate " + i);
+            }
+        }
+    }
+
+    @Test
+    void testBlockScoresMatchScoreCandidate() {
+        List<CandidateAd> candidates = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 37; i++) {
+            candidates.add(TestDataBuilder.candidateAd()
+                    .campaignId("camp-" + i)
+                    .bidCpm(100 + random.nextInt(1500))
+                    .targetCategories(i % 5 == 0 ? List.of() : List.of(CATEGORIES[random.nextInt(CATEGORIES.length)]))
+                    .targetShows(i % 3 == 0 ? List.of("Test Show") : i % 3 == 1 ? List.of("Other Show") : List.of())
+                    .build());
+        }
+        AdRequest request = TestDataBuilder.adRequest()
+                .category(PodcastCategory.TECH)
+                .tier(TierType.PREMIUM)
+                .device(DeviceType.SMART_SPEAKER)
+                .build();
+
+        for (ScoringKernel kernel : List.of(new ScalarScoringKernel(), new VectorScoringKernel())) {
+            AuctionService auctionService = new AuctionService(campaign -> campaign.getBidCpm() % 7 / 7.0, kernel, ignored -> null);
+            List<CandidateScore> scores = auctionService.scoreCandidates(request, candidates);
+            for (int i = 0; i < candidates.size(); i++) {
+                assertEquals(auctionService.scoreCandidate(request, candidates.get(i)), scores.get(i),
+                        kernel.getName() + " candidate " + i);
+            }
+        }
+    }
+
+    private static ScoringBlock randomBlock(int size, Random random) {
+        ScoringBlock block = new ScoringBlock(size);
+        for (int i = 0; i < size; i++) {
+            block.bidCpm[i] = 1 + random.nextInt(2000);
+            block.categoryMasks[i] = random.nextInt(4) == 0 ? EnumMask.ANY : random.nextLong() & 0xFFL;
+            block.showMatch[i] = new double[]{0.4, 0.5, 1.0}[random.nextInt(3)];
+            block.pacingMultiplier[i] = random.nextInt(5) == 0 ? 1.0 : random.nextDouble();
+        }
+        return block;
+    }
+}
@@ -0,0 +1,53 @@
+package com.podads.infrastructure.separation;
+
+import com.podads.domain.entities.CandidateAd;
+import com.podads.infrastructure.filters.TestDataBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompetitiveSeparationServiceTest {
+    private static final List<String> RULES = List.of("brand", "advertiser-category");
+
+    @Test
+    void idleListenersExpireAfterTheSessionWindow() {
+        AtomicLong nanos = new AtomicLong();
+        CompetitiveSeparationService service = new CompetitiveSeparationService(new SimpleMeterRegistry(),
+                RULES, RULES, 30, 1_000, nanos::get);
+        Instant now = Instant.parse("2024-01-15T10:30:00Z");
+        CandidateAd served = candidate(1, 1);
+
+        service.recordServed("listener-1", served, now);
+        assertEquals("brand", service.sessionConflict("listener-1", candidate(1, 2), now));
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(31));
+        assertEquals(0, service.trackedListeners());
+        assertNull(service.sessionConflict("listener-1", candidate(1, 2), now));
+    }
+
+    @Test
+    void trackedListenersAreBounded() {
+        CompetitiveSeparationService service = new CompetitiveSeparationService(new SimpleMeterRegistry(),
+                RULES, RULES, 30, 1_000, System::nanoTime);
+        Instant now = Instant.parse("2024-01-15T10:30:00Z");
+
+        for (int i = 0; i < 50_000; i++) {
+            service.recordServed("listener-" + i, candidate(i % 7, i % 5), now);
+        }
+
+        assertTrue(service.trackedListeners() <= 1_000, service.trackedListeners() + " listeners tracked");
+    }
+
+    private static CandidateAd candidate(int brandId, int categoryId) {
+        CandidateAd candidate = TestDataBuilder.candidateAd().build();
+        candidate.setBrandId(brandId);
+        candidate.setAdvertiserCategoryId(categoryId);
+        return candidate;
+    }
+}
@@ -10,16 +10,22 @@ interface PipelineStepperProps {
 const FILTER_NAMES: Record<string, string> = {
   CampaignStatusFilter: 'Campaign Status',
   ScheduleWindowFilter: 'Schedule Window',
+  DaypartingFilter: 'Dayparting',
   GeoTargetingFilter: 'Geo Targeting',
   DeviceTargetingFilter: 'Device Targeting',
   TierTargetingFilter: 'Tier Targeting',
   CategoryMatchFilter: 'Category Match',
   ExcludedCategoryFilter: 'Excluded Category',
   SlotTypeFilter: 'Slot Type',
+  FloorPriceFilter: 'Floor Price',
   CreativeApprovalFilter: 'Creative Approval',
+  DurationFilter: 'Duration',
   BudgetRemainingFilter: 'Budget Remaining',
   PacingGateFilter: 'Pacing Gate',
   FrequencyCapFilter: 'Frequency Cap',
+  CompetitiveSeparationFilter: 'Competitive Separation',
+  ExternalBrandSafetyFilter: 'External Brand Safety',
+  CreativeRotation: 'Creative Rotation',
 };
 
 // Human-readable reason explanations
@@ -27,16 +33,23 @@ const REASON_EXPLANATIONS: Record<string, string> = {
   campaign_inactive: 'Campaign is not active',
   campaign_ended: 'Campaign has ended',
   outside_schedule_window: 'Outside scheduled time window',
+  outside_daypart: 'Campaign dark at listener local hour',
   geo_mismatch: 'Location does not match targeting',
   device_mismatch: 'Device type does not match targeting',
   tier_mismatch: 'Subscription tier does not match targeting',
   category_mismatch: 'Podcast category does not match targeting',
   excluded_category: 'Podcast category is excluded',
   slot_type_mismatch: 'Ad slot type not eligible',
+  below_floor_price: 'Bid below the floor price',
+  creative_rotated_out: 'Another creative of the campaign was picked',
+  filter_unavailable: 'Filter unavailable (timed out or circuit open)',
   creative_not_approved: 'Creative not approved',
   budget_exhausted: 'Campaign budget exhausted',
   pacing_limit_exceeded: 'Daily spending limit reached',
   frequency_cap_exceeded: 'Too many impressions to this listener',
+  competitive_separation: 'Listener just heard this brand or a competitor',
+  duration_too_long: 'Creative longer than the break',
+  duration_too_short: 'Creative shorter than the slot minimum',
 };
 
 function FilterBreakdown({ decision, filterStage }: { decision: AdDecision; filterStage: typeof decision.stages[0] }) {
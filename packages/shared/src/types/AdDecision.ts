@@ -22,6 +22,7 @@ export interface ServeInstruction {
     click: string;
   };
   pricePaid?: number; // in cents (second-price auction)
+  deliveryType?: 'guaranteed'; // set when a guaranteed line item took the slot at its contracted CPM
 }
 
 export interface AdDecision {
@@ -36,6 +37,7 @@ export interface AdDecision {
     serve: ServeInstruction;
   };
   noFillReason?: string; // If no winner
+  experiment?: { name: string; arm: string }; // set when the request was assigned to an experiment arm
 }
 
 
@@ -28,6 +28,9 @@ export interface AdRequest {
   slot: {
     type: SlotType;
     cuePoint?: number; // seconds into episode (for mid-roll)
+    podSlots?: number; // ads in the break (> 1 = pod)
+    podMaxDurationSeconds?: number; // total duration budget of the break
+    minAdDurationSeconds?: number;
   };
   listener: ListenerContext;
   timestamp: string; // ISO 8601
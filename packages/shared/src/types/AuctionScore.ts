@@ -4,7 +4,7 @@ export interface AuctionScore {
   bidCpm: number; // in cents
   matchScore: number; // 0.0 to 1.0
   pacingMultiplier: number; // 0.0 to 1.0 (lower when pacing is tight)
-  finalScore: number; // bidCpm * matchScore * pacingMultiplier
+  finalScore: number; // bidCpm * matchScore * pacingMultiplier (* predictedPerformance when a model is loaded)
   breakdown: {
     categoryMatch: number; // 0.0 to 1.0
     showMatch: number; // 0.0 to 1.0
@@ -18,6 +18,7 @@ export interface CandidateWithScore {
   creativeId: string;
   filterResults: Record<string, FilterResult>; // filterName -> FilterResult
   score: AuctionScore;
+  predictedPerformance?: number; // Model's completion/click probability, when a model is loaded
   passedAllFilters: boolean;
 }
 
@@ -38,6 +38,9 @@ export interface Campaign {
     maxImpressions: number;
     windowHours: number;
   };
+  guarantee?: {
+    dailyImpressions: number; // guaranteed line item: served from the allocation plan, not the auction
+  };
 }
 
 export interface CandidateAd {
@@ -2,6 +2,7 @@ export type FilterReasonCode =
   | 'campaign_inactive'
   | 'campaign_ended'
   | 'outside_schedule_window'
+  | 'outside_daypart'
   | 'geo_mismatch'
   | 'device_mismatch'
   | 'tier_mismatch'
@@ -11,11 +12,15 @@ export type FilterReasonCode =
   | 'duration_too_long'
   | 'duration_too_short'
   | 'frequency_cap_exceeded'
+  | 'competitive_separation'
   | 'budget_exhausted'
   | 'pacing_limit_exceeded'
   | 'brand_safety_violation'
   | 'creative_not_approved'
-  | 'slot_type_mismatch';
+  | 'slot_type_mismatch'
+  | 'below_floor_price'
+  | 'creative_rotated_out'
+  | 'filter_unavailable';
 
 export interface FilterResult {
   passed: boolean;